@@ -0,0 +1,196 @@
+package com.github.darthyk.cache;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of reusable heap and direct {@code ByteBuffer}s in power of two size classes.
+ * <p>
+ * NOTE: released buffers are kept by pool shared by all threads, which retains limited amount of bytes
+ * of heap buffers and the same amount of direct buffers. Besides that every thread caches a couple of small
+ * buffers per size class, so most acquisitions of record sized buffers need no synchronization.
+ * Buffers larger than the biggest size class are allocated and dropped as usual.
+ * Buffer must not be used after it has been released.
+ */
+public final class BufferPool {
+    private static final int MIN_SIZE_CLASS_SHIFT = 12;
+    private static final int MAX_SIZE_CLASS_SHIFT = 24;
+    private static final int SIZE_CLASSES = MAX_SIZE_CLASS_SHIFT - MIN_SIZE_CLASS_SHIFT + 1;
+    private static final int THREAD_CACHED_SIZE_CLASSES = 5;
+    private static final int THREAD_CACHED_BUFFERS = 2;
+    private static final long DEFAULT_MAX_RETAINED_BYTES = 32L << 20;
+    private static final BufferPool SHARED = new BufferPool();
+
+    private final ThreadLocal<ThreadBuffers> heapThreadBuffers = ThreadLocal.withInitial(ThreadBuffers::new);
+    private final ThreadLocal<ThreadBuffers> directThreadBuffers = ThreadLocal.withInitial(ThreadBuffers::new);
+    private final SharedBuffers heapBuffers;
+    private final SharedBuffers directBuffers;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private static final class ThreadBuffers {
+        final ByteBuffer[][] buffers = new ByteBuffer[THREAD_CACHED_SIZE_CLASSES][THREAD_CACHED_BUFFERS];
+        final int[] counts = new int[THREAD_CACHED_SIZE_CLASSES];
+    }
+
+    private static final class SharedBuffers {
+        final ConcurrentLinkedDeque<ByteBuffer>[] buffers = new ConcurrentLinkedDeque[SIZE_CLASSES];
+        final AtomicLong retainedBytes = new AtomicLong();
+        final long maxRetainedBytes;
+
+        SharedBuffers(long maxRetainedBytes) {
+            this.maxRetainedBytes = maxRetainedBytes;
+            for (int sizeClass = 0; sizeClass < SIZE_CLASSES; ++sizeClass) {
+                buffers[sizeClass] = new ConcurrentLinkedDeque<>();
+            }
+        }
+
+        ByteBuffer poll(int sizeClass) {
+            ByteBuffer buffer = buffers[sizeClass].pollFirst();
+            if (buffer != null) {
+                retainedBytes.addAndGet(-buffer.capacity());
+            }
+            return buffer;
+        }
+
+        void offer(int sizeClass, ByteBuffer buffer) {
+            if (retainedBytes.addAndGet(buffer.capacity()) > maxRetainedBytes) {
+                retainedBytes.addAndGet(-buffer.capacity());
+                return;
+            }
+            buffers[sizeClass].offerFirst(buffer);
+        }
+    }
+
+    /**
+     * Initializes pool which retains up to 32 MiB of heap buffers and 32 MiB of direct buffers
+     */
+    public BufferPool() {
+        this(DEFAULT_MAX_RETAINED_BYTES);
+    }
+
+    /**
+     * Initializes pool
+     *
+     * @param maxRetainedBytes Maximal amount of bytes of released heap buffers and of released direct buffers
+     *                         retained by pool shared by all threads
+     */
+    public BufferPool(long maxRetainedBytes) {
+        if (maxRetainedBytes < 0) {
+            throw new IllegalArgumentException("Amount of retained bytes mustn't be negative");
+        }
+        this.heapBuffers = new SharedBuffers(maxRetainedBytes);
+        this.directBuffers = new SharedBuffers(maxRetainedBytes);
+    }
+
+    /**
+     * Retrieves pool shared by all cache levels
+     *
+     * @return shared pool
+     */
+    public static BufferPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Acquires cleared heap buffer
+     *
+     * @param minCapacity Minimal capacity of buffer
+     * @return heap buffer with at least provided capacity
+     */
+    public ByteBuffer acquireHeap(int minCapacity) {
+        return acquire(minCapacity, false);
+    }
+
+    /**
+     * Acquires cleared direct buffer
+     *
+     * @param minCapacity Minimal capacity of buffer
+     * @return direct buffer with at least provided capacity
+     */
+    public ByteBuffer acquireDirect(int minCapacity) {
+        return acquire(minCapacity, true);
+    }
+
+    private ByteBuffer acquire(int minCapacity, boolean direct) {
+        int sizeClass = sizeClass(minCapacity);
+        if (sizeClass >= SIZE_CLASSES) {
+            misses.increment();
+            return direct ? ByteBuffer.allocateDirect(minCapacity) : ByteBuffer.allocate(minCapacity);
+        }
+        ByteBuffer buffer = null;
+        if (sizeClass < THREAD_CACHED_SIZE_CLASSES) {
+            ThreadBuffers threadBuffers = (direct ? directThreadBuffers : heapThreadBuffers).get();
+            int count = threadBuffers.counts[sizeClass];
+            if (count > 0) {
+                buffer = threadBuffers.buffers[sizeClass][--count];
+                threadBuffers.buffers[sizeClass][count] = null;
+                threadBuffers.counts[sizeClass] = count;
+            }
+        }
+        if (buffer == null) {
+            buffer = (direct ? directBuffers : heapBuffers).poll(sizeClass);
+        }
+        if (buffer != null) {
+            hits.increment();
+            buffer.clear();
+            return buffer;
+        }
+        misses.increment();
+        int capacity = 1 << (sizeClass + MIN_SIZE_CLASS_SHIFT);
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    /**
+     * Returns buffer to pool, buffers which don't match size classes or exceed retained bytes are dropped
+     *
+     * @param buffer Buffer acquired from this pool
+     */
+    public void release(ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+        if (Integer.bitCount(capacity) != 1 || buffer.isReadOnly()) {
+            return;
+        }
+        int sizeClass = sizeClass(capacity);
+        if (sizeClass >= SIZE_CLASSES || 1 << (sizeClass + MIN_SIZE_CLASS_SHIFT) != capacity) {
+            return;
+        }
+        if (sizeClass < THREAD_CACHED_SIZE_CLASSES) {
+            ThreadBuffers threadBuffers = (buffer.isDirect() ? directThreadBuffers : heapThreadBuffers).get();
+            int count = threadBuffers.counts[sizeClass];
+            if (count < THREAD_CACHED_BUFFERS) {
+                threadBuffers.buffers[sizeClass][count] = buffer;
+                threadBuffers.counts[sizeClass] = count + 1;
+                return;
+            }
+        }
+        (buffer.isDirect() ? directBuffers : heapBuffers).offer(sizeClass, buffer);
+    }
+
+    private static int sizeClass(int capacity) {
+        if (capacity <= 1 << MIN_SIZE_CLASS_SHIFT) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(capacity - 1) - MIN_SIZE_CLASS_SHIFT;
+    }
+
+    /**
+     * Retrieves amount of acquisitions served by pooled buffers
+     *
+     * @return amount of pool hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Retrieves amount of acquisitions which allocated new buffer
+     *
+     * @return amount of pool misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+}
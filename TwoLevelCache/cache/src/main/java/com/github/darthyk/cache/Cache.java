@@ -2,7 +2,10 @@ package com.github.darthyk.cache;
 
 import com.github.darthyk.cache.strategies.Strategy;
 
-public interface Cache<K, V> {
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+public interface Cache<K, V> extends AutoCloseable {
     void putToCache(K key, V value);
     V getObject(K key);
     void deleteObject(K key);
@@ -13,4 +16,86 @@ public interface Cache<K, V> {
     boolean hasEmptySpace();
     Strategy getStrategy();
     void freeSpace();
+
+    /**
+     * Releases threads and files held by cache, cache must not be used after closing
+     */
+    @Override
+    default void close() {}
+
+    /**
+     * Computes new value for provided key from its current value.
+     * Default implementation is not atomic, thread safe caches override it.
+     *
+     * @param key Key value
+     * @param remappingFunction Computes new value from key and current value, {@code null} current value
+     *                          means absent entry, {@code null} result removes entry
+     * @return new value, {@code null} if entry is absent after computation
+     */
+    default V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        V oldValue = getObject(key);
+        V newValue = remappingFunction.apply(key, oldValue);
+        if (newValue != null) {
+            putToCache(key, newValue);
+        } else if (oldValue != null) {
+            deleteObject(key);
+        }
+        return newValue;
+    }
+
+    /**
+     * Computes value for provided key if key is absent.
+     * Default implementation is not atomic, thread safe caches override it.
+     *
+     * @param key Key value
+     * @param mappingFunction Computes value from key, {@code null} result leaves key absent
+     * @return current value if key is present, computed value otherwise
+     */
+    default V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        V oldValue = getObject(key);
+        if (oldValue != null) {
+            return oldValue;
+        }
+        V newValue = mappingFunction.apply(key);
+        if (newValue != null) {
+            putToCache(key, newValue);
+        }
+        return newValue;
+    }
+
+    /**
+     * Computes new value for provided key if key is present.
+     * Default implementation is not atomic, thread safe caches override it.
+     *
+     * @param key Key value
+     * @param remappingFunction Computes new value from key and current value, {@code null} result removes entry
+     * @return new value, {@code null} if entry is absent after computation
+     */
+    default V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        V oldValue = getObject(key);
+        if (oldValue == null) {
+            return null;
+        }
+        V newValue = remappingFunction.apply(key, oldValue);
+        if (newValue != null) {
+            putToCache(key, newValue);
+        } else {
+            deleteObject(key);
+        }
+        return newValue;
+    }
+
+    /**
+     * Merges provided value with current value of provided key.
+     * Default implementation is not atomic, thread safe caches override it.
+     *
+     * @param key Key value
+     * @param value Value which is put if key is absent
+     * @param remappingFunction Merges current value with provided value, {@code null} result removes entry
+     * @return new value, {@code null} if entry is absent after merge
+     */
+    default V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        return compute(key, (currentKey, oldValue) ->
+                oldValue == null ? value : remappingFunction.apply(oldValue, value));
+    }
 }
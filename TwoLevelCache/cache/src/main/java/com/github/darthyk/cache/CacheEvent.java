@@ -0,0 +1,70 @@
+package com.github.darthyk.cache;
+
+/**
+ * Represents one change of cache entry
+ *
+ * @param <K> any key value
+ * @param <V> any value
+ */
+public final class CacheEvent<K, V> {
+    private final CacheEventType type;
+    private final K key;
+    private final V value;
+    private final long timestamp;
+
+    /**
+     * Initializes cache event
+     *
+     * @param type Event type
+     * @param key Key value
+     * @param value Object value
+     */
+    CacheEvent(CacheEventType type, K key, V value) {
+        this.type = type;
+        this.key = key;
+        this.value = value;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Retrieves event type
+     *
+     * @return event type
+     */
+    public CacheEventType getType() {
+        return this.type;
+    }
+
+    /**
+     * Retrieves key of changed entry
+     *
+     * @return key value
+     */
+    public K getKey() {
+        return this.key;
+    }
+
+    /**
+     * Retrieves value of changed entry: removed value for removals, new value for replacements
+     * and moved value for transfers between levels
+     *
+     * @return object value, {@code null} if value is unknown
+     */
+    public V getValue() {
+        return this.value;
+    }
+
+    /**
+     * Retrieves time of event
+     *
+     * @return time of event in milliseconds since epoch
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + key;
+    }
+}
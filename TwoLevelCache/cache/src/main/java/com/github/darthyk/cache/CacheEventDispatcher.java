@@ -0,0 +1,123 @@
+package com.github.darthyk.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers cache events to listeners from dedicated thread.
+ * <p>
+ * NOTE: publishing never blocks, events are dropped and counted when queue is full,
+ * so listeners never add latency to cache operations
+ *
+ * @param <K> any key value
+ * @param <V> any value
+ */
+@Slf4j
+class CacheEventDispatcher<K, V> {
+    private final BlockingQueue<CacheEvent<K, V>> queue;
+    private final List<CacheEventListener<K, V>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final int maxBatchSize;
+    private final Thread thread;
+
+    /**
+     * Initializes dispatcher and starts its thread
+     *
+     * @param queueCapacity Maximal amount of undelivered events
+     * @param maxBatchSize Maximal amount of events in one batch
+     */
+    CacheEventDispatcher(int queueCapacity, int maxBatchSize) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.thread = new Thread(this::dispatch, "cache-events");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Adds listener
+     *
+     * @param listener Listener of cache events
+     */
+    void addListener(CacheEventListener<K, V> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes listener
+     *
+     * @param listener Listener of cache events
+     */
+    void removeListener(CacheEventListener<K, V> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Checks whether dispatcher has listeners
+     *
+     * @return {@code true} if at least one listener is added, {@code false} otherwise
+     */
+    boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    /**
+     * Publishes event without blocking
+     *
+     * @param type Event type
+     * @param key Key value
+     * @param value Object value
+     */
+    void publish(CacheEventType type, K key, V value) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        if (!queue.offer(new CacheEvent<>(type, key, value))) {
+            droppedEvents.incrementAndGet();
+        }
+    }
+
+    /**
+     * Retrieves amount of events dropped because queue was full
+     *
+     * @return amount of dropped events
+     */
+    long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Stops dispatcher thread, undelivered events are discarded
+     */
+    void close() {
+        thread.interrupt();
+    }
+
+    private void dispatch() {
+        List<CacheEvent<K, V>> batch = new ArrayList<>(maxBatchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            List<CacheEvent<K, V>> events = Collections.unmodifiableList(batch);
+            for (CacheEventListener<K, V> listener : listeners) {
+                try {
+                    listener.onEvents(events);
+                } catch (RuntimeException e) {
+                    log.error("Cache event listener failed", e);
+                }
+            }
+            batch = new ArrayList<>(maxBatchSize);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.darthyk.cache;
+
+import java.util.List;
+
+/**
+ * Receives cache events.
+ * <p>
+ * NOTE: events are delivered asynchronously in batches by dispatcher thread in the order they happened
+ *
+ * @param <K> any key value
+ * @param <V> any value
+ */
+public interface CacheEventListener<K, V> {
+
+    /**
+     * Handles batch of cache events
+     *
+     * @param events Events ordered by their occurrence
+     */
+    void onEvents(List<CacheEvent<K, V>> events);
+}
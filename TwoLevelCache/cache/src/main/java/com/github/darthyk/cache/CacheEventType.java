@@ -0,0 +1,31 @@
+package com.github.darthyk.cache;
+
+/**
+ * Types of cache events
+ */
+public enum CacheEventType {
+    /**
+     * Entry left cache according to substitution strategy
+     */
+    EVICTED,
+    /**
+     * Entry left cache because it became stale
+     */
+    EXPIRED,
+    /**
+     * Entry was deleted or removed by caller
+     */
+    EXPLICIT,
+    /**
+     * Value of present entry was replaced
+     */
+    REPLACED,
+    /**
+     * Entry was moved from first level cache to second level cache
+     */
+    DEMOTED,
+    /**
+     * Entry was moved from second level cache to first level cache
+     */
+    PROMOTED
+}
@@ -0,0 +1,173 @@
+package com.github.darthyk.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Represents one level of multi level cache.
+ * Provides operations used for moving data between levels.
+ *
+ * @param <K> any key value
+ * @param <V> any value
+ */
+public interface CacheLevel<K, V> extends Cache<K, V> {
+    void transferDataFromAnotherCache(K key, V value, Long frequencyData);
+    Map<K, Long> getStrategyMap();
+    int getCapacity();
+    CacheUsage getUsage();
+
+    /**
+     * Retrieves object for provided key without updating its strategy data
+     *
+     * @param key Key value
+     * @return Value for provided key, {@code null} if key is absent
+     */
+    V peekObject(K key);
+
+    /**
+     * Retrieves handle of object for provided key, which deserializes object on first access.
+     * Increments frequency usage for provided object key.
+     *
+     * @param key Key value
+     * @return handle of value for provided key, {@code null} if key is absent
+     */
+    default LazyValue<V> getLazyObject(K key) {
+        return LazyValue.of(getObject(key));
+    }
+
+    /**
+     * Transfers entries from another cache in bulk.
+     * Capacity is not checked, caller is responsible for leaving enough space.
+     *
+     * @param values Entries to transfer
+     * @param strategyData Strategy data of transferred entries
+     */
+    default void transferAllFromAnotherCache(Map<K, V> values, Map<K, Long> strategyData) {
+        for (Map.Entry<K, V> entry : values.entrySet()) {
+            transferDataFromAnotherCache(entry.getKey(), entry.getValue(), strategyData.get(entry.getKey()));
+        }
+    }
+
+    /**
+     * Deletes objects for provided keys in one batch
+     *
+     * @param keys Key values
+     * @return amount of deleted objects
+     */
+    default int deleteObjects(Collection<K> keys) {
+        int deleted = 0;
+        for (K key : keys) {
+            if (containsKey(key)) {
+                deleteObject(key);
+                ++deleted;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Enables filter over keys of this level, so misses are answered without index or file access.
+     * Levels without key filter ignore this call.
+     *
+     * @param expectedInsertions Expected amount of keys in this level
+     * @param falsePositiveProbability Desired false positive probability
+     * @return {@code true} if key filter is enabled, {@code false} if this level doesn't support it
+     */
+    default boolean enableKeyFilter(int expectedInsertions, double falsePositiveProbability) {
+        return false;
+    }
+
+    /**
+     * Sets listener of entries which this level evicts by itself to free space.
+     * Levels which never evict by themselves ignore this call.
+     *
+     * @param listener Eviction listener, {@code null} removes listener
+     */
+    default void setEvictionListener(EvictionListener<K, V> listener) {}
+
+    /**
+     * Enables or disables deferring of storage writes, so owner of this level can write changes
+     * made under its own lock after releasing it. Levels which don't support deferring ignore this call.
+     *
+     * @param deferred {@code true} if changes are written only by {@link #writeDeferred()} and before reads
+     *                 of storage
+     */
+    default void setDeferredWrites(boolean deferred) {}
+
+    /**
+     * Writes deferred changes of this level to its storage
+     */
+    default void writeDeferred() {}
+
+    /**
+     * Listener of entries evicted by cache level
+     *
+     * @param <K> any key value
+     * @param <V> any value
+     */
+    interface EvictionListener<K, V> {
+
+        /**
+         * Notifies listener that provided key is evicted, listener is called before entry is deleted
+         *
+         * @param key Key of evicted entry
+         * @param value Reads value of evicted entry, so value is read only if listener needs it
+         */
+        void onEviction(K key, Supplier<V> value);
+    }
+
+    /**
+     * Records access of provided key by strategy of this level without reading its value.
+     * Absent keys are ignored.
+     *
+     * @param key Key value
+     */
+    default void recordAccess(K key) {
+        Long frequency = getStrategyData(key);
+        if (frequency != null) {
+            getStrategyMap().put(key, getStrategy().updateStrategyData(frequency));
+            getStrategy().onAccess(key);
+        }
+    }
+
+    /**
+     * Sets strategy data of provided key, absent keys are ignored
+     *
+     * @param key Key value
+     * @param data Strategy data
+     */
+    default void putStrategyData(K key, Long data) {
+        if (getStrategyData(key) != null) {
+            getStrategyMap().put(key, data);
+        }
+    }
+
+    /**
+     * Retrieves strategy data for provided key
+     *
+     * @param key Key value
+     * @return strategy data for provided key, {@code null} if key is absent
+     */
+    default Long getStrategyData(K key) {
+        return getStrategyMap().get(key);
+    }
+
+    /**
+     * Retrieves key which should leave this level according to substitution strategy
+     *
+     * @return key for substitution
+     */
+    default K getKeyForSubstitution() {
+        return (K)getStrategy().getKeyForSubstitution();
+    }
+
+    /**
+     * Retrieves key which is the best candidate for moving to upper level according to substitution strategy
+     *
+     * @return key for promotion
+     */
+    default K getCandidateForPromotion() {
+        return (K)getStrategy().getCandidateForMemoryCache();
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.darthyk.cache;
+
+/**
+ * Loads values for cache keys from backing storage
+ *
+ * @param <K> any key value
+ * @param <V> any value
+ */
+public interface CacheLoader<K, V> {
+
+    /**
+     * Loads value for provided key
+     *
+     * @param key Key value
+     * @return loaded value, {@code null} if value is absent in backing storage
+     * @throws Exception if value can't be loaded
+     */
+    V load(K key) throws Exception;
+}
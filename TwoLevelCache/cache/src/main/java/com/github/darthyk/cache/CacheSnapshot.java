@@ -0,0 +1,255 @@
+package com.github.darthyk.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+
+/**
+ * Writes and reads cache snapshots.
+ * <p>
+ * Snapshot layout: magic (4 bytes), format version (2 bytes), strategy class name, strategy reference value
+ * (8 bytes) and chunks. Every chunk consists of entry count (4 bytes), payload length (4 bytes), CRC32
+ * of payload (4 bytes) and payload with entries. Every entry consists of level index (1 byte),
+ * strategy data relative to reference value (8 bytes), lengths and serialized forms of key and value.
+ * Chunk with zero entries terminates snapshot. Chunks hold at most {@value #CHUNK_ENTRIES} entries
+ * and {@value #MAX_CHUNK_BYTES} bytes of payload, so corrupted chunk header can't exhaust memory of reader.
+ * <p>
+ * NOTE: strategy data is stored relative to {@code fillStrategyData()} of exporting strategy, so recency
+ * based data stays ordered and in the past after import into another process
+ */
+@Slf4j
+final class CacheSnapshot {
+    static final int MAGIC = 0x544C4353;
+    static final short FORMAT_VERSION = 1;
+    private static final int CHUNK_ENTRIES = 1024;
+    private static final int CHUNK_BYTES = 1 << 20;
+    static final int MAX_CHUNK_BYTES = 1 << 26;
+
+    private CacheSnapshot() {}
+
+    /**
+     * Entry of snapshot
+     */
+    static final class Entry {
+        final int level;
+        final long strategyData;
+        final Object key;
+        final Object value;
+
+        Entry(int level, long strategyData, Object key, Object value) {
+            this.level = level;
+            this.strategyData = strategyData;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Writes snapshot of cache entries
+     */
+    static final class Writer implements Closeable {
+        private final DataOutputStream output;
+        private final long reference;
+        private final ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+        private final DataOutputStream chunkOutput = new DataOutputStream(chunk);
+        private int chunkEntries;
+
+        /**
+         * Writes snapshot header
+         *
+         * @param output Target stream, it is not closed by writer
+         * @param strategyClass Strategy class of exported cache
+         * @param reference Current {@code fillStrategyData()} of exported cache strategy
+         * @throws IOException if header can't be written
+         */
+        Writer(OutputStream output, String strategyClass, long reference) throws IOException {
+            this.output = new DataOutputStream(new BufferedOutputStream(output, CHUNK_BYTES));
+            this.reference = reference;
+            this.output.writeInt(MAGIC);
+            this.output.writeShort(FORMAT_VERSION);
+            this.output.writeUTF(strategyClass);
+            this.output.writeLong(reference);
+        }
+
+        /**
+         * Appends entry to snapshot
+         *
+         * @param level Index of level which holds entry
+         * @param strategyData Strategy data of entry
+         * @param key Key value
+         * @param value Object value
+         * @throws IOException if entry can't be written
+         */
+        void write(int level, long strategyData, Object key, Object value) throws IOException {
+            byte[] keyBytes = RecordCodec.serialize(key);
+            byte[] valueBytes = RecordCodec.serialize(value);
+            long entryBytes = 17L + keyBytes.length + valueBytes.length;
+            if (entryBytes > MAX_CHUNK_BYTES) {
+                throw new IOException("Entry with key " + key + " exceeds maximal chunk size");
+            }
+            if (chunk.size() + entryBytes > MAX_CHUNK_BYTES) {
+                flushChunk();
+            }
+            chunkOutput.writeByte(level);
+            chunkOutput.writeLong(strategyData - reference);
+            chunkOutput.writeInt(keyBytes.length);
+            chunkOutput.write(keyBytes);
+            chunkOutput.writeInt(valueBytes.length);
+            chunkOutput.write(valueBytes);
+            if (++chunkEntries >= CHUNK_ENTRIES || chunk.size() >= CHUNK_BYTES) {
+                flushChunk();
+            }
+        }
+
+        private void flushChunk() throws IOException {
+            if (chunkEntries == 0) {
+                return;
+            }
+            chunkOutput.flush();
+            byte[] payload = chunk.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(payload, 0, payload.length);
+            output.writeInt(chunkEntries);
+            output.writeInt(payload.length);
+            output.writeInt((int)crc.getValue());
+            output.write(payload);
+            chunk.reset();
+            chunkEntries = 0;
+        }
+
+        /**
+         * Writes remaining entries and terminating chunk, target stream stays open
+         *
+         * @throws IOException if snapshot can't be written
+         */
+        @Override
+        public void close() throws IOException {
+            flushChunk();
+            output.writeInt(0);
+            output.flush();
+        }
+    }
+
+    /**
+     * Receives entries read from snapshot
+     */
+    interface EntryConsumer {
+        /**
+         * Receives entries of one chunk
+         *
+         * @param entries Entries of chunk in snapshot order
+         * @return {@code true} if further entries are needed, {@code false} to stop reading
+         */
+        boolean accept(List<Entry> entries);
+    }
+
+    /**
+     * Reads snapshot, chunks are verified and deserialized in parallel and handed over to consumer
+     * in snapshot order from calling thread. Reading stops as soon as consumer doesn't need further entries.
+     *
+     * @param input Source stream, it is not closed by reader
+     * @param threads Amount of deserializing threads
+     * @param strategyClass Strategy class of importing cache
+     * @param reference Current {@code fillStrategyData()} of importing cache strategy
+     * @param consumer Consumer of entries
+     * @return amount of entries handed over to consumer
+     * @throws IOException if snapshot is corrupted or can't be read
+     */
+    static long read(InputStream input, int threads, String strategyClass, long reference, EntryConsumer consumer)
+            throws IOException {
+        DataInputStream dataInput = new DataInputStream(new BufferedInputStream(input, CHUNK_BYTES));
+        if (dataInput.readInt() != MAGIC) {
+            throw new IOException("Stream is not a cache snapshot");
+        }
+        short version = dataInput.readShort();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format version " + version);
+        }
+        boolean sameStrategy = strategyClass.equals(dataInput.readUTF());
+        dataInput.readLong();
+        if (!sameStrategy) {
+            log.warn("Snapshot was exported with another strategy, strategy data is reset");
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "cache-snapshot-reader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Deque<Future<List<Entry>>> pending = new ArrayDeque<>();
+        long entries = 0;
+        boolean reading = true;
+        try {
+            while (reading) {
+                int chunkEntries = dataInput.readInt();
+                if (chunkEntries == 0) {
+                    break;
+                }
+                int payloadLength = dataInput.readInt();
+                int checksum = dataInput.readInt();
+                if (chunkEntries < 0 || chunkEntries > CHUNK_ENTRIES || payloadLength < 0
+                        || payloadLength > MAX_CHUNK_BYTES) {
+                    throw new IOException("Corrupted snapshot chunk header");
+                }
+                byte[] payload = new byte[payloadLength];
+                dataInput.readFully(payload);
+                pending.add(executor.submit(() -> decodeChunk(payload, chunkEntries, checksum, sameStrategy,
+                        reference)));
+                if (pending.size() > threads * 2) {
+                    List<Entry> chunk = await(pending.poll());
+                    entries += chunk.size();
+                    reading = consumer.accept(chunk);
+                }
+            }
+            while (reading && !pending.isEmpty()) {
+                List<Entry> chunk = await(pending.poll());
+                entries += chunk.size();
+                reading = consumer.accept(chunk);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return entries;
+    }
+
+    private static List<Entry> await(Future<List<Entry>> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Snapshot reading is interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException)e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static List<Entry> decodeChunk(byte[] payload, int chunkEntries, int checksum, boolean sameStrategy,
+                                           long reference) throws IOException, ClassNotFoundException {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        if ((int)crc.getValue() != checksum) {
+            throw new IOException("Corrupted snapshot chunk");
+        }
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+        List<Entry> entries = new ArrayList<>(chunkEntries);
+        for (int i = 0; i < chunkEntries; ++i) {
+            int level = input.readUnsignedByte();
+            long strategyData = input.readLong();
+            byte[] key = new byte[input.readInt()];
+            input.readFully(key);
+            byte[] value = new byte[input.readInt()];
+            input.readFully(value);
+            entries.add(new Entry(level, sameStrategy ? reference + strategyData : reference,
+                    RecordCodec.deserialize(key), RecordCodec.deserialize(value)));
+        }
+        return entries;
+    }
+}
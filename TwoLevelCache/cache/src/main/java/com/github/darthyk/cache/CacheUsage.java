@@ -0,0 +1,122 @@
+package com.github.darthyk.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Continuously maintained occupancy counters of one cache level.
+ * Counters are updated on every change of level, so reading them takes constant time.
+ */
+public class CacheUsage {
+    /**
+     * Estimated heap overhead of one {@code HashMap} entry: node object and table slot
+     */
+    static final long HASH_MAP_ENTRY_OVERHEAD = 40;
+    /**
+     * Estimated heap overhead of one {@code TreeMap<K, Long>} entry: tree node and boxed {@code Long}
+     */
+    static final long TREE_MAP_ENTRY_OVERHEAD = 64;
+    private final AtomicLong entries = new AtomicLong();
+    private final AtomicLong heapBytes = new AtomicLong();
+    private final AtomicLong diskBytes = new AtomicLong();
+
+    /**
+     * Registers added entry
+     *
+     * @param entryHeapBytes Estimated heap bytes of entry
+     */
+    void entryAdded(long entryHeapBytes) {
+        entries.incrementAndGet();
+        heapBytes.addAndGet(entryHeapBytes);
+    }
+
+    /**
+     * Registers removed entry
+     *
+     * @param entryHeapBytes Estimated heap bytes of entry
+     */
+    void entryRemoved(long entryHeapBytes) {
+        entries.decrementAndGet();
+        heapBytes.addAndGet(-entryHeapBytes);
+    }
+
+    /**
+     * Registers change of heap bytes of present entry
+     *
+     * @param delta Change of estimated heap bytes
+     */
+    void heapBytesChanged(long delta) {
+        heapBytes.addAndGet(delta);
+    }
+
+    /**
+     * Registers change of on-disk bytes
+     *
+     * @param delta Change of on-disk bytes
+     */
+    void diskBytesChanged(long delta) {
+        diskBytes.addAndGet(delta);
+    }
+
+    /**
+     * Sets on-disk bytes after level rewrote its storage
+     *
+     * @param bytes On-disk bytes
+     */
+    void setDiskBytes(long bytes) {
+        diskBytes.set(bytes);
+    }
+
+    /**
+     * Adds provided amounts to counters
+     *
+     * @param entries Amount of entries
+     * @param heapBytes Estimated heap bytes
+     * @param diskBytes On-disk bytes
+     */
+    void add(long entries, long heapBytes, long diskBytes) {
+        this.entries.addAndGet(entries);
+        this.heapBytes.addAndGet(heapBytes);
+        this.diskBytes.addAndGet(diskBytes);
+    }
+
+    /**
+     * Resets all counters
+     */
+    void reset() {
+        entries.set(0);
+        heapBytes.set(0);
+        diskBytes.set(0);
+    }
+
+    /**
+     * Retrieves amount of entries
+     *
+     * @return amount of entries
+     */
+    public long getEntries() {
+        return entries.get();
+    }
+
+    /**
+     * Retrieves estimated heap bytes of keys, values and index structures
+     *
+     * @return estimated heap bytes
+     */
+    public long getHeapBytes() {
+        return heapBytes.get();
+    }
+
+    /**
+     * Retrieves bytes stored on disk
+     *
+     * @return on-disk bytes
+     */
+    public long getDiskBytes() {
+        return diskBytes.get();
+    }
+
+    @Override
+    public String toString() {
+        return "entries: " + getEntries() + ", heap bytes: " + getHeapBytes() + ", disk bytes: " + getDiskBytes();
+    }
+}
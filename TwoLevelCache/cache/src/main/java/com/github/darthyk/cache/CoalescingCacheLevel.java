@@ -0,0 +1,584 @@
+package com.github.darthyk.cache;
+
+import com.github.darthyk.cache.strategies.Strategy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Cache level decorator which coalesces repeated writes of present keys.
+ * <p>
+ * NOTE: new key is written to decorated level immediately, so its index, strategy data and capacity stay exact.
+ * Further values of present key are kept in write buffer and only the last of them is written to decorated level,
+ * when it has been buffered longer than coalescing window or buffer is full. Buffered values are written
+ * in bulk by the next operation of this level after window expires or by {@link #flush()}.
+ * Reads see buffered value, deletion of key drops its buffered value, also when decorated level evicts the key
+ * by itself. Only values of keys present in decorated level are written, so flush never exceeds its capacity.
+ *
+ * @param <K> any key value
+ * @param <V> any value
+ */
+@Slf4j
+public class CoalescingCacheLevel<K extends Serializable, V extends Serializable> implements CacheLevel<K, V> {
+    private final CacheLevel<K, V> delegate;
+    private final long windowNanos;
+    private final int maxPendingWrites;
+    private final LinkedHashMap<K, PendingWrite<V>> pendingWrites = new LinkedHashMap<>();
+    private final ReentrantLock bufferLock = new ReentrantLock();
+    private EvictionListener<K, V> evictionListener;
+    private long savedWrites;
+    private long flushedWrites;
+
+    /**
+     * Initializes write coalescing over provided level
+     *
+     * @param delegate Decorated cache level
+     * @param window Time during which writes of the same key are coalesced
+     * @param unit Time unit of coalescing window
+     * @param maxPendingWrites Maximal amount of buffered values, buffer is flushed when it is full
+     */
+    CoalescingCacheLevel(CacheLevel<K, V> delegate, long window, TimeUnit unit, int maxPendingWrites) {
+        if (maxPendingWrites <= 0) {
+            throw new IllegalArgumentException("Maximal amount of pending writes must be positive");
+        }
+        this.delegate = delegate;
+        this.windowNanos = unit.toNanos(window);
+        this.maxPendingWrites = maxPendingWrites;
+        delegate.setEvictionListener(this::onDelegateEviction);
+    }
+
+    private static final class PendingWrite<V> {
+        final long bufferedAt;
+        V value;
+
+        PendingWrite(V value, long bufferedAt) {
+            this.value = value;
+            this.bufferedAt = bufferedAt;
+        }
+    }
+
+    /**
+     * Caches provided object value with provided key, value of present key is buffered
+     *
+     * @param key Key value
+     * @param value Object value
+     */
+    @Override
+    public void putToCache(K key, V value) {
+        bufferLock.lock();
+        try {
+            flushExpired();
+            if (delegate.containsKey(key)) {
+                delegate.putStrategyData(key, delegate.getStrategy().fillStrategyData());
+                bufferWrite(key, value);
+            } else {
+                delegate.putToCache(key, value);
+            }
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Transfers data from another cache, value of present key is buffered
+     *
+     * @param key Key value
+     * @param value Object value
+     * @param frequencyData {@code Long} value from previous cache
+     */
+    @Override
+    public void transferDataFromAnotherCache(K key, V value, Long frequencyData) {
+        bufferLock.lock();
+        try {
+            flushExpired();
+            if (delegate.containsKey(key)) {
+                delegate.putStrategyData(key, frequencyData);
+                bufferWrite(key, value);
+            } else {
+                delegate.transferDataFromAnotherCache(key, value, frequencyData);
+            }
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Transfers entries from another cache in bulk, values of present keys are buffered
+     *
+     * @param values Entries to transfer
+     * @param strategyData Strategy data of transferred entries
+     */
+    @Override
+    public void transferAllFromAnotherCache(Map<K, V> values, Map<K, Long> strategyData) {
+        bufferLock.lock();
+        try {
+            flushExpired();
+            Map<K, V> newValues = new HashMap<>();
+            for (Map.Entry<K, V> entry : values.entrySet()) {
+                if (delegate.containsKey(entry.getKey())) {
+                    delegate.putStrategyData(entry.getKey(), strategyData.get(entry.getKey()));
+                    bufferWrite(entry.getKey(), entry.getValue());
+                } else {
+                    newValues.put(entry.getKey(), entry.getValue());
+                }
+            }
+            if (!newValues.isEmpty()) {
+                delegate.transferAllFromAnotherCache(newValues, strategyData);
+            }
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    private void bufferWrite(K key, V value) {
+        PendingWrite<V> pendingWrite = pendingWrites.get(key);
+        if (pendingWrite != null) {
+            pendingWrite.value = value;
+            ++savedWrites;
+            return;
+        }
+        pendingWrites.put(key, new PendingWrite<>(value, System.nanoTime()));
+        if (pendingWrites.size() >= maxPendingWrites) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes buffered values which have been buffered longer than coalescing window
+     */
+    private void flushExpired() {
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - pendingWrites.values().iterator().next().bufferedAt < windowNanos) {
+            return;
+        }
+        Map<K, V> values = new HashMap<>();
+        Iterator<Map.Entry<K, PendingWrite<V>>> iterator = pendingWrites.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, PendingWrite<V>> entry = iterator.next();
+            if (now - entry.getValue().bufferedAt < windowNanos) {
+                break;
+            }
+            values.put(entry.getKey(), entry.getValue().value);
+            iterator.remove();
+        }
+        writeBuffered(values);
+    }
+
+    /**
+     * Writes all buffered values to decorated level
+     */
+    public void flush() {
+        bufferLock.lock();
+        try {
+            Map<K, V> values = new HashMap<>();
+            for (Map.Entry<K, PendingWrite<V>> entry : pendingWrites.entrySet()) {
+                values.put(entry.getKey(), entry.getValue().value);
+            }
+            pendingWrites.clear();
+            writeBuffered(values);
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    private void writeBuffered(Map<K, V> values) {
+        values.keySet().removeIf(key -> !delegate.containsKey(key));
+        if (values.isEmpty()) {
+            return;
+        }
+        Map<K, Long> strategyData = new HashMap<>();
+        for (K key : values.keySet()) {
+            strategyData.put(key, delegate.getStrategyData(key));
+        }
+        log.debug("Write {} coalesced values", values.size());
+        delegate.transferAllFromAnotherCache(values, strategyData);
+        flushedWrites += values.size();
+    }
+
+    /**
+     * Frees space in cache according to substitution strategy of decorated level
+     */
+    @Override
+    public void freeSpace() {
+        bufferLock.lock();
+        try {
+            K objectToDelete = getKeyForSubstitution();
+            if (objectToDelete != null) {
+                if (evictionListener != null) {
+                    evictionListener.onEviction(objectToDelete, () -> peekObject(objectToDelete));
+                }
+                deleteObject(objectToDelete);
+            }
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves object for provided key, buffered value is returned without access to decorated level.
+     * Increments frequency usage for provided object key.
+     *
+     * @param key Key object
+     * @return Value for provided key from cache, {@code null} if key object is absent
+     */
+    @Override
+    public V getObject(K key) {
+        bufferLock.lock();
+        try {
+            flushExpired();
+            PendingWrite<V> pendingWrite = pendingWrites.get(key);
+            if (pendingWrite == null) {
+                return delegate.getObject(key);
+            }
+            delegate.recordAccess(key);
+            return pendingWrite.value;
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves handle of object for provided key, handle of buffered value is decoded already.
+     * Increments frequency usage for provided object key.
+     *
+     * @param key Key object
+     * @return handle of value for provided key, {@code null} if key object is absent
+     */
+    @Override
+    public LazyValue<V> getLazyObject(K key) {
+        bufferLock.lock();
+        try {
+            flushExpired();
+            PendingWrite<V> pendingWrite = pendingWrites.get(key);
+            if (pendingWrite == null) {
+                return delegate.getLazyObject(key);
+            }
+            delegate.recordAccess(key);
+            return LazyValue.of(pendingWrite.value);
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Records access of provided key by strategy of decorated level
+     *
+     * @param key Key value
+     */
+    @Override
+    public void recordAccess(K key) {
+        bufferLock.lock();
+        try {
+            delegate.recordAccess(key);
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Sets strategy data of provided key in decorated level
+     *
+     * @param key Key value
+     * @param data Strategy data
+     */
+    @Override
+    public void putStrategyData(K key, Long data) {
+        bufferLock.lock();
+        try {
+            delegate.putStrategyData(key, data);
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves object for provided key without updating its strategy data
+     *
+     * @param key Key value
+     * @return Value for provided key, {@code null} if key is absent
+     */
+    @Override
+    public V peekObject(K key) {
+        bufferLock.lock();
+        try {
+            PendingWrite<V> pendingWrite = pendingWrites.get(key);
+            return pendingWrite == null ? delegate.peekObject(key) : pendingWrite.value;
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes object for provided key, its buffered value is dropped
+     *
+     * @param key Key value
+     */
+    @Override
+    public void deleteObject(K key) {
+        bufferLock.lock();
+        try {
+            pendingWrites.remove(key);
+            delegate.deleteObject(key);
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes objects for provided keys in one batch of decorated level, their buffered values are dropped
+     *
+     * @param keys Key values
+     * @return amount of deleted objects
+     */
+    @Override
+    public int deleteObjects(Collection<K> keys) {
+        bufferLock.lock();
+        try {
+            for (K key : keys) {
+                pendingWrites.remove(key);
+            }
+            return delegate.deleteObjects(keys);
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Removes object for provided key, its buffered value is dropped
+     *
+     * @param key Key value
+     * @return Object value for provided key, {@code null} if key is absent
+     */
+    @Override
+    public V removeObject(K key) {
+        bufferLock.lock();
+        try {
+            PendingWrite<V> pendingWrite = pendingWrites.remove(key);
+            if (pendingWrite == null) {
+                return delegate.removeObject(key);
+            }
+            delegate.deleteObject(key);
+            return pendingWrite.value;
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Clears cache from all values, buffered values are dropped
+     */
+    @Override
+    public void clearCache() {
+        bufferLock.lock();
+        try {
+            pendingWrites.clear();
+            delegate.clearCache();
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether cache contains provided key
+     *
+     * @param key Key values
+     * @return {@code true} if key is present in cache, {@code false} otherwise
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return delegate.containsKey(key);
+    }
+
+    /**
+     * Retrieves size of decorated level, buffered values belong to present keys
+     *
+     * @return Cache size
+     */
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    /**
+     * Checks whether cache has empty space
+     *
+     * @return {@code true} if cache has empty space, {@code false} otherwise
+     */
+    @Override
+    public boolean hasEmptySpace() {
+        return delegate.hasEmptySpace();
+    }
+
+    /**
+     * Retrieves {@code Strategy} instance of decorated level
+     *
+     * @return {@code Strategy} instance of decorated level
+     */
+    @Override
+    public Strategy getStrategy() {
+        return delegate.getStrategy();
+    }
+
+    /**
+     * Retrieves strategy {@code Map} of decorated level
+     *
+     * @return strategy {@code Map} of decorated level
+     */
+    @Override
+    public Map<K, Long> getStrategyMap() {
+        return delegate.getStrategyMap();
+    }
+
+    /**
+     * Retrieves strategy data for provided key from decorated level
+     *
+     * @param key Key value
+     * @return strategy data for provided key, {@code null} if key is absent
+     */
+    @Override
+    public Long getStrategyData(K key) {
+        return delegate.getStrategyData(key);
+    }
+
+    /**
+     * Retrieves key for substitution chosen by decorated level
+     *
+     * @return key for substitution
+     */
+    @Override
+    public K getKeyForSubstitution() {
+        return delegate.getKeyForSubstitution();
+    }
+
+    /**
+     * Retrieves key for promotion chosen by decorated level
+     *
+     * @return key for promotion
+     */
+    @Override
+    public K getCandidateForPromotion() {
+        return delegate.getCandidateForPromotion();
+    }
+
+    /**
+     * Retrieves capacity of decorated level
+     *
+     * @return capacity of decorated level
+     */
+    @Override
+    public int getCapacity() {
+        return delegate.getCapacity();
+    }
+
+    /**
+     * Retrieves usage counters of decorated level, buffered values are not included
+     *
+     * @return usage counters of decorated level
+     */
+    @Override
+    public CacheUsage getUsage() {
+        return delegate.getUsage();
+    }
+
+    /**
+     * Retrieves amount of writes which were absorbed by newer value of the same key and never reached disk
+     *
+     * @return amount of saved writes
+     */
+    public long getSavedWriteCount() {
+        bufferLock.lock();
+        try {
+            return savedWrites;
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves amount of buffered values written to decorated level
+     *
+     * @return amount of flushed writes
+     */
+    public long getFlushedWriteCount() {
+        bufferLock.lock();
+        try {
+            return flushedWrites;
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves amount of values waiting in write buffer
+     *
+     * @return amount of buffered values
+     */
+    public int getPendingWriteCount() {
+        bufferLock.lock();
+        try {
+            return pendingWrites.size();
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Sets listener of entries evicted by this level or by decorated level to free space,
+     * listener reads buffered value of evicted key
+     *
+     * @param listener Eviction listener, {@code null} removes listener
+     */
+    @Override
+    public void setEvictionListener(EvictionListener<K, V> listener) {
+        bufferLock.lock();
+        try {
+            this.evictionListener = listener;
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Drops buffered value of key evicted by decorated level, so flush doesn't write it back
+     *
+     * @param key Key of victim
+     * @param value Reads value of victim from decorated level
+     */
+    private void onDelegateEviction(K key, Supplier<V> value) {
+        bufferLock.lock();
+        try {
+            if (evictionListener != null) {
+                evictionListener.onEviction(key, () -> peekObject(key));
+            }
+            pendingWrites.remove(key);
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Enables or disables deferring of storage writes of decorated level
+     *
+     * @param deferred {@code true} if changes are written only by {@link #writeDeferred()} and before reads
+     *                 of storage
+     */
+    @Override
+    public void setDeferredWrites(boolean deferred) {
+        delegate.setDeferredWrites(deferred);
+    }
+
+    /**
+     * Writes deferred changes of decorated level, buffered values stay buffered
+     */
+    @Override
+    public void writeDeferred() {
+        delegate.writeDeferred();
+    }
+}
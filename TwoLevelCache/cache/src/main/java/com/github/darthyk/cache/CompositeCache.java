@@ -0,0 +1,286 @@
+package com.github.darthyk.cache;
+
+import com.github.darthyk.cache.strategies.Strategy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class represents work with multi level cache built from any amount of {@code CacheLevel} tiers.
+ * <p>
+ * Level with index 0 is the fastest one. New entries are put to the fastest level,
+ * victims of each level are demoted to the next one, entries accessed on lower levels are promoted
+ * to upper ones according to {@code TransferPolicy} of the boundary between them.
+ *
+ * @param <K> any key value
+ * @param <V> any value
+ */
+@Slf4j
+public class CompositeCache<K, V> implements Cache<K, V> {
+    private final List<CacheLevel<K, V>> levels;
+    private final List<TransferPolicy<K, V>> boundaries;
+
+    /**
+     * Initializes {@code CompositeCache} with default {@code ThresholdTransferPolicy} on each boundary
+     *
+     * @param levels Cache levels ordered from the fastest to the slowest one
+     */
+    public CompositeCache(List<CacheLevel<K, V>> levels) {
+        this(levels, defaultBoundaries(levels.size()));
+    }
+
+    /**
+     * Initializes {@code CompositeCache}
+     *
+     * @param levels Cache levels ordered from the fastest to the slowest one
+     * @param boundaries Transfer policies, policy with index i describes boundary between levels i and i + 1
+     */
+    public CompositeCache(List<CacheLevel<K, V>> levels, List<TransferPolicy<K, V>> boundaries) {
+        if (levels.isEmpty()) {
+            throw new IllegalArgumentException("At least one cache level is required");
+        }
+        if (boundaries.size() != levels.size() - 1) {
+            throw new IllegalArgumentException("Expected " + (levels.size() - 1) + " transfer policies, but got "
+                    + boundaries.size());
+        }
+        this.levels = new ArrayList<>(levels);
+        this.boundaries = new ArrayList<>(boundaries);
+    }
+
+    private static <K, V> List<TransferPolicy<K, V>> defaultBoundaries(int levelCount) {
+        List<TransferPolicy<K, V>> boundaries = new ArrayList<>();
+        for (int i = 1; i < levelCount; ++i) {
+            boundaries.add(new ThresholdTransferPolicy<>());
+        }
+        return boundaries;
+    }
+
+    /**
+     * Caches provided object value with provided key.
+     * Existing entry is replaced on its current level, new entry is put to the fastest level.
+     *
+     * @param key Key value
+     * @param value Object value
+     */
+    @Override
+    public void putToCache(K key, V value) {
+        int levelIndex = findLevel(key);
+        if (levelIndex >= 0) {
+            CacheLevel<K, V> level = levels.get(levelIndex);
+            level.transferDataFromAnotherCache(key, value, level.getStrategyData(key));
+            log.debug("Replace object with key {} on level {}", key, levelIndex);
+        } else {
+            makeRoom(0);
+            levels.get(0).putToCache(key, value);
+            log.debug("Put object with key {} to level 0", key);
+        }
+    }
+
+    /**
+     * Frees space on the fastest level, victims are demoted level by level
+     */
+    @Override
+    public void freeSpace() {
+        if (levels.get(0).size() > 0) {
+            evict(0);
+        }
+    }
+
+    /**
+     * Frees one slot on provided level if it is full
+     *
+     * @param levelIndex Level index
+     */
+    private void makeRoom(int levelIndex) {
+        CacheLevel<K, V> level = levels.get(levelIndex);
+        if (!level.hasEmptySpace() && level.size() > 0) {
+            evict(levelIndex);
+        }
+    }
+
+    /**
+     * Moves victim of provided level to the next level or discards it
+     *
+     * @param levelIndex Level index
+     */
+    private void evict(int levelIndex) {
+        CacheLevel<K, V> level = levels.get(levelIndex);
+        K victim = level.getKeyForSubstitution();
+        Long strategyData = level.getStrategyData(victim);
+        V value = level.removeObject(victim);
+        if (levelIndex + 1 < levels.size()
+                && boundaries.get(levelIndex).shouldDemote(victim, value, strategyData)) {
+            makeRoom(levelIndex + 1);
+            CacheLevel<K, V> lowerLevel = levels.get(levelIndex + 1);
+            lowerLevel.transferDataFromAnotherCache(victim, value, convertStrategyData(level, lowerLevel, strategyData));
+            log.debug("Demote object with key {} from level {} to level {}", victim, levelIndex, levelIndex + 1);
+        } else {
+            log.debug("Evict object with key {} from level {}", victim, levelIndex);
+        }
+    }
+
+    /**
+     * Converts strategy data of entry moved between levels.
+     * Data is kept if both levels use the same strategy and is initialized from scratch otherwise.
+     *
+     * @param source Level entry is moved from
+     * @param target Level entry is moved to
+     * @param strategyData Strategy data on source level
+     * @return strategy data on target level
+     */
+    private Long convertStrategyData(CacheLevel<K, V> source, CacheLevel<K, V> target, Long strategyData) {
+        if (source.getStrategy().getClass() == target.getStrategy().getClass()) {
+            return strategyData;
+        }
+        return target.getStrategy().fillStrategyData();
+    }
+
+    /**
+     * Retrieves object for provided key from cache.
+     * Promotes object to upper level if boundary transfer policy allows it.
+     *
+     * @param key Key object
+     * @return Value for provided key from cache, {@code null} if key object is absent
+     */
+    @Override
+    public V getObject(K key) {
+        int levelIndex = findLevel(key);
+        if (levelIndex < 0) {
+            return null;
+        }
+        CacheLevel<K, V> level = levels.get(levelIndex);
+        V value = level.getObject(key);
+        if (levelIndex > 0) {
+            Long strategyData = level.getStrategyData(key);
+            if (boundaries.get(levelIndex - 1).shouldPromote(key, strategyData)) {
+                level.deleteObject(key);
+                makeRoom(levelIndex - 1);
+                CacheLevel<K, V> upperLevel = levels.get(levelIndex - 1);
+                upperLevel.transferDataFromAnotherCache(key, value, convertStrategyData(level, upperLevel, strategyData));
+                log.debug("Promote object with key {} from level {} to level {}", key, levelIndex, levelIndex - 1);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Deletes object from cache for provided key
+     *
+     * @param key Key value
+     */
+    @Override
+    public void deleteObject(K key) {
+        int levelIndex = findLevel(key);
+        if (levelIndex >= 0) {
+            levels.get(levelIndex).deleteObject(key);
+        }
+    }
+
+    /**
+     * Removes object from cache for provided key
+     *
+     * @param key Key value
+     * @return Object value for provided key, {@code null} if key is absent
+     */
+    @Override
+    public V removeObject(K key) {
+        int levelIndex = findLevel(key);
+        return levelIndex >= 0 ? levels.get(levelIndex).removeObject(key) : null;
+    }
+
+    /**
+     * Clears all levels from all values
+     */
+    @Override
+    public void clearCache() {
+        for (int i = levels.size() - 1; i >= 0; --i) {
+            levels.get(i).clearCache();
+        }
+    }
+
+    /**
+     * Closes all levels
+     */
+    @Override
+    public void close() {
+        for (CacheLevel<K, V> level : levels) {
+            level.close();
+        }
+    }
+
+    /**
+     * Checks whether cache contains provided key
+     *
+     * @param key Key values
+     * @return {@code true} if key is present on any level, {@code false} otherwise
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return findLevel(key) >= 0;
+    }
+
+    /**
+     * Retrieves index of level which contains provided key
+     *
+     * @param key Key value
+     * @return level index, {@code -1} if key is absent
+     */
+    public int findLevel(K key) {
+        for (int i = 0; i < levels.size(); ++i) {
+            if (levels.get(i).containsKey(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves size of all levels
+     *
+     * @return Cache size
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        for (CacheLevel<K, V> level : levels) {
+            size += level.size();
+        }
+        return size;
+    }
+
+    /**
+     * Checks whether cache has empty space on any level
+     *
+     * @return {@code true} if cache has empty space, {@code false} otherwise
+     */
+    @Override
+    public boolean hasEmptySpace() {
+        for (CacheLevel<K, V> level : levels) {
+            if (level.hasEmptySpace()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retrieves {@code Strategy} instance of the fastest level
+     *
+     * @return {@code Strategy} instance of the fastest level
+     */
+    @Override
+    public Strategy getStrategy() {
+        return levels.get(0).getStrategy();
+    }
+
+    /**
+     * Retrieves cache levels ordered from the fastest to the slowest one
+     *
+     * @return cache levels
+     */
+    public List<CacheLevel<K, V>> getLevels() {
+        return Collections.unmodifiableList(levels);
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.darthyk.cache;
+
+import com.github.darthyk.cache.strategies.LeastFrequentlyUsed;
+import com.github.darthyk.cache.strategies.Strategy;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transfer policy which demotes evicted entry only if expected saving of its reuse outweighs cost of disk write.
+ * <p>
+ * NOTE: entry is discarded if strategy doesn't predict its reuse or its estimated size exceeds limit.
+ * Otherwise entry is demoted when {@code reuseProbability * (loadCost - readCost) > writeCost},
+ * where disk costs are proportional to estimated value size. Reuse probability of frequency based strategies
+ * is {@code frequency / (frequency + 1)}, reuse of recency based strategies is predicted by strategy only.
+ *
+ * @param <K> any key value
+ * @param <V> any value
+ */
+public class CostAwareDemotionPolicy<K, V> implements TransferPolicy<K, V> {
+    private final Strategy<K> strategy;
+    private final LoadCostFunction<K, V> loadCostFunction;
+    private final double writeCostPerByte;
+    private final double readCostPerByte;
+    private final long maxValueBytes;
+    private final AtomicLong demoted = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+
+    /**
+     * Initializes policy
+     *
+     * @param strategy Strategy instance of upper level
+     * @param loadCostFunction Estimates cost of reloading entry
+     * @param writeCostPerByte Cost of writing one byte to lower level
+     * @param readCostPerByte Cost of reading one byte from lower level
+     * @param maxValueBytes Maximal estimated size of demoted value
+     */
+    public CostAwareDemotionPolicy(Strategy<K> strategy, LoadCostFunction<K, V> loadCostFunction,
+                                   double writeCostPerByte, double readCostPerByte, long maxValueBytes) {
+        this.strategy = strategy;
+        this.loadCostFunction = loadCostFunction;
+        this.writeCostPerByte = writeCostPerByte;
+        this.readCostPerByte = readCostPerByte;
+        this.maxValueBytes = maxValueBytes;
+    }
+
+    @Override
+    public boolean shouldDemote(K key, V value, long strategyData) {
+        boolean demote = isWorthDemotion(key, value, strategyData);
+        (demote ? demoted : discarded).incrementAndGet();
+        return demote;
+    }
+
+    private boolean isWorthDemotion(K key, V value, long strategyData) {
+        if (value == null || !strategy.predictsReuse(key)) {
+            return false;
+        }
+        long size = SizeEstimator.estimate(value);
+        if (size > maxValueBytes) {
+            return false;
+        }
+        double saving = loadCostFunction.loadCost(key, value) - readCostPerByte * size;
+        return reuseProbability(strategyData) * saving > writeCostPerByte * size;
+    }
+
+    private double reuseProbability(long strategyData) {
+        if (strategy instanceof LeastFrequentlyUsed && strategyData >= 0) {
+            return strategyData / (strategyData + 1.0);
+        }
+        return 1.0;
+    }
+
+    @Override
+    public boolean shouldPromote(K key, long strategyData) {
+        return true;
+    }
+
+    /**
+     * Retrieves amount of entries demoted by this policy
+     *
+     * @return amount of demoted entries
+     */
+    public long getDemotedCount() {
+        return demoted.get();
+    }
+
+    /**
+     * Retrieves amount of entries discarded by this policy instead of demotion
+     *
+     * @return amount of discarded entries
+     */
+    public long getDiscardedCount() {
+        return discarded.get();
+    }
+}
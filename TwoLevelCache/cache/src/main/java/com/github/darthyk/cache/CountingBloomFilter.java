@@ -0,0 +1,117 @@
+package com.github.darthyk.cache;
+
+import java.util.Arrays;
+
+/**
+ * Counting Bloom filter over cache keys.
+ * <p>
+ * Counters are grouped in blocks of 64 one-byte cells, so every lookup touches a single cache line.
+ * Counters support removal of keys, saturated counters are never decremented to avoid false negatives.
+ *
+ * @param <K> any key value
+ */
+public class CountingBloomFilter<K> {
+    private static final int BLOCK_SIZE = 64;
+    private static final int MAX_COUNTER = 0xFF;
+    private static final int MAX_HASH_COUNT = 10;
+    private final byte[] counters;
+    private final int blockCount;
+    private final int hashCount;
+
+    /**
+     * Initializes filter sized for provided amount of keys and false positive probability
+     *
+     * @param expectedInsertions Expected amount of keys in filter
+     * @param falsePositiveProbability Desired false positive probability, between 0 and 1
+     */
+    public CountingBloomFilter(int expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive: " + expectedInsertions);
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("False positive probability must be between 0 and 1: "
+                    + falsePositiveProbability);
+        }
+        long bits = (long)Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        this.blockCount = (int)Math.max(1, (bits + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        this.hashCount = (int)Math.max(1, Math.min(MAX_HASH_COUNT, Math.round((double)bits / expectedInsertions * Math.log(2))));
+        this.counters = new byte[blockCount * BLOCK_SIZE];
+    }
+
+    /**
+     * Adds provided key to filter
+     *
+     * @param key Key value
+     */
+    public void add(K key) {
+        long hash = spread(key);
+        int blockOffset = blockOffset(hash);
+        long cells = mix(hash);
+        for (int i = 0; i < hashCount; ++i, cells >>>= 6) {
+            int index = blockOffset + (int)(cells & (BLOCK_SIZE - 1));
+            int counter = counters[index] & MAX_COUNTER;
+            if (counter < MAX_COUNTER) {
+                counters[index] = (byte)(counter + 1);
+            }
+        }
+    }
+
+    /**
+     * Removes provided key from filter. Key must have been added before.
+     *
+     * @param key Key value
+     */
+    public void remove(K key) {
+        long hash = spread(key);
+        int blockOffset = blockOffset(hash);
+        long cells = mix(hash);
+        for (int i = 0; i < hashCount; ++i, cells >>>= 6) {
+            int index = blockOffset + (int)(cells & (BLOCK_SIZE - 1));
+            int counter = counters[index] & MAX_COUNTER;
+            if (counter > 0 && counter < MAX_COUNTER) {
+                counters[index] = (byte)(counter - 1);
+            }
+        }
+    }
+
+    /**
+     * Checks whether provided key might be present in filter
+     *
+     * @param key Key value
+     * @return {@code false} if key is definitely absent, {@code true} if key might be present
+     */
+    public boolean mightContain(K key) {
+        long hash = spread(key);
+        int blockOffset = blockOffset(hash);
+        long cells = mix(hash);
+        for (int i = 0; i < hashCount; ++i, cells >>>= 6) {
+            if (counters[blockOffset + (int)(cells & (BLOCK_SIZE - 1))] == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Clears filter from all keys
+     */
+    public void clear() {
+        Arrays.fill(counters, (byte)0);
+    }
+
+    private static long spread(Object key) {
+        return mix(key == null ? 0 : key.hashCode());
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private int blockOffset(long hash) {
+        return (int)(((hash >>> 32) * blockCount) >>> 32) * BLOCK_SIZE;
+    }
+}
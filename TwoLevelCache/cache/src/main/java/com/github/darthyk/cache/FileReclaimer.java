@@ -0,0 +1,103 @@
+package com.github.darthyk.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes files of cleared cache generations in background, so clearing of file system cache doesn't wait
+ * for file deletion.
+ * <p>
+ * NOTE: all caches share one daemon reclaimer thread, generations are reclaimed in order of clearing
+ */
+@Slf4j
+final class FileReclaimer {
+    private static final FileReclaimer SHARED = new FileReclaimer();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-file-reclaimer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong reclaimedFiles = new AtomicLong();
+
+    private FileReclaimer() {}
+
+    /**
+     * Retrieves reclaimer shared by all caches
+     *
+     * @return shared reclaimer
+     */
+    static FileReclaimer shared() {
+        return SHARED;
+    }
+
+    /**
+     * Schedules deletion of provided directory with all its files
+     *
+     * @param directory Directory of cleared generation
+     */
+    void reclaimDirectory(Path directory) {
+        executor.execute(() -> {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    delete(file);
+                }
+            } catch (IOException e) {
+                log.error("Can't list directory {}", directory, e);
+            }
+            delete(directory);
+        });
+    }
+
+    /**
+     * Schedules deletion of provided file
+     *
+     * @param file File of cleared generation
+     */
+    void reclaimFile(Path file) {
+        executor.execute(() -> delete(file));
+    }
+
+    private void delete(Path file) {
+        try {
+            if (Files.deleteIfExists(file)) {
+                reclaimedFiles.incrementAndGet();
+            }
+        } catch (IOException e) {
+            log.error("Can't delete {}", file, e);
+        }
+    }
+
+    /**
+     * Waits until all files scheduled before this call are deleted
+     *
+     * @param timeout Maximal time to wait
+     * @param unit Time unit of timeout
+     * @return {@code true} if scheduled files are deleted, {@code false} if timeout elapsed
+     * @throws InterruptedException if waiting thread is interrupted
+     */
+    boolean awaitReclaimed(long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            executor.submit(() -> {}).get(timeout, unit);
+            return true;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Retrieves amount of files deleted by reclaimer, directories are counted too
+     *
+     * @return amount of deleted files
+     */
+    long getReclaimedFileCount() {
+        return reclaimedFiles.get();
+    }
+}
@@ -0,0 +1,537 @@
+package com.github.darthyk.cache;
+
+import com.github.darthyk.cache.strategies.Strategy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Class represents work with file system cache of raw byte payloads.
+ * <p>
+ * NOTE: each value will be stored in separate file without serialization. Values of at least
+ * {@code MAPPING_THRESHOLD} bytes are read as read-only views of memory mapped files, which are mapped on every
+ * read and unmapped when returned buffer is collected, so amount of mappings isn't bound by amount of entries.
+ * Smaller values are copied to heap, as mapping them costs more than copying. Values can be sent to channels
+ * with {@code FileChannel.transferTo}, so no copies are made in user space.
+ *
+ * @param <K> any key value
+ */
+@Slf4j
+public class FileSystemByteCache<K extends Serializable> implements CacheLevel<K, ByteBuffer> {
+    static final int MAPPING_THRESHOLD = 64 * 1024;
+
+    HashMap<K, String> cacheMap;
+    TreeMap<K, Long> strategyMap;
+    volatile Path cachePath;
+    long generation;
+    Strategy strategyType;
+    EvictionListener<K, ByteBuffer> evictionListener;
+    int capacity;
+    final CacheUsage usage = new CacheUsage();
+    final ReentrantLock mappingLock = new ReentrantLock();
+
+    /**
+     * Initializes cache with provided capacity
+     *
+     * @param capacity Cache size
+     */
+    FileSystemByteCache(int capacity, Strategy strategyType) {
+        try {
+            cachePath = Files.createTempDirectory("cache");
+        } catch (IOException e) {
+            log.error("Can't create directory");
+        }
+        cachePath.toFile().deleteOnExit();
+        cacheMap = new HashMap<>();
+        strategyMap = new TreeMap<>();
+        this.strategyType = strategyType;
+        this.capacity = capacity;
+        strategyType.setCapacity(capacity);
+    }
+
+    /**
+     * Caches provided bytes with provided key.
+     * Remaining bytes of buffer are written, buffer position is not changed.
+     *
+     * @param key Key value
+     * @param value Bytes to cache
+     */
+    public void putBytes(K key, ByteBuffer value) {
+        putToCache(key, value);
+    }
+
+    /**
+     * Retrieves read-only view of bytes cached for provided key.
+     * Increments frequency usage for provided object key.
+     *
+     * @param key Key object
+     * @return read-only buffer with cached bytes, {@code null} if key object is absent
+     */
+    public ByteBuffer getBytes(K key) {
+        return getObject(key);
+    }
+
+    /**
+     * Caches provided bytes with provided key
+     *
+     * @param key Key value
+     * @param value Bytes to cache
+     */
+    @Override
+    public void putToCache(K key, ByteBuffer value) {
+        String cacheFile = writeCacheToFile(value);
+        if (cacheFile == null) {
+            return;
+        }
+        mappingLock.lock();
+        try {
+            if(!containsKey(key) && !hasEmptySpace()) {
+                freeSpace();
+            }
+            storeEntry(key, cacheFile, value.remaining(), strategyType.fillStrategyData());
+        } finally {
+            mappingLock.unlock();
+        }
+    }
+
+    /**
+     * Transfers data from another cache
+     *
+     * @param key Key value
+     * @param value Bytes to cache
+     * @param frequencyData {@code Long} value from previous cache
+     */
+    @Override
+    public void transferDataFromAnotherCache(K key, ByteBuffer value, Long frequencyData) {
+        String cacheFile = writeCacheToFile(value);
+        if (cacheFile == null) {
+            return;
+        }
+        mappingLock.lock();
+        try {
+            storeEntry(key, cacheFile, value.remaining(), frequencyData);
+        } finally {
+            mappingLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces entry of provided key with written cache file and updates usage counters and strategy data,
+     * caller must hold mapping lock
+     *
+     * @param key Key value
+     * @param cacheFile Path of written cache file
+     * @param bytes Size of cache file
+     * @param strategyData Strategy data of entry
+     */
+    private void storeEntry(K key, String cacheFile, long bytes, Long strategyData) {
+        deleteObject(key);
+        cacheMap.put(key, cacheFile);
+        usage.entryAdded(SizeEstimator.estimateEntry(key, cacheFile));
+        usage.diskBytesChanged(bytes);
+        strategyMap.put(key, strategyData);
+        strategyType.setStrategyData(strategyMap);
+        strategyType.onInsert(key);
+    }
+
+    /**
+     * Frees space in cache according to substitution strategy
+     */
+    @Override
+    public void freeSpace() {
+        K objectToDelete = getKeyForSubstitution();
+        log.debug("Object with key {} will be deleted", objectToDelete);
+        if (evictionListener != null) {
+            evictionListener.onEviction(objectToDelete, () -> peekObject(objectToDelete));
+        }
+        deleteObject(objectToDelete);
+    }
+
+    /**
+     * Writes bytes to new cache file
+     *
+     * @param value Bytes to write
+     * @return path of cache file, {@code null} if file can't be written
+     */
+    public String writeCacheToFile(ByteBuffer value) {
+        File cacheFile = new File(cachePath.toFile().getAbsolutePath() + File.separatorChar
+                + UUID.randomUUID() + ".tmp");
+        ByteBuffer source = value.duplicate();
+        try (FileChannel channel = FileChannel.open(cacheFile.toPath(), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE)) {
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        } catch (IOException e) {
+            log.error("Can't write to {}", cacheFile.getAbsolutePath(), e);
+            if (cacheFile.exists() && !cacheFile.delete()) {
+                log.error("Can't delete partially written file {}", cacheFile.getAbsolutePath());
+            }
+            return null;
+        }
+        return cacheFile.getAbsolutePath();
+    }
+
+    /**
+     * Retrieves read-only view of bytes cached for provided key.
+     * Increments frequency usage for provided object key.
+     *
+     * @param key Key object
+     * @return read-only buffer with cached bytes, {@code null} if key object is absent
+     */
+    @Override
+    public ByteBuffer getObject(K key) {
+        mappingLock.lock();
+        try {
+            return accessIfPresent(key) ? readValue(key) : null;
+        } finally {
+            mappingLock.unlock();
+        }
+    }
+
+    /**
+     * Increments frequency usage for provided object key if it is present
+     *
+     * @param key Key object
+     * @return {@code true} if key is present, {@code false} otherwise
+     */
+    private boolean accessIfPresent(K key) {
+        mappingLock.lock();
+        try {
+            Long frequency = strategyMap.get(key);
+            if (frequency == null) {
+                return false;
+            }
+            strategyMap.put(key, strategyType.updateStrategyData(frequency));
+            strategyType.onAccess(key);
+            return true;
+        } finally {
+            mappingLock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves read-only view of bytes cached for provided key without updating its strategy data
+     *
+     * @param key Key value
+     * @return read-only buffer with cached bytes, {@code null} if key is absent
+     */
+    @Override
+    public ByteBuffer peekObject(K key) {
+        if (!containsKey(key)) {
+            return null;
+        }
+        return readValue(key);
+    }
+
+    /**
+     * Reads cache file for provided key, large files are mapped and small ones are copied to heap
+     *
+     * @param key Key object
+     * @return read-only buffer with cached bytes, {@code null} if file can't be read
+     */
+    private ByteBuffer readValue(K key) {
+        mappingLock.lock();
+        try {
+            String cacheFile = cacheMap.get(key);
+            if (cacheFile == null) {
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(Paths.get(cacheFile), StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size >= MAPPING_THRESHOLD) {
+                    return channel.map(FileChannel.MapMode.READ_ONLY, 0, size).asReadOnlyBuffer();
+                }
+                ByteBuffer value = ByteBuffer.allocate((int)size);
+                while (value.hasRemaining()) {
+                    if (channel.read(value) < 0) {
+                        break;
+                    }
+                }
+                value.flip();
+                return value.asReadOnlyBuffer();
+            } catch (IOException e) {
+                log.error("Can't read file {}", cacheFile, e);
+                return null;
+            }
+        } finally {
+            mappingLock.unlock();
+        }
+    }
+
+    /**
+     * Sends bytes cached for provided key to provided channel with {@code FileChannel.transferTo}.
+     * Increments frequency usage for provided object key.
+     *
+     * @param key Key object
+     * @param target Channel to send bytes to
+     * @return amount of sent bytes, {@code -1} if key object is absent
+     * @throws IOException if bytes can't be sent or cache file shrinks while they are sent
+     * @throws IllegalArgumentException if target channel is in non-blocking mode
+     */
+    public long transferTo(K key, WritableByteChannel target) throws IOException {
+        if (target instanceof SelectableChannel && !((SelectableChannel)target).isBlocking()) {
+            throw new IllegalArgumentException("Target channel must be in blocking mode");
+        }
+        FileChannel source;
+        mappingLock.lock();
+        try {
+            if (!accessIfPresent(key)) {
+                return -1;
+            }
+            source = FileChannel.open(Paths.get(cacheMap.get(key)), StandardOpenOption.READ);
+        } finally {
+            mappingLock.unlock();
+        }
+        try (FileChannel channel = source) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long transferred = channel.transferTo(position, size - position, target);
+                if (transferred <= 0) {
+                    throw new IOException("Transfer of key " + key + " stopped after " + position + " of " + size
+                            + " bytes");
+                }
+                position += transferred;
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Deletes cache object for provided key
+     *
+     * @param key Key value
+     */
+    @Override
+    public void deleteObject(K key) {
+        mappingLock.lock();
+        try {
+            if(containsKey(key)) {
+                String fileToDelete = cacheMap.remove(key);
+                usage.entryRemoved(SizeEstimator.estimateEntry(key, fileToDelete));
+                usage.diskBytesChanged(-new File(fileToDelete).length());
+                strategyMap.remove(key);
+                strategyType.onRemove(key);
+                if (!new File(fileToDelete).delete()) {
+                    log.error("Can't delete file {}", fileToDelete);
+                }
+            }
+        } finally {
+            mappingLock.unlock();
+        }
+    }
+
+    /**
+     * Removes cache object for provided key.
+     * Returned buffer stays readable after removal, as mapping outlives deleted file.
+     *
+     * @param key Key value
+     * @return read-only buffer with cached bytes, {@code null} if key is absent
+     */
+    @Override
+    public ByteBuffer removeObject(K key) {
+        mappingLock.lock();
+        try {
+            if(containsKey(key)) {
+                ByteBuffer value = readValue(key);
+                deleteObject(key);
+                return value;
+            } else
+                return null;
+        } finally {
+            mappingLock.unlock();
+        }
+    }
+
+    /**
+     * Clears cache from all values.
+     * Cache switches to new generation with empty index and new directory, files of previous generation
+     * are deleted in background.
+     */
+    @Override
+    public void clearCache() {
+        mappingLock.lock();
+        try {
+            Path previousPath = cachePath;
+            try {
+                cachePath = Files.createTempDirectory("cache");
+                cachePath.toFile().deleteOnExit();
+            } catch (IOException e) {
+                log.error("Can't create directory of new generation, files are reclaimed in place", e);
+            }
+            ++generation;
+            usage.reset();
+            if (previousPath.equals(cachePath)) {
+                for (String path : cacheMap.values()) {
+                    FileReclaimer.shared().reclaimFile(Paths.get(path));
+                }
+            } else {
+                FileReclaimer.shared().reclaimDirectory(previousPath);
+            }
+            cacheMap = new HashMap<>();
+            strategyMap.clear();
+            strategyType.onClear();
+        } finally {
+            mappingLock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether cache contains provided key
+     *
+     * @param key Key values
+     * @return {@code true} if key is present in cache, {@code false} otherwise
+     */
+    @Override
+    public boolean containsKey(K key) {
+        mappingLock.lock();
+        try {
+            return cacheMap.containsKey(key);
+        } finally {
+            mappingLock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves size for memory cache
+     *
+     * @return Memory cache size
+     */
+    @Override
+    public int size() {
+        mappingLock.lock();
+        try {
+            return this.cacheMap.size();
+        } finally {
+            mappingLock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether cache has empty space
+     *
+     * @return {@code true} if cache has empty space, {@code false} otherwise
+     */
+    @Override
+    public boolean hasEmptySpace() {
+        return size() < this.capacity;
+    }
+
+    /**
+     * Retrieves {@code Strategy} instance for this cache
+     *
+     * @return {@code Strategy} instance for this cache
+     */
+    @Override
+    public Strategy getStrategy() {
+        return this.strategyType;
+    }
+
+    /**
+     * Retrieves strategy {@code TreeMap} for this cache
+     *
+     * @return strategy {@code TreeMap} for this cache
+     */
+    @Override
+    public TreeMap<K, Long> getStrategyMap() {
+        return this.strategyMap;
+    }
+
+    /**
+     * Retrieves strategy data for provided key
+     *
+     * @param key Key value
+     * @return strategy data for provided key, {@code null} if key is absent
+     */
+    @Override
+    public Long getStrategyData(K key) {
+        mappingLock.lock();
+        try {
+            return strategyMap.get(key);
+        } finally {
+            mappingLock.unlock();
+        }
+    }
+
+    /**
+     * Records access of provided key by strategy of this cache without reading its value
+     *
+     * @param key Key value
+     */
+    @Override
+    public void recordAccess(K key) {
+        accessIfPresent(key);
+    }
+
+    /**
+     * Sets strategy data of provided key, absent keys are ignored
+     *
+     * @param key Key value
+     * @param data Strategy data
+     */
+    @Override
+    public void putStrategyData(K key, Long data) {
+        mappingLock.lock();
+        try {
+            if (strategyMap.containsKey(key)) {
+                strategyMap.put(key, data);
+            }
+        } finally {
+            mappingLock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves usage counters of this cache, on-disk bytes are total size of entry files
+     *
+     * @return usage counters of this cache
+     */
+    @Override
+    public CacheUsage getUsage() {
+        return this.usage;
+    }
+
+    /**
+     * Retrieves generation of this cache, which is incremented by every clearing
+     *
+     * @return generation of this cache
+     */
+    public long getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Retrieves capacity of this cache
+     *
+     * @return capacity of this cache
+     */
+    @Override
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Sets listener of entries evicted by this level to free space
+     *
+     * @param listener Eviction listener, {@code null} removes listener
+     */
+    @Override
+    public void setEvictionListener(EvictionListener<K, ByteBuffer> listener) {
+        this.evictionListener = listener;
+    }
+}
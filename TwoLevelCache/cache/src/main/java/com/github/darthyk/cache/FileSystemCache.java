@@ -4,28 +4,46 @@ import com.github.darthyk.cache.strategies.Strategy;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Class represents work with file system memory cache.
  * <p>
- * NOTE: All vlaues will be stored in one file
+ * NOTE: All vlaues will be stored in one file. Index is guarded by index lock and cache file by read-write lock
+ * instead of monitor, so threads waiting for file I/O of another thread don't pin carrier threads.
+ * Cache file is encoded from copy of index taken under index lock and written outside of it, so index operations
+ * don't wait for file I/O. When writes are deferred, changes are written by {@link #writeDeferred()}
+ * or before the next read of cache file.
  *
  * @param <K> any key value
  * @param <V> any value
  * @author Vladislav Sazhin
  */
 @Slf4j
-public class FileSystemCache<K extends Serializable, V extends Serializable> implements Cache<K, V> {
+public class FileSystemCache<K extends Serializable, V extends Serializable> implements CacheLevel<K, V> {
     HashMap<K, V> cacheMap;
+    HashMap<K, Long> entrySizes;
+    private EvictionListener<K, V> evictionListener;
     TreeMap<K, Long> strategyMap;
     Path cachePath;
     File cacheFile;
     UUID cacheFileUUID = UUID.randomUUID();
+    long generation;
     Strategy strategyType;
     int capacity;
+    CountingBloomFilter<K> keyFilter;
+    Set<K> quarantinedKeys = new HashSet<>();
+    final CacheUsage usage = new CacheUsage();
+    final ReentrantLock indexLock = new ReentrantLock();
+    final ReentrantReadWriteLock fileLock = new ReentrantReadWriteLock();
+    volatile long indexVersion;
+    volatile long writtenVersion;
+    volatile boolean deferredWrites;
 
     /**
      * Initializes cache with provided capacity
@@ -33,8 +51,19 @@ public class FileSystemCache<K extends Serializable, V extends Serializable> imp
      * @param capacity Cache size
      */
     FileSystemCache(int capacity, Strategy strategyType) {
+        this(capacity, strategyType, null);
+    }
+
+    /**
+     * Initializes cache with provided capacity inside provided directory
+     *
+     * @param capacity Cache size
+     * @param directory Parent directory for cache files, {@code null} for default temporary directory
+     */
+    FileSystemCache(int capacity, Strategy strategyType, Path directory) {
         try {
-            cachePath = Files.createTempDirectory("cache");
+            cachePath = directory == null ? Files.createTempDirectory("cache")
+                    : Files.createTempDirectory(directory, "cache");
         } catch (IOException e) {
             log.error("Can't create directory");
         }
@@ -42,9 +71,11 @@ public class FileSystemCache<K extends Serializable, V extends Serializable> imp
         cacheFile = new File(cachePath.toFile().getAbsolutePath() + File.separatorChar
                 + cacheFileUUID + ".tmp");
         cacheMap = new HashMap<>();
+        entrySizes = new HashMap<>();
         strategyMap = new TreeMap<>();
         this.strategyType = strategyType;
         this.capacity = capacity;
+        strategyType.setCapacity(capacity);
     }
 
     /**
@@ -55,13 +86,20 @@ public class FileSystemCache<K extends Serializable, V extends Serializable> imp
      */
     @Override
     public void putToCache(K key, V value) {
-        if(!hasEmptySpace()) {
-            freeSpace();
+        indexLock.lock();
+        try {
+            if(!hasEmptySpace()) {
+                evictVictim();
+            }
+            storeEntry(key, value);
+            strategyMap.put(key, strategyType.fillStrategyData());
+            strategyType.setStrategyData(strategyMap);
+            strategyType.onInsert(key);
+            ++indexVersion;
+        } finally {
+            indexLock.unlock();
         }
-        cacheMap.put(key, value);
-        strategyMap.put(key, strategyType.fillStrategyData());
-        strategyType.setStrategyData(strategyMap);
-        writeCacheToFile(cacheMap);
+        writeChanges();
     }
 
     /**
@@ -71,10 +109,37 @@ public class FileSystemCache<K extends Serializable, V extends Serializable> imp
      * @param value Object value
      * @param frequencyData {@code Long} value from previous cache
      */
+    @Override
     public void transferDataFromAnotherCache(K key, V value, Long frequencyData) {
+        indexLock.lock();
+        try {
+            storeEntry(key, value);
+            strategyMap.put(key, frequencyData);
+            strategyType.setStrategyData(strategyMap);
+            strategyType.onInsert(key);
+            ++indexVersion;
+        } finally {
+            indexLock.unlock();
+        }
+        writeChanges();
+    }
+
+    /**
+     * Stores provided entry in cache index and updates usage counters, caller must hold index lock
+     *
+     * @param key Key value
+     * @param value Object value
+     */
+    private void storeEntry(K key, V value) {
+        addToKeyFilter(key);
+        long size = SizeEstimator.estimateEntry(key, value);
+        Long previousSize = entrySizes.put(key, size);
         cacheMap.put(key, value);
-        strategyMap.put(key, frequencyData);
-        strategyType.setStrategyData(strategyMap);
+        if (previousSize != null) {
+            usage.heapBytesChanged(size - previousSize);
+        } else {
+            usage.entryAdded(size);
+        }
     }
 
     /**
@@ -82,85 +147,304 @@ public class FileSystemCache<K extends Serializable, V extends Serializable> imp
      */
     @Override
     public void freeSpace() {
+        indexLock.lock();
+        try {
+            evictVictim();
+        } finally {
+            indexLock.unlock();
+        }
+        writeChanges();
+    }
+
+    /**
+     * Deletes victim of substitution strategy from index, caller must hold index lock and write changes
+     */
+    private void evictVictim() {
         K objectToDelete = (K)this.strategyType.getKeyForSubstitution();
-        log.error("Object with key %s will be deleted", objectToDelete);
-        deleteObject(objectToDelete);
+        log.error("Object with key {} will be deleted", objectToDelete);
+        if (evictionListener != null) {
+            evictionListener.onEviction(objectToDelete, () -> peekObject(objectToDelete));
+        }
+        removeEntry(objectToDelete);
     }
 
     /**
-     * Writes cache to file
+     * Removes provided key from index if it is present, caller must hold index lock and write changes
+     *
+     * @param key Key value
+     * @return {@code true} if key has been removed, {@code false} if it is absent
      */
-    public synchronized void writeCacheToFile(Map<K, V> map) {
-        FileOutputStream fileStream = null;
-        ObjectOutputStream objectStream = null;
-        try {
-            fileStream = new FileOutputStream(cacheFile);
-        } catch (FileNotFoundException e) {
-            log.error("Can't find file %s \n Stack trace:\n %s", cacheFile.getAbsolutePath(), e.getMessage());
+    private boolean removeEntry(K key) {
+        if (!containsKey(key)) {
+            return false;
         }
-        try {
-            objectStream = new ObjectOutputStream(fileStream);
-            objectStream.writeObject(map);
-        } catch (IOException e) {
-            log.error("Can't write to %s \n Stack trace:\n %s", cacheFile.getAbsolutePath(), e.getMessage());
+        cacheMap.remove(key);
+        usage.entryRemoved(entrySizes.remove(key));
+        strategyMap.remove(key);
+        strategyType.onRemove(key);
+        if (keyFilter != null) {
+            keyFilter.remove(key);
+        }
+        ++indexVersion;
+        return true;
+    }
+
+    /**
+     * Writes changes of index to cache file unless writes are deferred
+     */
+    private void writeChanges() {
+        if (!deferredWrites) {
+            writeCacheToFile(cacheMap);
         }
+    }
+
+    /**
+     * Writes cache to file.
+     * Every entry is written as checksummed record to temporary file, which atomically replaces cache file.
+     * Records are encoded in pooled buffer from copy of provided map taken under index lock, file is replaced
+     * only if no newer version of index has been written meanwhile.
+     */
+    public void writeCacheToFile(Map<K, V> map) {
+        Map<K, V> entries;
+        long version;
+        long fileGeneration;
+        indexLock.lock();
         try {
-            objectStream.close();
-            fileStream.flush();
-            fileStream.close();
+            entries = new HashMap<>(map);
+            version = indexVersion;
+            fileGeneration = generation;
+        } finally {
+            indexLock.unlock();
+        }
+        if (version <= writtenVersion) {
+            return;
+        }
+        try (PooledBufferOutputStream output = RecordCodec.newRecordStream()) {
+            for (Map.Entry<K, V> entry : entries.entrySet()) {
+                RecordCodec.writeRecord(output, entry.getKey(), entry.getValue());
+            }
+            fileLock.writeLock().lock();
+            try {
+                if (version > writtenVersion && fileGeneration == generation) {
+                    RecordCodec.writeAtomically(cacheFile.toPath(), output.written());
+                    usage.setDiskBytes(output.position());
+                    writtenVersion = version;
+                }
+            } finally {
+                fileLock.writeLock().unlock();
+            }
         } catch (IOException e) {
-            log.error("Can't close File and Object streams.\n Stack trace:\n %s", e.getMessage());
+            log.error("Can't write to {}", cacheFile.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Writes changes of index which are deferred
+     */
+    @Override
+    public void writeDeferred() {
+        if (writtenVersion < indexVersion) {
+            writeCacheToFile(cacheMap);
+        }
+    }
+
+    /**
+     * Enables or disables deferring of cache file writes, pending changes are written when deferring is disabled
+     *
+     * @param deferred {@code true} if changes are written only by {@link #writeDeferred()} and before reads
+     *                 of cache file
+     */
+    @Override
+    public void setDeferredWrites(boolean deferred) {
+        this.deferredWrites = deferred;
+        if (!deferred) {
+            writeDeferred();
         }
     }
 
     /**
      * Retrieves object for provided key from cache.
      * Increments frequency usage for provided object key.
+     * Entry which record is corrupted in cache file is quarantined and treated as absent.
      *
      * @param key Key object
      * @return Value for provided key from cache, {@code null} if key object is absent
      */
     @Override
     public V getObject(K key) {
-        if(containsKey(key)) {
+        if (!accessIfPresent(key)) {
+            return null;
+        }
+        return readValue(key);
+    }
+
+    /**
+     * Increments frequency usage for provided object key if it is present
+     *
+     * @param key Key object
+     * @return {@code true} if key is present, {@code false} otherwise
+     */
+    private boolean accessIfPresent(K key) {
+        indexLock.lock();
+        try {
+            if (!containsKey(key)) {
+                return false;
+            }
             long frequency = strategyMap.remove(key);
             strategyMap.put(key, strategyType.updateStrategyData(frequency));
-            return getDeserializedCacheMap().get(key);
-        } else
+            strategyType.onAccess(key);
+            return true;
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves handle of object for provided key, only keys of records are deserialized while cache file
+     * is scanned and value is deserialized on first access of handle.
+     * Increments frequency usage for provided object key.
+     *
+     * @param key Key object
+     * @return handle of value for provided key, {@code null} if key object is absent or its record is unreadable
+     */
+    @Override
+    public LazyValue<V> getLazyObject(K key) {
+        if (!accessIfPresent(key)) {
             return null;
+        }
+        writeDeferred();
+        byte[][] serializedValue = new byte[1][];
+        fileLock.readLock().lock();
+        try {
+            ByteBuffer content = RecordCodec.readFile(cacheFile.toPath());
+            try {
+                RecordCodec.readRecords(content, (recordKey, value) -> {
+                    if (serializedValue[0] == null && key.equals(RecordCodec.deserialize(recordKey))) {
+                        serializedValue[0] = new byte[value.remaining()];
+                        value.get(serializedValue[0]);
+                    }
+                });
+            } finally {
+                BufferPool.shared().release(content);
+            }
+        } catch (IOException e) {
+            log.error("Can't read {}", cacheFile.getAbsolutePath(), e);
+        } finally {
+            fileLock.readLock().unlock();
+        }
+        if (serializedValue[0] == null) {
+            quarantine(key);
+            return null;
+        }
+        return LazyValue.ofSerialized(ByteBuffer.wrap(serializedValue[0]));
     }
 
     /**
-     * Retrieves deserialized cache object
+     * Retrieves object for provided key without updating its strategy data
      *
-     * @return {@code HashMap} with cache
+     * @param key Key value
+     * @return Value for provided key, {@code null} if key is absent
      */
-    public synchronized HashMap<K, V> getDeserializedCacheMap() {
-        FileInputStream fileInputStream = null;
+    @Override
+    public V peekObject(K key) {
+        indexLock.lock();
         try {
-            fileInputStream = new FileInputStream(cacheFile.getAbsolutePath());
-        } catch (FileNotFoundException e) {
-            log.error("Can't find file %s \n Stack trace:\n %s", cacheFile.getAbsolutePath(), e.getMessage());
+            return containsKey(key) ? cacheMap.get(key) : null;
+        } finally {
+            indexLock.unlock();
         }
+    }
 
-        ObjectInputStream objectInputStream = null;
-        HashMap<K, V> deserializedObject = null;
+    /**
+     * Transfers entries from another cache in bulk, cache file is written once.
+     * Capacity is not checked, caller is responsible for leaving enough space.
+     *
+     * @param values Entries to transfer
+     * @param strategyData Strategy data of transferred entries
+     */
+    @Override
+    public void transferAllFromAnotherCache(Map<K, V> values, Map<K, Long> strategyData) {
+        indexLock.lock();
         try {
-            objectInputStream = new ObjectInputStream(fileInputStream);
-            deserializedObject = (HashMap<K, V>)objectInputStream.readObject();
-        } catch (IOException e) {
-            log.error("Can't write to %s \n Stack trace:\n %s", cacheFile.getAbsolutePath(), e.getMessage());
-        } catch (ClassNotFoundException e) {
-            log.error("Can't find %s class. \n Stack trace:\n %s", HashMap.class.getName(), e.getMessage());
+            for (Map.Entry<K, V> entry : values.entrySet()) {
+                storeEntry(entry.getKey(), entry.getValue());
+                strategyMap.put(entry.getKey(), strategyData.get(entry.getKey()));
+                strategyType.onInsert(entry.getKey());
+            }
+            strategyType.setStrategyData(strategyMap);
+            ++indexVersion;
+        } finally {
+            indexLock.unlock();
+        }
+        writeChanges();
+    }
+
+    /**
+     * Reads value for provided key from cache file, quarantines key if its record is unreadable
+     *
+     * @param key Key object
+     * @return Value for provided key, {@code null} if its record is unreadable
+     */
+    private V readValue(K key) {
+        HashMap<K, V> deserializedCacheMap = getDeserializedCacheMap();
+        if (deserializedCacheMap.containsKey(key)) {
+            return deserializedCacheMap.get(key);
+        }
+        quarantine(key);
+        return null;
+    }
+
+    /**
+     * Drops provided key which record is unreadable, key deleted meanwhile by another thread isn't quarantined
+     *
+     * @param key Key object
+     */
+    private void quarantine(K key) {
+        indexLock.lock();
+        try {
+            if (!removeEntry(key)) {
+                return;
+            }
+            log.error("Record for key {} is corrupted, key is quarantined", key);
+            quarantinedKeys.add(key);
+        } finally {
+            indexLock.unlock();
         }
+        writeChanges();
+    }
 
+    /**
+     * Retrieves deserialized cache object, deferred changes are written before cache file is read.
+     * Corrupted records are skipped, all other records are returned.
+     *
+     * @return {@code HashMap} with cache
+     */
+    public HashMap<K, V> getDeserializedCacheMap() {
+        writeDeferred();
+        fileLock.readLock().lock();
         try {
-            objectInputStream.close();
-            fileInputStream.close();
-        } catch (IOException e) {
-            log.error("Can't close File and Object streams.\n Stack trace:\n %s", e.getMessage());
+            HashMap<K, V> deserializedObject = new HashMap<>();
+            if (!cacheFile.exists()) {
+                return deserializedObject;
+            }
+            try {
+                ByteBuffer content = RecordCodec.readFile(cacheFile.toPath());
+                try {
+                    int corrupted = RecordCodec.readRecords(content, (key, value) ->
+                            deserializedObject.put((K)RecordCodec.deserialize(key), (V)RecordCodec.deserialize(value)));
+                    if (corrupted > 0) {
+                        log.error("{} corrupted regions are skipped in {}", corrupted, cacheFile.getAbsolutePath());
+                    }
+                } finally {
+                    BufferPool.shared().release(content);
+                }
+            } catch (IOException e) {
+                log.error("Can't read {}", cacheFile.getAbsolutePath(), e);
+            }
+            return deserializedObject;
+        } finally {
+            fileLock.readLock().unlock();
         }
-        return deserializedObject;
     }
 
     /**
@@ -169,18 +453,42 @@ public class FileSystemCache<K extends Serializable, V extends Serializable> imp
      * @param key Key value
      */
     @Override
-    public synchronized void deleteObject(K key) {
-        if(containsKey(key)) {
-            cacheMap.remove(key);
-            strategyMap.remove(key);
-            if (cacheFile.delete()) {
-                new File(cachePath.toFile().getAbsolutePath() + File.pathSeparator
-                        + cacheFileUUID + ".tmp");
-            } else {
-                log.error("Can't delete file %s", cacheFile.getAbsolutePath());
+    public void deleteObject(K key) {
+        boolean removed;
+        indexLock.lock();
+        try {
+            removed = removeEntry(key);
+        } finally {
+            indexLock.unlock();
+        }
+        if (removed) {
+            writeChanges();
+        }
+    }
+
+    /**
+     * Deletes objects for provided keys, cache file is written once
+     *
+     * @param keys Key values
+     * @return amount of deleted objects
+     */
+    @Override
+    public int deleteObjects(Collection<K> keys) {
+        int deleted = 0;
+        indexLock.lock();
+        try {
+            for (K key : keys) {
+                if (removeEntry(key)) {
+                    ++deleted;
+                }
             }
-            writeCacheToFile(cacheMap);
+        } finally {
+            indexLock.unlock();
         }
+        if (deleted > 0) {
+            writeChanges();
+        }
+        return deleted;
     }
 
     /**
@@ -192,8 +500,7 @@ public class FileSystemCache<K extends Serializable, V extends Serializable> imp
     @Override
     public V removeObject(K key) {
         if(containsKey(key)) {
-            strategyMap.remove(key);
-            V value = getDeserializedCacheMap().get(key);
+            V value = readValue(key);
             deleteObject(key);
             return value;
         } else
@@ -201,16 +508,32 @@ public class FileSystemCache<K extends Serializable, V extends Serializable> imp
     }
 
     /**
-     * Clears cache from all values
+     * Clears cache from all values.
+     * Cache switches to new generation with empty index and new cache file, file of previous generation
+     * is deleted in background.
      */
     @Override
-    public synchronized void clearCache() {
-        cacheMap.clear();
-        strategyMap.clear();
-        if (cacheFile.delete()) {
-            log.error("Cache file %s has been deleted", cacheFile.getAbsolutePath());
-        } else {
-            log.error("Can't delete cache file %s", cacheFile.getAbsolutePath());
+    public void clearCache() {
+        indexLock.lock();
+        fileLock.writeLock().lock();
+        try {
+            cacheMap = new HashMap<>();
+            entrySizes = new HashMap<>();
+            strategyMap.clear();
+            strategyType.onClear();
+            usage.reset();
+            if (keyFilter != null) {
+                keyFilter.clear();
+            }
+            FileReclaimer.shared().reclaimFile(cacheFile.toPath());
+            cacheFileUUID = UUID.randomUUID();
+            cacheFile = new File(cachePath.toFile().getAbsolutePath() + File.separatorChar
+                    + cacheFileUUID + ".tmp");
+            ++generation;
+            writtenVersion = ++indexVersion;
+        } finally {
+            fileLock.writeLock().unlock();
+            indexLock.unlock();
         }
     }
 
@@ -222,7 +545,65 @@ public class FileSystemCache<K extends Serializable, V extends Serializable> imp
      */
     @Override
     public boolean containsKey(K key) {
-        return cacheMap.containsKey(key);
+        indexLock.lock();
+        try {
+            return mightContainKey(key) && cacheMap.containsKey(key);
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves keys which records were found corrupted and have been dropped from cache
+     *
+     * @return unmodifiable copy of quarantined keys
+     */
+    public Set<K> getQuarantinedKeys() {
+        indexLock.lock();
+        try {
+            return Collections.unmodifiableSet(new HashSet<>(quarantinedKeys));
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Checks key filter for provided key without touching cache index
+     *
+     * @param key Key value
+     * @return {@code false} if key is definitely absent, {@code true} if key might be present
+     * or key filter is disabled
+     */
+    public boolean mightContainKey(K key) {
+        return keyFilter == null || keyFilter.mightContain(key);
+    }
+
+    /**
+     * Enables counting Bloom filter over cache keys, so misses are answered without index or file access
+     *
+     * @param expectedInsertions Expected amount of keys in cache
+     * @param falsePositiveProbability Desired false positive probability
+     * @return always {@code true}
+     */
+    @Override
+    public boolean enableKeyFilter(int expectedInsertions, double falsePositiveProbability) {
+        indexLock.lock();
+        try {
+            CountingBloomFilter<K> filter = new CountingBloomFilter<>(expectedInsertions, falsePositiveProbability);
+            for (K key : cacheMap.keySet()) {
+                filter.add(key);
+            }
+            keyFilter = filter;
+            return true;
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private void addToKeyFilter(K key) {
+        if (keyFilter != null && !cacheMap.containsKey(key)) {
+            keyFilter.add(key);
+        }
     }
 
     /**
@@ -232,7 +613,12 @@ public class FileSystemCache<K extends Serializable, V extends Serializable> imp
      */
     @Override
     public int size() {
-        return this.cacheMap.size();
+        indexLock.lock();
+        try {
+            return this.cacheMap.size();
+        } finally {
+            indexLock.unlock();
+        }
     }
 
     /**
@@ -260,16 +646,105 @@ public class FileSystemCache<K extends Serializable, V extends Serializable> imp
      *
      * @return frequency {@code TreeMap} for this cache
      */
+    @Override
     public TreeMap<K, Long> getStrategyMap() {
         return this.strategyMap;
     }
 
+    /**
+     * Retrieves copy of strategy data made under index lock
+     *
+     * @return copy of strategy data
+     */
+    Map<K, Long> getStrategyMapSnapshot() {
+        indexLock.lock();
+        try {
+            return new HashMap<>(strategyMap);
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves strategy data for provided key
+     *
+     * @param key Key value
+     * @return strategy data for provided key, {@code null} if key is absent
+     */
+    @Override
+    public Long getStrategyData(K key) {
+        indexLock.lock();
+        try {
+            return strategyMap.get(key);
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Records access of provided key by strategy of this cache without reading its value
+     *
+     * @param key Key value
+     */
+    @Override
+    public void recordAccess(K key) {
+        accessIfPresent(key);
+    }
+
+    /**
+     * Sets strategy data of provided key, absent keys are ignored
+     *
+     * @param key Key value
+     * @param data Strategy data
+     */
+    @Override
+    public void putStrategyData(K key, Long data) {
+        indexLock.lock();
+        try {
+            if (strategyMap.containsKey(key)) {
+                strategyMap.put(key, data);
+            }
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves usage counters of this cache, on-disk bytes are size of cache file
+     *
+     * @return usage counters of this cache
+     */
+    @Override
+    public CacheUsage getUsage() {
+        return this.usage;
+    }
+
+    /**
+     * Retrieves generation of this cache, which is incremented by every clearing
+     *
+     * @return generation of this cache
+     */
+    public long getGeneration() {
+        return this.generation;
+    }
+
     /**
      * Retrieves capacity of this cache
      *
      * @return capacity of this cache
      */
+    @Override
     public int getCapacity() {
         return this.capacity;
     }
+
+    /**
+     * Sets listener of entries evicted by this level to free space
+     *
+     * @param listener Eviction listener, {@code null} removes listener
+     */
+    @Override
+    public void setEvictionListener(EvictionListener<K, V> listener) {
+        this.evictionListener = listener;
+    }
 }
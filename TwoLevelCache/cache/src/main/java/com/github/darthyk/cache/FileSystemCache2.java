@@ -4,28 +4,35 @@ import com.github.darthyk.cache.strategies.Strategy;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.TreeMap;
-import java.util.UUID;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Class represents work with file system memory cache.
  * <p>
- * NOTE: each value will be stored in separate file.
+ * NOTE: each value will be stored in separate file. New files get unique names and are written without locking,
+ * reading and deleting of files is coordinated by read-write lock instead of monitor.
  *
  * @param <K> any key value
  * @param <V> any value
  * @author Vladislav Sazhin
  */
 @Slf4j
-public class FileSystemCache2<K extends Serializable, V extends Serializable> implements Cache<K, V> {
+public class FileSystemCache2<K extends Serializable, V extends Serializable> implements CacheLevel<K, V> {
     HashMap<K, String> cacheMap;
     TreeMap<K, Long> strategyMap;
-    Path cachePath;
+    volatile Path cachePath;
+    long generation;
     Strategy strategyType;
+    EvictionListener<K, V> evictionListener;
     int capacity;
+    final CacheUsage usage = new CacheUsage();
+    final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+    Set<K> quarantinedKeys = new HashSet<>();
 
     /**
      * Initializes cache with provided capacity
@@ -43,6 +50,7 @@ public class FileSystemCache2<K extends Serializable, V extends Serializable> im
         strategyMap = new TreeMap<>();
         this.strategyType = strategyType;
         this.capacity = capacity;
+        strategyType.setCapacity(capacity);
     }
 
     /**
@@ -53,13 +61,19 @@ public class FileSystemCache2<K extends Serializable, V extends Serializable> im
      */
     @Override
     public void putToCache(K key, V value) {
-        if(!hasEmptySpace()) {
-            freeSpace();
+        String cacheFile = writeCacheToFile(key, value);
+        if (cacheFile == null) {
+            return;
+        }
+        indexLock.writeLock().lock();
+        try {
+            if(!hasEmptySpace()) {
+                freeSpace();
+            }
+            storeEntry(key, cacheFile, strategyType.fillStrategyData());
+        } finally {
+            indexLock.writeLock().unlock();
         }
-
-        strategyMap.put(key, strategyType.fillStrategyData());
-        strategyType.setStrategyData(strategyMap);
-        cacheMap.put(key, writeCacheToFile(value));
     }
 
     /**
@@ -69,10 +83,18 @@ public class FileSystemCache2<K extends Serializable, V extends Serializable> im
      * @param value Object value
      * @param frequencyData {@code Long} value from previous cache
      */
+    @Override
     public void transferDataFromAnotherCache(K key, V value, Long frequencyData) {
-        cacheMap.put(key, writeCacheToFile(value));
-        strategyMap.put(key, frequencyData);
-        strategyType.setStrategyData(strategyMap);
+        String cacheFile = writeCacheToFile(key, value);
+        if (cacheFile == null) {
+            return;
+        }
+        indexLock.writeLock().lock();
+        try {
+            storeEntry(key, cacheFile, frequencyData);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
     }
 
     /**
@@ -81,39 +103,58 @@ public class FileSystemCache2<K extends Serializable, V extends Serializable> im
     @Override
     public void freeSpace() {
         K objectToDelete = (K)this.strategyType.getKeyForSubstitution();
-        log.error("Object with key %s will be deleted", objectToDelete);
+        log.error("Object with key {} will be deleted", objectToDelete);
+        if (evictionListener != null) {
+            evictionListener.onEviction(objectToDelete, () -> peekObject(objectToDelete));
+        }
         deleteObject(objectToDelete);
     }
 
     /**
-     * Writes cache to file
+     * Writes cache entry to new file.
+     * Entry is written as checksummed record to temporary file, which is atomically renamed to cache file.
+     *
+     * @param key Key value
+     * @param value Object value
+     * @return path of cache file, {@code null} if file can't be written
      */
-    public synchronized String writeCacheToFile(V value) {
-        FileOutputStream fileStream = null;
-        ObjectOutputStream objectStream = null;
+    public String writeCacheToFile(K key, V value) {
         File cacheFile = new File(cachePath.toFile().getAbsolutePath() + File.separatorChar
                 + UUID.randomUUID() + ".tmp");
-        try {
-            fileStream = new FileOutputStream(cacheFile);
-        } catch (FileNotFoundException e) {
-            log.error("Can't find file %s \n Stack trace:\n %s", cacheFile.getAbsolutePath(), e.getMessage());
-        }
-        try {
-            objectStream = new ObjectOutputStream(fileStream);
-            objectStream.writeObject(value);
-        } catch (IOException e) {
-            log.error("Can't write to %s \n Stack trace:\n %s", cacheFile.getAbsolutePath(), e.getMessage());
-        }
-        try {
-            objectStream.close();
-            fileStream.flush();
-            fileStream.close();
+        try (PooledBufferOutputStream output = RecordCodec.newRecordStream()) {
+            RecordCodec.writeRecord(output, key, value);
+            RecordCodec.writeAtomically(cacheFile.toPath(), output.written());
         } catch (IOException e) {
-            log.error("Can't close File and Object streams.\n Stack trace:\n %s", e.getMessage());
+            log.error("Can't write to {}", cacheFile.getAbsolutePath(), e);
+            return null;
         }
         return cacheFile.getAbsolutePath();
     }
 
+    /**
+     * Replaces entry of provided key with written cache file, deletes file with previous value of entry and
+     * updates usage counters and strategy data, caller must hold write lock of index
+     *
+     * @param key Key value
+     * @param cacheFile Path of written cache file
+     * @param strategyData Strategy data of entry
+     */
+    private void storeEntry(K key, String cacheFile, Long strategyData) {
+        String previousFile = cacheMap.put(key, cacheFile);
+        usage.diskBytesChanged(new File(cacheFile).length());
+        if (previousFile == null) {
+            usage.entryAdded(SizeEstimator.estimateEntry(key, cacheFile));
+        } else {
+            usage.diskBytesChanged(-new File(previousFile).length());
+            if (!new File(previousFile).delete()) {
+                log.error("Can't delete file {}", previousFile);
+            }
+        }
+        strategyMap.put(key, strategyData);
+        strategyType.setStrategyData(strategyMap);
+        strategyType.onInsert(key);
+    }
+
     /**
      * Retrieves object for provided key from cache.
      * Increments frequency usage for provided object key.
@@ -123,45 +164,152 @@ public class FileSystemCache2<K extends Serializable, V extends Serializable> im
      */
     @Override
     public V getObject(K key) {
-        if(containsKey(key)) {
-            long frequency = strategyMap.remove(key);
+        return accessIfPresent(key) ? readValue(key) : null;
+    }
+
+    /**
+     * Increments frequency usage for provided object key if it is present
+     *
+     * @param key Key object
+     * @return {@code true} if key is present, {@code false} otherwise
+     */
+    private boolean accessIfPresent(K key) {
+        indexLock.writeLock().lock();
+        try {
+            Long frequency = strategyMap.get(key);
+            if (frequency == null) {
+                return false;
+            }
             strategyMap.put(key, strategyType.updateStrategyData(frequency));
-            return getDeserializedObject(cacheMap.get(key));
-        } else
+            strategyType.onAccess(key);
+            return true;
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves handle of object for provided key, record is read to heap buffer and value is deserialized
+     * on first access of handle.
+     * Increments frequency usage for provided object key.
+     *
+     * @param key Key object
+     * @return handle of value for provided key, {@code null} if key object is absent or its record is unreadable
+     */
+    @Override
+    public LazyValue<V> getLazyObject(K key) {
+        if (!accessIfPresent(key)) {
             return null;
+        }
+        String cacheFilePath;
+        ByteBuffer[] serializedValue = new ByteBuffer[1];
+        indexLock.readLock().lock();
+        try {
+            cacheFilePath = cacheMap.get(key);
+            if (cacheFilePath == null) {
+                return null;
+            }
+            try {
+                ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(Paths.get(cacheFilePath)));
+                if (RecordCodec.readRecords(content, (recordKey, value) -> serializedValue[0] = value) > 0) {
+                    serializedValue[0] = null;
+                }
+            } catch (IOException e) {
+                log.error("Can't read {}", cacheFilePath, e);
+            }
+        } finally {
+            indexLock.readLock().unlock();
+        }
+        if (serializedValue[0] == null) {
+            quarantine(key, cacheFilePath);
+            return null;
+        }
+        return LazyValue.ofSerialized(serializedValue[0]);
     }
 
     /**
-     * Retrieves deserialized cache object
+     * Retrieves object for provided key without updating its strategy data
+     *
+     * @param key Key value
+     * @return Value for provided key, {@code null} if key is absent
+     */
+    @Override
+    public V peekObject(K key) {
+        return containsKey(key) ? readValue(key) : null;
+    }
+
+    /**
+     * Reads value for provided key from its cache file, quarantines key if its record is unreadable
      *
-     * @return deserialized cache object
+     * @param key Key object
+     * @return Value for provided key, {@code null} if its record is unreadable
      */
-    public synchronized V getDeserializedObject(String cacheFilePath) {
-        FileInputStream fileInputStream = null;
+    private V readValue(K key) {
+        String cacheFilePath;
+        V value;
+        indexLock.readLock().lock();
         try {
-            fileInputStream = new FileInputStream(cacheFilePath);
-        } catch (FileNotFoundException e) {
-            log.error("Can't find file %s \n Stack trace:\n %s", cacheFilePath, e.getMessage());
+            cacheFilePath = cacheMap.get(key);
+            if (cacheFilePath == null) {
+                return null;
+            }
+            value = getDeserializedObject(cacheFilePath);
+        } finally {
+            indexLock.readLock().unlock();
         }
+        if (value == null) {
+            quarantine(key, cacheFilePath);
+        }
+        return value;
+    }
 
-        ObjectInputStream objectInputStream = null;
-        V deserializedObject = null;
+    /**
+     * Quarantines provided key and drops it from cache unless it was stored again after its record was read
+     *
+     * @param key Key value
+     * @param cacheFilePath Path of cache file with corrupted record
+     */
+    private void quarantine(K key, String cacheFilePath) {
+        log.error("Record for key {} is corrupted, key is quarantined", key);
+        indexLock.writeLock().lock();
         try {
-            objectInputStream = new ObjectInputStream(fileInputStream);
-            deserializedObject = (V)objectInputStream.readObject();
-        } catch (IOException e) {
-            log.error("Can't write to %s \n Stack trace:\n %s", cacheFilePath, e.getMessage());
-        } catch (ClassNotFoundException e) {
-            log.error("Can't find class. \n Stack trace:\n %s", e.getMessage());
+            quarantinedKeys.add(key);
+            if (cacheFilePath.equals(cacheMap.get(key))) {
+                deleteObject(key);
+            }
+        } finally {
+            indexLock.writeLock().unlock();
         }
+    }
 
+    /**
+     * Retrieves deserialized cache object
+     *
+     * @return deserialized cache object, {@code null} if record in cache file is corrupted
+     */
+    public V getDeserializedObject(String cacheFilePath) {
+        indexLock.readLock().lock();
         try {
-            objectInputStream.close();
-            fileInputStream.close();
-        } catch (IOException e) {
-            log.error("Can't close File and Object streams.\n Stack trace:\n %s", e.getMessage());
+            Object[] deserializedObject = new Object[1];
+            try {
+                ByteBuffer content = RecordCodec.readFile(Paths.get(cacheFilePath));
+                try {
+                    int corrupted = RecordCodec.readRecords(content, (key, value) ->
+                            deserializedObject[0] = RecordCodec.deserialize(value));
+                    if (corrupted > 0) {
+                        log.error("Record in {} is corrupted", cacheFilePath);
+                        return null;
+                    }
+                } finally {
+                    BufferPool.shared().release(content);
+                }
+            } catch (IOException e) {
+                log.error("Can't read {}", cacheFilePath, e);
+            }
+            return (V)deserializedObject[0];
+        } finally {
+            indexLock.readLock().unlock();
         }
-        return deserializedObject;
     }
 
     /**
@@ -170,14 +318,54 @@ public class FileSystemCache2<K extends Serializable, V extends Serializable> im
      * @param key Key value
      */
     @Override
-    public synchronized void deleteObject(K key) {
-        if(containsKey(key)) {
-            String fileToDelete = cacheMap.remove(key);
-            strategyMap.remove(key);
-            if (!new File(fileToDelete).delete()) {
-                log.error("Can't delete file %s", fileToDelete);
+    public void deleteObject(K key) {
+        indexLock.writeLock().lock();
+        try {
+            if(containsKey(key)) {
+                String fileToDelete = cacheMap.remove(key);
+                usage.entryRemoved(SizeEstimator.estimateEntry(key, fileToDelete));
+                usage.diskBytesChanged(-new File(fileToDelete).length());
+                strategyMap.remove(key);
+                strategyType.onRemove(key);
+                if (!new File(fileToDelete).delete()) {
+                    log.error("Can't delete file {}", fileToDelete);
+                }
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes cache objects for provided keys, index is updated once and files are deleted in parallel
+     *
+     * @param keys Key values
+     * @return amount of deleted objects
+     */
+    @Override
+    public int deleteObjects(Collection<K> keys) {
+        List<String> filesToDelete = new ArrayList<>();
+        indexLock.writeLock().lock();
+        try {
+            for (K key : keys) {
+                if (containsKey(key)) {
+                    String fileToDelete = cacheMap.remove(key);
+                    usage.entryRemoved(SizeEstimator.estimateEntry(key, fileToDelete));
+                    usage.diskBytesChanged(-new File(fileToDelete).length());
+                    strategyMap.remove(key);
+                    strategyType.onRemove(key);
+                    filesToDelete.add(fileToDelete);
+                }
             }
+        } finally {
+            indexLock.writeLock().unlock();
         }
+        filesToDelete.parallelStream().forEach(fileToDelete -> {
+            if (!new File(fileToDelete).delete()) {
+                log.error("Can't delete file {}", fileToDelete);
+            }
+        });
+        return filesToDelete.size();
     }
 
     /**
@@ -189,8 +377,7 @@ public class FileSystemCache2<K extends Serializable, V extends Serializable> im
     @Override
     public V removeObject(K key) {
         if(containsKey(key)) {
-            strategyMap.remove(key);
-            V value = getDeserializedObject(cacheMap.get(key));
+            V value = readValue(key);
             deleteObject(key);
             return value;
         } else
@@ -198,18 +385,36 @@ public class FileSystemCache2<K extends Serializable, V extends Serializable> im
     }
 
     /**
-     * Clears cache from all values
+     * Clears cache from all values.
+     * Cache switches to new generation with empty index and new directory, files of previous generation
+     * are deleted in background.
      */
     @Override
-    public synchronized void clearCache() {
-        for (String path : cacheMap.values()) {
-            if (!new File(path).delete()) {
-                log.error("Can't delete file %s", path);
+    public void clearCache() {
+        indexLock.writeLock().lock();
+        try {
+            Path previousPath = cachePath;
+            try {
+                cachePath = Files.createTempDirectory("cache");
+                cachePath.toFile().deleteOnExit();
+            } catch (IOException e) {
+                log.error("Can't create directory of new generation, files are reclaimed in place", e);
+            }
+            ++generation;
+            usage.reset();
+            if (previousPath.equals(cachePath)) {
+                for (String path : cacheMap.values()) {
+                    FileReclaimer.shared().reclaimFile(Paths.get(path));
+                }
+            } else {
+                FileReclaimer.shared().reclaimDirectory(previousPath);
             }
+            cacheMap = new HashMap<>();
+            strategyMap.clear();
+            strategyType.onClear();
+        } finally {
+            indexLock.writeLock().unlock();
         }
-
-        cacheMap.clear();
-        strategyMap.clear();
     }
 
     /**
@@ -220,7 +425,12 @@ public class FileSystemCache2<K extends Serializable, V extends Serializable> im
      */
     @Override
     public boolean containsKey(K key) {
-        return cacheMap.containsKey(key);
+        indexLock.readLock().lock();
+        try {
+            return cacheMap.containsKey(key);
+        } finally {
+            indexLock.readLock().unlock();
+        }
     }
 
     /**
@@ -230,7 +440,12 @@ public class FileSystemCache2<K extends Serializable, V extends Serializable> im
      */
     @Override
     public int size() {
-        return this.cacheMap.size();
+        indexLock.readLock().lock();
+        try {
+            return this.cacheMap.size();
+        } finally {
+            indexLock.readLock().unlock();
+        }
     }
 
     /**
@@ -258,16 +473,105 @@ public class FileSystemCache2<K extends Serializable, V extends Serializable> im
      *
      * @return strategy {@code TreeMap} for this cache
      */
+    @Override
     public TreeMap<K, Long> getStrategyMap() {
         return this.strategyMap;
     }
 
+    /**
+     * Retrieves strategy data for provided key
+     *
+     * @param key Key value
+     * @return strategy data for provided key, {@code null} if key is absent
+     */
+    @Override
+    public Long getStrategyData(K key) {
+        indexLock.readLock().lock();
+        try {
+            return strategyMap.get(key);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records access of provided key by strategy of this cache without reading its value
+     *
+     * @param key Key value
+     */
+    @Override
+    public void recordAccess(K key) {
+        accessIfPresent(key);
+    }
+
+    /**
+     * Sets strategy data of provided key, absent keys are ignored
+     *
+     * @param key Key value
+     * @param data Strategy data
+     */
+    @Override
+    public void putStrategyData(K key, Long data) {
+        indexLock.writeLock().lock();
+        try {
+            if (strategyMap.containsKey(key)) {
+                strategyMap.put(key, data);
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves keys which records were found corrupted and have been dropped from cache
+     *
+     * @return unmodifiable copy of quarantined keys
+     */
+    public Set<K> getQuarantinedKeys() {
+        indexLock.readLock().lock();
+        try {
+            return Collections.unmodifiableSet(new HashSet<>(quarantinedKeys));
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves usage counters of this cache, on-disk bytes are total size of entry files
+     *
+     * @return usage counters of this cache
+     */
+    @Override
+    public CacheUsage getUsage() {
+        return this.usage;
+    }
+
+    /**
+     * Retrieves generation of this cache, which is incremented by every clearing
+     *
+     * @return generation of this cache
+     */
+    public long getGeneration() {
+        return this.generation;
+    }
+
     /**
      * Retrieves capacity of this cache
      *
      * @return capacity of this cache
      */
+    @Override
     public int getCapacity() {
         return this.capacity;
     }
+
+    /**
+     * Sets listener of entries evicted by this level to free space
+     *
+     * @param listener Eviction listener, {@code null} removes listener
+     */
+    @Override
+    public void setEvictionListener(EvictionListener<K, V> listener) {
+        this.evictionListener = listener;
+    }
 }
@@ -0,0 +1,93 @@
+package com.github.darthyk.cache;
+
+/**
+ * Count-min sketch of recent access frequencies of keys.
+ * <p>
+ * Every key is counted in one 4 bit counter of each of four rows, frequency of key is the minimum of its counters.
+ * When amount of recorded accesses reaches ten times the width of sketch all counters are halved,
+ * so keys which were popular long ago lose their advantage over new keys.
+ *
+ * @param <K> any key value
+ */
+class FrequencySketch<K> {
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final long[] SEEDS = {0x97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L};
+    private final long[] table;
+    private final int rowMask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * Initializes sketch
+     *
+     * @param expectedKeys Expected amount of frequently accessed keys
+     */
+    FrequencySketch(int expectedKeys) {
+        int width = Integer.highestOneBit(Math.max(64, Math.min(1 << 24, expectedKeys)) - 1) << 1;
+        this.table = new long[width * DEPTH / 16];
+        this.rowMask = width - 1;
+        this.sampleSize = 10 * width;
+    }
+
+    /**
+     * Registers access of provided key
+     *
+     * @param key Key value
+     */
+    void increment(K key) {
+        long hash = spread(key);
+        boolean added = false;
+        for (int row = 0; row < DEPTH; ++row) {
+            int counter = counter(row, hash);
+            int index = counter >>> 4;
+            int shift = (counter & 15) << 2;
+            if (((table[index] >>> shift) & MAX_COUNT) < MAX_COUNT) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            halve();
+        }
+    }
+
+    /**
+     * Estimates recent access frequency of provided key
+     *
+     * @param key Key value
+     * @return estimated amount of recent accesses, never lower than real amount since last halving
+     */
+    int frequency(K key) {
+        long hash = spread(key);
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < DEPTH; ++row) {
+            int counter = counter(row, hash);
+            frequency = Math.min(frequency, (int)((table[counter >>> 4] >>> ((counter & 15) << 2)) & MAX_COUNT));
+        }
+        return frequency;
+    }
+
+    private int counter(int row, long hash) {
+        long rowHash = (hash + SEEDS[row]) * SEEDS[row];
+        rowHash ^= rowHash >>> 32;
+        int column = (int)rowHash & rowMask;
+        return row * (rowMask + 1) + column;
+    }
+
+    private void halve() {
+        additions >>>= 1;
+        for (int i = 0; i < table.length; ++i) {
+            table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+        }
+    }
+
+    private static long spread(Object key) {
+        long hash = key == null ? 0 : key.hashCode();
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+}
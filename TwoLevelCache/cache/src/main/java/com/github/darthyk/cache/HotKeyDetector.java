@@ -0,0 +1,171 @@
+package com.github.darthyk.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Detects heavy hitter keys with Space-Saving sketch over sampled accesses.
+ * <p>
+ * NOTE: sketch tracks fixed amount of keys in min-heap of counts, when it is full the least counted key
+ * is replaced by new one, which inherits its count as error, so every sample takes logarithmic time.
+ * Counts are halved every {@code decayPeriod} samples, so keys which stopped being hot are forgotten.
+ * Samples which come while another thread updates sketch are dropped instead of waiting for it.
+ *
+ * @param <K> any key value
+ */
+class HotKeyDetector<K> {
+    private static final long MIN_HOT_COUNT = 8;
+    private final int trackedKeys;
+    private final double hotFraction;
+    private final long decayPeriod;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<K, Integer> positions;
+    private final Object[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private int size;
+    private long samples;
+
+    /**
+     * Initializes detector
+     *
+     * @param trackedKeys Maximal amount of tracked keys
+     * @param hotFraction Minimal share of sampled accesses which makes key hot
+     */
+    HotKeyDetector(int trackedKeys, double hotFraction) {
+        if (trackedKeys <= 0) {
+            throw new IllegalArgumentException("Amount of tracked keys must be positive");
+        }
+        if (hotFraction <= 0 || hotFraction >= 1) {
+            throw new IllegalArgumentException("Hot fraction must be in (0, 1)");
+        }
+        this.trackedKeys = trackedKeys;
+        this.hotFraction = hotFraction;
+        this.decayPeriod = Math.max(1024, (long)Math.ceil(16 / hotFraction));
+        this.positions = new HashMap<>(trackedKeys * 2);
+        this.keys = new Object[trackedKeys];
+        this.counts = new long[trackedKeys];
+        this.errors = new long[trackedKeys];
+    }
+
+    /**
+     * Registers sampled access of provided key, sample is dropped if sketch is being updated by another thread
+     *
+     * @param key Key value
+     * @return {@code true} if key is hot, {@code false} otherwise or if sample is dropped
+     */
+    boolean record(K key) {
+        if (!lock.tryLock()) {
+            return false;
+        }
+        try {
+            if (++samples > decayPeriod) {
+                decay();
+            }
+            Integer position = positions.get(key);
+            if (position != null) {
+                ++counts[position];
+                return isHot(siftDown(position));
+            }
+            if (size < trackedKeys) {
+                int added = size++;
+                set(added, key, 1, 0);
+                return isHot(siftUp(added));
+            }
+            positions.remove(keys[0]);
+            set(0, key, counts[0] + 1, counts[0]);
+            return isHot(siftDown(0));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether provided key is hot
+     *
+     * @param key Key value
+     * @return {@code true} if key is hot, {@code false} otherwise
+     */
+    boolean isHot(K key) {
+        lock.lock();
+        try {
+            Integer position = positions.get(key);
+            return position != null && isHot(position.intValue());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isHot(int position) {
+        long guaranteedCount = counts[position] - errors[position];
+        return guaranteedCount >= MIN_HOT_COUNT && guaranteedCount >= hotFraction * samples;
+    }
+
+    /**
+     * Halves all counts, halving keeps order of counts, so heap is only compacted from forgotten keys
+     */
+    private void decay() {
+        samples /= 2;
+        int kept = 0;
+        for (int position = 0; position < size; ++position) {
+            long count = counts[position] / 2;
+            if (count == 0) {
+                positions.remove(keys[position]);
+            } else {
+                set(kept++, (K)keys[position], count, errors[position] / 2);
+            }
+        }
+        for (int position = kept; position < size; ++position) {
+            keys[position] = null;
+        }
+        size = kept;
+        for (int position = size / 2 - 1; position >= 0; --position) {
+            siftDown(position);
+        }
+    }
+
+    private int siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (counts[parent] <= counts[position]) {
+                break;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+        return position;
+    }
+
+    private int siftDown(int position) {
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                return position;
+            }
+            if (child + 1 < size && counts[child + 1] < counts[child]) {
+                ++child;
+            }
+            if (counts[position] <= counts[child]) {
+                return position;
+            }
+            swap(position, child);
+            position = child;
+        }
+    }
+
+    private void swap(int first, int second) {
+        K key = (K)keys[first];
+        long count = counts[first];
+        long error = errors[first];
+        set(first, (K)keys[second], counts[second], errors[second]);
+        set(second, key, count, error);
+    }
+
+    private void set(int position, K key, long count, long error) {
+        keys[position] = key;
+        counts[position] = count;
+        errors[position] = error;
+        positions.put(key, position);
+    }
+}
@@ -0,0 +1,230 @@
+package com.github.darthyk.cache;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Serves values of hot keys from small thread local replicas.
+ * <p>
+ * NOTE: every replica is valid for bounded staleness window and only while version of its key stripe
+ * is unchanged. Versions are bumped on every write, removal or eviction of key, so replicas never outlive
+ * changes of cache. Replica saves reading and deserializing value and is read without cache lock.
+ * Accesses served by replicas are buffered in batches of thread and recorded by cache in bulk, full batches
+ * are dropped while too many of them wait to be recorded, so recording never blocks readers.
+ *
+ * @param <K> any key value
+ * @param <V> any value
+ */
+class HotKeyReplicas<K, V> {
+    private static final int VERSION_STRIPES = 1024;
+    private static final int SAMPLE_INTERVAL = 16;
+    private static final int ACCESS_BATCH_SIZE = 32;
+    private static final int MAX_PENDING_BATCHES = 64;
+    private final HotKeyDetector<K> detector;
+    private final long stalenessNanos;
+    private final int maxReplicas;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final ThreadLocal<Map<K, Replica<V>>> replicas;
+    private final ThreadLocal<int[]> accessCounter = ThreadLocal.withInitial(() -> new int[1]);
+    private final ThreadLocal<AccessBatch<K>> accessBatch = ThreadLocal.withInitial(AccessBatch::new);
+    private final Queue<AccessBatch<K>> pendingBatches = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingBatchCount = new AtomicInteger();
+
+    /**
+     * Initializes hot key replicas
+     *
+     * @param trackedKeys Maximal amount of keys tracked by detector and replicated per thread
+     * @param hotFraction Minimal share of accesses which makes key hot
+     * @param staleness Maximal age of replica
+     * @param unit Time unit of staleness window
+     */
+    HotKeyReplicas(int trackedKeys, double hotFraction, long staleness, TimeUnit unit) {
+        this.detector = new HotKeyDetector<>(trackedKeys, hotFraction);
+        this.stalenessNanos = unit.toNanos(staleness);
+        this.maxReplicas = trackedKeys;
+        this.replicas = ThreadLocal.withInitial(() -> new ReplicaMap<>(maxReplicas));
+    }
+
+    /**
+     * Replicas of one thread, the least recently read replica is dropped when map exceeds its capacity
+     */
+    private static final class ReplicaMap<K, V> extends LinkedHashMap<K, Replica<V>> {
+        private static final long serialVersionUID = 1L;
+        private final int maxReplicas;
+
+        ReplicaMap(int maxReplicas) {
+            super(16, 0.75f, true);
+            this.maxReplicas = maxReplicas;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Replica<V>> eldest) {
+            return size() > maxReplicas;
+        }
+    }
+
+    private static final class Replica<V> {
+        final V value;
+        final long version;
+        final long expiresAt;
+
+        Replica(V value, long version, long expiresAt) {
+            this.value = value;
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Keys of replicated reads of one thread which aren't recorded by cache yet
+     */
+    private static final class AccessBatch<K> {
+        final Object[] keys = new Object[ACCESS_BATCH_SIZE];
+        int size;
+
+        void drainTo(Consumer<K> consumer) {
+            for (int i = 0; i < size; ++i) {
+                consumer.accept((K)keys[i]);
+                keys[i] = null;
+            }
+            size = 0;
+        }
+
+        void clear() {
+            Arrays.fill(keys, 0, size, null);
+            size = 0;
+        }
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    /**
+     * Retrieves version of provided key, it must be taken before value is read from cache
+     *
+     * @param key Key value
+     * @return current version of key
+     */
+    long version(K key) {
+        return versions.get(stripe(key));
+    }
+
+    /**
+     * Retrieves replicated value of provided key
+     *
+     * @param key Key value
+     * @return replicated value, {@code null} if current thread has no valid replica of key
+     */
+    V get(K key) {
+        Map<K, Replica<V>> threadReplicas = replicas.get();
+        if (threadReplicas.isEmpty()) {
+            return null;
+        }
+        Replica<V> replica = threadReplicas.get(key);
+        if (replica == null) {
+            return null;
+        }
+        if (replica.version != version(key) || System.nanoTime() - replica.expiresAt > 0) {
+            threadReplicas.remove(key);
+            return null;
+        }
+        return replica.value;
+    }
+
+    /**
+     * Registers access of provided key served by cache and replicates its value if key is hot.
+     * Only every {@value #SAMPLE_INTERVAL}-th access of thread is fed to detector.
+     *
+     * @param key Key value
+     * @param value Value read from cache
+     * @param version Version of key taken before value was read
+     */
+    void recordAccess(K key, V value, long version) {
+        int[] counter = accessCounter.get();
+        if (++counter[0] < SAMPLE_INTERVAL) {
+            return;
+        }
+        counter[0] = 0;
+        if (detector.record(key) && value != null) {
+            replicate(key, value, version);
+        }
+    }
+
+    /**
+     * Buffers access of provided key served from replica of current thread.
+     * Full batch of thread is handed over to be recorded, it is dropped if too many batches are pending.
+     *
+     * @param key Key value
+     * @return {@code true} if batch of current thread has been handed over, {@code false} otherwise
+     */
+    boolean bufferAccess(K key) {
+        AccessBatch<K> batch = accessBatch.get();
+        batch.keys[batch.size++] = key;
+        if (batch.size < ACCESS_BATCH_SIZE) {
+            return false;
+        }
+        if (pendingBatchCount.incrementAndGet() > MAX_PENDING_BATCHES) {
+            pendingBatchCount.decrementAndGet();
+            batch.clear();
+            return true;
+        }
+        accessBatch.set(new AccessBatch<>());
+        pendingBatches.offer(batch);
+        return true;
+    }
+
+    /**
+     * Passes buffered accesses of handed over batches and of current thread to provided consumer
+     *
+     * @param consumer Consumer of accessed keys
+     */
+    void drainAccesses(Consumer<K> consumer) {
+        accessBatch.get().drainTo(consumer);
+        AccessBatch<K> batch;
+        while ((batch = pendingBatches.poll()) != null) {
+            pendingBatchCount.decrementAndGet();
+            batch.drainTo(consumer);
+        }
+    }
+
+    private void replicate(K key, V value, long version) {
+        replicas.get().put(key, new Replica<>(value, version, System.nanoTime() + stalenessNanos));
+    }
+
+    /**
+     * Checks whether provided key is detected as hot
+     *
+     * @param key Key value
+     * @return {@code true} if key is hot, {@code false} otherwise
+     */
+    boolean isHot(K key) {
+        return detector.isHot(key);
+    }
+
+    /**
+     * Invalidates replicas of provided key in all threads
+     *
+     * @param key Key value
+     */
+    void invalidate(K key) {
+        versions.incrementAndGet(stripe(key));
+    }
+
+    /**
+     * Invalidates replicas of all keys in all threads
+     */
+    void invalidateAll() {
+        for (int i = 0; i < VERSION_STRIPES; ++i) {
+            versions.incrementAndGet(i);
+        }
+    }
+}
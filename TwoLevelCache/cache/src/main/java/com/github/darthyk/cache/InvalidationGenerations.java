@@ -0,0 +1,110 @@
+package com.github.darthyk.cache;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Tracks bulk invalidations which are announced but not yet applied to cache levels.
+ * <p>
+ * NOTE: every invalidation gets new generation. Key is invalidated by pending invalidation if it matches its
+ * predicate and wasn't written since invalidation was announced, write generations are tracked only while
+ * there are pending invalidations. Instance isn't thread safe, {@code TwoLevelCache} calls it under its level lock.
+ *
+ * @param <K> any key value
+ */
+class InvalidationGenerations<K> {
+    private final List<Invalidation<K>> pending = new ArrayList<>();
+    private final Map<K, Long> writeGenerations = new HashMap<>();
+    private long generation;
+
+    static final class Invalidation<K> {
+        final long generation;
+        final Predicate<? super K> predicate;
+
+        Invalidation(long generation, Predicate<? super K> predicate) {
+            this.generation = generation;
+            this.predicate = predicate;
+        }
+    }
+
+    /**
+     * Announces invalidation of keys matching provided predicate
+     *
+     * @param predicate Predicate of invalidated keys
+     * @return announced invalidation
+     */
+    Invalidation<K> announce(Predicate<? super K> predicate) {
+        Invalidation<K> invalidation = new Invalidation<>(++generation, predicate);
+        pending.add(invalidation);
+        return invalidation;
+    }
+
+    /**
+     * Marks provided invalidation as applied to cache levels
+     *
+     * @param invalidation Applied invalidation
+     */
+    void complete(Invalidation<K> invalidation) {
+        pending.remove(invalidation);
+        if (pending.isEmpty()) {
+            writeGenerations.clear();
+        }
+    }
+
+    /**
+     * Registers write of provided key
+     *
+     * @param key Key value
+     */
+    void recordWrite(K key) {
+        if (!pending.isEmpty()) {
+            writeGenerations.put(key, generation);
+        }
+    }
+
+    /**
+     * Checks whether provided key is invalidated by provided invalidation
+     *
+     * @param invalidation Invalidation
+     * @param key Key value
+     * @return {@code true} if key matches invalidation and wasn't written after it, {@code false} otherwise
+     */
+    boolean invalidates(Invalidation<K> invalidation, K key) {
+        return !writtenAfter(invalidation, key) && invalidation.predicate.test(key);
+    }
+
+    /**
+     * Checks whether provided key was written after provided invalidation was announced
+     *
+     * @param invalidation Invalidation
+     * @param key Key value
+     * @return {@code true} if key was written after invalidation, {@code false} otherwise
+     */
+    boolean writtenAfter(Invalidation<K> invalidation, K key) {
+        return writeGenerations.getOrDefault(key, 0L) >= invalidation.generation;
+    }
+
+    /**
+     * Checks whether provided key is invalidated by any pending invalidation
+     *
+     * @param key Key value
+     * @return {@code true} if key is invalidated, {@code false} otherwise
+     */
+    boolean isInvalidated(K key) {
+        for (Invalidation<K> invalidation : pending) {
+            if (invalidates(invalidation, key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether there are pending invalidations
+     *
+     * @return {@code true} if some invalidation isn't applied yet, {@code false} otherwise
+     */
+    boolean hasPending() {
+        return !pending.isEmpty();
+    }
+}
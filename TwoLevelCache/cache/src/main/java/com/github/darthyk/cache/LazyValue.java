@@ -0,0 +1,88 @@
+package com.github.darthyk.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Handle of cached value which is deserialized on first call of {@link #get()}.
+ * <p>
+ * NOTE: handle keeps serialized value read from second level cache, decoded value is cached in handle,
+ * so it is deserialized at most once per handle. Handles of values which are kept in memory are decoded already.
+ *
+ * @param <V> any value
+ */
+public final class LazyValue<V> {
+    private final ByteBuffer serializedValue;
+    private volatile V value;
+    private volatile boolean decoded;
+
+    private LazyValue(ByteBuffer serializedValue, V value, boolean decoded) {
+        this.serializedValue = serializedValue;
+        this.value = value;
+        this.decoded = decoded;
+    }
+
+    /**
+     * Creates handle of already decoded value
+     *
+     * @param value Object value
+     * @return handle of provided value, {@code null} if value is {@code null}
+     */
+    static <V> LazyValue<V> of(V value) {
+        return value == null ? null : new LazyValue<>(null, value, true);
+    }
+
+    /**
+     * Creates handle over serialized value, buffer must not be changed or reused after this call
+     *
+     * @param serializedValue Remaining bytes of buffer are Java serialized value
+     * @return handle of serialized value
+     */
+    static <V> LazyValue<V> ofSerialized(ByteBuffer serializedValue) {
+        return new LazyValue<>(serializedValue.asReadOnlyBuffer(), null, false);
+    }
+
+    /**
+     * Retrieves value, deserializing it on first call
+     *
+     * @return Object value
+     * @throws IllegalStateException if value can't be deserialized
+     */
+    public V get() {
+        if (!decoded) {
+            synchronized (this) {
+                if (!decoded) {
+                    try {
+                        value = (V)RecordCodec.deserialize(serializedValue.duplicate());
+                    } catch (IOException | ClassNotFoundException e) {
+                        throw new IllegalStateException("Can't deserialize cached value", e);
+                    }
+                    decoded = true;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Checks whether value has been deserialized already
+     *
+     * @return {@code true} if value is decoded, {@code false} otherwise
+     */
+    public boolean isDecoded() {
+        return decoded;
+    }
+
+    /**
+     * Retrieves serialized value without deserializing it, so value can be passed through unchanged
+     *
+     * @return read-only buffer with Java serialized value
+     * @throws IOException if decoded value can't be serialized
+     */
+    public ByteBuffer getSerializedValue() throws IOException {
+        if (serializedValue != null) {
+            return serializedValue.duplicate();
+        }
+        return ByteBuffer.wrap(RecordCodec.serialize(value)).asReadOnlyBuffer();
+    }
+}
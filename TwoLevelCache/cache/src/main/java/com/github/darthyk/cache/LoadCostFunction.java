@@ -0,0 +1,19 @@
+package com.github.darthyk.cache;
+
+/**
+ * Estimates cost of loading value again after it left cache
+ *
+ * @param <K> any key value
+ * @param <V> any value
+ */
+public interface LoadCostFunction<K, V> {
+
+    /**
+     * Estimates cost of reloading provided entry from backing storage
+     *
+     * @param key Key value
+     * @param value Object value
+     * @return reload cost in the same units as disk costs of demotion policy
+     */
+    double loadCost(K key, V value);
+}
@@ -14,11 +14,14 @@ import java.util.*;
  * @author Vladislav Sazhin
  */
 @Slf4j
-public class MemoryCache<K extends Serializable, V extends Serializable> implements Cache<K, V> {
+public class MemoryCache<K extends Serializable, V extends Serializable> implements CacheLevel<K, V> {
     private HashMap<K, V> cacheMap;
+    private HashMap<K, Long> entrySizes;
+    private EvictionListener<K, V> evictionListener;
     private TreeMap<K, Long> strategyMap;
     private Strategy strategyType;
     private int capacity;
+    private final CacheUsage usage = new CacheUsage();
 
     /**
      * Initializes cache with provided capacity
@@ -27,9 +30,11 @@ public class MemoryCache<K extends Serializable, V extends Serializable> impleme
      */
     MemoryCache(int capacity, Strategy strategyType) {
         this.cacheMap = new HashMap<>();
+        this.entrySizes = new HashMap<>();
         this.strategyMap = new TreeMap<>();
         this.strategyType = strategyType;
         this.capacity = capacity;
+        strategyType.setCapacity(capacity);
     }
 
     /**
@@ -43,9 +48,10 @@ public class MemoryCache<K extends Serializable, V extends Serializable> impleme
         if(!hasEmptySpace()) {
             freeSpace();
         }
-        cacheMap.put(key, value);
+        storeEntry(key, value);
         strategyMap.put(key, strategyType.fillStrategyData());
         strategyType.setStrategyData(strategyMap);
+        strategyType.onInsert(key);
     }
 
     /**
@@ -55,10 +61,29 @@ public class MemoryCache<K extends Serializable, V extends Serializable> impleme
      * @param value Object value
      * @param frequencyData {@code Long} value from previous cache
      */
+    @Override
     public void transferDataFromAnotherCache(K key, V value, Long frequencyData) {
-        cacheMap.put(key, value);
+        storeEntry(key, value);
         strategyMap.put(key, frequencyData);
         strategyType.setStrategyData(strategyMap);
+        strategyType.onInsert(key);
+    }
+
+    /**
+     * Stores provided entry and updates usage counters
+     *
+     * @param key Key value
+     * @param value Object value
+     */
+    private void storeEntry(K key, V value) {
+        long size = SizeEstimator.estimateEntry(key, value);
+        Long previousSize = entrySizes.put(key, size);
+        cacheMap.put(key, value);
+        if (previousSize != null) {
+            usage.heapBytesChanged(size - previousSize);
+        } else {
+            usage.entryAdded(size);
+        }
     }
 
     /**
@@ -67,8 +92,11 @@ public class MemoryCache<K extends Serializable, V extends Serializable> impleme
     @Override
     public void freeSpace() {
         K objectToDelete = (K)this.strategyType.getKeyForSubstitution();
-        log.info("Object with key % will be deleted from cache according to substitution strategy %s", objectToDelete,
+        log.info("Object with key {} will be deleted from cache according to substitution strategy {}", objectToDelete,
                 strategyType.getClass().getSimpleName());
+        if (evictionListener != null) {
+            evictionListener.onEviction(objectToDelete, () -> peekObject(objectToDelete));
+        }
         deleteObject(objectToDelete);
     }
 
@@ -84,11 +112,23 @@ public class MemoryCache<K extends Serializable, V extends Serializable> impleme
         if(containsKey(key)) {
             long frequency = strategyMap.remove(key);
             strategyMap.put(key, strategyType.updateStrategyData(frequency));
+            strategyType.onAccess(key);
             return cacheMap.get(key);
         } else
             return null;
     }
 
+    /**
+     * Retrieves object for provided key without updating its strategy data
+     *
+     * @param key Key value
+     * @return Value for provided key, {@code null} if key is absent
+     */
+    @Override
+    public V peekObject(K key) {
+        return cacheMap.get(key);
+    }
+
     /**
      * Deletes object from cache for provided key
      *
@@ -98,7 +138,9 @@ public class MemoryCache<K extends Serializable, V extends Serializable> impleme
     public void deleteObject(K key) {
         if(containsKey(key)) {
             cacheMap.remove(key);
+            usage.entryRemoved(entrySizes.remove(key));
             strategyMap.remove(key);
+            strategyType.onRemove(key);
         }
     }
 
@@ -112,7 +154,10 @@ public class MemoryCache<K extends Serializable, V extends Serializable> impleme
     public V removeObject(K key) {
         if(containsKey(key)) {
             strategyMap.remove(key);
-            return cacheMap.remove(key);
+            strategyType.onRemove(key);
+            V value = cacheMap.remove(key);
+            usage.entryRemoved(entrySizes.remove(key));
+            return value;
         } else
             return null;
     }
@@ -122,8 +167,11 @@ public class MemoryCache<K extends Serializable, V extends Serializable> impleme
      */
     @Override
     public void clearCache() {
-        cacheMap.clear();
+        cacheMap = new HashMap<>();
+        entrySizes = new HashMap<>();
         strategyMap.clear();
+        strategyType.onClear();
+        usage.reset();
     }
 
     /**
@@ -172,16 +220,38 @@ public class MemoryCache<K extends Serializable, V extends Serializable> impleme
      *
      * @return strategy {@code TreeMap} for this cache
      */
+    @Override
     public TreeMap<K, Long> getStrategyMap() {
         return this.strategyMap;
     }
 
+    /**
+     * Retrieves usage counters of this cache
+     *
+     * @return usage counters of this cache
+     */
+    @Override
+    public CacheUsage getUsage() {
+        return this.usage;
+    }
+
     /**
      * Retrieves capacity of this cache
      *
      * @return capacity of this cache
      */
+    @Override
     public int getCapacity() {
         return this.capacity;
     }
+
+    /**
+     * Sets listener of entries evicted by this level to free space
+     *
+     * @param listener Eviction listener, {@code null} removes listener
+     */
+    @Override
+    public void setEvictionListener(EvictionListener<K, V> listener) {
+        this.evictionListener = listener;
+    }
 }
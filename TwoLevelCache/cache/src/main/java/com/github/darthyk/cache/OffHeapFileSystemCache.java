@@ -0,0 +1,1018 @@
+package com.github.darthyk.cache;
+
+import com.github.darthyk.cache.strategies.Strategy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Class represents work with file system cache which index and strategy data are kept outside of Java heap.
+ * <p>
+ * NOTE: records are appended to one data file, key index is open addressing hash table with fixed slot layout
+ * in memory mapped index file. Slot keeps 64-bit hash of serialized key, record offset and length, state and
+ * strategy data of entry, so heap footprint of cache doesn't depend on amount of entries. Every lookup verifies
+ * serialized key of record, lookups which don't need value read only header and key of record.
+ * Deleted slots are refilled by shifting following slots of probe sequence back, so index never needs rebuilding.
+ * Serialized forms of recently used keys are cached, so strategy data lookups don't serialize key every time.
+ * Victims and promotion candidates are chosen by strategy among randomly sampled entries, strategy hooks
+ * are not called for entries of this cache. Data file is compacted when garbage of replaced and deleted records
+ * outweighs live records.
+ *
+ * @param <K> any key value
+ * @param <V> any value
+ */
+@Slf4j
+public class OffHeapFileSystemCache<K extends Serializable, V extends Serializable> implements CacheLevel<K, V> {
+    static final int SLOT_SIZE = 32;
+    private static final int HASH = 0;
+    private static final int OFFSET = 8;
+    private static final int LENGTH = 16;
+    private static final int STATE = 20;
+    private static final int SCORE = 24;
+    private static final int EMPTY = 0;
+    private static final int USED = 1;
+    private static final int SEGMENT_SHIFT = 25;
+    private static final int SAMPLE_SIZE = 8;
+    private static final long MIN_GARBAGE_FOR_COMPACTION = 1 << 20;
+    private static final int SERIALIZED_KEYS = 64;
+
+    private final Path parentDirectory;
+    private final Strategy strategyType;
+    private final int capacity;
+    private final long slots;
+    private final CacheUsage usage = new CacheUsage();
+    private EvictionListener<K, V> evictionListener;
+    private final ReentrantLock indexLock = new ReentrantLock();
+    private final IndexStrategyMap strategyMap = new IndexStrategyMap();
+    private final Map<Object, ByteBuffer> serializedKeys = new LinkedHashMap<Object, ByteBuffer>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, ByteBuffer> eldest) {
+            return size() > SERIALIZED_KEYS;
+        }
+    };
+    private Path cachePath;
+    private File indexFile;
+    private MappedByteBuffer[] segments;
+    private File dataFile;
+    private FileChannel dataChannel;
+    private long dataSize;
+    private long garbageBytes;
+    private long usedSlots;
+    private long generation;
+
+    /**
+     * Initializes cache with provided capacity
+     *
+     * @param capacity Cache size
+     */
+    OffHeapFileSystemCache(int capacity, Strategy strategyType) {
+        this(capacity, strategyType, null);
+    }
+
+    /**
+     * Initializes cache with provided capacity inside provided directory
+     *
+     * @param capacity Cache size
+     * @param directory Parent directory for cache files, {@code null} for default temporary directory
+     */
+    OffHeapFileSystemCache(int capacity, Strategy strategyType, Path directory) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.parentDirectory = directory;
+        this.strategyType = strategyType;
+        this.capacity = capacity;
+        strategyType.setCapacity(capacity);
+        this.slots = Long.highestOneBit(2L * capacity - 1) << 1;
+        openGeneration();
+        strategyType.setStrategyData(strategyMap);
+    }
+
+    private void openGeneration() {
+        try {
+            cachePath = parentDirectory == null ? Files.createTempDirectory("cache")
+                    : Files.createTempDirectory(parentDirectory, "cache");
+            cachePath.toFile().deleteOnExit();
+            indexFile = cachePath.resolve("index").toFile();
+            segments = mapIndex(indexFile);
+            dataFile = cachePath.resolve("data").toFile();
+            dataChannel = FileChannel.open(dataFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't create cache files", e);
+        }
+        dataSize = 0;
+        garbageBytes = 0;
+        usedSlots = 0;
+        usage.reset();
+        usage.setDiskBytes(slots * SLOT_SIZE);
+    }
+
+    private MappedByteBuffer[] mapIndex(File file) throws IOException {
+        long segmentSlots = Math.min(slots, 1L << SEGMENT_SHIFT);
+        MappedByteBuffer[] mappedSegments = new MappedByteBuffer[(int)((slots + segmentSlots - 1) / segmentSlots)];
+        try (RandomAccessFile index = new RandomAccessFile(file, "rw")) {
+            index.setLength(slots * SLOT_SIZE);
+            for (int i = 0; i < mappedSegments.length; ++i) {
+                mappedSegments[i] = index.getChannel().map(FileChannel.MapMode.READ_WRITE,
+                        i * segmentSlots * SLOT_SIZE, segmentSlots * SLOT_SIZE);
+            }
+        }
+        return mappedSegments;
+    }
+
+    private MappedByteBuffer segment(MappedByteBuffer[] index, long slot) {
+        return index[(int)(slot >>> SEGMENT_SHIFT)];
+    }
+
+    private int position(long slot, int field) {
+        return (int)((slot & ((1L << SEGMENT_SHIFT) - 1)) * SLOT_SIZE) + field;
+    }
+
+    private long getLong(long slot, int field) {
+        return segment(segments, slot).getLong(position(slot, field));
+    }
+
+    private int getInt(long slot, int field) {
+        return segment(segments, slot).getInt(position(slot, field));
+    }
+
+    private void putLong(long slot, int field, long value) {
+        segment(segments, slot).putLong(position(slot, field), value);
+    }
+
+    private void putInt(long slot, int field, int value) {
+        segment(segments, slot).putInt(position(slot, field), value);
+    }
+
+    /**
+     * Calculates 64-bit hash of serialized key, hash is never {@code 0}
+     *
+     * @param keyBytes Serialized key
+     * @return hash of key
+     */
+    static long hash(ByteBuffer keyBytes) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = keyBytes.position(); i < keyBytes.limit(); ++i) {
+            hash ^= keyBytes.get(i) & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * Serializes provided key, serialized forms of recently used keys are reused.
+     * Must be called under index lock.
+     *
+     * @param key Key value
+     * @return serialized key, {@code null} if key can't be serialized
+     */
+    private ByteBuffer serializeKey(Object key) {
+        ByteBuffer keyBytes = serializedKeys.get(key);
+        if (keyBytes == null) {
+            try {
+                keyBytes = ByteBuffer.wrap(RecordCodec.serialize(key));
+            } catch (IOException e) {
+                log.error("Can't serialize key {}", key, e);
+                return null;
+            }
+            serializedKeys.put(key, keyBytes);
+        }
+        return keyBytes.duplicate();
+    }
+
+    /**
+     * Finds slot of provided key, only header and key of records with matching hash are read
+     *
+     * @param keyBytes Serialized key
+     * @return slot of key, {@code -1} if key is absent
+     */
+    private long probe(ByteBuffer keyBytes) {
+        long hash = hash(keyBytes);
+        long mask = slots - 1;
+        for (long slot = hash & mask, probes = 0; probes < slots; slot = (slot + 1) & mask, ++probes) {
+            if (getInt(slot, STATE) == EMPTY) {
+                return -1;
+            }
+            if (getLong(slot, HASH) == hash && hasKey(slot, keyBytes)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether record of provided slot has provided key
+     *
+     * @param slot Used slot
+     * @param keyBytes Serialized key
+     * @return {@code true} if header of record is valid and its key is equal to provided one, {@code false} otherwise
+     */
+    private boolean hasKey(long slot, ByteBuffer keyBytes) {
+        int prefixLength = RecordCodec.HEADER_SIZE + keyBytes.remaining();
+        if (getInt(slot, LENGTH) < prefixLength) {
+            return false;
+        }
+        ByteBuffer prefix = readRecord(slot, prefixLength);
+        try {
+            if (prefix.remaining() < prefixLength || prefix.getInt(0) != RecordCodec.MAGIC
+                    || prefix.getInt(4) != keyBytes.remaining()) {
+                return false;
+            }
+            prefix.position(RecordCodec.HEADER_SIZE);
+            return prefix.equals(keyBytes);
+        } finally {
+            BufferPool.shared().release(prefix);
+        }
+    }
+
+    private static final class Lookup {
+        final long slot;
+        final ByteBuffer content;
+        final ByteBuffer value;
+
+        Lookup(long slot, ByteBuffer content, ByteBuffer value) {
+            this.slot = slot;
+            this.content = content;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Finds slot of provided key and reads its record, key of record is verified.
+     * Record content must be returned to {@link BufferPool#shared()} by caller.
+     *
+     * @param keyBytes Serialized key
+     * @return found slot with record, {@code null} if key is absent
+     */
+    private Lookup lookup(ByteBuffer keyBytes) {
+        long hash = hash(keyBytes);
+        long mask = slots - 1;
+        long slot = hash & mask;
+        for (long probes = 0; probes < slots; ++probes) {
+            if (getInt(slot, STATE) == EMPTY) {
+                return null;
+            }
+            if (getLong(slot, HASH) == hash) {
+                ByteBuffer content = readRecord(slot, getInt(slot, LENGTH));
+                ByteBuffer[] record = parseRecord(content);
+                if (record == null) {
+                    BufferPool.shared().release(content);
+                    log.error("Record of slot {} is corrupted, slot is dropped", slot);
+                    // following slot of probe sequence may have been shifted into dropped one
+                    deleteSlot(slot);
+                    continue;
+                }
+                if (record[0].equals(keyBytes)) {
+                    return new Lookup(slot, content, record[1]);
+                }
+                BufferPool.shared().release(content);
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Reads beginning of record of provided slot into pooled buffer
+     *
+     * @param slot Used slot
+     * @param length Amount of bytes to read, at most length of record
+     * @return flipped buffer, it must be returned to {@link BufferPool#shared()}
+     */
+    private ByteBuffer readRecord(long slot, int length) {
+        long offset = getLong(slot, OFFSET);
+        ByteBuffer content = BufferPool.shared().acquireHeap(length);
+        content.limit(length);
+        try {
+            while (content.hasRemaining()) {
+                if (dataChannel.read(content, offset + content.position()) < 0) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            log.error("Can't read {}", dataFile.getAbsolutePath(), e);
+        }
+        content.flip();
+        return content;
+    }
+
+    private static ByteBuffer[] parseRecord(ByteBuffer content) {
+        ByteBuffer[] record = new ByteBuffer[2];
+        int corrupted = RecordCodec.readRecords(content, (key, value) -> {
+            record[0] = key;
+            record[1] = value;
+        });
+        return corrupted > 0 || record[0] == null ? null : record;
+    }
+
+    /**
+     * Reads serialized key of record of provided slot, value of record isn't read
+     *
+     * @param slot Used slot
+     * @return serialized key, {@code null} if header of record is corrupted
+     */
+    private ByteBuffer readKeyBytes(long slot) {
+        int length = getInt(slot, LENGTH);
+        if (length < RecordCodec.HEADER_SIZE) {
+            return null;
+        }
+        ByteBuffer header = readRecord(slot, RecordCodec.HEADER_SIZE);
+        int keyLength;
+        try {
+            if (header.remaining() < RecordCodec.HEADER_SIZE || header.getInt(0) != RecordCodec.MAGIC) {
+                return null;
+            }
+            keyLength = header.getInt(4);
+        } finally {
+            BufferPool.shared().release(header);
+        }
+        if (keyLength < 0 || keyLength > length - RecordCodec.HEADER_SIZE) {
+            return null;
+        }
+        ByteBuffer prefix = readRecord(slot, RecordCodec.HEADER_SIZE + keyLength);
+        try {
+            if (prefix.remaining() < RecordCodec.HEADER_SIZE + keyLength) {
+                return null;
+            }
+            prefix.position(RecordCodec.HEADER_SIZE);
+            ByteBuffer keyBytes = ByteBuffer.allocate(keyLength);
+            keyBytes.put(prefix).flip();
+            return keyBytes;
+        } finally {
+            BufferPool.shared().release(prefix);
+        }
+    }
+
+    private K deserializeKey(ByteBuffer keyBytes) {
+        try {
+            return keyBytes == null ? null : (K)RecordCodec.deserialize(keyBytes.duplicate());
+        } catch (IOException | ClassNotFoundException e) {
+            log.error("Can't deserialize key", e);
+            return null;
+        }
+    }
+
+    private K readKey(long slot) {
+        return deserializeKey(readKeyBytes(slot));
+    }
+
+    /**
+     * Caches provided object value with provided key
+     *
+     * @param key Key value
+     * @param value Object value
+     */
+    @Override
+    public void putToCache(K key, V value) {
+        store(key, value, strategyType.fillStrategyData(), true);
+    }
+
+    /**
+     * Transfers data from another cache
+     *
+     * @param key Key value
+     * @param value Object value
+     * @param frequencyData {@code Long} value from previous cache
+     */
+    @Override
+    public void transferDataFromAnotherCache(K key, V value, Long frequencyData) {
+        store(key, value, frequencyData == null ? strategyType.fillStrategyData() : frequencyData, false);
+    }
+
+    /**
+     * Appends record of provided entry to data file and points slot of key to it
+     *
+     * @param key Key value
+     * @param value Object value
+     * @param score Strategy data of entry
+     * @param freeSpaceIfFull {@code true} to free space for new key if cache is full
+     */
+    private void store(K key, V value, long score, boolean freeSpaceIfFull) {
+        indexLock.lock();
+        try (PooledBufferOutputStream output = RecordCodec.newRecordStream()) {
+            RecordCodec.writeRecord(output, key, value);
+            ByteBuffer record = output.written();
+            ByteBuffer keyBytes = output.region(RecordCodec.HEADER_SIZE, record.getInt(4));
+            long slot = probe(keyBytes);
+            if (slot < 0 && freeSpaceIfFull && !hasEmptySpace()) {
+                freeSpace();
+            }
+            long offset = dataSize;
+            ByteBuffer source = record.duplicate();
+            while (source.hasRemaining()) {
+                dataChannel.write(source, offset + source.position() - record.position());
+            }
+            dataSize += record.remaining();
+            usage.diskBytesChanged(record.remaining());
+            if (slot >= 0) {
+                garbageBytes += getInt(slot, LENGTH);
+            } else {
+                slot = insertSlot(hash(keyBytes));
+                usage.entryAdded(0);
+            }
+            putLong(slot, OFFSET, offset);
+            putInt(slot, LENGTH, record.remaining());
+            putLong(slot, SCORE, score);
+            compactIfNeeded();
+        } catch (IOException e) {
+            log.error("Can't write to {}", dataFile.getAbsolutePath(), e);
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private long insertSlot(long hash) {
+        if (usedSlots + 1 >= slots) {
+            throw new IllegalStateException("Index of " + cachePath + " is full");
+        }
+        long mask = slots - 1;
+        long slot = hash & mask;
+        while (getInt(slot, STATE) == USED) {
+            slot = (slot + 1) & mask;
+        }
+        putLong(slot, HASH, hash);
+        putInt(slot, STATE, USED);
+        ++usedSlots;
+        return slot;
+    }
+
+    /**
+     * Empties provided slot and shifts following slots of probe sequence back into it,
+     * so every used slot stays reachable from its home slot without deleted markers
+     *
+     * @param slot Used slot
+     */
+    private void deleteSlot(long slot) {
+        garbageBytes += getInt(slot, LENGTH);
+        --usedSlots;
+        usage.entryRemoved(0);
+        long mask = slots - 1;
+        long hole = slot;
+        for (long next = (hole + 1) & mask; getInt(next, STATE) == USED; next = (next + 1) & mask) {
+            long home = getLong(next, HASH) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                putLong(hole, HASH, getLong(next, HASH));
+                putLong(hole, OFFSET, getLong(next, OFFSET));
+                putInt(hole, LENGTH, getInt(next, LENGTH));
+                putLong(hole, SCORE, getLong(next, SCORE));
+                hole = next;
+            }
+        }
+        putInt(hole, STATE, EMPTY);
+    }
+
+    /**
+     * Rewrites live records to new data file when garbage outweighs them
+     */
+    private void compactIfNeeded() throws IOException {
+        if (garbageBytes < MIN_GARBAGE_FOR_COMPACTION || garbageBytes < dataSize - garbageBytes) {
+            return;
+        }
+        File compactedFile = cachePath.resolve("data." + (++generation)).toFile();
+        FileChannel compactedChannel = FileChannel.open(compactedFile.toPath(), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long compactedSize = 0;
+        for (long slot = 0; slot < slots; ++slot) {
+            if (getInt(slot, STATE) != USED) {
+                continue;
+            }
+            ByteBuffer content = readRecord(slot, getInt(slot, LENGTH));
+            try {
+                long offset = compactedSize;
+                while (content.hasRemaining()) {
+                    compactedChannel.write(content, offset + content.position());
+                }
+                compactedSize += getInt(slot, LENGTH);
+                putLong(slot, OFFSET, offset);
+            } finally {
+                BufferPool.shared().release(content);
+            }
+        }
+        dataChannel.close();
+        FileReclaimer.shared().reclaimFile(dataFile.toPath());
+        log.debug("Data file of {} has been compacted from {} to {} bytes", cachePath, dataSize, compactedSize);
+        dataFile = compactedFile;
+        dataChannel = compactedChannel;
+        usage.diskBytesChanged(compactedSize - dataSize);
+        dataSize = compactedSize;
+        garbageBytes = 0;
+    }
+
+    /**
+     * Frees space in cache according to substitution strategy applied to sampled entries
+     */
+    @Override
+    public void freeSpace() {
+        K objectToDelete = getKeyForSubstitution();
+        if (objectToDelete != null) {
+            log.debug("Object with key {} will be deleted", objectToDelete);
+            if (evictionListener != null) {
+                evictionListener.onEviction(objectToDelete, () -> peekObject(objectToDelete));
+            }
+            deleteObject(objectToDelete);
+        }
+    }
+
+    /**
+     * Retrieves object for provided key from cache.
+     * Increments frequency usage for provided object key.
+     *
+     * @param key Key object
+     * @return Value for provided key from cache, {@code null} if key object is absent
+     */
+    @Override
+    public V getObject(K key) {
+        return readValue(key, true);
+    }
+
+    /**
+     * Retrieves object for provided key without updating its strategy data
+     *
+     * @param key Key value
+     * @return Value for provided key, {@code null} if key is absent
+     */
+    @Override
+    public V peekObject(K key) {
+        return readValue(key, false);
+    }
+
+    private V readValue(K key, boolean access) {
+        indexLock.lock();
+        try {
+            ByteBuffer keyBytes = serializeKey(key);
+            Lookup lookup = keyBytes == null ? null : lookup(keyBytes);
+            if (lookup == null) {
+                return null;
+            }
+            try {
+                if (access) {
+                    putLong(lookup.slot, SCORE, strategyType.updateStrategyData(getLong(lookup.slot, SCORE)));
+                }
+                return (V)RecordCodec.deserialize(lookup.value);
+            } catch (IOException | ClassNotFoundException e) {
+                log.error("Can't deserialize value of key {}, key is dropped", key, e);
+                deleteSlot(lookup.slot);
+                return null;
+            } finally {
+                BufferPool.shared().release(lookup.content);
+            }
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves handle of object for provided key, value is deserialized on first access of handle.
+     * Increments frequency usage for provided object key.
+     *
+     * @param key Key object
+     * @return handle of value for provided key, {@code null} if key object is absent
+     */
+    @Override
+    public LazyValue<V> getLazyObject(K key) {
+        indexLock.lock();
+        try {
+            ByteBuffer keyBytes = serializeKey(key);
+            Lookup lookup = keyBytes == null ? null : lookup(keyBytes);
+            if (lookup == null) {
+                return null;
+            }
+            try {
+                putLong(lookup.slot, SCORE, strategyType.updateStrategyData(getLong(lookup.slot, SCORE)));
+                byte[] serializedValue = new byte[lookup.value.remaining()];
+                lookup.value.get(serializedValue);
+                return LazyValue.ofSerialized(ByteBuffer.wrap(serializedValue));
+            } finally {
+                BufferPool.shared().release(lookup.content);
+            }
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes object from cache for provided key
+     *
+     * @param key Key value
+     */
+    @Override
+    public void deleteObject(K key) {
+        indexLock.lock();
+        try {
+            ByteBuffer keyBytes = serializeKey(key);
+            long slot = keyBytes == null ? -1 : probe(keyBytes);
+            if (slot >= 0) {
+                deleteSlot(slot);
+            }
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Removes object from cache for provided key
+     *
+     * @param key Key value
+     * @return Object value for provided key, {@code null} if key is absent
+     */
+    @Override
+    public V removeObject(K key) {
+        indexLock.lock();
+        try {
+            V value = peekObject(key);
+            deleteObject(key);
+            return value;
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Clears cache from all values.
+     * Cache switches to new generation with empty index and new directory, files of previous generation
+     * are deleted in background.
+     */
+    @Override
+    public void clearCache() {
+        indexLock.lock();
+        try {
+            try {
+                dataChannel.close();
+            } catch (IOException e) {
+                log.error("Can't close {}", dataFile.getAbsolutePath(), e);
+            }
+            Path previousPath = cachePath;
+            openGeneration();
+            ++generation;
+            strategyType.onClear();
+            FileReclaimer.shared().reclaimDirectory(previousPath);
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether cache contains provided key, value of record isn't read
+     *
+     * @param key Key values
+     * @return {@code true} if key is present in cache, {@code false} otherwise
+     */
+    @Override
+    public boolean containsKey(K key) {
+        indexLock.lock();
+        try {
+            ByteBuffer keyBytes = serializeKey(key);
+            return keyBytes != null && probe(keyBytes) >= 0;
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves size for memory cache
+     *
+     * @return Memory cache size
+     */
+    @Override
+    public int size() {
+        indexLock.lock();
+        try {
+            return (int)usedSlots;
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether cache has empty space
+     *
+     * @return {@code true} if cache has empty space, {@code false} otherwise
+     */
+    @Override
+    public boolean hasEmptySpace() {
+        return size() < this.capacity;
+    }
+
+    /**
+     * Retrieves {@code Strategy} instance for this cache
+     *
+     * @return {@code Strategy} instance for this cache
+     */
+    @Override
+    public Strategy getStrategy() {
+        return this.strategyType;
+    }
+
+    /**
+     * Retrieves view of strategy data kept in index.
+     * Strategy data of present keys can be read and updated through view, entries can't be added,
+     * removing entry deletes it from cache. Keys are deserialized only when they are retrieved from entries.
+     *
+     * @return view of strategy data
+     */
+    @Override
+    public Map<K, Long> getStrategyMap() {
+        return this.strategyMap;
+    }
+
+    /**
+     * Retrieves strategy data for provided key from index
+     *
+     * @param key Key value
+     * @return strategy data for provided key, {@code null} if key is absent
+     */
+    @Override
+    public Long getStrategyData(K key) {
+        return strategyMap.get(key);
+    }
+
+    /**
+     * Retrieves key for substitution chosen by strategy among sampled entries
+     *
+     * @return key for substitution, {@code null} if cache is empty
+     */
+    @Override
+    public K getKeyForSubstitution() {
+        Strategy candidates = sampleCandidates();
+        return candidates == null ? null : (K)candidates.getKeyForSubstitution();
+    }
+
+    /**
+     * Retrieves key for promotion chosen by strategy among sampled entries
+     *
+     * @return key for promotion, {@code null} if cache is empty
+     */
+    @Override
+    public K getCandidateForPromotion() {
+        Strategy candidates = sampleCandidates();
+        return candidates == null ? null : (K)candidates.getCandidateForMemoryCache();
+    }
+
+    /**
+     * Samples random entries into separate strategy instance, all entries are taken if there are few of them
+     *
+     * @return strategy instance filled with sampled entries, {@code null} if cache is empty
+     */
+    private Strategy sampleCandidates() {
+        indexLock.lock();
+        try {
+            if (usedSlots == 0) {
+                return null;
+            }
+            Map<K, Long> candidates = new HashMap<>();
+            if (usedSlots <= SAMPLE_SIZE) {
+                for (long slot = 0; slot < slots && candidates.size() < usedSlots; ++slot) {
+                    K key = getInt(slot, STATE) == USED ? readKey(slot) : null;
+                    if (key != null) {
+                        candidates.put(key, getLong(slot, SCORE));
+                    }
+                }
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int attempt = 0; attempt < SAMPLE_SIZE * 4 && candidates.size() < SAMPLE_SIZE
+                    && usedSlots > SAMPLE_SIZE; ++attempt) {
+                long slot = random.nextLong(slots);
+                while (getInt(slot, STATE) != USED) {
+                    slot = (slot + 1) & (slots - 1);
+                }
+                K key = readKey(slot);
+                if (key != null) {
+                    candidates.put(key, getLong(slot, SCORE));
+                }
+            }
+            if (candidates.isEmpty()) {
+                return null;
+            }
+            Strategy strategy = strategyType.getInstance();
+            strategy.setStrategyData(candidates);
+            return strategy;
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves usage counters of this cache, heap bytes are not counted as index is kept outside of heap,
+     * on-disk bytes are size of index and data files including garbage
+     *
+     * @return usage counters of this cache
+     */
+    @Override
+    public CacheUsage getUsage() {
+        return this.usage;
+    }
+
+    /**
+     * Retrieves capacity of this cache
+     *
+     * @return capacity of this cache
+     */
+    @Override
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Sets listener of entries evicted by this level to free space
+     *
+     * @param listener Eviction listener, {@code null} removes listener
+     */
+    @Override
+    public void setEvictionListener(EvictionListener<K, V> listener) {
+        this.evictionListener = listener;
+    }
+
+    /**
+     * View of strategy data kept in slots of index
+     */
+    private final class IndexStrategyMap extends AbstractMap<K, Long> {
+
+        @Override
+        public Long get(Object key) {
+            indexLock.lock();
+            try {
+                ByteBuffer keyBytes = serializeKey(key);
+                long slot = keyBytes == null ? -1 : probe(keyBytes);
+                return slot < 0 ? null : getLong(slot, SCORE);
+            } finally {
+                indexLock.unlock();
+            }
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public Long put(K key, Long value) {
+            indexLock.lock();
+            try {
+                ByteBuffer keyBytes = serializeKey(key);
+                long slot = keyBytes == null ? -1 : probe(keyBytes);
+                if (slot < 0) {
+                    return null;
+                }
+                long previous = getLong(slot, SCORE);
+                putLong(slot, SCORE, value);
+                return previous;
+            } finally {
+                indexLock.unlock();
+            }
+        }
+
+        @Override
+        public Long remove(Object key) {
+            indexLock.lock();
+            try {
+                ByteBuffer keyBytes = serializeKey(key);
+                long slot = keyBytes == null ? -1 : probe(keyBytes);
+                if (slot < 0) {
+                    return null;
+                }
+                long previous = getLong(slot, SCORE);
+                deleteSlot(slot);
+                return previous;
+            } finally {
+                indexLock.unlock();
+            }
+        }
+
+        @Override
+        public int size() {
+            return OffHeapFileSystemCache.this.size();
+        }
+
+        @Override
+        public Set<Entry<K, Long>> entrySet() {
+            return new AbstractSet<Entry<K, Long>>() {
+                @Override
+                public Iterator<Entry<K, Long>> iterator() {
+                    return new Iterator<Entry<K, Long>>() {
+                        private long slot = nextUsedSlot(0);
+                        private long current = -1;
+
+                        @Override
+                        public boolean hasNext() {
+                            return slot < slots;
+                        }
+
+                        @Override
+                        public Entry<K, Long> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            indexLock.lock();
+                            try {
+                                Entry<K, Long> entry = new IndexEntry(readKeyBytes(slot), getLong(slot, SCORE));
+                                current = slot;
+                                slot = nextUsedSlot(slot + 1);
+                                return entry;
+                            } finally {
+                                indexLock.unlock();
+                            }
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (current < 0) {
+                                throw new IllegalStateException();
+                            }
+                            indexLock.lock();
+                            try {
+                                if (getInt(current, STATE) == USED) {
+                                    deleteSlot(current);
+                                }
+                                // following slot may have been shifted into removed one
+                                slot = nextUsedSlot(current);
+                                current = -1;
+                            } finally {
+                                indexLock.unlock();
+                            }
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return OffHeapFileSystemCache.this.size();
+                }
+            };
+        }
+
+        /**
+         * Entry with serialized key, key is deserialized on first retrieval
+         */
+        private final class IndexEntry implements Entry<K, Long> {
+            private final ByteBuffer keyBytes;
+            private final Long score;
+            private K key;
+
+            IndexEntry(ByteBuffer keyBytes, Long score) {
+                this.keyBytes = keyBytes;
+                this.score = score;
+            }
+
+            @Override
+            public K getKey() {
+                if (key == null) {
+                    key = deserializeKey(keyBytes);
+                }
+                return key;
+            }
+
+            @Override
+            public Long getValue() {
+                return score;
+            }
+
+            @Override
+            public Long setValue(Long value) {
+                throw new UnsupportedOperationException("Strategy data is updated through map");
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (!(o instanceof Entry)) {
+                    return false;
+                }
+                Entry<?, ?> entry = (Entry<?, ?>) o;
+                return Objects.equals(getKey(), entry.getKey()) && score.equals(entry.getValue());
+            }
+
+            @Override
+            public int hashCode() {
+                return Objects.hashCode(getKey()) ^ score.hashCode();
+            }
+        }
+
+        private long nextUsedSlot(long from) {
+            indexLock.lock();
+            try {
+                long slot = from;
+                while (slot < slots && getInt(slot, STATE) != USED) {
+                    ++slot;
+                }
+                return slot;
+            } finally {
+                indexLock.unlock();
+            }
+        }
+    }
+}
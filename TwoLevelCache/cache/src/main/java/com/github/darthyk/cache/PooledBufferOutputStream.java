@@ -0,0 +1,112 @@
+package com.github.darthyk.cache;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Output stream which writes into pooled heap buffer, buffer is replaced by bigger pooled one when it is full
+ */
+final class PooledBufferOutputStream extends OutputStream {
+    private final BufferPool pool;
+    private ByteBuffer buffer;
+
+    /**
+     * Initializes stream with buffer of provided capacity
+     *
+     * @param pool Buffer pool
+     * @param initialCapacity Initial buffer capacity
+     */
+    PooledBufferOutputStream(BufferPool pool, int initialCapacity) {
+        this.pool = pool;
+        this.buffer = pool.acquireHeap(initialCapacity);
+    }
+
+    private void ensureRemaining(int length) {
+        if (buffer.remaining() < length) {
+            long required = (long)buffer.position() + length;
+            if (required > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Buffer can't exceed 2 GB");
+            }
+            ByteBuffer bigger = pool.acquireHeap((int)Math.max(required, Math.min(Integer.MAX_VALUE,
+                    2L * buffer.capacity())));
+            buffer.flip();
+            bigger.put(buffer);
+            pool.release(buffer);
+            buffer = bigger;
+        }
+    }
+
+    @Override
+    public void write(int b) {
+        ensureRemaining(1);
+        buffer.put((byte)b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        ensureRemaining(length);
+        buffer.put(bytes, offset, length);
+    }
+
+    /**
+     * Writes int in big endian order
+     *
+     * @param value Value to write
+     */
+    void writeInt(int value) {
+        ensureRemaining(4);
+        buffer.putInt(value);
+    }
+
+    /**
+     * Writes int in big endian order at provided position without moving stream position
+     *
+     * @param position Absolute position
+     * @param value Value to write
+     */
+    void putInt(int position, int value) {
+        buffer.putInt(position, value);
+    }
+
+    /**
+     * Retrieves amount of written bytes
+     *
+     * @return stream position
+     */
+    int position() {
+        return buffer.position();
+    }
+
+    /**
+     * Retrieves read-only view of provided region of written bytes
+     *
+     * @param offset Region start
+     * @param length Region length
+     * @return view of region
+     */
+    ByteBuffer region(int offset, int length) {
+        ByteBuffer region = buffer.asReadOnlyBuffer();
+        region.limit(offset + length).position(offset);
+        return region;
+    }
+
+    /**
+     * Retrieves read-only view of all written bytes
+     *
+     * @return view of written bytes
+     */
+    ByteBuffer written() {
+        return region(0, buffer.position());
+    }
+
+    /**
+     * Returns buffer to pool, stream must not be used afterwards
+     */
+    @Override
+    public void close() {
+        if (buffer != null) {
+            pool.release(buffer);
+            buffer = null;
+        }
+    }
+}
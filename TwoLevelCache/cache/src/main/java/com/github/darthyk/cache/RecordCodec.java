@@ -0,0 +1,250 @@
+package com.github.darthyk.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.zip.CRC32;
+
+/**
+ * Encodes cache entries into checksummed records and writes cache files atomically.
+ * <p>
+ * Record layout: magic (4 bytes), key length (4 bytes), value length (4 bytes), CRC32 of the header
+ * lengths, key and value (4 bytes), serialized key, serialized value.
+ * Corrupted records are skipped while reading, reader resynchronizes on the next record magic.
+ * <p>
+ * NOTE: records are encoded into and decoded from pooled buffers of {@link BufferPool#shared()}
+ * without intermediate byte arrays
+ */
+@Slf4j
+final class RecordCodec {
+    static final int MAGIC = 0x2C4C5243;
+    static final int HEADER_SIZE = 16;
+
+    private static final int INITIAL_RECORD_BUFFER = 4096;
+    private static final ThreadLocal<CRC32> CRC = ThreadLocal.withInitial(CRC32::new);
+
+    private RecordCodec() {}
+
+    /**
+     * Consumes records read from cache file
+     */
+    interface RecordConsumer {
+        void accept(ByteBuffer key, ByteBuffer value) throws IOException, ClassNotFoundException;
+    }
+
+    /**
+     * Serializes provided object with Java serialization
+     *
+     * @param object Object to serialize
+     * @return serialized object
+     * @throws IOException if object can't be serialized
+     */
+    static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectStream = new ObjectOutputStream(bytes)) {
+            objectStream.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Deserializes object with Java serialization
+     *
+     * @param bytes Serialized object
+     * @return deserialized object
+     * @throws IOException if object can't be deserialized
+     * @throws ClassNotFoundException if object class can't be found
+     */
+    static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream objectStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return objectStream.readObject();
+        }
+    }
+
+    /**
+     * Deserializes object with Java serialization from remaining bytes of provided buffer
+     *
+     * @param bytes Serialized object
+     * @return deserialized object
+     * @throws IOException if object can't be deserialized
+     * @throws ClassNotFoundException if object class can't be found
+     */
+    static Object deserialize(ByteBuffer bytes) throws IOException, ClassNotFoundException {
+        return new ObjectInputStream(new ByteBufferInputStream(bytes)).readObject();
+    }
+
+    /**
+     * Creates stream for encoding records into pooled buffer
+     *
+     * @return stream over pooled buffer, it must be closed to return buffer to pool
+     */
+    static PooledBufferOutputStream newRecordStream() {
+        return new PooledBufferOutputStream(BufferPool.shared(), INITIAL_RECORD_BUFFER);
+    }
+
+    /**
+     * Serializes provided entry directly into provided stream as one record
+     *
+     * @param output Target stream
+     * @param key Key object
+     * @param value Value object
+     * @throws IOException if record can't be written
+     */
+    static void writeRecord(PooledBufferOutputStream output, Object key, Object value) throws IOException {
+        int recordStart = output.position();
+        output.writeInt(MAGIC);
+        output.writeInt(0);
+        output.writeInt(0);
+        output.writeInt(0);
+        int keyStart = output.position();
+        writeObject(output, key);
+        int keyLength = output.position() - keyStart;
+        writeObject(output, value);
+        int valueLength = output.position() - keyStart - keyLength;
+        output.putInt(recordStart + 4, keyLength);
+        output.putInt(recordStart + 8, valueLength);
+        output.putInt(recordStart + 12, (int)checksum(keyLength, valueLength, output.region(keyStart, keyLength),
+                output.region(keyStart + keyLength, valueLength)));
+    }
+
+    private static void writeObject(OutputStream output, Object object) throws IOException {
+        ObjectOutputStream objectStream = new ObjectOutputStream(output);
+        objectStream.writeObject(object);
+        objectStream.flush();
+    }
+
+    /**
+     * Reads all valid records from provided buffer
+     *
+     * @param buffer Buffer with records
+     * @param consumer Consumer of valid records
+     * @return amount of skipped corrupted regions
+     */
+    static int readRecords(ByteBuffer buffer, RecordConsumer consumer) {
+        int corrupted = 0;
+        boolean resynchronizing = false;
+        int position = buffer.position();
+        int limit = buffer.limit();
+        while (position + HEADER_SIZE <= limit) {
+            if (buffer.getInt(position) != MAGIC) {
+                if (!resynchronizing) {
+                    ++corrupted;
+                    resynchronizing = true;
+                }
+                ++position;
+                continue;
+            }
+            int keyLength = buffer.getInt(position + 4);
+            int valueLength = buffer.getInt(position + 8);
+            int expectedChecksum = buffer.getInt(position + 12);
+            int dataStart = position + HEADER_SIZE;
+            if (keyLength < 0 || valueLength < 0 || (long)dataStart + keyLength + valueLength > limit) {
+                if (!resynchronizing) {
+                    ++corrupted;
+                    resynchronizing = true;
+                }
+                ++position;
+                continue;
+            }
+            ByteBuffer key = buffer.duplicate();
+            key.limit(dataStart + keyLength).position(dataStart);
+            ByteBuffer value = buffer.duplicate();
+            value.limit(dataStart + keyLength + valueLength).position(dataStart + keyLength);
+            if ((int)checksum(keyLength, valueLength, key.duplicate(), value.duplicate()) != expectedChecksum) {
+                if (!resynchronizing) {
+                    ++corrupted;
+                    resynchronizing = true;
+                }
+                ++position;
+                continue;
+            }
+            resynchronizing = false;
+            try {
+                consumer.accept(key, value);
+            } catch (IOException | ClassNotFoundException e) {
+                ++corrupted;
+                log.error("Can't deserialize cache record at position {}", position, e);
+            }
+            position = dataStart + keyLength + valueLength;
+        }
+        if (position < limit && !resynchronizing) {
+            ++corrupted;
+        }
+        return corrupted;
+    }
+
+    private static long checksum(int keyLength, int valueLength, ByteBuffer key, ByteBuffer value) {
+        CRC32 crc = CRC.get();
+        crc.reset();
+        updateInt(crc, keyLength);
+        updateInt(crc, valueLength);
+        crc.update(key);
+        crc.update(value);
+        return crc.getValue();
+    }
+
+    private static void updateInt(CRC32 crc, int value) {
+        crc.update(value >>> 24);
+        crc.update(value >>> 16);
+        crc.update(value >>> 8);
+        crc.update(value);
+    }
+
+    /**
+     * Reads whole file into pooled direct buffer
+     *
+     * @param file File to read
+     * @return flipped buffer with file content, it must be returned to {@link BufferPool#shared()}
+     * @throws IOException if file can't be read
+     */
+    static ByteBuffer readFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File " + file + " is too big");
+            }
+            ByteBuffer content = BufferPool.shared().acquireDirect((int)size);
+            content.limit((int)size);
+            try {
+                while (content.hasRemaining()) {
+                    if (channel.read(content) < 0) {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                BufferPool.shared().release(content);
+                throw e;
+            }
+            content.flip();
+            return content;
+        }
+    }
+
+    /**
+     * Writes provided content to temporary file, forces it to disk and atomically renames it to target file,
+     * so readers see either the old or the new content
+     *
+     * @param target Target file
+     * @param content Content to write
+     * @throws IOException if file can't be written
+     */
+    static void writeAtomically(Path target, ByteBuffer content) throws IOException {
+        Path temporary = target.resolveSibling(target.getFileName() + ".new");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = content.duplicate();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
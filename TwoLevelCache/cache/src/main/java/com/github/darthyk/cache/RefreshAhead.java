@@ -0,0 +1,156 @@
+package com.github.darthyk.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Schedules asynchronous reloads of entries which are older than refresh interval.
+ * <p>
+ * NOTE: reloaded values are not written to cache by loader threads, they are handed over
+ * to the cache thread via {@link #drainRefreshed(BiConsumer)}
+ *
+ * @param <K> any key value
+ * @param <V> any value
+ */
+@Slf4j
+class RefreshAhead<K, V> {
+    private final CacheLoader<K, V> loader;
+    private final long refreshAfterWriteNanos;
+    private final ThreadPoolExecutor executor;
+    private final Map<K, Long> writeTimes = new ConcurrentHashMap<>();
+    private final Set<K> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<K, RefreshedValue<V>> refreshed = new ConcurrentHashMap<>();
+
+    /**
+     * Initializes refresh ahead scheduler
+     *
+     * @param loader Loader used for reloading values
+     * @param refreshAfterWrite Age of entry after which it is reloaded on access
+     * @param unit Time unit of refresh interval
+     * @param refreshThreads Amount of loader threads
+     * @param maxPendingRefreshes Maximal amount of queued reloads, further reloads are skipped
+     */
+    RefreshAhead(CacheLoader<K, V> loader, long refreshAfterWrite, TimeUnit unit, int refreshThreads,
+                 int maxPendingRefreshes) {
+        this.loader = loader;
+        this.refreshAfterWriteNanos = unit.toNanos(refreshAfterWrite);
+        this.executor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxPendingRefreshes), runnable -> {
+            Thread thread = new Thread(runnable, "cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Registers write of provided key
+     *
+     * @param key Key value
+     */
+    void recordWrite(K key) {
+        writeTimes.put(key, System.nanoTime());
+        refreshed.remove(key);
+    }
+
+    /**
+     * Forgets provided key after it left cache
+     *
+     * @param key Key value
+     */
+    void forget(K key) {
+        writeTimes.remove(key);
+        refreshed.remove(key);
+    }
+
+    /**
+     * Forgets all keys
+     */
+    void clear() {
+        writeTimes.clear();
+        refreshed.clear();
+    }
+
+    /**
+     * Registers access of provided key and schedules its reload if entry is older than refresh interval.
+     * Only one reload per key is in flight at any moment.
+     *
+     * @param key Key value
+     */
+    void recordAccess(K key) {
+        Long writeTime = writeTimes.get(key);
+        if (writeTime == null || System.nanoTime() - writeTime < refreshAfterWriteNanos || !inFlight.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> reload(key, writeTime));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key);
+            log.debug("Refresh queue is full, reload of key {} is skipped", key);
+        }
+    }
+
+    private void reload(K key, long writeTime) {
+        try {
+            V value = loader.load(key);
+            if (value != null) {
+                refreshed.put(key, new RefreshedValue<>(value, writeTime));
+            }
+        } catch (Exception e) {
+            log.error("Can't reload value for key {}", key, e);
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    /**
+     * Hands over reloaded values to provided consumer.
+     * Values are skipped if entry has been written or removed after its reload has been scheduled.
+     *
+     * @param consumer Consumer which replaces values in cache
+     */
+    void drainRefreshed(BiConsumer<K, V> consumer) {
+        if (refreshed.isEmpty()) {
+            return;
+        }
+        for (K key : refreshed.keySet()) {
+            RefreshedValue<V> refreshedValue = refreshed.remove(key);
+            Long writeTime = writeTimes.get(key);
+            if (refreshedValue != null && writeTime != null && writeTime == refreshedValue.writeTime) {
+                consumer.accept(key, refreshedValue.value);
+                writeTimes.put(key, System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * Stops loader threads, queued reloads are dropped and running ones are interrupted
+     */
+    void close() {
+        executor.shutdownNow();
+        inFlight.clear();
+        refreshed.clear();
+    }
+
+    /**
+     * Retrieves amount of reloads which are queued or running
+     *
+     * @return amount of reloads in flight
+     */
+    int getRefreshesInFlight() {
+        return inFlight.size();
+    }
+
+    private static class RefreshedValue<V> {
+        private final V value;
+        private final long writeTime;
+
+        private RefreshedValue(V value, long writeTime) {
+            this.value = value;
+            this.writeTime = writeTime;
+        }
+    }
+}
@@ -0,0 +1,519 @@
+package com.github.darthyk.cache;
+
+import com.github.darthyk.cache.strategies.Strategy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Class represents work with file system memory cache striped across several directories.
+ * <p>
+ * NOTE: each directory is served by its own {@code FileSystemCache} shard with its own lock, file and index,
+ * entries are distributed between shards by key hash. Operations of one key are served by its shard under shard
+ * lock only, operations spanning several shards see every shard separately. Strategy data is kept by shards,
+ * it is updated through {@link #recordAccess(Serializable)} and {@link #putStrategyData(Serializable, Long)}
+ * and {@link #getStrategyMap()} is read-only view over all shards. Capacity is split between shards and every shard evicts
+ * on its own when it is full, so cache may evict before reaching its capacity if keys hash unevenly.
+ * Cache owns thread pool for parallel shard access, which is shut down by {@link #close()}.
+ *
+ * @param <K> any key value
+ * @param <V> any value
+ */
+@Slf4j
+public class ShardedFileSystemCache<K extends Serializable, V extends Serializable> implements CacheLevel<K, V> {
+    private final List<FileSystemCache<K, V>> shards;
+    private final ExecutorService readExecutor;
+    private final Strategy strategyType;
+    private EvictionListener<K, V> evictionListener;
+    private final int capacity;
+    private final Map<K, Long> strategyMap = new ShardsStrategyMap();
+
+    /**
+     * Initializes cache with provided capacity striped across provided directories
+     *
+     * @param capacity Cache size
+     * @param strategyType Substitution strategy, each shard gets its own instance
+     * @param directories Parent directories for shards, one shard per directory
+     */
+    ShardedFileSystemCache(int capacity, Strategy strategyType, List<Path> directories) {
+        if (directories.isEmpty()) {
+            throw new IllegalArgumentException("At least one directory is required");
+        }
+        if (capacity < directories.size()) {
+            throw new IllegalArgumentException("Capacity must be at least amount of directories");
+        }
+        this.shards = new ArrayList<>(directories.size());
+        for (int shardIndex = 0; shardIndex < directories.size(); ++shardIndex) {
+            int shardCapacity = capacity / directories.size() + (shardIndex < capacity % directories.size() ? 1 : 0);
+            shards.add(new FileSystemCache<>(shardCapacity, strategyType.getInstance(), directories.get(shardIndex)));
+        }
+        this.readExecutor = Executors.newFixedThreadPool(directories.size(), runnable -> {
+            Thread thread = new Thread(runnable, "sharded-cache-reader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.strategyType = strategyType;
+        this.capacity = capacity;
+    }
+
+    private int shardIndex(K key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), shards.size());
+    }
+
+    private FileSystemCache<K, V> shard(K key) {
+        return shards.get(shardIndex(key));
+    }
+
+    /**
+     * Caches provided object value with provided key, space is freed in shard of key if it is full
+     *
+     * @param key Key value
+     * @param value Object value
+     */
+    @Override
+    public void putToCache(K key, V value) {
+        shard(key).putToCache(key, value);
+    }
+
+    /**
+     * Transfers data from another cache
+     *
+     * @param key Key value
+     * @param value Object value
+     * @param frequencyData {@code Long} value from previous cache
+     */
+    @Override
+    public void transferDataFromAnotherCache(K key, V value, Long frequencyData) {
+        FileSystemCache<K, V> shard = shard(key);
+        if (!shard.containsKey(key) && !shard.hasEmptySpace()) {
+            shard.freeSpace();
+        }
+        shard.transferDataFromAnotherCache(key, value, frequencyData);
+    }
+
+    /**
+     * Frees space in cache according to substitution strategy
+     */
+    @Override
+    public void freeSpace() {
+        K objectToDelete = getKeyForSubstitution();
+        if (objectToDelete != null) {
+            log.debug("Object with key {} will be deleted", objectToDelete);
+            if (evictionListener != null) {
+                evictionListener.onEviction(objectToDelete, () -> peekObject(objectToDelete));
+            }
+            deleteObject(objectToDelete);
+        }
+    }
+
+    /**
+     * Retrieves object for provided key from cache.
+     * Increments frequency usage for provided object key.
+     *
+     * @param key Key object
+     * @return Value for provided key from cache, {@code null} if key object is absent
+     */
+    @Override
+    public V getObject(K key) {
+        return shard(key).getObject(key);
+    }
+
+    /**
+     * Retrieves handle of object for provided key, which deserializes object on first access.
+     * Increments frequency usage for provided object key.
+     *
+     * @param key Key object
+     * @return handle of value for provided key, {@code null} if key object is absent
+     */
+    @Override
+    public LazyValue<V> getLazyObject(K key) {
+        return shard(key).getLazyObject(key);
+    }
+
+    /**
+     * Retrieves object for provided key without updating its strategy data
+     *
+     * @param key Key value
+     * @return Value for provided key, {@code null} if key is absent
+     */
+    @Override
+    public V peekObject(K key) {
+        return shard(key).peekObject(key);
+    }
+
+    /**
+     * Transfers entries from another cache in bulk, each shard file is written once.
+     * Capacity is not checked, caller is responsible for leaving enough space.
+     *
+     * @param values Entries to transfer
+     * @param strategyData Strategy data of transferred entries
+     */
+    @Override
+    public void transferAllFromAnotherCache(Map<K, V> values, Map<K, Long> strategyData) {
+        Map<Integer, Map<K, V>> valuesByShard = new HashMap<>();
+        for (Map.Entry<K, V> entry : values.entrySet()) {
+            valuesByShard.computeIfAbsent(shardIndex(entry.getKey()), index -> new HashMap<>())
+                    .put(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<Integer, Map<K, V>> shardValues : valuesByShard.entrySet()) {
+            shards.get(shardValues.getKey()).transferAllFromAnotherCache(shardValues.getValue(), strategyData);
+        }
+    }
+
+    /**
+     * Retrieves objects for provided keys, shards are read in parallel
+     *
+     * @param keys Key objects
+     * @return {@code Map} with values for present keys
+     */
+    public Map<K, V> getObjects(Collection<K> keys) {
+        Map<Integer, List<K>> keysByShard = new HashMap<>();
+        for (K key : keys) {
+            keysByShard.computeIfAbsent(shardIndex(key), index -> new ArrayList<>()).add(key);
+        }
+        List<Future<Map<K, V>>> futures = new ArrayList<>();
+        for (Map.Entry<Integer, List<K>> shardKeys : keysByShard.entrySet()) {
+            futures.add(readExecutor.submit(() -> {
+                Map<K, V> values = new HashMap<>();
+                FileSystemCache<K, V> shard = shards.get(shardKeys.getKey());
+                for (K key : shardKeys.getValue()) {
+                    V value = shard.getObject(key);
+                    if (value != null) {
+                        values.put(key, value);
+                    }
+                }
+                return values;
+            }));
+        }
+        Map<K, V> result = new HashMap<>();
+        for (Future<Map<K, V>> future : futures) {
+            try {
+                result.putAll(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Deletes object from cache for provided key
+     *
+     * @param key Key value
+     */
+    @Override
+    public void deleteObject(K key) {
+        shard(key).deleteObject(key);
+    }
+
+    /**
+     * Deletes objects for provided keys, shards are processed in parallel and each shard file is written once
+     *
+     * @param keys Key values
+     * @return amount of deleted objects
+     */
+    @Override
+    public int deleteObjects(Collection<K> keys) {
+        Map<Integer, List<K>> keysByShard = new HashMap<>();
+        for (K key : keys) {
+            keysByShard.computeIfAbsent(shardIndex(key), index -> new ArrayList<>()).add(key);
+        }
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (Map.Entry<Integer, List<K>> shardKeys : keysByShard.entrySet()) {
+            futures.add(readExecutor.submit(() -> shards.get(shardKeys.getKey()).deleteObjects(shardKeys.getValue())));
+        }
+        int deleted = 0;
+        for (Future<Integer> future : futures) {
+            try {
+                deleted += future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Removes object from cache for provided key
+     *
+     * @param key Key value
+     * @return Object value for provided key, {@code null} if key is absent
+     */
+    @Override
+    public V removeObject(K key) {
+        return shard(key).removeObject(key);
+    }
+
+    /**
+     * Clears all shards from all values
+     */
+    @Override
+    public void clearCache() {
+        for (FileSystemCache<K, V> shard : shards) {
+            shard.clearCache();
+        }
+    }
+
+    /**
+     * Checks whether cache contains provided key
+     *
+     * @param key Key values
+     * @return {@code true} if key is present in cache, {@code false} otherwise
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return shard(key).containsKey(key);
+    }
+
+    /**
+     * Retrieves size of all shards
+     *
+     * @return Cache size
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        for (FileSystemCache<K, V> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * Shuts down thread pool of parallel shard access
+     */
+    @Override
+    public void close() {
+        readExecutor.shutdown();
+    }
+
+    /**
+     * Checks whether cache has empty space
+     *
+     * @return {@code true} if cache has empty space, {@code false} otherwise
+     */
+    @Override
+    public boolean hasEmptySpace() {
+        return size() < this.capacity;
+    }
+
+    /**
+     * Retrieves {@code Strategy} instance for this cache
+     *
+     * @return {@code Strategy} instance for this cache
+     */
+    @Override
+    public Strategy getStrategy() {
+        return this.strategyType;
+    }
+
+    /**
+     * Retrieves read-only view of strategy data of all shards.
+     * Lookups are served by shard of key, iteration goes over snapshot of every shard.
+     *
+     * @return read-only view of strategy data
+     */
+    @Override
+    public Map<K, Long> getStrategyMap() {
+        return this.strategyMap;
+    }
+
+    /**
+     * Records access of provided key by strategy of its shard
+     *
+     * @param key Key value
+     */
+    @Override
+    public void recordAccess(K key) {
+        shard(key).recordAccess(key);
+    }
+
+    /**
+     * Sets strategy data of provided key in its shard
+     *
+     * @param key Key value
+     * @param data Strategy data
+     */
+    @Override
+    public void putStrategyData(K key, Long data) {
+        shard(key).putStrategyData(key, data);
+    }
+
+    /**
+     * Enables key filter of every shard, expected insertions are split between shards
+     *
+     * @param expectedInsertions Expected amount of keys in cache
+     * @param falsePositiveProbability Desired false positive probability
+     * @return always {@code true}
+     */
+    @Override
+    public boolean enableKeyFilter(int expectedInsertions, double falsePositiveProbability) {
+        int shardInsertions = (expectedInsertions + shards.size() - 1) / shards.size();
+        for (FileSystemCache<K, V> shard : shards) {
+            shard.enableKeyFilter(shardInsertions, falsePositiveProbability);
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves strategy data for provided key from its shard
+     *
+     * @param key Key value
+     * @return strategy data for provided key, {@code null} if key is absent
+     */
+    @Override
+    public Long getStrategyData(K key) {
+        return shard(key).getStrategyData(key);
+    }
+
+    /**
+     * Retrieves key for substitution chosen among substitution candidates of all shards
+     *
+     * @return key for substitution, {@code null} if cache is empty
+     */
+    @Override
+    public K getKeyForSubstitution() {
+        Strategy candidates = collectCandidates(true);
+        return candidates.getStrategyData().isEmpty() ? null : (K)candidates.getKeyForSubstitution();
+    }
+
+    /**
+     * Retrieves key for promotion chosen among promotion candidates of all shards
+     *
+     * @return key for promotion, {@code null} if cache is empty
+     */
+    @Override
+    public K getCandidateForPromotion() {
+        Strategy candidates = collectCandidates(false);
+        return candidates.getStrategyData().isEmpty() ? null : (K)candidates.getCandidateForMemoryCache();
+    }
+
+    /**
+     * Collects one candidate of each non-empty shard into separate strategy instance
+     *
+     * @param forSubstitution {@code true} to collect substitution candidates, {@code false} for promotion ones
+     * @return strategy instance filled with candidates
+     */
+    private Strategy collectCandidates(boolean forSubstitution) {
+        Map<K, Long> candidates = new HashMap<>();
+        for (FileSystemCache<K, V> shard : shards) {
+            if (shard.size() > 0) {
+                K candidate = forSubstitution ? shard.getKeyForSubstitution() : shard.getCandidateForPromotion();
+                candidates.put(candidate, shard.getStrategyData(candidate));
+            }
+        }
+        Strategy strategy = strategyType.getInstance();
+        strategy.setStrategyData(candidates);
+        return strategy;
+    }
+
+    /**
+     * Retrieves capacity of this cache
+     *
+     * @return capacity of this cache
+     */
+    @Override
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Retrieves usage counters summed over all shards
+     *
+     * @return usage counters of this cache
+     */
+    @Override
+    public CacheUsage getUsage() {
+        CacheUsage usage = new CacheUsage();
+        for (FileSystemCache<K, V> shard : shards) {
+            CacheUsage shardUsage = shard.getUsage();
+            usage.add(shardUsage.getEntries(), shardUsage.getHeapBytes(), shardUsage.getDiskBytes());
+        }
+        return usage;
+    }
+
+    /**
+     * Retrieves amount of shards
+     *
+     * @return amount of shards
+     */
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Sets listener of entries evicted by this level to free space
+     *
+     * @param listener Eviction listener, {@code null} removes listener
+     */
+    @Override
+    public void setEvictionListener(EvictionListener<K, V> listener) {
+        this.evictionListener = listener;
+        for (FileSystemCache<K, V> shard : shards) {
+            shard.setEvictionListener(listener);
+        }
+    }
+
+    /**
+     * Enables or disables deferring of cache file writes of all shards
+     *
+     * @param deferred {@code true} if changes are written only by {@link #writeDeferred()} and before reads
+     *                 of cache files
+     */
+    @Override
+    public void setDeferredWrites(boolean deferred) {
+        for (FileSystemCache<K, V> shard : shards) {
+            shard.setDeferredWrites(deferred);
+        }
+    }
+
+    /**
+     * Writes deferred changes of all shards
+     */
+    @Override
+    public void writeDeferred() {
+        for (FileSystemCache<K, V> shard : shards) {
+            shard.writeDeferred();
+        }
+    }
+
+    /**
+     * Read-only view of strategy data kept by shards
+     */
+    private final class ShardsStrategyMap extends AbstractMap<K, Long> {
+
+        @Override
+        public Long get(Object key) {
+            return key instanceof Serializable ? getStrategyData((K)key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return ShardedFileSystemCache.this.size();
+        }
+
+        @Override
+        public Set<Entry<K, Long>> entrySet() {
+            Map<K, Long> snapshot = new HashMap<>();
+            for (FileSystemCache<K, V> shard : shards) {
+                snapshot.putAll(shard.getStrategyMapSnapshot());
+            }
+            return Collections.unmodifiableMap(snapshot).entrySet();
+        }
+    }
+}
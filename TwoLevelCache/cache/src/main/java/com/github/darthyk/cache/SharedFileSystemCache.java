@@ -0,0 +1,783 @@
+package com.github.darthyk.cache;
+
+import com.github.darthyk.cache.strategies.Strategy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Class represents work with file system cache which directory is shared by several processes of one host.
+ * <p>
+ * NOTE: all processes append immutable records to one log file of shared directory, deletion appends record
+ * with {@code null} value. Appends are made under exclusive lock of log file, every operation takes shared lock
+ * and reads records appended by other processes since its previous operation, so value written by one process
+ * is disk hit for others. Capacity is shared, strategy data is kept per process. When garbage of replaced and
+ * deleted records outweighs live records, log is compacted to log of next generation, which processes switch to
+ * on their next operation. Replaced log is sealed by record with {@code null} key, so reading operations
+ * skip file locking and reading of log while its size is unchanged since their previous reading.
+ * Corrupted records inside log are skipped, only torn record at the end of log is truncated by next append.
+ * Instances of one process sharing directory are serialized by process wide lock, as file locks are held
+ * on behalf of whole process.
+ *
+ * @param <K> any key value
+ * @param <V> any value
+ */
+@Slf4j
+public class SharedFileSystemCache<K extends Serializable, V extends Serializable> implements CacheLevel<K, V> {
+    private static final String LOG_PREFIX = "cache-";
+    private static final String LOG_SUFFIX = ".log";
+    private static final int TAIL_CHUNK = 1 << 20;
+    private static final long MIN_GARBAGE_FOR_COMPACTION = 1 << 20;
+    private static final ConcurrentMap<Path, ReentrantLock> DIRECTORY_LOCKS = new ConcurrentHashMap<>();
+    private static final ByteBuffer TOMBSTONE = tombstone();
+
+    private final Path directory;
+    private final ReentrantLock processLock;
+    private final Strategy strategyType;
+    private final int capacity;
+    private final CacheUsage usage = new CacheUsage();
+    private EvictionListener<K, V> evictionListener;
+    private final HashMap<K, Location> index = new HashMap<>();
+    private final TreeMap<K, Long> strategyMap = new TreeMap<>();
+    private FileChannel logChannel;
+    private long generation;
+    private long indexedUpTo;
+    private long tailedSize;
+    private boolean sealed;
+    private long liveBytes;
+    private boolean reindexed;
+
+    private static final class Location {
+        final long offset;
+        final int length;
+
+        Location(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private interface LogAction<T> {
+        T run() throws IOException;
+    }
+
+    /**
+     * Initializes cache with provided capacity inside provided shared directory
+     *
+     * @param directory Directory shared by processes
+     * @param capacity Cache size, shared by all processes
+     */
+    SharedFileSystemCache(Path directory, int capacity, Strategy strategyType) {
+        this.directory = directory.toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't create shared cache directory " + this.directory, e);
+        }
+        this.processLock = DIRECTORY_LOCKS.computeIfAbsent(this.directory, path -> new ReentrantLock());
+        this.strategyType = strategyType;
+        this.capacity = capacity;
+        strategyType.setCapacity(capacity);
+        strategyType.setStrategyData(strategyMap);
+        withLog(false, null, () -> null);
+    }
+
+    private static ByteBuffer tombstone() {
+        try {
+            return ByteBuffer.wrap(RecordCodec.serialize(null)).asReadOnlyBuffer();
+        } catch (IOException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Path logPath(long logGeneration) {
+        return directory.resolve(LOG_PREFIX + logGeneration + LOG_SUFFIX);
+    }
+
+    /**
+     * Runs provided action under file lock of current log after reading records appended by other processes
+     *
+     * @param exclusive {@code true} if action appends records
+     * @param fallback Result if log can't be accessed
+     * @param action Action to run
+     * @return result of action
+     */
+    private <T> T withLog(boolean exclusive, T fallback, LogAction<T> action) {
+        processLock.lock();
+        try {
+            if (!exclusive && logChannel != null && !sealed && logChannel.size() == tailedSize) {
+                return action.run();
+            }
+            while (true) {
+                if (logChannel == null) {
+                    openLatestGeneration();
+                }
+                try (FileLock ignored = logChannel.lock(0, Long.MAX_VALUE, !exclusive)) {
+                    if (isCurrentGeneration()) {
+                        tail();
+                        return action.run();
+                    }
+                }
+                openLatestGeneration();
+            }
+        } catch (IOException e) {
+            log.error("Can't access shared cache log in {}", directory, e);
+            closeLog();
+            return fallback;
+        } finally {
+            processLock.unlock();
+        }
+    }
+
+    private boolean isCurrentGeneration() {
+        return Files.exists(logPath(generation)) && !Files.exists(logPath(generation + 1));
+    }
+
+    /**
+     * Opens log of latest generation and resets index, which is filled by next reading of log
+     */
+    private void openLatestGeneration() throws IOException {
+        closeLog();
+        while (logChannel == null) {
+            long latest = -1;
+            try (DirectoryStream<Path> logs = Files.newDirectoryStream(directory, LOG_PREFIX + "*" + LOG_SUFFIX)) {
+                for (Path path : logs) {
+                    String name = path.getFileName().toString();
+                    try {
+                        latest = Math.max(latest, Long.parseLong(
+                                name.substring(LOG_PREFIX.length(), name.length() - LOG_SUFFIX.length())));
+                    } catch (NumberFormatException e) {
+                        log.debug("File {} isn't cache log", path);
+                    }
+                }
+            }
+            try {
+                logChannel = latest < 0
+                        ? FileChannel.open(logPath(0), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                StandardOpenOption.WRITE)
+                        : FileChannel.open(logPath(latest), StandardOpenOption.READ, StandardOpenOption.WRITE);
+                generation = Math.max(latest, 0);
+            } catch (NoSuchFileException e) {
+                log.debug("Log {} has been compacted while opening", logPath(latest));
+            }
+        }
+        index.clear();
+        indexedUpTo = 0;
+        tailedSize = -1;
+        sealed = false;
+        liveBytes = 0;
+        usage.reset();
+        reindexed = true;
+    }
+
+    private void closeLog() {
+        if (logChannel != null) {
+            try {
+                logChannel.close();
+            } catch (IOException e) {
+                log.error("Can't close log {}", logPath(generation), e);
+            }
+            logChannel = null;
+        }
+    }
+
+    /**
+     * Reads records appended since previous reading, corrupted regions are skipped
+     * and torn record at the end of log is left unread
+     */
+    private void tail() throws IOException {
+        long size = logChannel.size();
+        int pendingRecordLength = 0;
+        while (indexedUpTo < size) {
+            int length = (int)Math.min(size - indexedUpTo, Math.max(TAIL_CHUNK, pendingRecordLength));
+            long chunkStart = indexedUpTo;
+            ByteBuffer content = readLog(chunkStart, length);
+            try {
+                int[] consumed = new int[1];
+                boolean[] stopped = new boolean[1];
+                RecordCodec.readRecords(content, (key, value) -> {
+                    int recordStart = key.position() - RecordCodec.HEADER_SIZE;
+                    if (stopped[0] || recordStart != consumed[0] && !isSkippable(content, consumed[0], recordStart)) {
+                        stopped[0] = true;
+                        return;
+                    }
+                    if (recordStart != consumed[0]) {
+                        log.error("Corrupted region of {} bytes at {} of {} is skipped", recordStart - consumed[0],
+                                chunkStart + consumed[0], logPath(generation));
+                    }
+                    consumed[0] = value.limit();
+                    K recordKey = (K)RecordCodec.deserialize(key);
+                    if (recordKey == null) {
+                        sealed = true;
+                        return;
+                    }
+                    indexRecord(chunkStart + recordStart, value.limit() - recordStart, recordKey,
+                            TOMBSTONE.equals(value));
+                });
+                if (consumed[0] > 0) {
+                    indexedUpTo += consumed[0];
+                    pendingRecordLength = 0;
+                    continue;
+                }
+                long recordLength = recordLength(content, 0);
+                if (recordLength > length && recordLength <= Integer.MAX_VALUE && chunkStart + recordLength <= size) {
+                    pendingRecordLength = (int)recordLength;
+                    continue;
+                }
+                if (isTornRecord(size)) {
+                    break;
+                }
+                int next = nextMagic(content, 1);
+                int skipped = next >= 0 ? next : chunkStart + length == size ? length : length - 3;
+                log.error("Corrupted region of {} bytes at {} of {} is skipped", skipped, chunkStart,
+                        logPath(generation));
+                indexedUpTo += skipped;
+                pendingRecordLength = 0;
+            } finally {
+                BufferPool.shared().release(content);
+            }
+        }
+        tailedSize = size;
+        usage.setDiskBytes(indexedUpTo);
+        if (reindexed) {
+            reindexed = false;
+            Iterator<K> keys = strategyMap.keySet().iterator();
+            while (keys.hasNext()) {
+                K key = keys.next();
+                if (!index.containsKey(key)) {
+                    keys.remove();
+                    strategyType.onRemove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether region of chunk preceding valid record is corrupted, not beginning of record
+     * which continues past the end of chunk and contains bytes looking like record
+     *
+     * @param content Chunk of log
+     * @param from Start of region
+     * @param to Start of following valid record
+     * @return {@code true} if region can be skipped, {@code false} otherwise
+     */
+    private static boolean isSkippable(ByteBuffer content, int from, int to) {
+        long recordLength = recordLength(content, from);
+        return recordLength < 0 || from + recordLength <= to;
+    }
+
+    /**
+     * Checks whether unread end of log is beginning of record torn by crashed process
+     *
+     * @param size Size of log
+     * @return {@code true} if unread bytes are prefix of header or of record longer than them, {@code false} otherwise
+     */
+    private boolean isTornRecord(long size) throws IOException {
+        int length = (int)Math.min(size - indexedUpTo, RecordCodec.HEADER_SIZE);
+        if (length <= 0) {
+            return false;
+        }
+        ByteBuffer header = readLog(indexedUpTo, length);
+        try {
+            if (header.remaining() < RecordCodec.HEADER_SIZE) {
+                for (int i = 0; i < Math.min(header.remaining(), 4); ++i) {
+                    if (header.get(i) != (byte)(RecordCodec.MAGIC >>> (24 - 8 * i))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            long recordLength = recordLength(header, 0);
+            return recordLength >= 0 && indexedUpTo + recordLength > size;
+        } finally {
+            BufferPool.shared().release(header);
+        }
+    }
+
+    private static int nextMagic(ByteBuffer content, int from) {
+        for (int position = from; position + 4 <= content.limit(); ++position) {
+            if (content.getInt(position) == RecordCodec.MAGIC) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private static long recordLength(ByteBuffer content, int position) {
+        if (content.limit() - position < RecordCodec.HEADER_SIZE || content.getInt(position) != RecordCodec.MAGIC
+                || content.getInt(position + 4) < 0 || content.getInt(position + 8) < 0) {
+            return -1;
+        }
+        return (long)RecordCodec.HEADER_SIZE + content.getInt(position + 4) + content.getInt(position + 8);
+    }
+
+    private ByteBuffer readLog(long offset, int length) throws IOException {
+        ByteBuffer content = BufferPool.shared().acquireHeap(length);
+        content.limit(length);
+        try {
+            while (content.hasRemaining()) {
+                if (logChannel.read(content, offset + content.position()) < 0) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            BufferPool.shared().release(content);
+            throw e;
+        }
+        content.flip();
+        return content;
+    }
+
+    private void indexRecord(long offset, int length, K key, boolean tombstone) {
+        Location previous = tombstone ? index.remove(key) : index.put(key, new Location(offset, length));
+        if (previous != null) {
+            liveBytes -= previous.length;
+        }
+        if (!tombstone) {
+            liveBytes += length;
+            if (previous == null) {
+                usage.entryAdded(SizeEstimator.estimateEntry(key, index.get(key)));
+                if (strategyMap.putIfAbsent(key, strategyType.fillStrategyData()) == null) {
+                    strategyType.onInsert(key);
+                }
+            }
+        } else if (previous != null) {
+            usage.entryRemoved(SizeEstimator.estimateEntry(key, previous));
+            if (strategyMap.remove(key) != null) {
+                strategyType.onRemove(key);
+            }
+        }
+    }
+
+    /**
+     * Appends record to log, must be called under exclusive lock after reading of log.
+     * Torn record left at the end of log by crashed process is truncated first.
+     *
+     * @param key Key value
+     * @param value Object value, {@code null} for deletion
+     */
+    private void append(K key, V value) throws IOException {
+        long offset = appendRecord(key, value);
+        indexRecord(offset, (int)(indexedUpTo - offset), key, value == null);
+        usage.setDiskBytes(indexedUpTo);
+    }
+
+    /**
+     * Writes record at the end of log, must be called under exclusive lock after reading of log
+     *
+     * @param key Key value, {@code null} for record sealing replaced log
+     * @param value Object value, {@code null} for deletion
+     * @return offset of written record
+     */
+    private long appendRecord(Object key, Object value) throws IOException {
+        long size = logChannel.size();
+        if (size > indexedUpTo) {
+            if (isTornRecord(size)) {
+                log.error("Torn record at the end of {} is truncated", logPath(generation));
+                logChannel.truncate(indexedUpTo);
+            } else {
+                log.error("Unreadable {} bytes at the end of {} are kept", size - indexedUpTo, logPath(generation));
+                indexedUpTo = size;
+            }
+        }
+        try (PooledBufferOutputStream output = RecordCodec.newRecordStream()) {
+            RecordCodec.writeRecord(output, key, value);
+            ByteBuffer record = output.written();
+            long offset = indexedUpTo;
+            int length = record.remaining();
+            while (record.hasRemaining()) {
+                logChannel.write(record, offset + record.position());
+            }
+            indexedUpTo = offset + length;
+            tailedSize = indexedUpTo;
+            return offset;
+        }
+    }
+
+    /**
+     * Writes log of next generation, so processes switch to it on their next operation.
+     * Must be called under exclusive lock after reading of log.
+     *
+     * @param keepLive {@code true} to copy live records to next generation, {@code false} to start it empty
+     */
+    private void writeNextGeneration(boolean keepLive) throws IOException {
+        Path next = logPath(generation + 1);
+        Path temporary = next.resolveSibling(next.getFileName() + ".new");
+        try (FileChannel target = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            if (keepLive) {
+                for (Location location : index.values()) {
+                    long transferred = 0;
+                    while (transferred < location.length) {
+                        transferred += logChannel.transferTo(location.offset + transferred,
+                                location.length - transferred, target);
+                    }
+                }
+            }
+            target.force(true);
+        }
+        try {
+            Files.move(temporary, next, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, next, StandardCopyOption.REPLACE_EXISTING);
+        }
+        appendRecord(null, null);
+        sealed = true;
+        FileReclaimer.shared().reclaimFile(logPath(generation));
+        log.debug("Log {} has been replaced by {}", logPath(generation), next);
+    }
+
+    private void compactIfNeeded() throws IOException {
+        long garbageBytes = indexedUpTo - liveBytes;
+        if (garbageBytes >= MIN_GARBAGE_FOR_COMPACTION && garbageBytes >= liveBytes) {
+            writeNextGeneration(true);
+        }
+    }
+
+    /**
+     * Caches provided object value with provided key
+     *
+     * @param key Key value
+     * @param value Object value
+     */
+    @Override
+    public void putToCache(K key, V value) {
+        withLog(true, null, () -> {
+            if (!index.containsKey(key) && index.size() >= capacity) {
+                freeSpaceUnderLock();
+            }
+            append(key, value);
+            strategyMap.put(key, strategyType.fillStrategyData());
+            compactIfNeeded();
+            return null;
+        });
+    }
+
+    /**
+     * Transfers data from another cache
+     *
+     * @param key Key value
+     * @param value Object value
+     * @param frequencyData {@code Long} value from previous cache
+     */
+    @Override
+    public void transferDataFromAnotherCache(K key, V value, Long frequencyData) {
+        withLog(true, null, () -> {
+            append(key, value);
+            strategyMap.put(key, frequencyData);
+            compactIfNeeded();
+            return null;
+        });
+    }
+
+    /**
+     * Frees space in cache according to substitution strategy, victim is removed for all processes
+     */
+    @Override
+    public void freeSpace() {
+        withLog(true, null, () -> {
+            freeSpaceUnderLock();
+            return null;
+        });
+    }
+
+    private void freeSpaceUnderLock() throws IOException {
+        K objectToDelete = (K)strategyType.getKeyForSubstitution();
+        if (objectToDelete != null && index.containsKey(objectToDelete)) {
+            log.debug("Object with key {} will be deleted", objectToDelete);
+            if (evictionListener != null) {
+                evictionListener.onEviction(objectToDelete, () -> readEvictedValue(objectToDelete));
+            }
+            append(objectToDelete, null);
+        }
+    }
+
+    /**
+     * Retrieves object for provided key from cache.
+     * Increments frequency usage for provided object key.
+     *
+     * @param key Key object
+     * @return Value for provided key from cache, {@code null} if key object is absent
+     */
+    @Override
+    public V getObject(K key) {
+        return withLog(false, null, () -> {
+            V value = readValue(key);
+            if (value != null) {
+                accessUnderLock(key);
+            }
+            return value;
+        });
+    }
+
+    /**
+     * Retrieves object for provided key without updating its strategy data
+     *
+     * @param key Key value
+     * @return Value for provided key, {@code null} if key is absent
+     */
+    @Override
+    public V peekObject(K key) {
+        return withLog(false, null, () -> readValue(key));
+    }
+
+    /**
+     * Retrieves handle of object for provided key, value is deserialized on first access of handle.
+     * Increments frequency usage for provided object key.
+     *
+     * @param key Key object
+     * @return handle of value for provided key, {@code null} if key object is absent or its record is unreadable
+     */
+    @Override
+    public LazyValue<V> getLazyObject(K key) {
+        return withLog(false, null, () -> {
+            ByteBuffer serializedValue = readSerializedValue(key);
+            if (serializedValue == null) {
+                return null;
+            }
+            accessUnderLock(key);
+            return LazyValue.ofSerialized(serializedValue);
+        });
+    }
+
+    /**
+     * Records access of provided key by strategy data of this process without reading its value
+     *
+     * @param key Key value
+     */
+    @Override
+    public void recordAccess(K key) {
+        withLog(false, null, () -> {
+            if (index.containsKey(key)) {
+                accessUnderLock(key);
+            }
+            return null;
+        });
+    }
+
+    private void accessUnderLock(K key) {
+        strategyMap.put(key, strategyType.updateStrategyData(
+                strategyMap.getOrDefault(key, strategyType.fillStrategyData())));
+        strategyType.onAccess(key);
+    }
+
+    /**
+     * Reads value of evicted entry for eviction listener, caller must hold log lock
+     *
+     * @param key Key value
+     * @return Value for provided key, {@code null} if its record can't be read
+     */
+    private V readEvictedValue(K key) {
+        try {
+            return readValue(key);
+        } catch (IOException e) {
+            log.error("Can't read value of evicted key {}", key, e);
+            return null;
+        }
+    }
+
+    private V readValue(K key) throws IOException {
+        ByteBuffer serializedValue = readSerializedValue(key);
+        try {
+            return serializedValue == null ? null : (V)RecordCodec.deserialize(serializedValue);
+        } catch (ClassNotFoundException e) {
+            log.error("Can't deserialize value of key {}", key, e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads serialized value of provided key from log
+     *
+     * @param key Key value
+     * @return heap buffer with serialized value, {@code null} if key is absent or its record is corrupted
+     */
+    private ByteBuffer readSerializedValue(K key) throws IOException {
+        Location location = index.get(key);
+        if (location == null) {
+            return null;
+        }
+        ByteBuffer content = readLog(location.offset, location.length);
+        try {
+            ByteBuffer[] serializedValue = new ByteBuffer[1];
+            if (RecordCodec.readRecords(content, (recordKey, value) -> serializedValue[0] = value) > 0
+                    || serializedValue[0] == null) {
+                log.error("Record for key {} in {} is corrupted", key, logPath(generation));
+                return null;
+            }
+            ByteBuffer copy = ByteBuffer.allocate(serializedValue[0].remaining());
+            copy.put(serializedValue[0]).flip();
+            return copy;
+        } finally {
+            BufferPool.shared().release(content);
+        }
+    }
+
+    /**
+     * Deletes cache object for provided key in all processes
+     *
+     * @param key Key value
+     */
+    @Override
+    public void deleteObject(K key) {
+        withLog(true, null, () -> {
+            if (index.containsKey(key)) {
+                append(key, null);
+                compactIfNeeded();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Deletes cache objects for provided keys in all processes under one lock of log
+     *
+     * @param keys Key values
+     * @return amount of deleted objects
+     */
+    @Override
+    public int deleteObjects(Collection<K> keys) {
+        return withLog(true, 0, () -> {
+            int deleted = 0;
+            for (K key : keys) {
+                if (index.containsKey(key)) {
+                    append(key, null);
+                    ++deleted;
+                }
+            }
+            compactIfNeeded();
+            return deleted;
+        });
+    }
+
+    /**
+     * Removes cache object for provided key in all processes
+     *
+     * @param key Key value
+     * @return Object value for provided key, {@code null} if key is absent
+     */
+    @Override
+    public V removeObject(K key) {
+        return withLog(true, null, () -> {
+            if (!index.containsKey(key)) {
+                return null;
+            }
+            V value = readValue(key);
+            append(key, null);
+            compactIfNeeded();
+            return value;
+        });
+    }
+
+    /**
+     * Clears cache from all values in all processes.
+     * Empty log of next generation is created, log of previous generation is deleted in background.
+     */
+    @Override
+    public void clearCache() {
+        withLog(true, null, () -> {
+            writeNextGeneration(false);
+            return null;
+        });
+        strategyType.onClear();
+    }
+
+    /**
+     * Checks whether cache contains provided key
+     *
+     * @param key Key values
+     * @return {@code true} if key is present in cache, {@code false} otherwise
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return withLog(false, false, () -> index.containsKey(key));
+    }
+
+    /**
+     * Retrieves size for memory cache
+     *
+     * @return Memory cache size
+     */
+    @Override
+    public int size() {
+        return withLog(false, 0, index::size);
+    }
+
+    /**
+     * Checks whether cache has empty space
+     *
+     * @return {@code true} if cache has empty space, {@code false} otherwise
+     */
+    @Override
+    public boolean hasEmptySpace() {
+        return size() < this.capacity;
+    }
+
+    /**
+     * Retrieves {@code Strategy} instance for this cache
+     *
+     * @return {@code Strategy} instance for this cache
+     */
+    @Override
+    public Strategy getStrategy() {
+        return this.strategyType;
+    }
+
+    /**
+     * Retrieves strategy {@code TreeMap} of this process
+     *
+     * @return strategy {@code TreeMap} of this process
+     */
+    @Override
+    public TreeMap<K, Long> getStrategyMap() {
+        return this.strategyMap;
+    }
+
+    /**
+     * Retrieves usage counters of this cache, on-disk bytes are size of shared log including garbage
+     *
+     * @return usage counters of this cache
+     */
+    @Override
+    public CacheUsage getUsage() {
+        return this.usage;
+    }
+
+    /**
+     * Retrieves generation of shared log, which is incremented by every compaction and clearing
+     *
+     * @return generation of shared log
+     */
+    public long getGeneration() {
+        return withLog(false, generation, () -> generation);
+    }
+
+    /**
+     * Retrieves capacity of this cache
+     *
+     * @return capacity of this cache
+     */
+    @Override
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Sets listener of entries evicted by this level to free space
+     *
+     * @param listener Eviction listener, {@code null} removes listener
+     */
+    @Override
+    public void setEvictionListener(EvictionListener<K, V> listener) {
+        this.evictionListener = listener;
+    }
+}
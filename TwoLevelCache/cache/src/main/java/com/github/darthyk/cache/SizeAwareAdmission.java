@@ -0,0 +1,168 @@
+package com.github.darthyk.cache;
+
+/**
+ * Decides whether new entry is admitted to first level cache or written directly to second level cache,
+ * so first level cache holds the most expected hits per byte.
+ * <p>
+ * NOTE: estimated value sizes are kept in histogram with power of two buckets, which is halved every
+ * {@code DECAY_PERIOD} samples, so it follows changes of workload. Entry is oversized if it exceeds size limit
+ * or admitted quantile of histogram. When first level cache is full, entry is admitted only if its hit density
+ * is not lower than density of substitution victim. Expected hits are recent access frequencies of keys kept
+ * in frequency sketch, which counts accesses of absent and second level keys too and is periodically halved,
+ * so new keys which are accessed often win over victims which were popular long ago.
+ * Instance isn't thread safe, {@code TwoLevelCache} calls it under its level lock.
+ *
+ * @param <K> any key value
+ * @param <V> any value
+ */
+public class SizeAwareAdmission<K, V> {
+    private static final int BUCKETS = 64;
+    private static final long MIN_SAMPLES = 64;
+    private static final long DECAY_PERIOD = 1 << 16;
+    private final CacheLevel<K, V> firstLevelCache;
+    private final long maxValueBytes;
+    private final double admittedSizeQuantile;
+    private final long[] histogram = new long[BUCKETS];
+    private final FrequencySketch<K> frequencies;
+    private long samples;
+    private long admitted;
+    private long bypassed;
+
+    /**
+     * Initializes admission
+     *
+     * @param firstLevelCache First level cache
+     * @param maxValueBytes Maximal estimated size of value admitted to first level cache
+     * @param admittedSizeQuantile Quantile of value sizes above which values are treated as oversized
+     */
+    SizeAwareAdmission(CacheLevel<K, V> firstLevelCache, long maxValueBytes, double admittedSizeQuantile) {
+        if (maxValueBytes <= 0) {
+            throw new IllegalArgumentException("Maximal value size must be positive");
+        }
+        if (admittedSizeQuantile <= 0 || admittedSizeQuantile > 1) {
+            throw new IllegalArgumentException("Admitted size quantile must be in (0, 1]");
+        }
+        this.firstLevelCache = firstLevelCache;
+        this.maxValueBytes = maxValueBytes;
+        this.admittedSizeQuantile = admittedSizeQuantile;
+        this.frequencies = new FrequencySketch<>(8 * firstLevelCache.getCapacity());
+    }
+
+    /**
+     * Registers access of provided key, both present and absent keys are counted
+     *
+     * @param key Key value
+     */
+    void recordAccess(K key) {
+        frequencies.increment(key);
+    }
+
+    /**
+     * Registers size of new entry and checks whether it should be put to first level cache
+     *
+     * @param key Key value
+     * @param value Object value
+     * @param victim Substitution victim of first level cache, {@code null} if first level cache has empty space
+     * @return {@code true} if entry is admitted to first level cache, {@code false} if it goes to second level
+     */
+    boolean admit(K key, V value, K victim) {
+        long size = SizeEstimator.estimate(value);
+        record(size);
+        frequencies.increment(key);
+        boolean admit = !isOversized(size) && isDenserThanVictim(key, size, victim);
+        if (admit) {
+            ++admitted;
+        } else {
+            ++bypassed;
+        }
+        return admit;
+    }
+
+    /**
+     * Checks whether entry of second level cache may replace substitution victim of first level cache
+     *
+     * @param key Key value
+     * @param value Object value
+     * @param victim Substitution victim of first level cache
+     * @return {@code true} if entry is admitted to first level cache, {@code false} otherwise
+     */
+    boolean admitPromotion(K key, V value, K victim) {
+        long size = SizeEstimator.estimate(value);
+        return !isOversized(size) && isDenserThanVictim(key, size, victim);
+    }
+
+    private boolean isOversized(long size) {
+        return size > maxValueBytes || (samples >= MIN_SAMPLES && size > sizeQuantile(admittedSizeQuantile));
+    }
+
+    private boolean isDenserThanVictim(K key, long size, K victim) {
+        V victimValue = victim == null ? null : firstLevelCache.peekObject(victim);
+        if (victimValue == null) {
+            return true;
+        }
+        long victimSize = SizeEstimator.estimate(victimValue);
+        return expectedHits(key) * victimSize >= expectedHits(victim) * size;
+    }
+
+    private double expectedHits(K key) {
+        return Math.max(1, frequencies.frequency(key));
+    }
+
+    private void record(long size) {
+        if (++samples > DECAY_PERIOD) {
+            samples = 0;
+            for (int i = 0; i < BUCKETS; ++i) {
+                histogram[i] >>>= 1;
+                samples += histogram[i];
+            }
+        }
+        ++histogram[bucket(size)];
+    }
+
+    private static int bucket(long size) {
+        return BUCKETS - 1 - Long.numberOfLeadingZeros(Math.max(1, size));
+    }
+
+    /**
+     * Retrieves upper bound of provided quantile of recorded value sizes
+     *
+     * @param quantile Quantile in (0, 1]
+     * @return upper bound of quantile in bytes, {@code 0} if no size was recorded
+     */
+    public long sizeQuantile(double quantile) {
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long)Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Retrieves amount of new entries admitted to first level cache
+     *
+     * @return amount of admitted entries
+     */
+    public long getAdmittedCount() {
+        return admitted;
+    }
+
+    /**
+     * Retrieves amount of new entries written directly to second level cache
+     *
+     * @return amount of bypassed entries
+     */
+    public long getBypassedCount() {
+        return bypassed;
+    }
+}
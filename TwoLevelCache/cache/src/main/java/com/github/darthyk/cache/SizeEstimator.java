@@ -0,0 +1,110 @@
+package com.github.darthyk.cache;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+
+/**
+ * Estimates shallow heap footprint of cached keys and values.
+ * <p>
+ * NOTE: common immutable types are estimated from their layout on 64-bit JVM with compressed oops,
+ * objects implementing {@code Sized} estimate themselves and other objects are estimated from layout of their
+ * own fields, referenced objects aren't counted. Layout is computed once per class.
+ */
+final class SizeEstimator {
+    private static final long OBJECT_HEADER = 12;
+    private static final long ARRAY_HEADER = 16;
+    private static final long REFERENCE_SIZE = 4;
+    private static final ClassValue<Long> SHALLOW_SIZES = new ClassValue<Long>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            long size = OBJECT_HEADER;
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        size += fieldSize(field.getType());
+                    }
+                }
+            }
+            return align(size);
+        }
+    };
+
+    private SizeEstimator() {}
+
+    /**
+     * Estimates heap bytes of provided object
+     *
+     * @param object Object to estimate
+     * @return estimated heap bytes
+     */
+    static long estimate(Object object) {
+        if (object == null) {
+            return 0;
+        }
+        if (object instanceof Sized) {
+            return ((Sized)object).estimateSize();
+        }
+        if (object instanceof String) {
+            return align(OBJECT_HEADER + 12) + align(ARRAY_HEADER + 2L * ((String)object).length());
+        }
+        if (object instanceof Integer || object instanceof Short || object instanceof Byte
+                || object instanceof Character || object instanceof Boolean || object instanceof Float) {
+            return 16;
+        }
+        if (object instanceof Long || object instanceof Double) {
+            return 24;
+        }
+        if (object instanceof byte[]) {
+            return align(ARRAY_HEADER + ((byte[])object).length);
+        }
+        if (object instanceof char[]) {
+            return align(ARRAY_HEADER + 2L * ((char[])object).length);
+        }
+        if (object instanceof int[]) {
+            return align(ARRAY_HEADER + 4L * ((int[])object).length);
+        }
+        if (object instanceof long[]) {
+            return align(ARRAY_HEADER + 8L * ((long[])object).length);
+        }
+        if (object instanceof ByteBuffer) {
+            ByteBuffer buffer = (ByteBuffer)object;
+            return 48 + (buffer.hasArray() ? align(ARRAY_HEADER + buffer.capacity()) : 0);
+        }
+        if (object instanceof Object[]) {
+            return align(ARRAY_HEADER + REFERENCE_SIZE * ((Object[])object).length);
+        }
+        return SHALLOW_SIZES.get(object.getClass());
+    }
+
+    /**
+     * Estimates heap bytes of cache entry stored in {@code HashMap} and {@code TreeMap} of strategy data
+     *
+     * @param key Key object
+     * @param value Value object stored in {@code HashMap}
+     * @return estimated heap bytes of entry
+     */
+    static long estimateEntry(Object key, Object value) {
+        return estimate(key) + estimate(value) + CacheUsage.HASH_MAP_ENTRY_OVERHEAD + CacheUsage.TREE_MAP_ENTRY_OVERHEAD;
+    }
+
+    private static long fieldSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return REFERENCE_SIZE;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.darthyk.cache;
+
+/**
+ * Implemented by cached keys and values which know their heap footprint better than shallow estimate
+ * of cache levels
+ */
+public interface Sized {
+
+    /**
+     * Estimates heap bytes retained by this object, including objects it references
+     *
+     * @return estimated heap bytes
+     */
+    long estimateSize();
+}
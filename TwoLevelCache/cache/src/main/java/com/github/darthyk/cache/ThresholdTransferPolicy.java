@@ -0,0 +1,38 @@
+package com.github.darthyk.cache;
+
+/**
+ * Transfer policy which always demotes evicted entries and promotes entries
+ * which strategy data reached provided threshold
+ *
+ * @param <K> any key value
+ * @param <V> any value
+ */
+public class ThresholdTransferPolicy<K, V> implements TransferPolicy<K, V> {
+    private final long promotionThreshold;
+
+    /**
+     * Initializes policy which promotes every accessed entry
+     */
+    public ThresholdTransferPolicy() {
+        this(Long.MIN_VALUE);
+    }
+
+    /**
+     * Initializes policy with provided promotion threshold
+     *
+     * @param promotionThreshold Minimal strategy data required for promotion
+     */
+    public ThresholdTransferPolicy(long promotionThreshold) {
+        this.promotionThreshold = promotionThreshold;
+    }
+
+    @Override
+    public boolean shouldDemote(K key, V value, long strategyData) {
+        return true;
+    }
+
+    @Override
+    public boolean shouldPromote(K key, long strategyData) {
+        return strategyData >= promotionThreshold;
+    }
+}
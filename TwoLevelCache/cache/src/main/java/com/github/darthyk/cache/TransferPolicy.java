@@ -0,0 +1,29 @@
+package com.github.darthyk.cache;
+
+/**
+ * Decides whether entries cross the boundary between two neighbour levels of {@code CompositeCache}
+ *
+ * @param <K> any key value
+ * @param <V> any value
+ */
+public interface TransferPolicy<K, V> {
+
+    /**
+     * Checks whether entry evicted from upper level should be moved to lower level
+     *
+     * @param key Key value
+     * @param value Object value
+     * @param strategyData Strategy data of entry on upper level
+     * @return {@code true} if entry should be demoted, {@code false} if it should be discarded
+     */
+    boolean shouldDemote(K key, V value, long strategyData);
+
+    /**
+     * Checks whether entry accessed on lower level should be moved to upper level
+     *
+     * @param key Key value
+     * @param strategyData Strategy data of entry on lower level after access
+     * @return {@code true} if entry should be promoted, {@code false} otherwise
+     */
+    boolean shouldPromote(K key, long strategyData);
+}
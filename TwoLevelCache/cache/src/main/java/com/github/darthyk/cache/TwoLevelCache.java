@@ -4,10 +4,31 @@ import com.github.darthyk.cache.strategies.LeastFrequentlyUsed;
 import com.github.darthyk.cache.strategies.Strategy;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Class represents work with two level cache - RAM memory cache and file system memory cache
+ * <p>
+ * NOTE: cache is thread safe. Operations on levels are guarded by one short lock, writes and atomic
+ * operations additionally lock stripe of their key, so functions of atomic operations block only keys
+ * of the same stripe. Clearing, bulk invalidation, refreshed values and snapshot import don't lock key stripes,
+ * atomic operation repeats its function if one of them happened while the function was running.
+ * Levels defer their storage writes, which are made after the short lock is released.
+ * Reads served by hot key replicas don't take the short lock, their accesses are recorded in batches.
  *
  * @param <K> any key value
  * @param <V> any value
@@ -16,10 +37,25 @@ import java.io.Serializable;
 @Slf4j
 public class TwoLevelCache<K extends Serializable, V extends Serializable> implements Cache<K, V> {
     private static final int REBALANCE_COUNTER = 20;
-    private final MemoryCache<K, V> firstLevelCache;
-    private final FileSystemCache<K, V> secondLevelCache;
+    private static final int EVENT_QUEUE_CAPACITY = 4096;
+    private static final int EVENT_BATCH_SIZE = 256;
+    private static final int KEY_LOCK_STRIPES = 64;
+    private static final int INVALIDATION_BATCH_SIZE = 1024;
+    private static final long INVALIDATION_TIMEOUT_SECONDS = 10;
+    private final CacheLevel<K, V> firstLevelCache;
+    private final CacheLevel<K, V> secondLevelCache;
     private final Strategy strategy;
     private int callingCounter = 0;
+    private RefreshAhead<K, V> refreshAhead;
+    private volatile HotKeyReplicas<K, V> hotKeys;
+    private volatile CacheEventDispatcher<K, V> eventDispatcher;
+    private TransferPolicy<K, V> demotionPolicy;
+    private SizeAwareAdmission<K, V> admission;
+    private final InvalidationGenerations<K> invalidations = new InvalidationGenerations<>();
+    private ExecutorService invalidationExecutor;
+    private final ReentrantLock tierLock = new ReentrantLock();
+    private final ReentrantLock[] keyLocks = createKeyLocks();
+    private volatile long unstripedWrites;
 
     /**
      * Initializes {@code TwoLevelCache} with default {@code LeastFrequentlyUsed} strategy
@@ -31,7 +67,7 @@ public class TwoLevelCache<K extends Serializable, V extends Serializable> imple
         this.strategy = new LeastFrequentlyUsed();
         this.firstLevelCache = new MemoryCache<>(memoryCacheCapacity,  strategy.getInstance());
         this.secondLevelCache = new FileSystemCache<>(fileSystemCacheCapacity,  strategy.getInstance());
-
+        attachLevels();
     }
 
     /**
@@ -45,105 +81,783 @@ public class TwoLevelCache<K extends Serializable, V extends Serializable> imple
         this.strategy = strategy;
         this.firstLevelCache = new MemoryCache<>(memoryCacheCapacity, strategy.getInstance());
         this.secondLevelCache = new FileSystemCache<>(fileSystemCacheCapacity, strategy.getInstance());
+        attachLevels();
     }
 
     /**
-     * Caches provided object value with provided key
+     * Initializes {@code TwoLevelCache} with provided levels
+     *
+     * @param firstLevelCache Fast first level cache
+     * @param secondLevelCache Slow second level cache
+     */
+    TwoLevelCache(CacheLevel<K, V> firstLevelCache, CacheLevel<K, V> secondLevelCache) {
+        this.strategy = firstLevelCache.getStrategy();
+        this.firstLevelCache = firstLevelCache;
+        this.secondLevelCache = secondLevelCache;
+        attachLevels();
+    }
+
+    private void attachLevels() {
+        firstLevelCache.setEvictionListener(this::onEviction);
+        secondLevelCache.setEvictionListener(this::onEviction);
+        firstLevelCache.setDeferredWrites(true);
+        secondLevelCache.setDeferredWrites(true);
+    }
+
+    /**
+     * Releases level lock, storage writes deferred by levels are made when the lock is released completely,
+     * so level I/O doesn't block other threads of this cache
+     */
+    private void unlockTier() {
+        tierLock.unlock();
+        if (!tierLock.isHeldByCurrentThread()) {
+            firstLevelCache.writeDeferred();
+            secondLevelCache.writeDeferred();
+        }
+    }
+
+    /**
+     * Caches provided object value with provided key.
+     * Value of present entry is replaced on the level which holds it.
      *
      * @param key Key value
      * @param value Object value
      */
     @Override
     public void putToCache(K key, V value) {
-        if(!firstLevelCache.containsKey(key) && !secondLevelCache.containsKey(key) && firstLevelCache.hasEmptySpace()) {
-            firstLevelCache.putToCache(key, value);
-            firstLevelCache.getStrategy().setStrategyData(firstLevelCache.getStrategyMap());
-            log.debug("Put object with key %s to first level cache", key);
-        } else if (!secondLevelCache.containsKey(key) && secondLevelCache.hasEmptySpace()) {
-            secondLevelCache.putToCache(key, value);
-            secondLevelCache.getStrategy().setStrategyData(secondLevelCache.getStrategyMap());
-            log.debug("Put object with key %s to second level cache", key);
-        } else {
-            freeSpace();
+        ReentrantLock keyLock = keyLock(key);
+        keyLock.lock();
+        tierLock.lock();
+        try {
+            applyRefreshedValues();
+            dropIfInvalidated(key);
+            if (containsKey(key)) {
+                replaceValue(key, value);
+                log.debug("Replace object with key {}", key);
+            } else if (admission != null) {
+                putAdmittedValue(key, value);
+            } else if(firstLevelCache.hasEmptySpace()) {
+                firstLevelCache.putToCache(key, value);
+                firstLevelCache.getStrategy().setStrategyData(firstLevelCache.getStrategyMap());
+                log.debug("Put object with key {} to first level cache", key);
+            } else if (secondLevelCache.hasEmptySpace()) {
+                secondLevelCache.putToCache(key, value);
+                secondLevelCache.getStrategy().setStrategyData(secondLevelCache.getStrategyMap());
+                log.debug("Put object with key {} to second level cache", key);
+            } else {
+                freeSpace();
+                firstLevelCache.putToCache(key, value);
+                firstLevelCache.getStrategy().setStrategyData(firstLevelCache.getStrategyMap());
+                log.debug("Put object with key {} to first level cache", key);
+            }
+            if (refreshAhead != null) {
+                refreshAhead.recordWrite(key);
+            }
+            invalidations.recordWrite(key);
+            invalidateReplicas(key);
+        } finally {
+            unlockTier();
+            keyLock.unlock();
+        }
+    }
+
+    /**
+     * Puts new entry to level chosen by size aware admission
+     *
+     * @param key Key value
+     * @param value Object value
+     */
+    private void putAdmittedValue(K key, V value) {
+        K victim = firstLevelCache.hasEmptySpace() ? null : firstLevelCache.getKeyForSubstitution();
+        if (admission.admit(key, value, victim)) {
+            if (victim != null) {
+                freeSpace(victim);
+            }
             firstLevelCache.putToCache(key, value);
             firstLevelCache.getStrategy().setStrategyData(firstLevelCache.getStrategyMap());
-            log.debug("Put object with key %s to first level cache", key);
+            log.debug("Put object with key {} to first level cache", key);
+            return;
         }
-
+        if (!secondLevelCache.hasEmptySpace()) {
+            K objectToDelete = secondLevelCache.getKeyForSubstitution();
+            evict(secondLevelCache, objectToDelete);
+        }
+        secondLevelCache.putToCache(key, value);
+        secondLevelCache.getStrategy().setStrategyData(secondLevelCache.getStrategyMap());
+        log.debug("Put object with key {} directly to second level cache according to size aware admission", key);
     }
 
     /**
      * Frees space in cache
      */
     public void freeSpace(){
-        K objectToDelete = (K)secondLevelCache.getStrategy().getKeyForSubstitution();
-        log.debug("Delete object with key %s according to substitution strategy %s from second level cache",
-                objectToDelete, secondLevelCache.getStrategy().getClass().getSimpleName());
-        secondLevelCache.deleteObject(objectToDelete);
+        tierLock.lock();
+        try {
+            freeSpace(firstLevelCache.getKeyForSubstitution());
+        } finally {
+            unlockTier();
+        }
+    }
 
-        K objectToMove = (K)firstLevelCache.getStrategy().getKeyForSubstitution();
-        Long frequencyData = firstLevelCache.getStrategyMap().get(objectToMove);
+    /**
+     * Frees space in first level cache by demoting or evicting provided victim, caller must hold level lock
+     *
+     * @param candidateForSlowCache Substitution victim of first level cache
+     */
+    private void freeSpace(K candidateForSlowCache) {
+        if (!firstLevelCache.getStrategy().predictsReuse(candidateForSlowCache)) {
+            log.debug("Evict object with key {} without demotion, its reuse is not predicted", candidateForSlowCache);
+            evict(firstLevelCache, candidateForSlowCache);
+            return;
+        }
+
+        K objectToMove = candidateForSlowCache;
+        Long frequencyData = firstLevelCache.getStrategyData(objectToMove);
         V objectToMoveData = firstLevelCache.removeObject(objectToMove);
-        log.debug("Move object with key %s according to substitution strategy %s from first level cache to second level",
+        if (demotionPolicy != null && !demotionPolicy.shouldDemote(objectToMove, objectToMoveData, frequencyData)) {
+            log.debug("Evict object with key {} without demotion according to demotion policy", objectToMove);
+            invalidateReplicas(objectToMove);
+            publishEvent(CacheEventType.EVICTED, objectToMove, objectToMoveData);
+            if (refreshAhead != null) {
+                refreshAhead.forget(objectToMove);
+            }
+            return;
+        }
+
+        if (!secondLevelCache.hasEmptySpace()) {
+            K objectToDelete = secondLevelCache.getKeyForSubstitution();
+            log.debug("Delete object with key {} according to substitution strategy {} from second level cache",
+                    objectToDelete, secondLevelCache.getStrategy().getClass().getSimpleName());
+            evict(secondLevelCache, objectToDelete);
+        }
+
+        log.debug("Move object with key {} according to substitution strategy {} from first level cache to second level",
                 objectToMove, firstLevelCache.getStrategy().getClass().getSimpleName());
 
         secondLevelCache.transferDataFromAnotherCache(objectToMove, objectToMoveData, frequencyData);
-        log.debug("Delete object with key %s according to substitution strategy %s from first level cache",
+        publishEvent(CacheEventType.DEMOTED, objectToMove, objectToMoveData);
+        log.debug("Delete object with key {} according to substitution strategy {} from first level cache",
                 objectToMove, firstLevelCache.getStrategy().getClass().getSimpleName());
         firstLevelCache.deleteObject(objectToMove);
     }
 
+    /**
+     * Sets policy which decides whether victim of first level cache is demoted to second level cache
+     * or discarded, {@code null} demotes every victim which reuse is predicted by strategy
+     *
+     * @param demotionPolicy Demotion policy
+     */
+    public void setDemotionPolicy(TransferPolicy<K, V> demotionPolicy) {
+        this.demotionPolicy = demotionPolicy;
+    }
+
+    /**
+     * Enables {@code CostAwareDemotionPolicy} over strategy of first level cache
+     *
+     * @param loadCostFunction Estimates cost of reloading entry
+     * @param writeCostPerByte Cost of writing one byte to second level cache
+     * @param readCostPerByte Cost of reading one byte from second level cache
+     * @param maxValueBytes Maximal estimated size of demoted value
+     * @return enabled policy
+     */
+    public CostAwareDemotionPolicy<K, V> enableCostAwareDemotion(LoadCostFunction<K, V> loadCostFunction,
+                                                                 double writeCostPerByte, double readCostPerByte,
+                                                                 long maxValueBytes) {
+        CostAwareDemotionPolicy<K, V> policy = new CostAwareDemotionPolicy<>(firstLevelCache.getStrategy(),
+                loadCostFunction, writeCostPerByte, readCostPerByte, maxValueBytes);
+        this.demotionPolicy = policy;
+        return policy;
+    }
+
+    /**
+     * Enables size aware admission of new entries to first level cache.
+     * Oversized entries and entries with lower hit density per byte than substitution victim of first level
+     * cache are put directly to second level cache, rebalancing doesn't promote such entries.
+     *
+     * @param maxValueBytes Maximal estimated size of value admitted to first level cache
+     * @param admittedSizeQuantile Quantile of observed value sizes above which values are treated as oversized
+     * @return enabled admission
+     */
+    public SizeAwareAdmission<K, V> enableSizeAwareAdmission(long maxValueBytes, double admittedSizeQuantile) {
+        tierLock.lock();
+        try {
+            admission = new SizeAwareAdmission<>(firstLevelCache, maxValueBytes, admittedSizeQuantile);
+            return admission;
+        } finally {
+            unlockTier();
+        }
+    }
+
+    private static ReentrantLock[] createKeyLocks() {
+        ReentrantLock[] locks = new ReentrantLock[KEY_LOCK_STRIPES];
+        for (int i = 0; i < locks.length; ++i) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    private ReentrantLock keyLock(K key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return keyLocks[(hash ^ (hash >>> 16)) & (KEY_LOCK_STRIPES - 1)];
+    }
+
+    /**
+     * Computes new value for provided key from its current value atomically.
+     * Entry of second level cache is promoted to first level cache.
+     *
+     * @param key Key value
+     * @param remappingFunction Computes new value from key and current value, {@code null} current value
+     *                          means absent entry, {@code null} result removes entry
+     * @return new value, {@code null} if entry is absent after computation
+     */
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        ReentrantLock keyLock = keyLock(key);
+        keyLock.lock();
+        try {
+            while (true) {
+                long writes = unstripedWrites;
+                V oldValue = readObject(key);
+                V newValue = remappingFunction.apply(key, oldValue);
+                if (writeComputedValue(key, writes, oldValue, newValue)) {
+                    return newValue;
+                }
+            }
+        } finally {
+            keyLock.unlock();
+        }
+    }
+
+    /**
+     * Computes value for provided key atomically if key is absent
+     *
+     * @param key Key value
+     * @param mappingFunction Computes value from key, {@code null} result leaves key absent
+     * @return current value if key is present, computed value otherwise
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        ReentrantLock keyLock = keyLock(key);
+        keyLock.lock();
+        try {
+            while (true) {
+                long writes = unstripedWrites;
+                V oldValue = readObject(key);
+                if (oldValue != null) {
+                    return oldValue;
+                }
+                V newValue = mappingFunction.apply(key);
+                if (writeComputedValue(key, writes, null, newValue)) {
+                    return newValue;
+                }
+            }
+        } finally {
+            keyLock.unlock();
+        }
+    }
+
+    /**
+     * Computes new value for provided key atomically if key is present.
+     * Entry of second level cache is promoted to first level cache.
+     *
+     * @param key Key value
+     * @param remappingFunction Computes new value from key and current value, {@code null} result removes entry
+     * @return new value, {@code null} if entry is absent after computation
+     */
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        ReentrantLock keyLock = keyLock(key);
+        keyLock.lock();
+        try {
+            while (true) {
+                long writes = unstripedWrites;
+                V oldValue = readObject(key);
+                if (oldValue == null) {
+                    return null;
+                }
+                V newValue = remappingFunction.apply(key, oldValue);
+                if (writeComputedValue(key, writes, oldValue, newValue)) {
+                    return newValue;
+                }
+            }
+        } finally {
+            keyLock.unlock();
+        }
+    }
+
+    /**
+     * Merges provided value with current value of provided key atomically.
+     * Entry of second level cache is promoted to first level cache.
+     *
+     * @param key Key value
+     * @param value Value which is put if key is absent
+     * @param remappingFunction Merges current value with provided value, {@code null} result removes entry
+     * @return new value, {@code null} if entry is absent after merge
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        ReentrantLock keyLock = keyLock(key);
+        keyLock.lock();
+        try {
+            while (true) {
+                long writes = unstripedWrites;
+                V oldValue = readObject(key);
+                V newValue = oldValue == null ? value : remappingFunction.apply(oldValue, value);
+                if (writeComputedValue(key, writes, oldValue, newValue)) {
+                    return newValue;
+                }
+            }
+        } finally {
+            keyLock.unlock();
+        }
+    }
+
+    /**
+     * Writes result of atomic operation unless levels were changed by writes which don't lock key stripes
+     * since old value was read, caller must hold lock of key stripe and repeat computation if result isn't written
+     *
+     * @param key Key value
+     * @param writes Amount of writes without key stripe lock before old value was read
+     * @param oldValue Value before computation, {@code null} if key was absent
+     * @param newValue Computed value, {@code null} removes entry
+     * @return {@code true} if result is written, {@code false} if old value may be outdated
+     */
+    private boolean writeComputedValue(K key, long writes, V oldValue, V newValue) {
+        tierLock.lock();
+        try {
+            if (unstripedWrites != writes) {
+                return false;
+            }
+            if (newValue == null) {
+                if (oldValue != null) {
+                    removeObject(key);
+                }
+            } else if (secondLevelCache.containsKey(key)) {
+                promote(key, newValue);
+            } else {
+                putToCache(key, newValue);
+            }
+            return true;
+        } finally {
+            unlockTier();
+        }
+    }
+
+    /**
+     * Moves entry of second level cache to first level cache with provided value keeping its strategy data
+     *
+     * @param key Key value
+     * @param value New object value
+     */
+    private void promote(K key, V value) {
+        Long strategyData = secondLevelCache.getStrategyData(key);
+        secondLevelCache.deleteObject(key);
+        if (!firstLevelCache.hasEmptySpace()) {
+            freeSpace();
+        }
+        firstLevelCache.transferDataFromAnotherCache(key, value, strategyData);
+        invalidations.recordWrite(key);
+        publishEvent(CacheEventType.PROMOTED, key, value);
+        if (refreshAhead != null) {
+            refreshAhead.recordWrite(key);
+        }
+        invalidateReplicas(key);
+    }
+
+    /**
+     * Deletes victim of substitution strategy from provided level.
+     *
+     * @param level Cache level
+     * @param key Key of victim
+     */
+    private void evict(CacheLevel<K, V> level, K key) {
+        onEviction(key, () -> level.peekObject(key));
+        level.deleteObject(key);
+    }
+
+    /**
+     * Forgets evicted key and publishes its eviction, called for victims of this cache and for entries which levels
+     * evict by themselves. Victim value is read only if it has to be delivered to event listeners.
+     *
+     * @param key Key of victim
+     * @param value Reads value of victim
+     */
+    private void onEviction(K key, Supplier<V> value) {
+        if (refreshAhead != null) {
+            refreshAhead.forget(key);
+        }
+        invalidateReplicas(key);
+        if (hasEventListeners()) {
+            publishEvent(CacheEventType.EVICTED, key, value.get());
+        }
+    }
+
     /**
      * Represents information about cache usage
      *
      * @return information about cache usage
      */
     public String getCacheUsage() {
-        return new StringBuffer().append("First level cache usage: ").append(firstLevelCache.getStrategyMap())
-                .append("; Second level cache usage: ").append(secondLevelCache.getStrategyMap()).append("\n").toString();
+        tierLock.lock();
+        try {
+            return new StringBuffer().append("First level cache usage: ").append(firstLevelCache.getStrategyMap())
+                    .append("; Second level cache usage: ").append(secondLevelCache.getStrategyMap()).append("\n").toString();
+        } finally {
+            unlockTier();
+        }
+    }
+
+    /**
+     * Retrieves usage counters of first level cache, counters are maintained on every change and read in O(1)
+     *
+     * @return usage counters of first level cache
+     */
+    public CacheUsage getFirstLevelUsage() {
+        return firstLevelCache.getUsage();
+    }
+
+    /**
+     * Retrieves usage counters of second level cache, counters are maintained on every change and read in O(1)
+     *
+     * @return usage counters of second level cache
+     */
+    public CacheUsage getSecondLevelUsage() {
+        return secondLevelCache.getUsage();
+    }
+
+    /**
+     * Writes snapshot of the hottest entries with their strategy data to provided stream.
+     * Entries of each level are ordered by strategy data of this level descending and entries of first level
+     * are written before entries of second level, so the hottest ones are imported first.
+     *
+     * @param output Target stream, it is not closed
+     * @param maxEntries Maximal amount of exported entries
+     * @return amount of exported entries
+     * @throws IOException if snapshot can't be written
+     */
+    public int exportSnapshot(OutputStream output, int maxEntries) throws IOException {
+        tierLock.lock();
+        try {
+            Strategy firstLevelStrategy = firstLevelCache.getStrategy();
+            try (CacheSnapshot.Writer writer = new CacheSnapshot.Writer(output, firstLevelStrategy.getClass().getName(),
+                    firstLevelStrategy.fillStrategyData())) {
+                int exported = exportLevel(writer, 0, firstLevelCache, maxEntries);
+                return exported + exportLevel(writer, 1, secondLevelCache, maxEntries - exported);
+            }
+        } finally {
+            unlockTier();
+        }
+    }
+
+    /**
+     * Writes the hottest entries of provided level ordered by its strategy data descending
+     *
+     * @param writer Snapshot writer
+     * @param levelIndex Index of level in snapshot
+     * @param level Exported level
+     * @param maxEntries Maximal amount of exported entries
+     * @return amount of exported entries
+     * @throws IOException if snapshot can't be written
+     */
+    private int exportLevel(CacheSnapshot.Writer writer, int levelIndex, CacheLevel<K, V> level, int maxEntries)
+            throws IOException {
+        if (maxEntries <= 0) {
+            return 0;
+        }
+        List<Map.Entry<K, Long>> entries = new ArrayList<>(level.getStrategyMap().entrySet());
+        entries.sort((first, second) -> Long.compare(second.getValue(), first.getValue()));
+        int exported = 0;
+        for (Map.Entry<K, Long> entry : entries) {
+            if (exported >= maxEntries) {
+                break;
+            }
+            V value = level.peekObject(entry.getKey());
+            if (value != null) {
+                writer.write(levelIndex, entry.getValue(), entry.getKey(), value);
+                ++exported;
+            }
+        }
+        return exported;
+    }
+
+    /**
+     * Imports entries from snapshot written by {@link #exportSnapshot(OutputStream, int)}.
+     * Snapshot chunks are verified and deserialized in parallel, entries are loaded into free space of levels
+     * in bulk without substitution. Entries which are already cached or don't fit into free space are skipped.
+     * Entries are loaded chunk by chunk and reading stops as soon as free space of both levels is taken.
+     *
+     * @param input Source stream, it is not closed
+     * @param threads Amount of deserializing threads
+     * @return amount of imported entries
+     * @throws IOException if snapshot is corrupted or can't be read
+     */
+    public int importSnapshot(InputStream input, int threads) throws IOException {
+        int[] imported = new int[1];
+        Strategy firstLevelStrategy = firstLevelCache.getStrategy();
+        CacheSnapshot.read(input, threads, firstLevelStrategy.getClass().getName(),
+                firstLevelStrategy.fillStrategyData(), snapshotEntries -> {
+            tierLock.lock();
+            try {
+                imported[0] += importEntries(snapshotEntries);
+                return firstLevelCache.hasEmptySpace() || secondLevelCache.hasEmptySpace();
+            } finally {
+                unlockTier();
+            }
+        });
+        log.info("Imported {} entries from snapshot", imported[0]);
+        return imported[0];
+    }
+
+    /**
+     * Loads entries of one snapshot chunk into free space of levels, caller must hold level lock
+     *
+     * @param snapshotEntries Entries of chunk in snapshot order
+     * @return amount of imported entries
+     */
+    private int importEntries(List<CacheSnapshot.Entry> snapshotEntries) {
+        int firstLevelRoom = firstLevelCache.getCapacity() - firstLevelCache.size();
+        int secondLevelRoom = secondLevelCache.getCapacity() - secondLevelCache.size();
+        Map<K, V> firstLevelValues = new LinkedHashMap<>();
+        Map<K, Long> firstLevelData = new HashMap<>();
+        Map<K, V> secondLevelValues = new LinkedHashMap<>();
+        Map<K, Long> secondLevelData = new HashMap<>();
+        for (CacheSnapshot.Entry entry : snapshotEntries) {
+            K key = (K)entry.key;
+            if (containsKey(key) || firstLevelValues.containsKey(key) || secondLevelValues.containsKey(key)) {
+                continue;
+            }
+            boolean firstLevelFits = firstLevelValues.size() < firstLevelRoom;
+            if (firstLevelFits && (entry.level == 0 || secondLevelValues.size() >= secondLevelRoom)) {
+                firstLevelValues.put(key, (V)entry.value);
+                firstLevelData.put(key, entry.strategyData);
+            } else if (secondLevelValues.size() < secondLevelRoom) {
+                secondLevelValues.put(key, (V)entry.value);
+                secondLevelData.put(key, entry.strategyData);
+            }
+        }
+        firstLevelCache.transferAllFromAnotherCache(firstLevelValues, firstLevelData);
+        secondLevelCache.transferAllFromAnotherCache(secondLevelValues, secondLevelData);
+        for (K key : firstLevelValues.keySet()) {
+            recordImport(key);
+        }
+        for (K key : secondLevelValues.keySet()) {
+            recordImport(key);
+        }
+        ++unstripedWrites;
+        return firstLevelValues.size() + secondLevelValues.size();
+    }
+
+    private void recordImport(K key) {
+        if (refreshAhead != null) {
+            refreshAhead.recordWrite(key);
+        }
+        invalidations.recordWrite(key);
+        invalidateReplicas(key);
     }
 
     /**
      * Rebalances 1/4 of cache data between two levels (Memory and File System)
      */
     private void rebalanceDataOnTwoLevels() {
+        Iterator<K> remainingCandidates = null;
         for (int iteration = 0; iteration < size()/4; ++iteration) {
-            K candidateForSlowCache = (K)firstLevelCache.getStrategy().getKeyForSubstitution();
-            K candidateForFastCache = (K)secondLevelCache.getStrategy().getCandidateForMemoryCache();
-            Long frequencyDataFirstLevel = firstLevelCache.getStrategyMap().get(candidateForSlowCache);
-            Long frequencyDataSecondLevel = secondLevelCache.getStrategyMap().get(candidateForFastCache);
+            if (firstLevelCache.size() == 0 || secondLevelCache.size() == 0) {
+                break;
+            }
+            K candidateForSlowCache = firstLevelCache.getKeyForSubstitution();
+            K candidateForFastCache = remainingCandidates == null ? secondLevelCache.getCandidateForPromotion()
+                    : nextPromotionCandidate(remainingCandidates);
+            if (candidateForFastCache == null) {
+                break;
+            }
+            if (admission != null && !admission.admitPromotion(candidateForFastCache,
+                    secondLevelCache.peekObject(candidateForFastCache), candidateForSlowCache)) {
+                if (remainingCandidates == null) {
+                    remainingCandidates = promotionCandidates(candidateForFastCache);
+                }
+                continue;
+            }
+            Long frequencyDataFirstLevel = firstLevelCache.getStrategyData(candidateForSlowCache);
+            Long frequencyDataSecondLevel = secondLevelCache.getStrategyData(candidateForFastCache);
             V firstLevelValue = firstLevelCache.removeObject(candidateForSlowCache);
             V secondLevelValue = secondLevelCache.removeObject(candidateForFastCache);
             firstLevelCache.transferDataFromAnotherCache(candidateForFastCache, secondLevelValue, frequencyDataSecondLevel);
             secondLevelCache.transferDataFromAnotherCache(candidateForSlowCache, firstLevelValue, frequencyDataFirstLevel);
+            publishEvent(CacheEventType.PROMOTED, candidateForFastCache, secondLevelValue);
+            publishEvent(CacheEventType.DEMOTED, candidateForSlowCache, firstLevelValue);
         }
     }
 
+    /**
+     * Orders keys of second level cache by strategy data descending, used after admission rejected
+     * promotion candidate of second level cache, so the next candidates are still considered
+     *
+     * @param rejected Rejected promotion candidate
+     * @return remaining promotion candidates
+     */
+    private Iterator<K> promotionCandidates(K rejected) {
+        List<Map.Entry<K, Long>> entries = new ArrayList<>(secondLevelCache.getStrategyMap().entrySet());
+        entries.sort((first, second) -> Long.compare(second.getValue(), first.getValue()));
+        List<K> candidates = new ArrayList<>(entries.size());
+        for (Map.Entry<K, Long> entry : entries) {
+            if (!entry.getKey().equals(rejected)) {
+                candidates.add(entry.getKey());
+            }
+        }
+        return candidates.iterator();
+    }
+
+    private K nextPromotionCandidate(Iterator<K> candidates) {
+        while (candidates.hasNext()) {
+            K candidate = candidates.next();
+            if (secondLevelCache.containsKey(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
     /**
      * Retrieves object for provided key from cache.
      * Increments frequency usage for provided object key.
+     * Hot keys are served from replica of current thread if hot key replication is enabled.
      *
      * @param key Key object
      * @return Value for provided key from cache, {@code null} if key objct is absent
      */
     @Override
     public V getObject(K key) {
-        if(callingCounter == REBALANCE_COUNTER) {
-            rebalanceDataOnTwoLevels();
-            callingCounter = 0;
-        } else ++callingCounter;
-        if(firstLevelCache.containsKey(key)) {
-            long frequency = firstLevelCache.getStrategyMap().remove(key);
-            firstLevelCache.getStrategyMap().put(key, firstLevelCache.getStrategy().updateStrategyData(frequency));
-            return firstLevelCache.getObject(key);
-        } else if (secondLevelCache.containsKey(key)) {
-            long frequency = secondLevelCache.strategyMap.remove(key);
-            secondLevelCache.strategyMap.put(key, secondLevelCache.strategyType.updateStrategyData(frequency));
-            return secondLevelCache.getObject(key);
-        } else {
-            return null;
+        HotKeyReplicas<K, V> replicas = hotKeys;
+        if (replicas == null) {
+            return readObject(key);
+        }
+        V replicatedValue = readReplica(replicas, key);
+        if (replicatedValue != null) {
+            return replicatedValue;
+        }
+        long version = replicas.version(key);
+        V value = readObject(key);
+        replicas.recordAccess(key, value, version);
+        return value;
+    }
+
+    /**
+     * Retrieves handle of object for provided key, which deserializes object read from second level cache
+     * on first access, so callers which only check presence or pass value through don't pay for deserialization.
+     * Increments frequency usage for provided object key.
+     *
+     * @param key Key object
+     * @return handle of value for provided key, {@code null} if key object is absent
+     */
+    public LazyValue<V> getLazy(K key) {
+        HotKeyReplicas<K, V> replicas = hotKeys;
+        if (replicas != null) {
+            V replicatedValue = readReplica(replicas, key);
+            if (replicatedValue != null) {
+                return LazyValue.of(replicatedValue);
+            }
+        }
+        return readObject(key, CacheLevel::getLazyObject);
+    }
+
+    /**
+     * Retrieves replica of provided key of current thread without taking level lock. Replica is valid only while
+     * version of its key is unchanged, and versions are bumped by every change of key and by announced
+     * invalidations, so replica is never returned after key is changed, removed or invalidated.
+     * Access is buffered and recorded by strategy of level which holds the key in batches.
+     *
+     * @param replicas Hot key replicas
+     * @param key Key object
+     * @return replicated value, {@code null} if current thread has no valid replica of key
+     */
+    private V readReplica(HotKeyReplicas<K, V> replicas, K key) {
+        V replicatedValue = replicas.get(key);
+        if (replicatedValue != null && replicas.bufferAccess(key) && tierLock.tryLock()) {
+            try {
+                recordReplicaAccesses();
+            } finally {
+                unlockTier();
+            }
+        }
+        return replicatedValue;
+    }
+
+    /**
+     * Records buffered accesses of replicated keys by strategy of level which holds the key,
+     * accesses of keys which are absent or invalidated meanwhile are skipped
+     */
+    private void recordReplicaAccesses() {
+        HotKeyReplicas<K, V> replicas = hotKeys;
+        if (replicas == null) {
+            return;
         }
+        replicas.drainAccesses(key -> {
+            if (dropIfInvalidated(key)) {
+                return;
+            }
+            CacheLevel<K, V> level = firstLevelCache.containsKey(key) ? firstLevelCache
+                    : secondLevelCache.containsKey(key) ? secondLevelCache : null;
+            if (level == null) {
+                return;
+            }
+            if (refreshAhead != null) {
+                refreshAhead.recordAccess(key);
+            }
+            if (admission != null) {
+                admission.recordAccess(key);
+            }
+            level.recordAccess(key);
+        });
+    }
 
+    /**
+     * Retrieves object for provided key from cache levels
+     *
+     * @param key Key object
+     * @return Value for provided key from cache, {@code null} if key object is absent
+     */
+    private V readObject(K key) {
+        return readObject(key, CacheLevel::getObject);
+    }
+
+    /**
+     * Retrieves object for provided key from level which holds it with provided reader
+     *
+     * @param key Key object
+     * @param reader Reads object from level
+     * @return Result of reader, {@code null} if key object is absent
+     */
+    private <R> R readObject(K key, BiFunction<CacheLevel<K, V>, K, R> reader) {
+        tierLock.lock();
+        try {
+            applyRefreshedValues();
+            recordReplicaAccesses();
+            if (dropIfInvalidated(key)) {
+                return null;
+            }
+            if (admission != null) {
+                admission.recordAccess(key);
+            }
+            if(callingCounter == REBALANCE_COUNTER) {
+                rebalanceDataOnTwoLevels();
+                callingCounter = 0;
+            } else ++callingCounter;
+            if (refreshAhead != null && containsKey(key)) {
+                refreshAhead.recordAccess(key);
+            }
+            if(firstLevelCache.containsKey(key)) {
+                firstLevelCache.recordAccess(key);
+                return reader.apply(firstLevelCache, key);
+            } else if (secondLevelCache.containsKey(key)) {
+                secondLevelCache.recordAccess(key);
+                return reader.apply(secondLevelCache, key);
+            } else {
+                return null;
+            }
+
+        } finally {
+            unlockTier();
+        }
     }
 
     /**
@@ -153,14 +867,30 @@ public class TwoLevelCache<K extends Serializable, V extends Serializable> imple
      */
     @Override
     public void deleteObject(K key) {
-        if(firstLevelCache.containsKey(key)) {
-            log.info("Delete object with key %s from first level cache", key);
-            firstLevelCache.deleteObject(key);
-        } else if (secondLevelCache.containsKey(key)) {
-            log.info("Delete object with key %s from second level cache", key);
-            secondLevelCache.deleteObject(key);
-        } else {
-            log.error("Object with key %s is absent in cache", key);
+        ReentrantLock keyLock = keyLock(key);
+        keyLock.lock();
+        tierLock.lock();
+        try {
+            dropIfInvalidated(key);
+            if (refreshAhead != null) {
+                refreshAhead.forget(key);
+            }
+            if(firstLevelCache.containsKey(key)) {
+                log.info("Delete object with key {} from first level cache", key);
+                firstLevelCache.deleteObject(key);
+            } else if (secondLevelCache.containsKey(key)) {
+                log.info("Delete object with key {} from second level cache", key);
+                secondLevelCache.deleteObject(key);
+            } else {
+                log.error("Object with key {} is absent in cache", key);
+                invalidateReplicas(key);
+                return;
+            }
+            invalidateReplicas(key);
+            publishEvent(CacheEventType.EXPLICIT, key, null);
+        } finally {
+            unlockTier();
+            keyLock.unlock();
         }
     }
 
@@ -172,20 +902,382 @@ public class TwoLevelCache<K extends Serializable, V extends Serializable> imple
      */
     @Override
     public V removeObject(K key) {
-        if(firstLevelCache.containsKey(key)) {
-            log.info("Delete object with key %s from first level cache", key);
-            return firstLevelCache.removeObject(key);
+        ReentrantLock keyLock = keyLock(key);
+        keyLock.lock();
+        tierLock.lock();
+        try {
+            dropIfInvalidated(key);
+            if (refreshAhead != null) {
+                refreshAhead.forget(key);
+            }
+            V value;
+            if(firstLevelCache.containsKey(key)) {
+                log.info("Delete object with key {} from first level cache", key);
+                value = firstLevelCache.removeObject(key);
+            } else if (secondLevelCache.containsKey(key)) {
+                log.info("Delete object with key {} from second level cache", key);
+                value = secondLevelCache.removeObject(key);
+            } else {
+                log.error("Object with key {} is absent in cache", key);
+                invalidateReplicas(key);
+                return null;
+            }
+            invalidateReplicas(key);
+            publishEvent(CacheEventType.EXPLICIT, key, value);
+            return value;
+        } finally {
+            unlockTier();
+            keyLock.unlock();
+        }
+    }
+
+    /**
+     * Invalidates all entries which keys match provided predicate.
+     * Every level is scanned by one pass and matching entries are deleted in one batch per level,
+     * so file system level is written once.
+     *
+     * @param predicate Predicate of invalidated keys, it is evaluated under level lock
+     * @return amount of invalidated entries
+     */
+    public int invalidateAll(Predicate<? super K> predicate) {
+        tierLock.lock();
+        try {
+            return invalidateMatching(predicate);
+        } finally {
+            unlockTier();
+        }
+    }
+
+    /**
+     * Invalidates all entries which string form of key starts with provided prefix
+     *
+     * @param prefix Key prefix
+     * @return amount of invalidated entries
+     */
+    public int invalidateByPrefix(String prefix) {
+        return invalidateAll(key -> key.toString().startsWith(prefix));
+    }
+
+    /**
+     * Invalidates all entries which keys match provided predicate in background.
+     * Matching entries become invisible as soon as this method returns and are deleted from levels
+     * by background pass, entries written after this call stay visible. Until background pass finishes
+     * invalidated entries still occupy space and are counted by {@link #size()}.
+     * Background pass evaluates predicate on snapshot of keys without holding level lock and deletes
+     * matching entries in bounded batches, so concurrent operations wait for one batch at most.
+     *
+     * @param predicate Predicate of invalidated keys, it is evaluated by background thread
+     * @return future with amount of entries deleted by background pass
+     */
+    public CompletableFuture<Integer> invalidateAllAsync(Predicate<? super K> predicate) {
+        tierLock.lock();
+        try {
+            InvalidationGenerations.Invalidation<K> invalidation = invalidations.announce(predicate);
+            ++unstripedWrites;
+            if (hotKeys != null) {
+                hotKeys.invalidateAll();
+            }
+            if (invalidationExecutor == null) {
+                invalidationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "cache-invalidation");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            return CompletableFuture.supplyAsync(() -> applyInvalidation(invalidation), invalidationExecutor);
+        } finally {
+            unlockTier();
+        }
+    }
+
+    private int applyInvalidation(InvalidationGenerations.Invalidation<K> invalidation) {
+        List<K> keys = new ArrayList<>();
+        tierLock.lock();
+        try {
+            keys.addAll(firstLevelCache.getStrategyMap().keySet());
+            keys.addAll(secondLevelCache.getStrategyMap().keySet());
+        } finally {
+            unlockTier();
+        }
+        List<K> matching = keys.stream().filter(invalidation.predicate).collect(Collectors.toList());
+        int invalidated = 0;
+        for (int from = 0; from < matching.size(); from += INVALIDATION_BATCH_SIZE) {
+            invalidated += invalidateBatch(invalidation,
+                    matching.subList(from, Math.min(matching.size(), from + INVALIDATION_BATCH_SIZE)));
+        }
+        tierLock.lock();
+        try {
+            invalidations.complete(invalidation);
+        } finally {
+            unlockTier();
+        }
+        log.debug("Background invalidation deleted {} entries", invalidated);
+        return invalidated;
+    }
+
+    /**
+     * Deletes provided keys which are still invalidated by provided invalidation,
+     * keys written since invalidation was announced or already gone are skipped
+     *
+     * @param invalidation Applied invalidation
+     * @param keys Keys matching predicate of invalidation
+     * @return amount of invalidated entries
+     */
+    private int invalidateBatch(InvalidationGenerations.Invalidation<K> invalidation, List<K> keys) {
+        List<K> firstLevelKeys = new ArrayList<>();
+        List<K> secondLevelKeys = new ArrayList<>();
+        tierLock.lock();
+        try {
+            for (K key : keys) {
+                if (invalidations.writtenAfter(invalidation, key)) {
+                    continue;
+                }
+                if (firstLevelCache.containsKey(key)) {
+                    firstLevelKeys.add(key);
+                } else if (secondLevelCache.containsKey(key)) {
+                    secondLevelKeys.add(key);
+                }
+            }
+            int invalidated = invalidateKeys(firstLevelCache, firstLevelKeys)
+                    + invalidateKeys(secondLevelCache, secondLevelKeys);
+            ++unstripedWrites;
+            if (hotKeys != null) {
+                hotKeys.invalidateAll();
+            }
+            return invalidated;
+        } finally {
+            unlockTier();
+        }
+    }
+
+    private int invalidateMatching(Predicate<? super K> predicate) {
+        int invalidated = invalidateMatching(firstLevelCache, predicate) + invalidateMatching(secondLevelCache, predicate);
+        ++unstripedWrites;
+        if (hotKeys != null) {
+            hotKeys.invalidateAll();
+        }
+        return invalidated;
+    }
+
+    private int invalidateMatching(CacheLevel<K, V> level, Predicate<? super K> predicate) {
+        return invalidateKeys(level, level.getStrategyMap().keySet().stream().filter(predicate)
+                .collect(Collectors.toList()));
+    }
+
+    private int invalidateKeys(CacheLevel<K, V> level, List<K> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        int invalidated = level.deleteObjects(keys);
+        for (K key : keys) {
+            if (refreshAhead != null) {
+                refreshAhead.forget(key);
+            }
+            publishEvent(CacheEventType.EXPLICIT, key, null);
+        }
+        return invalidated;
+    }
+
+    /**
+     * Deletes provided key from its level if it is invalidated by pending background invalidation
+     *
+     * @param key Key value
+     * @return {@code true} if key has been dropped, {@code false} otherwise
+     */
+    private boolean dropIfInvalidated(K key) {
+        if (!invalidations.hasPending() || !invalidations.isInvalidated(key)) {
+            return false;
+        }
+        if (firstLevelCache.containsKey(key)) {
+            firstLevelCache.deleteObject(key);
+        } else if (secondLevelCache.containsKey(key)) {
+            secondLevelCache.deleteObject(key);
+        } else {
+            return false;
+        }
+        if (refreshAhead != null) {
+            refreshAhead.forget(key);
+        }
+        invalidateReplicas(key);
+        publishEvent(CacheEventType.EXPLICIT, key, null);
+        return true;
+    }
+
+    /**
+     * Enables counting Bloom filter in front of second level cache.
+     * Second level lookups for keys which were never stored are answered by filter without index or file access.
+     * Call is ignored if second level cache doesn't support key filter.
+     *
+     * @param expectedInsertions Expected amount of keys in second level cache
+     * @param falsePositiveProbability Desired false positive probability
+     * @return {@code true} if key filter is enabled, {@code false} if second level cache doesn't support it
+     */
+    public boolean enableSecondLevelKeyFilter(int expectedInsertions, double falsePositiveProbability) {
+        tierLock.lock();
+        try {
+            if (secondLevelCache.enableKeyFilter(expectedInsertions, falsePositiveProbability)) {
+                return true;
+            }
+            log.warn("Second level cache {} doesn't support key filter, it isn't enabled",
+                    secondLevelCache.getClass().getSimpleName());
+            return false;
+        } finally {
+            unlockTier();
+        }
+    }
+
+    /**
+     * Enables refresh ahead: access to entry older than refresh interval returns current value
+     * and schedules one asynchronous reload of this entry.
+     * Loader threads of previously enabled refresh ahead are stopped.
+     *
+     * @param loader Loader used for reloading values
+     * @param refreshAfterWrite Age of entry after which it is reloaded on access
+     * @param unit Time unit of refresh interval
+     * @param refreshThreads Amount of loader threads
+     * @param maxPendingRefreshes Maximal amount of queued reloads, further reloads are skipped
+     */
+    public void enableRefreshAhead(CacheLoader<K, V> loader, long refreshAfterWrite, TimeUnit unit,
+                                   int refreshThreads, int maxPendingRefreshes) {
+        RefreshAhead<K, V> enabled = new RefreshAhead<>(loader, refreshAfterWrite, unit, refreshThreads,
+                maxPendingRefreshes);
+        tierLock.lock();
+        try {
+            if (refreshAhead != null) {
+                refreshAhead.close();
+            }
+            refreshAhead = enabled;
+        } finally {
+            unlockTier();
+        }
+    }
+
+    /**
+     * Replaces values reloaded by refresh ahead on the level which holds them
+     */
+    private void applyRefreshedValues() {
+        if (refreshAhead != null) {
+            refreshAhead.drainRefreshed((key, value) -> {
+                replaceValue(key, value);
+                ++unstripedWrites;
+            });
+        }
+    }
+
+    /**
+     * Replaces value of present entry keeping its level and strategy data
+     *
+     * @param key Key value
+     * @param value New object value
+     */
+    private void replaceValue(K key, V value) {
+        if (firstLevelCache.containsKey(key)) {
+            firstLevelCache.transferDataFromAnotherCache(key, value, firstLevelCache.getStrategyData(key));
         } else if (secondLevelCache.containsKey(key)) {
-            log.info("Delete object with key %s from second level cache", key);
-            return secondLevelCache.removeObject(key);
+            secondLevelCache.transferDataFromAnotherCache(key, value, secondLevelCache.getStrategyData(key));
         } else {
-            log.error("Object with key %s is absent in cache", key);
-            return null;
+            return;
+        }
+        invalidateReplicas(key);
+        publishEvent(CacheEventType.REPLACED, key, value);
+    }
+
+    /**
+     * Adds listener of evicted, explicitly removed, replaced, demoted and promoted entries.
+     * Events are delivered in batches by dedicated thread, when its queue is full further events are dropped.
+     * Clearing of cache doesn't produce events for cleared entries.
+     *
+     * @param listener Listener of cache events
+     */
+    public void addCacheEventListener(CacheEventListener<K, V> listener) {
+        CacheEventDispatcher<K, V> dispatcher = eventDispatcher;
+        if (dispatcher == null) {
+            tierLock.lock();
+            try {
+                if (eventDispatcher == null) {
+                    eventDispatcher = new CacheEventDispatcher<>(EVENT_QUEUE_CAPACITY, EVENT_BATCH_SIZE);
+                }
+                dispatcher = eventDispatcher;
+            } finally {
+                tierLock.unlock();
+            }
+        }
+        dispatcher.addListener(listener);
+    }
+
+    /**
+     * Removes listener of cache events
+     *
+     * @param listener Listener of cache events
+     */
+    public void removeCacheEventListener(CacheEventListener<K, V> listener) {
+        CacheEventDispatcher<K, V> dispatcher = eventDispatcher;
+        if (dispatcher != null) {
+            dispatcher.removeListener(listener);
+        }
+    }
+
+    /**
+     * Retrieves amount of events dropped because listeners didn't keep up with cache
+     *
+     * @return amount of dropped events
+     */
+    public long getDroppedEventCount() {
+        return eventDispatcher == null ? 0 : eventDispatcher.getDroppedEvents();
+    }
+
+    private boolean hasEventListeners() {
+        return eventDispatcher != null && eventDispatcher.hasListeners();
+    }
+
+    private void publishEvent(CacheEventType type, K key, V value) {
+        if (eventDispatcher != null) {
+            eventDispatcher.publish(type, key, value);
+        }
+    }
+
+    /**
+     * Enables hot key replication: keys which take at least provided share of reads are served
+     * from thread local replicas, replicas are invalidated on every write or removal of their key
+     *
+     * @param trackedKeys Maximal amount of keys tracked by hot key detector and replicated per thread
+     * @param hotFraction Minimal share of reads which makes key hot
+     * @param staleness Maximal age of replica
+     * @param unit Time unit of staleness window
+     */
+    public void enableHotKeyReplication(int trackedKeys, double hotFraction, long staleness, TimeUnit unit) {
+        HotKeyReplicas<K, V> replicas = new HotKeyReplicas<>(trackedKeys, hotFraction, staleness, unit);
+        tierLock.lock();
+        try {
+            this.hotKeys = replicas;
+        } finally {
+            unlockTier();
+        }
+    }
+
+    /**
+     * Checks whether provided key is detected as hot
+     *
+     * @param key Key value
+     * @return {@code true} if key is hot, {@code false} otherwise or if hot key replication is disabled
+     */
+    public boolean isHotKey(K key) {
+        return hotKeys != null && hotKeys.isHot(key);
+    }
+
+    private void invalidateReplicas(K key) {
+        if (hotKeys != null) {
+            hotKeys.invalidate(key);
         }
     }
 
     public K getKeyToBeDeleted() {
-        return (K)secondLevelCache.getStrategy().getKeyForSubstitution();
+        tierLock.lock();
+        try {
+            return secondLevelCache.getKeyForSubstitution();
+        } finally {
+            unlockTier();
+        }
     }
 
     /**
@@ -193,8 +1285,59 @@ public class TwoLevelCache<K extends Serializable, V extends Serializable> imple
      */
     @Override
     public void clearCache() {
-        secondLevelCache.clearCache();
-        firstLevelCache.clearCache();
+        tierLock.lock();
+        try {
+            if (refreshAhead != null) {
+                refreshAhead.clear();
+            }
+            secondLevelCache.clearCache();
+            firstLevelCache.clearCache();
+            ++unstripedWrites;
+            if (hotKeys != null) {
+                hotKeys.invalidateAll();
+            }
+        } finally {
+            unlockTier();
+        }
+    }
+
+    /**
+     * Waits for background invalidations, stops refresh ahead loader and event dispatcher threads
+     * and closes both levels
+     */
+    @Override
+    public void close() {
+        ExecutorService executor;
+        tierLock.lock();
+        try {
+            executor = invalidationExecutor;
+            invalidationExecutor = null;
+        } finally {
+            tierLock.unlock();
+        }
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(INVALIDATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        tierLock.lock();
+        try {
+            if (refreshAhead != null) {
+                refreshAhead.close();
+            }
+            firstLevelCache.writeDeferred();
+            secondLevelCache.writeDeferred();
+            firstLevelCache.close();
+            secondLevelCache.close();
+        } finally {
+            tierLock.unlock();
+        }
+        if (eventDispatcher != null) {
+            eventDispatcher.close();
+        }
     }
 
     /**
@@ -205,7 +1348,13 @@ public class TwoLevelCache<K extends Serializable, V extends Serializable> imple
      */
     @Override
     public boolean containsKey(K key) {
-        return firstLevelCache.containsKey(key) || secondLevelCache.containsKey(key);
+        tierLock.lock();
+        try {
+            return (firstLevelCache.containsKey(key) || secondLevelCache.containsKey(key))
+                    && !(invalidations.hasPending() && invalidations.isInvalidated(key));
+        } finally {
+            unlockTier();
+        }
     }
 
     /**
@@ -215,7 +1364,12 @@ public class TwoLevelCache<K extends Serializable, V extends Serializable> imple
      */
     @Override
     public int size() {
-        return firstLevelCache.size() + secondLevelCache.size();
+        tierLock.lock();
+        try {
+            return firstLevelCache.size() + secondLevelCache.size();
+        } finally {
+            unlockTier();
+        }
     }
 
     /**
@@ -225,7 +1379,12 @@ public class TwoLevelCache<K extends Serializable, V extends Serializable> imple
      */
     @Override
     public boolean hasEmptySpace() {
-        return ((firstLevelCache.getCapacity() + secondLevelCache.capacity) > (firstLevelCache.size() + secondLevelCache.size()));
+        tierLock.lock();
+        try {
+            return ((firstLevelCache.getCapacity() + secondLevelCache.getCapacity()) > (firstLevelCache.size() + secondLevelCache.size()));
+        } finally {
+            unlockTier();
+        }
     }
 
     /**
@@ -0,0 +1,54 @@
+package com.github.darthyk.cache.simulator;
+
+import java.io.*;
+
+/**
+ * Binary trace: sequence of big-endian 8 byte keys without header
+ */
+public class BinaryTrace implements Trace {
+    private final DataInputStream input;
+    private final long length;
+    private long position;
+
+    /**
+     * Initializes trace over provided file
+     *
+     * @param file Trace file
+     * @throws IOException if file can't be opened
+     */
+    public BinaryTrace(File file) throws IOException {
+        this.input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+        this.length = file.length() / Long.BYTES;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return position < length;
+    }
+
+    @Override
+    public long nextKey() throws IOException {
+        ++position;
+        return input.readLong();
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    /**
+     * Writes provided trace to file in binary format
+     *
+     * @param trace Trace to write
+     * @param file Target file
+     * @throws IOException if trace can't be read or file can't be written
+     */
+    public static void write(Trace trace, File file) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            while (trace.hasNext()) {
+                output.writeLong(trace.nextKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.github.darthyk.cache.simulator;
+
+/**
+ * Indexed binary heap of {@code long} keys ordered by strategy data, used instead of sorting all keys
+ * on every eviction for strategies which substitute key with the lowest or the highest strategy data.
+ * <p>
+ * NOTE: keys with equal strategy data are ordered by the time of their last update, so for the lowest data
+ * the least recently updated key comes first and for the highest data the most recently updated one.
+ */
+final class KeyHeap {
+    private final boolean highestFirst;
+    private final LongIntMap positions;
+    private final long[] keys;
+    private final long[] data;
+    private final long[] updates;
+    private long updateCount;
+    private int size;
+
+    /**
+     * Initializes heap
+     *
+     * @param capacity Maximum amount of keys
+     * @param highestFirst {@code true} if key with the highest strategy data comes first
+     */
+    KeyHeap(int capacity, boolean highestFirst) {
+        this.highestFirst = highestFirst;
+        this.positions = new LongIntMap(capacity);
+        this.keys = new long[capacity];
+        this.data = new long[capacity];
+        this.updates = new long[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the first key of heap
+     *
+     * @return key with the lowest or the highest strategy data
+     */
+    long first() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        return keys[0];
+    }
+
+    /**
+     * Retrieves strategy data of provided key
+     *
+     * @param key Key value
+     * @return strategy data of key
+     */
+    long get(long key) {
+        return data[position(key)];
+    }
+
+    /**
+     * Adds provided key or updates its strategy data if key is already present
+     *
+     * @param key Key value
+     * @param strategyData Strategy data of key
+     */
+    void put(long key, long strategyData) {
+        int position = positions.get(key);
+        if (position == LongIntMap.ABSENT) {
+            position = size++;
+            keys[position] = key;
+            positions.put(key, position);
+        }
+        data[position] = strategyData;
+        updates[position] = ++updateCount;
+        siftDown(siftUp(position));
+    }
+
+    /**
+     * Removes provided key
+     *
+     * @param key Key value
+     * @return strategy data of removed key
+     */
+    long remove(long key) {
+        int position = position(key);
+        long strategyData = data[position];
+        positions.remove(key);
+        int last = --size;
+        if (position != last) {
+            move(last, position);
+            siftDown(siftUp(position));
+        }
+        return strategyData;
+    }
+
+    /**
+     * Removes all keys
+     */
+    void clear() {
+        positions.clear();
+        size = 0;
+        updateCount = 0;
+    }
+
+    private int position(long key) {
+        int position = positions.get(key);
+        if (position == LongIntMap.ABSENT) {
+            throw new IllegalArgumentException("Key isn't present: " + key);
+        }
+        return position;
+    }
+
+    private boolean precedes(int first, int second) {
+        int order = data[first] != data[second] ? Long.compare(data[first], data[second])
+                : Long.compare(updates[first], updates[second]);
+        return highestFirst ? order > 0 : order < 0;
+    }
+
+    private int siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!precedes(position, parent)) {
+                break;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+        return position;
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && precedes(child + 1, child)) {
+                ++child;
+            }
+            if (!precedes(child, position)) {
+                return;
+            }
+            swap(position, child);
+            position = child;
+        }
+    }
+
+    private void swap(int first, int second) {
+        long key = keys[first];
+        long strategyData = data[first];
+        long update = updates[first];
+        move(second, first);
+        keys[second] = key;
+        data[second] = strategyData;
+        updates[second] = update;
+        positions.put(key, second);
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        data[to] = data[from];
+        updates[to] = updates[from];
+        positions.put(keys[to], to);
+    }
+}
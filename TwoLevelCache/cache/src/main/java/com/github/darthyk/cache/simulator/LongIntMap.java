@@ -0,0 +1,134 @@
+package com.github.darthyk.cache.simulator;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map from {@code long} keys to non-negative {@code int} values, neither keys nor values are boxed.
+ * <p>
+ * Collisions are resolved by linear probing, removal shifts following entries back, so no tombstones are left.
+ */
+final class LongIntMap {
+    static final int ABSENT = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * Initializes map which holds provided amount of keys without growing
+     *
+     * @param expectedSize Expected amount of keys
+     */
+    LongIntMap(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1);
+    }
+
+    /**
+     * Retrieves value of provided key
+     *
+     * @param key Key value
+     * @return value of key, {@code ABSENT} if key isn't present
+     */
+    int get(long key) {
+        for (int slot = slot(key); values[slot] != ABSENT; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Associates provided value with provided key
+     *
+     * @param key Key value
+     * @param value Non-negative value
+     */
+    void put(long key, int value) {
+        int slot = slot(key);
+        for (; values[slot] != ABSENT; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > values.length) {
+            grow();
+        }
+    }
+
+    /**
+     * Removes provided key
+     *
+     * @param key Key value
+     * @return removed value, {@code ABSENT} if key isn't present
+     */
+    int remove(long key) {
+        int slot = slot(key);
+        for (; values[slot] != ABSENT; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                int value = values[slot];
+                shiftBack(slot);
+                --size;
+                return value;
+            }
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Removes all keys
+     */
+    void clear() {
+        Arrays.fill(values, ABSENT);
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void shiftBack(int free) {
+        int slot = free;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (values[slot] == ABSENT) {
+                values[free] = ABSENT;
+                return;
+            }
+            int home = slot(keys[slot]);
+            if (((slot - home) & mask) >= ((slot - free) & mask)) {
+                keys[free] = keys[slot];
+                values[free] = values[slot];
+                free = slot;
+            }
+        }
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldValues.length * 2);
+        for (int slot = 0; slot < oldValues.length; ++slot) {
+            if (oldValues[slot] != ABSENT) {
+                put(oldKeys[slot], oldValues[slot]);
+            }
+        }
+    }
+
+    private void allocate(int slots) {
+        keys = new long[slots];
+        values = new int[slots];
+        Arrays.fill(values, ABSENT);
+        mask = slots - 1;
+        size = 0;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int)(hash ^ (hash >>> 32)) & mask;
+    }
+}
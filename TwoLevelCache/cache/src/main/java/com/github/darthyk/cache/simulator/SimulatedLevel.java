@@ -0,0 +1,121 @@
+package com.github.darthyk.cache.simulator;
+
+import com.github.darthyk.cache.strategies.LeastFrequentlyUsed;
+import com.github.darthyk.cache.strategies.LeastRecentlyUsed;
+import com.github.darthyk.cache.strategies.MostRecentlyUsed;
+import com.github.darthyk.cache.strategies.Strategy;
+
+import java.util.HashMap;
+
+/**
+ * Cache level simulated by {@code Simulator}: keeps only keys and strategy data, values are not stored.
+ * <p>
+ * Least Frequently Used, Least Recently Used and Most Recently Used strategies substitute key with the lowest
+ * or the highest strategy data, so their keys are kept in primitive heap instead of sorting strategy data
+ * on every eviction. Other strategies get strategy data map and are notified about every change.
+ */
+public class SimulatedLevel {
+    final int capacity;
+    final Strategy<Long> strategyPrototype;
+    final double readCost;
+    final double writeCost;
+    Strategy<Long> strategy;
+    HashMap<Long, Long> strategyMap;
+    KeyHeap heap;
+    long hits;
+    long writes;
+    long demotions;
+    long promotions;
+    long evictions;
+
+    /**
+     * Initializes simulated level
+     *
+     * @param capacity Level capacity
+     * @param strategy Substitution strategy, simulator uses its own instance
+     * @param readCost Estimated cost of reading one entry from level
+     * @param writeCost Estimated cost of writing one entry to level
+     */
+    public SimulatedLevel(int capacity, Strategy strategy, double readCost, double writeCost) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Level capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.strategyPrototype = strategy;
+        this.readCost = readCost;
+        this.writeCost = writeCost;
+        reset();
+    }
+
+    /**
+     * Drops all keys and statistics
+     */
+    void reset() {
+        strategy = strategyPrototype.getInstance();
+        Class<?> type = strategyPrototype.getClass();
+        if (type == LeastFrequentlyUsed.class || type == LeastRecentlyUsed.class || type == MostRecentlyUsed.class) {
+            strategyMap = null;
+            heap = new KeyHeap(capacity, type == MostRecentlyUsed.class);
+        } else {
+            heap = null;
+            strategyMap = new HashMap<>(capacity * 2);
+            strategy.setStrategyData(strategyMap);
+        }
+        strategy.setCapacity(capacity);
+        hits = 0;
+        writes = 0;
+        demotions = 0;
+        promotions = 0;
+        evictions = 0;
+    }
+
+    boolean isFull() {
+        return (heap == null ? strategyMap.size() : heap.size()) >= capacity;
+    }
+
+    /**
+     * Retrieves key which should be substituted
+     *
+     * @return key chosen by strategy
+     */
+    long getKeyForSubstitution() {
+        return heap == null ? strategy.getKeyForSubstitution() : heap.first();
+    }
+
+    boolean predictsReuse(long key) {
+        return strategy.predictsReuse(key);
+    }
+
+    void insert(long key) {
+        insert(key, strategy.fillStrategyData());
+    }
+
+    void insert(long key, long strategyData) {
+        if (heap == null) {
+            strategyMap.put(key, strategyData);
+            strategy.onInsert(key);
+        } else {
+            heap.put(key, strategyData);
+        }
+        ++writes;
+    }
+
+    void access(long key) {
+        if (heap == null) {
+            strategyMap.put(key, strategy.updateStrategyData(strategyMap.get(key)));
+            strategy.onAccess(key);
+        } else {
+            heap.put(key, strategy.updateStrategyData(heap.get(key)));
+        }
+        ++hits;
+    }
+
+    long remove(long key) {
+        if (heap == null) {
+            long strategyData = strategyMap.remove(key);
+            strategy.onRemove(key);
+            return strategyData;
+        }
+        return heap.remove(key);
+    }
+}
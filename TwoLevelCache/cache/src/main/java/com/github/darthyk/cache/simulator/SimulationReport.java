@@ -0,0 +1,171 @@
+package com.github.darthyk.cache.simulator;
+
+import java.util.List;
+
+/**
+ * Results of trace replay
+ */
+public class SimulationReport {
+    private final long events;
+    private final long misses;
+    private final double missCost;
+    private final long[] hits;
+    private final long[] writes;
+    private final long[] demotions;
+    private final long[] promotions;
+    private final long[] evictions;
+    private final double[] readCosts;
+    private final double[] writeCosts;
+    private final String[] strategies;
+    private final int[] capacities;
+
+    SimulationReport(long events, long misses, double missCost, List<SimulatedLevel> levels) {
+        this.events = events;
+        this.misses = misses;
+        this.missCost = missCost;
+        int count = levels.size();
+        hits = new long[count];
+        writes = new long[count];
+        demotions = new long[count];
+        promotions = new long[count];
+        evictions = new long[count];
+        readCosts = new double[count];
+        writeCosts = new double[count];
+        strategies = new String[count];
+        capacities = new int[count];
+        for (int i = 0; i < count; ++i) {
+            SimulatedLevel level = levels.get(i);
+            hits[i] = level.hits;
+            writes[i] = level.writes;
+            demotions[i] = level.demotions;
+            promotions[i] = level.promotions;
+            evictions[i] = level.evictions;
+            readCosts[i] = level.readCost;
+            writeCosts[i] = level.writeCost;
+            strategies[i] = level.strategyPrototype.getClass().getSimpleName();
+            capacities[i] = level.capacity;
+        }
+    }
+
+    /**
+     * Retrieves amount of replayed events
+     *
+     * @return amount of events
+     */
+    public long getEvents() {
+        return events;
+    }
+
+    /**
+     * Retrieves amount of events not served by any level
+     *
+     * @return amount of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Retrieves amount of simulated levels
+     *
+     * @return amount of levels
+     */
+    public int getLevelCount() {
+        return hits.length;
+    }
+
+    /**
+     * Retrieves amount of events served by provided level
+     *
+     * @param level Level index
+     * @return amount of hits
+     */
+    public long getHits(int level) {
+        return hits[level];
+    }
+
+    /**
+     * Retrieves share of events served by provided level
+     *
+     * @param level Level index
+     * @return hit ratio of level
+     */
+    public double getHitRatio(int level) {
+        return events == 0 ? 0 : (double)hits[level] / events;
+    }
+
+    /**
+     * Retrieves share of events served by any level
+     *
+     * @return total hit ratio
+     */
+    public double getTotalHitRatio() {
+        return events == 0 ? 0 : (double)(events - misses) / events;
+    }
+
+    /**
+     * Retrieves amount of entries demoted from provided level to the next one
+     *
+     * @param level Level index
+     * @return amount of demotions
+     */
+    public long getDemotions(int level) {
+        return demotions[level];
+    }
+
+    /**
+     * Retrieves amount of entries promoted from provided level to the previous one
+     *
+     * @param level Level index
+     * @return amount of promotions
+     */
+    public long getPromotions(int level) {
+        return promotions[level];
+    }
+
+    /**
+     * Retrieves amount of entries dropped by provided level without demotion
+     *
+     * @param level Level index
+     * @return amount of evictions
+     */
+    public long getEvictions(int level) {
+        return evictions[level];
+    }
+
+    /**
+     * Retrieves amount of entries written to provided level
+     *
+     * @param level Level index
+     * @return amount of writes
+     */
+    public long getWrites(int level) {
+        return writes[level];
+    }
+
+    /**
+     * Retrieves estimated cost of all reads and writes of all levels plus cost of misses
+     *
+     * @return estimated I/O cost
+     */
+    public double getEstimatedCost() {
+        double cost = misses * missCost;
+        for (int i = 0; i < hits.length; ++i) {
+            cost += hits[i] * readCosts[i] + writes[i] * writeCosts[i];
+        }
+        return cost;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Events: %d, misses: %d, hit ratio: %.4f, estimated cost: %.1f%n",
+                events, misses, getTotalHitRatio(), getEstimatedCost()));
+        for (int i = 0; i < hits.length; ++i) {
+            report.append(String.format("Level %d (%s, capacity %d): hit ratio %.4f, writes %d, demotions %d, "
+                            + "promotions %d, evictions %d%n", i, strategies[i], capacities[i], getHitRatio(i),
+                    writes[i], demotions[i], promotions[i], evictions[i]));
+        }
+        return report.toString();
+    }
+}
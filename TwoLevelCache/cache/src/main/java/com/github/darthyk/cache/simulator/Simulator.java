@@ -0,0 +1,178 @@
+package com.github.darthyk.cache.simulator;
+
+import com.github.darthyk.cache.strategies.*;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Replays access traces against simulated cache levels without touching disk.
+ * <p>
+ * Level with index 0 is the fastest one. Missed keys are loaded into level 0, victims of each level are demoted
+ * to the next one if their strategy predicts reuse, keys hit on lower levels are promoted one level up.
+ * Only keys and strategy data are kept, so simulation speed is bound by strategy cost.
+ */
+public class Simulator {
+    private final List<SimulatedLevel> levels;
+    private final double missCost;
+    private final boolean promoteOnHit;
+    private final LongIntMap keyLevels;
+
+    /**
+     * Initializes simulator
+     *
+     * @param levels Simulated levels ordered from the fastest to the slowest one
+     * @param missCost Estimated cost of loading missed key from backing storage
+     * @param promoteOnHit {@code true} if keys hit on lower levels are promoted one level up
+     */
+    public Simulator(List<SimulatedLevel> levels, double missCost, boolean promoteOnHit) {
+        if (levels.isEmpty()) {
+            throw new IllegalArgumentException("At least one level is required");
+        }
+        this.levels = new ArrayList<>(levels);
+        this.missCost = missCost;
+        this.promoteOnHit = promoteOnHit;
+        this.keyLevels = new LongIntMap(levels.stream().mapToInt(level -> level.capacity).sum());
+    }
+
+    /**
+     * Replays provided trace from empty levels
+     *
+     * @param trace Trace to replay
+     * @return simulation results
+     * @throws IOException if trace can't be read
+     */
+    public SimulationReport run(Trace trace) throws IOException {
+        keyLevels.clear();
+        for (SimulatedLevel level : levels) {
+            level.reset();
+        }
+        long events = 0;
+        long misses = 0;
+        while (trace.hasNext()) {
+            long key = trace.nextKey();
+            ++events;
+            int levelIndex = keyLevels.get(key);
+            if (levelIndex == LongIntMap.ABSENT) {
+                ++misses;
+                makeRoom(0);
+                levels.get(0).insert(key);
+                keyLevels.put(key, 0);
+            } else {
+                SimulatedLevel level = levels.get(levelIndex);
+                level.access(key);
+                if (promoteOnHit && levelIndex > 0) {
+                    long strategyData = level.remove(key);
+                    ++level.promotions;
+                    makeRoom(levelIndex - 1);
+                    move(level, levelIndex - 1, key, strategyData);
+                }
+            }
+        }
+        return new SimulationReport(events, misses, missCost, levels);
+    }
+
+    private void move(SimulatedLevel source, int levelIndex, long key, long strategyData) {
+        SimulatedLevel target = levels.get(levelIndex);
+        if (source.strategyPrototype.getClass() == target.strategyPrototype.getClass()) {
+            target.insert(key, strategyData);
+        } else {
+            target.insert(key);
+        }
+        keyLevels.put(key, levelIndex);
+    }
+
+    private void makeRoom(int levelIndex) {
+        SimulatedLevel level = levels.get(levelIndex);
+        if (!level.isFull()) {
+            return;
+        }
+        long victim = level.getKeyForSubstitution();
+        boolean demote = levelIndex + 1 < levels.size() && level.predictsReuse(victim);
+        long strategyData = level.remove(victim);
+        if (demote) {
+            ++level.demotions;
+            makeRoom(levelIndex + 1);
+            move(level, levelIndex + 1, victim, strategyData);
+        } else {
+            ++level.evictions;
+            keyLevels.remove(victim);
+        }
+    }
+
+    /**
+     * Runs simulation from command line.
+     * <p>
+     * Arguments: {@code <capacities> <strategy> <trace>}, where capacities are comma separated level capacities,
+     * strategy is one of {@code lfu, lru, mru, arc, clock} and trace is a text trace file, a binary trace file
+     * with {@code .bin} extension, {@code zipf:keys:skew:length}, {@code loop:keys:length} or {@code scan:length}
+     *
+     * @param args Command line arguments
+     * @throws IOException if trace can't be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: Simulator <capacities> <lfu|lru|mru|arc|clock> <trace file|zipf:keys:skew:length"
+                    + "|loop:keys:length|scan:length>");
+            System.exit(1);
+        }
+        List<SimulatedLevel> levels = new ArrayList<>();
+        String[] capacities = args[0].split(",");
+        for (int i = 0; i < capacities.length; ++i) {
+            double cost = Math.pow(100, i);
+            levels.add(new SimulatedLevel(Integer.parseInt(capacities[i].trim()), parseStrategy(args[1]), cost, cost));
+        }
+        Simulator simulator = new Simulator(levels, Math.pow(100, capacities.length), true);
+        long start = System.nanoTime();
+        try (Trace trace = parseTrace(args[2])) {
+            System.out.print(simulator.run(trace));
+        }
+        System.out.printf("Simulation took %d ms%n", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    static Strategy parseStrategy(String name) {
+        switch (name.toLowerCase()) {
+            case "lfu":
+                return new LeastFrequentlyUsed();
+            case "lru":
+                return new LeastRecentlyUsed();
+            case "mru":
+                return new MostRecentlyUsed();
+            case "arc":
+                return new AdaptiveReplacement();
+            case "clock":
+                return new Clock();
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + name);
+        }
+    }
+
+    static Trace parseTrace(String description) throws IOException {
+        String[] parts = description.split(":");
+        switch (parts[0]) {
+            case "zipf":
+                return SyntheticTrace.zipf(Integer.parseInt(parts[1]), Double.parseDouble(parts[2]),
+                        Long.parseLong(parts[3]), 42);
+            case "loop":
+                return SyntheticTrace.loop(Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+            case "scan":
+                return SyntheticTrace.scan(0, Long.parseLong(parts[1]));
+            default:
+                File file = new File(description);
+                return description.endsWith(".bin") ? new BinaryTrace(file) : new TextTrace(new FileReader(file));
+        }
+    }
+
+    /**
+     * Retrieves simulated levels
+     *
+     * @return simulated levels
+     */
+    public List<SimulatedLevel> getLevels() {
+        return Collections.unmodifiableList(levels);
+    }
+}
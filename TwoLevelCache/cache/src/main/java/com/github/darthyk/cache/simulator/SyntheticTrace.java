@@ -0,0 +1,132 @@
+package com.github.darthyk.cache.simulator;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Generated traces with typical access patterns
+ */
+public abstract class SyntheticTrace implements Trace {
+    private final long length;
+    private long position;
+
+    SyntheticTrace(long length) {
+        this.length = length;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return position < length;
+    }
+
+    @Override
+    public long nextKey() {
+        return generate(position++);
+    }
+
+    abstract long generate(long position);
+
+    /**
+     * Creates trace with Zipf distributed keys, key 0 is the most popular one
+     *
+     * @param keySpace Amount of distinct keys
+     * @param skew Zipf exponent, greater values mean more skewed distribution
+     * @param length Amount of events
+     * @param seed Random seed
+     * @return Zipf trace
+     */
+    public static SyntheticTrace zipf(int keySpace, double skew, long length, long seed) {
+        double[] cumulative = new double[keySpace];
+        double sum = 0;
+        for (int rank = 0; rank < keySpace; ++rank) {
+            sum += 1 / Math.pow(rank + 1, skew);
+            cumulative[rank] = sum;
+        }
+        double total = sum;
+        Random random = new Random(seed);
+        return new SyntheticTrace(length) {
+            @Override
+            long generate(long position) {
+                double value = random.nextDouble() * total;
+                int low = 0;
+                int high = keySpace - 1;
+                while (low < high) {
+                    int middle = (low + high) >>> 1;
+                    if (cumulative[middle] < value) {
+                        low = middle + 1;
+                    } else {
+                        high = middle;
+                    }
+                }
+                return low;
+            }
+        };
+    }
+
+    /**
+     * Creates trace which cyclically accesses the same keys
+     *
+     * @param keySpace Amount of keys in loop
+     * @param length Amount of events
+     * @return loop trace
+     */
+    public static SyntheticTrace loop(int keySpace, long length) {
+        return new SyntheticTrace(length) {
+            @Override
+            long generate(long position) {
+                return position % keySpace;
+            }
+        };
+    }
+
+    /**
+     * Creates trace which accesses each key only once
+     *
+     * @param firstKey First accessed key
+     * @param length Amount of events
+     * @return scan trace
+     */
+    public static SyntheticTrace scan(long firstKey, long length) {
+        return new SyntheticTrace(length) {
+            @Override
+            long generate(long position) {
+                return firstKey + position;
+            }
+        };
+    }
+
+    /**
+     * Creates trace which interleaves events of provided traces, taking provided amount of events from each in turn
+     *
+     * @param burst Amount of events taken from one trace in a row
+     * @param traces Traces to interleave
+     * @return mixed trace
+     */
+    public static Trace mix(int burst, Trace... traces) {
+        return new Trace() {
+            private int current;
+            private int taken;
+
+            @Override
+            public boolean hasNext() throws IOException {
+                for (int attempt = 0; attempt < traces.length; ++attempt) {
+                    if (taken < burst && traces[current].hasNext()) {
+                        return true;
+                    }
+                    current = (current + 1) % traces.length;
+                    taken = 0;
+                }
+                return false;
+            }
+
+            @Override
+            public long nextKey() throws IOException {
+                if (!hasNext()) {
+                    throw new IllegalStateException("Trace has no more events");
+                }
+                ++taken;
+                return traces[current].nextKey();
+            }
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.darthyk.cache.simulator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Text trace: one accessed key per line, first whitespace separated token of line is used as key.
+ * Empty lines and lines starting with {@code #} are skipped, non-numeric keys are replaced with their hash code.
+ */
+public class TextTrace implements Trace {
+    private final BufferedReader reader;
+    private String nextLine;
+
+    /**
+     * Initializes trace over provided reader
+     *
+     * @param reader Reader with trace lines
+     */
+    public TextTrace(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader)reader : new BufferedReader(reader, 1 << 16);
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        while (nextLine == null) {
+            String line = reader.readLine();
+            if (line == null) {
+                return false;
+            }
+            line = line.trim();
+            if (!line.isEmpty() && line.charAt(0) != '#') {
+                nextLine = line;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long nextKey() throws IOException {
+        if (!hasNext()) {
+            throw new IllegalStateException("Trace has no more events");
+        }
+        String line = nextLine;
+        nextLine = null;
+        int end = 0;
+        while (end < line.length() && !Character.isWhitespace(line.charAt(end))) {
+            ++end;
+        }
+        String token = line.substring(0, end);
+        try {
+            return Long.parseLong(token);
+        } catch (NumberFormatException e) {
+            return token.hashCode();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.darthyk.cache.simulator;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Sequence of accessed keys replayed by {@code Simulator}.
+ * Keys are primitive {@code long} values, so replaying does not allocate per event.
+ */
+public interface Trace extends Closeable {
+
+    /**
+     * Checks whether trace has more events
+     *
+     * @return {@code true} if trace has more events, {@code false} otherwise
+     * @throws IOException if trace can't be read
+     */
+    boolean hasNext() throws IOException;
+
+    /**
+     * Retrieves key of the next event
+     *
+     * @return accessed key
+     * @throws IOException if trace can't be read
+     */
+    long nextKey() throws IOException;
+
+    @Override
+    default void close() throws IOException {}
+}
@@ -0,0 +1,276 @@
+package com.github.darthyk.cache.strategies;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Adaptive Replacement Cache (ARC) strategy.
+ * <p>
+ * Resident keys are kept in T1 (seen once recently) and T2 (seen at least twice) lists,
+ * keys evicted from them are remembered in B1 and B2 ghost lists. Ghost hits move the target size of T1,
+ * so strategy balances between recency and frequency. Capacity is provided by cache level, strategy which is used
+ * outside of cache level falls back to the high-water mark of resident keys.
+ * <p>
+ * NOTE: strategy isn't told which removals are substitutions, so removal of the key which would be substituted now
+ * is treated as eviction and the key is remembered in ghost lists, other removals are treated as explicit ones.
+ */
+public class AdaptiveReplacement<K> implements Strategy<K> {
+
+    Map<K, Long> strategyData;
+    private final KeyList<K> recent = new KeyList<>();
+    private final KeyList<K> frequent = new KeyList<>();
+    private final KeyList<K> recentGhosts = new KeyList<>();
+    private final KeyList<K> frequentGhosts = new KeyList<>();
+    private int capacity;
+    private int residentHighWater;
+    private int recentTargetSize;
+    private int recentGhostHits;
+    private int frequentGhostHits;
+
+    public AdaptiveReplacement() {}
+
+    @Override
+    public AdaptiveReplacement getInstance() {
+        return new AdaptiveReplacement();
+    }
+
+    @Override
+    public void setStrategyData(Map<K, Long> strategyData) {
+        this.strategyData = strategyData;
+    }
+
+    @Override
+    public Map<K, Long> getStrategyData() {
+        return this.strategyData;
+    }
+
+    @Override
+    public long fillStrategyData() {
+        return 1L;
+    }
+
+    @Override
+    public long updateStrategyData(long oldValue) {
+        return ++oldValue;
+    }
+
+    @Override
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public K getKeyForSubstitution() {
+        if (recent.isEmpty() && frequent.isEmpty()) {
+            return strategyData == null || strategyData.isEmpty() ? null : strategyData.keySet().iterator().next();
+        }
+        return victim();
+    }
+
+    @Override
+    public K getCandidateForMemoryCache() {
+        if (!frequent.isEmpty()) {
+            return frequent.last();
+        }
+        if (!recent.isEmpty()) {
+            return recent.last();
+        }
+        return strategyData == null || strategyData.isEmpty() ? null : strategyData.keySet().iterator().next();
+    }
+
+    @Override
+    public void onInsert(K key) {
+        if (recent.contains(key) || frequent.contains(key)) {
+            onAccess(key);
+            return;
+        }
+        if (recentGhosts.contains(key)) {
+            int delta = Math.max(1, frequentGhosts.size() / recentGhosts.size());
+            recentTargetSize = Math.min(capacity(), recentTargetSize + delta);
+            ++recentGhostHits;
+            recentGhosts.remove(key);
+            frequent.add(key);
+        } else if (frequentGhosts.contains(key)) {
+            int delta = Math.max(1, recentGhosts.size() / frequentGhosts.size());
+            recentTargetSize = Math.max(0, recentTargetSize - delta);
+            ++frequentGhostHits;
+            frequentGhosts.remove(key);
+            frequent.add(key);
+        } else {
+            recent.add(key);
+        }
+        residentHighWater = Math.max(residentHighWater, recent.size() + frequent.size());
+        ageGhostHits();
+        trimGhosts();
+    }
+
+    @Override
+    public void onAccess(K key) {
+        if (recent.remove(key)) {
+            frequent.add(key);
+        } else if (frequent.remove(key)) {
+            frequent.add(key);
+        }
+    }
+
+    @Override
+    public void onRemove(K key) {
+        boolean evicted = key != null && key.equals(victim());
+        if (recent.remove(key)) {
+            if (evicted) {
+                recentGhosts.add(key);
+            }
+        } else if (frequent.remove(key)) {
+            if (evicted) {
+                frequentGhosts.add(key);
+            }
+        }
+        trimGhosts();
+    }
+
+    @Override
+    public void onClear() {
+        recent.clear();
+        frequent.clear();
+        recentGhosts.clear();
+        frequentGhosts.clear();
+        recentTargetSize = 0;
+        recentGhostHits = 0;
+        frequentGhostHits = 0;
+    }
+
+    /**
+     * Predicts reuse for keys which have been accessed at least twice and for remembered ghosts, keys seen once
+     * are predicted to be reused unless recent hits of B2 ghosts outnumber hits of B1 ghosts
+     *
+     * @param key Key value
+     * @return {@code true} if reuse of key is predicted, {@code false} otherwise
+     */
+    @Override
+    public boolean predictsReuse(K key) {
+        return !recent.contains(key) || recentGhostHits >= frequentGhostHits;
+    }
+
+    /**
+     * Checks whether provided key has been evicted recently and is remembered in ghost lists
+     *
+     * @param key Key value
+     * @return {@code true} if key is present in ghost lists, {@code false} otherwise
+     */
+    public boolean isGhost(K key) {
+        return recentGhosts.contains(key) || frequentGhosts.contains(key);
+    }
+
+    /**
+     * Retrieves target size of T1 list
+     *
+     * @return target size of list with keys seen once
+     */
+    public int getRecentTargetSize() {
+        return recentTargetSize;
+    }
+
+    private K victim() {
+        if (!recent.isEmpty() && (recent.size() > recentTargetSize || frequent.isEmpty())) {
+            return recent.first();
+        }
+        return frequent.first();
+    }
+
+    private int capacity() {
+        return capacity > 0 ? capacity : residentHighWater;
+    }
+
+    private void ageGhostHits() {
+        if (recentGhostHits + frequentGhostHits > Math.max(1, capacity())) {
+            recentGhostHits /= 2;
+            frequentGhostHits /= 2;
+        }
+    }
+
+    private void trimGhosts() {
+        int capacity = capacity();
+        while (!recentGhosts.isEmpty() && recent.size() + recentGhosts.size() > capacity) {
+            recentGhosts.remove(recentGhosts.first());
+        }
+        while (!frequentGhosts.isEmpty()
+                && recent.size() + frequent.size() + recentGhosts.size() + frequentGhosts.size() > 2 * capacity) {
+            frequentGhosts.remove(frequentGhosts.first());
+        }
+    }
+
+    /**
+     * Doubly linked list of keys with hash index, all operations take constant time
+     */
+    private static class KeyList<K> {
+        private final Map<K, Node<K>> nodes = new HashMap<>();
+        private Node<K> head;
+        private Node<K> tail;
+
+        boolean contains(K key) {
+            return nodes.containsKey(key);
+        }
+
+        int size() {
+            return nodes.size();
+        }
+
+        boolean isEmpty() {
+            return nodes.isEmpty();
+        }
+
+        K first() {
+            return head == null ? null : head.key;
+        }
+
+        K last() {
+            return tail == null ? null : tail.key;
+        }
+
+        void add(K key) {
+            Node<K> node = new Node<>(key);
+            nodes.put(key, node);
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+                node.previous = tail;
+            }
+            tail = node;
+        }
+
+        boolean remove(K key) {
+            Node<K> node = nodes.remove(key);
+            if (node == null) {
+                return false;
+            }
+            if (node.previous == null) {
+                head = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+            return true;
+        }
+
+        void clear() {
+            nodes.clear();
+            head = null;
+            tail = null;
+        }
+    }
+
+    private static class Node<K> {
+        private final K key;
+        private Node<K> previous;
+        private Node<K> next;
+
+        private Node(K key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.github.darthyk.cache.strategies;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * CLOCK (second chance) strategy, constant time approximation of least recently used strategy.
+ * <p>
+ * Every resident key occupies one slot with reference bit. Access only sets the bit of key slot,
+ * victim is found by hand which sweeps slots, clears set bits and stops at the first slot with cleared bit.
+ * Lookup of victim doesn't move hand, sweep is committed when victim is removed, so peeking at victim
+ * changes nothing. Strategy data is access counter, so neither clock is read nor objects are allocated on access.
+ */
+public class Clock<K> implements Strategy<K> {
+    private static final int INITIAL_SLOTS = 16;
+
+    Map<K, Long> strategyData;
+    private Map<K, Integer> slots = new HashMap<>();
+    private Object[] keys = new Object[INITIAL_SLOTS];
+    private long[] referenceBits = new long[INITIAL_SLOTS / 64 + 1];
+    private int[] freeSlots = new int[INITIAL_SLOTS];
+    private int freeSlotCount;
+    private int usedSlots;
+    private int hand;
+    private int promotionHand;
+    private int victimSlot = -1;
+    private boolean victimAfterFullSweep;
+
+    public Clock() {}
+
+    @Override
+    public Clock getInstance() {
+        return new Clock();
+    }
+
+    @Override
+    public void setStrategyData(Map<K, Long> strategyData) {
+        this.strategyData = strategyData;
+    }
+
+    @Override
+    public Map<K, Long> getStrategyData() {
+        return this.strategyData;
+    }
+
+    @Override
+    public long fillStrategyData() {
+        return 0L;
+    }
+
+    @Override
+    public long updateStrategyData(long oldValue) {
+        return ++oldValue;
+    }
+
+    @Override
+    public K getKeyForSubstitution() {
+        if (slots.isEmpty()) {
+            return keyWithLowestData();
+        }
+        if (victimSlot < 0) {
+            findVictim();
+        }
+        return (K)keys[victimSlot];
+    }
+
+    /**
+     * Finds slot where hand would stop without clearing reference bits, if all keys are referenced
+     * hand would clear all bits and stop at the first key after full sweep
+     */
+    private void findVictim() {
+        int firstKeySlot = -1;
+        int slot = hand;
+        for (int checked = 0; checked < usedSlots; ++checked, ++slot) {
+            if (slot >= usedSlots) {
+                slot = 0;
+            }
+            if (keys[slot] == null) {
+                continue;
+            }
+            if (!isReferenced(slot)) {
+                victimSlot = slot;
+                victimAfterFullSweep = false;
+                return;
+            }
+            if (firstKeySlot < 0) {
+                firstKeySlot = slot;
+            }
+        }
+        victimSlot = firstKeySlot;
+        victimAfterFullSweep = true;
+    }
+
+    /**
+     * Commits sweep of hand to current victim, reference bits of passed slots are cleared
+     */
+    private void sweepToVictim() {
+        if (victimAfterFullSweep) {
+            Arrays.fill(referenceBits, 0L);
+        } else {
+            int slot = hand >= usedSlots ? 0 : hand;
+            while (slot != victimSlot) {
+                setReferenced(slot, false);
+                slot = slot + 1 >= usedSlots ? 0 : slot + 1;
+            }
+        }
+        hand = victimSlot + 1;
+        victimSlot = -1;
+    }
+
+    @Override
+    public K getCandidateForMemoryCache() {
+        if (slots.isEmpty()) {
+            return keyWithHighestData();
+        }
+        K fallback = null;
+        for (int checked = 0; checked < usedSlots; ++checked) {
+            if (promotionHand >= usedSlots) {
+                promotionHand = 0;
+            }
+            K key = (K)keys[promotionHand++];
+            if (key != null) {
+                if (isReferenced(promotionHand - 1)) {
+                    return key;
+                }
+                if (fallback == null) {
+                    fallback = key;
+                }
+            }
+        }
+        return fallback;
+    }
+
+    @Override
+    public void onInsert(K key) {
+        Integer slot = slots.get(key);
+        if (slot != null) {
+            onAccess(key);
+            return;
+        }
+        victimSlot = -1;
+        int newSlot;
+        if (freeSlotCount > 0) {
+            newSlot = freeSlots[--freeSlotCount];
+        } else {
+            if (usedSlots == keys.length) {
+                grow();
+            }
+            newSlot = usedSlots++;
+        }
+        keys[newSlot] = key;
+        setReferenced(newSlot, false);
+        slots.put(key, newSlot);
+    }
+
+    @Override
+    public void onAccess(K key) {
+        Integer slot = slots.get(key);
+        if (slot != null) {
+            setReferenced(slot, true);
+            if (slot == victimSlot && !victimAfterFullSweep) {
+                victimSlot = -1;
+            }
+        }
+    }
+
+    @Override
+    public void onRemove(K key) {
+        Integer slot = slots.get(key);
+        if (slot == null) {
+            return;
+        }
+        if (victimSlot < 0) {
+            findVictim();
+        }
+        if (slot == victimSlot) {
+            sweepToVictim();
+        }
+        slots.remove(key);
+        keys[slot] = null;
+        setReferenced(slot, false);
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    @Override
+    public void onClear() {
+        slots = new HashMap<>();
+        keys = new Object[INITIAL_SLOTS];
+        referenceBits = new long[INITIAL_SLOTS / 64 + 1];
+        freeSlots = new int[INITIAL_SLOTS];
+        freeSlotCount = 0;
+        usedSlots = 0;
+        hand = 0;
+        promotionHand = 0;
+        victimSlot = -1;
+    }
+
+    /**
+     * Checks whether provided key has been accessed since hand passed it last time
+     *
+     * @param key Key value
+     * @return {@code true} if reference bit of key is set, {@code false} otherwise
+     */
+    public boolean isReferenced(K key) {
+        Integer slot = slots.get(key);
+        return slot != null && isReferenced(slot);
+    }
+
+    private boolean isReferenced(int slot) {
+        return (referenceBits[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    private void setReferenced(int slot, boolean referenced) {
+        if (referenced) {
+            referenceBits[slot >>> 6] |= 1L << slot;
+        } else {
+            referenceBits[slot >>> 6] &= ~(1L << slot);
+        }
+    }
+
+    private void grow() {
+        keys = Arrays.copyOf(keys, keys.length * 2);
+        referenceBits = Arrays.copyOf(referenceBits, keys.length / 64 + 1);
+    }
+
+    private K keyWithLowestData() {
+        K result = null;
+        long lowest = Long.MAX_VALUE;
+        if (strategyData != null) {
+            for (Map.Entry<K, Long> entry : strategyData.entrySet()) {
+                if (result == null || entry.getValue() < lowest) {
+                    result = entry.getKey();
+                    lowest = entry.getValue();
+                }
+            }
+        }
+        return result;
+    }
+
+    private K keyWithHighestData() {
+        K result = null;
+        long highest = Long.MIN_VALUE;
+        if (strategyData != null) {
+            for (Map.Entry<K, Long> entry : strategyData.entrySet()) {
+                if (result == null || entry.getValue() > highest) {
+                    result = entry.getKey();
+                    highest = entry.getValue();
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -17,4 +17,47 @@ public interface Strategy<K> {
     Map<K, Long> getStrategyData();
 
     K getCandidateForMemoryCache();
+
+    /**
+     * Notifies strategy about capacity of cache level which uses it
+     *
+     * @param capacity Maximum amount of keys in cache level
+     */
+    default void setCapacity(int capacity) {}
+
+    /**
+     * Notifies strategy that provided key has been added to cache
+     *
+     * @param key Key value
+     */
+    default void onInsert(K key) {}
+
+    /**
+     * Notifies strategy that provided key has been accessed
+     *
+     * @param key Key value
+     */
+    default void onAccess(K key) {}
+
+    /**
+     * Notifies strategy that provided key has left cache
+     *
+     * @param key Key value
+     */
+    default void onRemove(K key) {}
+
+    /**
+     * Notifies strategy that cache has been cleared
+     */
+    default void onClear() {}
+
+    /**
+     * Checks whether provided key is expected to be accessed again
+     *
+     * @param key Key value
+     * @return {@code true} if reuse of key is predicted, {@code false} otherwise
+     */
+    default boolean predictsReuse(K key) {
+        return true;
+    }
 }
@@ -0,0 +1,101 @@
+package com.github.darthyk.cache;
+
+import com.github.darthyk.cache.strategies.AdaptiveReplacement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static junit.framework.TestCase.*;
+
+public class AdaptiveReplacementTest extends TestData {
+
+    MemoryCache cache;
+    AdaptiveReplacement strategy;
+
+    /**
+     * Precondition:
+     * 1) Memory cache with capacity 4 and Adaptive Replacement strategy is created
+     * 2) Cache is initialized with 4 objects, first two of them are accessed once more
+     */
+    @Before
+    public void init() {
+        strategy = new AdaptiveReplacement();
+        cache = new MemoryCache(4, strategy);
+        assertNotNull("Can't create cache object", cache);
+        for (int key = 1; key <= 4; key++) {
+            cache.putToCache(key, key);
+        }
+        cache.getObject(1);
+        cache.getObject(2);
+        assertEquals("Only 4 objects should be added while initializing cache",4, cache.size());
+    }
+
+    @After
+    public void terminate() {
+        cache.clearCache();
+    }
+
+    @Test
+    public void checkScanResistance() {
+        for (int key = 100; key < 200; key++) {
+            cache.putToCache(key, key);
+        }
+        assertTrue("Frequently used object was evicted by scan", cache.containsKey(1));
+        assertTrue("Frequently used object was evicted by scan", cache.containsKey(2));
+        assertEquals("Only 4 objects should be in cache",4, cache.size());
+    }
+
+    @Test
+    public void checkGhostHitAdaptation() {
+        cache.putToCache(5, 5);
+        assertFalse("Object seen once should be evicted first", cache.containsKey(3));
+        assertTrue("Evicted object should be remembered in ghost list", strategy.isGhost(3));
+        assertTrue("Reuse of object seen once should be predicted without ghost hits", strategy.predictsReuse(4));
+        cache.putToCache(3, 3);
+        assertTrue("Ghost hit should enlarge recency list", strategy.getRecentTargetSize() > 0);
+        assertTrue("Reuse of object should be predicted after ghost hit", strategy.predictsReuse(5));
+    }
+
+    @Test
+    public void checkFrequencyGhostHitsDisablePrediction() {
+        cache.putToCache(5, 5);
+        cache.putToCache(3, 3);
+        cache.putToCache(6, 6);
+        assertTrue("Evicted frequently used object should be remembered in ghost list", strategy.isGhost(1));
+        cache.putToCache(1, 1);
+        cache.putToCache(7, 7);
+        cache.getObject(7);
+        cache.putToCache(8, 8);
+        assertTrue("Evicted frequently used object should be remembered in ghost list", strategy.isGhost(2));
+        cache.putToCache(2, 2);
+        cache.putToCache(9, 9);
+        assertFalse("Reuse of object seen once mustn't be predicted after frequency ghost hits",
+                strategy.predictsReuse(9));
+        assertTrue("Reuse of frequently used object should be predicted", strategy.predictsReuse(2));
+    }
+
+    @Test
+    public void checkExplicitRemovalIsNotGhost() {
+        cache.removeObject(4);
+        assertFalse("Removed object mustn't be remembered in ghost list", strategy.isGhost(4));
+    }
+
+    @Test
+    public void checkVictimLookupHasNoSideEffects() {
+        assertEquals("Object seen once should be substituted first", 3, strategy.getKeyForSubstitution());
+        cache.removeObject(4);
+        assertEquals("Lookup of victim mustn't change victim", 3, strategy.getKeyForSubstitution());
+    }
+
+    @Test
+    public void checkTwoLevelCacheDemotesObjectsWithPredictedReuse() {
+        TwoLevelCache twoLevelCache = new TwoLevelCache(2, 2, new AdaptiveReplacement());
+        twoLevelCache.putToCache(1, 1);
+        twoLevelCache.putToCache(2, 2);
+        twoLevelCache.putToCache(3, 3);
+        twoLevelCache.putToCache(4, 4);
+        assertTrue("Object seen once should be demoted without ghost hits", twoLevelCache.containsKey(1));
+        assertEquals("Only 4 objects should be in cache",4, twoLevelCache.size());
+        twoLevelCache.clearCache();
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.darthyk.cache;
+
+import com.github.darthyk.cache.strategies.LeastFrequentlyUsed;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static junit.framework.TestCase.*;
+
+public class BufferPoolTest extends TestData {
+
+    BufferPool pool;
+
+    /**
+     * Precondition:
+     * 1) Empty buffer pool is created
+     */
+    @Before
+    public void init() {
+        pool = new BufferPool();
+    }
+
+    @Test
+    public void checkBufferReuse() {
+        ByteBuffer buffer = pool.acquireHeap(5000);
+        assertEquals("Capacity should be rounded up to size class", 8192, buffer.capacity());
+        assertEquals("New buffer should be counted as miss", 1, pool.getMisses());
+        buffer.putInt(42);
+        pool.release(buffer);
+
+        ByteBuffer reused = pool.acquireHeap(6000);
+        assertSame("Released buffer should be reused", buffer, reused);
+        assertEquals("Reused buffer should be cleared", 0, reused.position());
+        assertEquals("Reused buffer should be counted as hit", 1, pool.getHits());
+
+        ByteBuffer direct = pool.acquireDirect(100);
+        assertTrue("Direct buffer should be allocated", direct.isDirect());
+        assertNotSame("Heap and direct buffers should be pooled separately", reused, direct);
+    }
+
+    @Test
+    public void checkOversizedBuffersAreNotPooled() {
+        ByteBuffer buffer = pool.acquireHeap((1 << 24) + 1);
+        pool.release(buffer);
+        assertNotSame("Oversized buffer shouldn't be reused", buffer, pool.acquireHeap((1 << 24) + 1));
+        assertEquals("Oversized buffers should be counted as misses", 2, pool.getMisses());
+    }
+
+    @Test
+    public void checkRetainedBytesAreShared() throws InterruptedException {
+        pool = new BufferPool(1 << 20);
+        ByteBuffer[] buffers = new ByteBuffer[3];
+        Thread releasing = new Thread(() -> {
+            for (int i = 0; i < buffers.length; i++) {
+                buffers[i] = pool.acquireHeap(1 << 20);
+            }
+            for (ByteBuffer buffer : buffers) {
+                pool.release(buffer);
+            }
+        });
+        releasing.start();
+        releasing.join();
+
+        assertSame("Buffer released by another thread should be reused", buffers[0], pool.acquireHeap(1 << 20));
+        assertNotSame("Buffers exceeding retained bytes shouldn't be kept", buffers[1], pool.acquireHeap(1 << 20));
+        assertEquals("Only one acquisition should be served by pool", 1, pool.getHits());
+    }
+
+    @Test
+    public void checkWrittenRegionIsReadOnly() {
+        PooledBufferOutputStream output = new PooledBufferOutputStream(pool, 16);
+        output.writeInt(42);
+        assertTrue("Written bytes should be read-only", output.written().isReadOnly());
+        assertEquals("Retrieved value is not equal to expected", 42, output.region(0, 4).getInt());
+        output.close();
+    }
+
+    @Test
+    public void checkFileSystemCacheUsesPool() {
+        FileSystemCache cache = new FileSystemCache(DEFAULT_CAPACITY, new LeastFrequentlyUsed());
+        cache.putToCache(IntegerData.FIRST.getKey(), IntegerData.FIRST.getValue());
+        long hits = BufferPool.shared().getHits();
+        for (int i = 0; i < 10; i++) {
+            cache.putToCache(StringData.SECOND.getKey(), StringData.SECOND.getValue());
+            assertEquals("Retrieved object is not equal to expected", IntegerData.FIRST.getValue(),
+                    cache.getObject(IntegerData.FIRST.getKey()));
+        }
+        assertTrue("Buffers should be reused by writes and reads", BufferPool.shared().getHits() - hits >= 20);
+        cache.clearCache();
+    }
+}
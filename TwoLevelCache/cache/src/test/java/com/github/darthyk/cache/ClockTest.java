@@ -0,0 +1,92 @@
+package com.github.darthyk.cache;
+
+import com.github.darthyk.cache.strategies.Clock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static junit.framework.TestCase.*;
+
+public class ClockTest extends TestData {
+
+    MemoryCache cache;
+    Clock strategy;
+
+    /**
+     * Precondition:
+     * 1) Memory cache with capacity 4 and Clock strategy is created
+     * 2) Cache is initialized with 4 objects
+     */
+    @Before
+    public void init() {
+        strategy = new Clock();
+        cache = new MemoryCache(4, strategy);
+        assertNotNull("Can't create cache object", cache);
+        for (int key = 1; key <= 4; key++) {
+            cache.putToCache(key, key);
+        }
+        assertEquals("Only 4 objects should be added while initializing cache",4, cache.size());
+    }
+
+    @After
+    public void terminate() {
+        cache.clearCache();
+    }
+
+    @Test
+    public void checkSecondChance() {
+        cache.getObject(1);
+        cache.getObject(2);
+        assertTrue("Accessed object should be referenced", strategy.isReferenced(1));
+        cache.putToCache(5, 5);
+        assertFalse("Not referenced object should be evicted first", cache.containsKey(3));
+        assertTrue("Referenced object should get second chance", cache.containsKey(1));
+        assertFalse("Hand should clear reference bits it passed", strategy.isReferenced(1));
+        cache.putToCache(6, 6);
+        assertFalse("Not referenced object should be evicted", cache.containsKey(4));
+        assertEquals("Only 4 objects should be in cache",4, cache.size());
+    }
+
+    @Test
+    public void checkVictimLookupHasNoSideEffects() {
+        cache.getObject(1);
+        cache.getObject(2);
+        assertEquals("Not referenced object should be victim", 3, strategy.getKeyForSubstitution());
+        assertEquals("Repeated lookup should return the same victim", 3, strategy.getKeyForSubstitution());
+        assertTrue("Lookup shouldn't clear reference bits", strategy.isReferenced(1));
+        cache.deleteObject(4);
+        assertTrue("Explicit removal shouldn't move hand", strategy.isReferenced(1));
+
+        cache.putToCache(4, 4);
+        assertEquals("Object inserted after victim shouldn't change it", 3, strategy.getKeyForSubstitution());
+
+        cache.getObject(3);
+        cache.getObject(4);
+        assertEquals("Victim should be the first object after full sweep", 1, strategy.getKeyForSubstitution());
+        cache.putToCache(5, 5);
+        assertFalse("Victim should be evicted", cache.containsKey(1));
+        assertFalse("Full sweep should clear reference bits", strategy.isReferenced(2));
+    }
+
+    @Test
+    public void checkSlotReuse() {
+        for (int key = 100; key < 1000; key++) {
+            cache.putToCache(key, key);
+            cache.getObject(key);
+        }
+        assertEquals("Only 4 objects should be in cache",4, cache.size());
+        assertTrue("The latest object should be in cache", cache.containsKey(999));
+    }
+
+    @Test
+    public void checkTwoLevelCacheWithClock() {
+        TwoLevelCache twoLevelCache = new TwoLevelCache(2, 2, new Clock());
+        for (int key = 1; key <= 6; key++) {
+            twoLevelCache.putToCache(key, key);
+            twoLevelCache.getObject(1);
+        }
+        assertEquals("Only 4 objects should be in cache",4, twoLevelCache.size());
+        assertEquals("Frequently used object should stay in cache", 1, twoLevelCache.getObject(1));
+        twoLevelCache.clearCache();
+    }
+}
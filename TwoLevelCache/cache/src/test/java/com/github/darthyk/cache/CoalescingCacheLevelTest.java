@@ -0,0 +1,114 @@
+package com.github.darthyk.cache;
+
+import com.github.darthyk.cache.strategies.LeastFrequentlyUsed;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.TestCase.*;
+
+public class CoalescingCacheLevelTest extends TestData {
+
+    FileSystemCache fileSystemCache;
+    CoalescingCacheLevel cache;
+
+    /**
+     * Precondition:
+     * 1) File system cache with default capacity (3) is decorated by coalescing level with long window
+     * 2) Cache is initialized with 2 objects
+     */
+    @Before
+    public void init() {
+        fileSystemCache = new FileSystemCache(DEFAULT_CAPACITY, new LeastFrequentlyUsed());
+        cache = new CoalescingCacheLevel(fileSystemCache, 1, TimeUnit.HOURS, 16);
+        assertNotNull("Can't create cache object", cache);
+
+        cache.putToCache(IntegerData.FIRST.getKey(), IntegerData.FIRST.getValue());
+        cache.putToCache(StringData.SECOND.getKey(), StringData.SECOND.getValue());
+        assertEquals("Only 2 objects should be added while initializing cache",2, cache.size());
+        assertEquals("New objects shouldn't be buffered", 0, cache.getPendingWriteCount());
+    }
+
+    @After
+    public void terminate() {
+        cache.clearCache();
+    }
+
+    @Test
+    public void checkWriteCoalescing() {
+        for (int i = 0; i < 10; i++) {
+            cache.transferDataFromAnotherCache(IntegerData.FIRST.getKey(), "value" + i, 1L);
+        }
+        assertEquals("Repeated writes should be coalesced", 9, cache.getSavedWriteCount());
+        assertEquals("Only the last value should be buffered", 1, cache.getPendingWriteCount());
+        assertEquals("Reads should see buffered value", "value9", cache.getObject(IntegerData.FIRST.getKey()));
+        assertEquals("Decorated level shouldn't be written yet", IntegerData.FIRST.getValue(),
+                fileSystemCache.getDeserializedCacheMap().get(IntegerData.FIRST.getKey()));
+
+        cache.flush();
+        assertEquals("Write buffer should be empty after flush", 0, cache.getPendingWriteCount());
+        assertEquals("Only the last value should be written", 1, cache.getFlushedWriteCount());
+        assertEquals("Last value should reach disk", "value9",
+                fileSystemCache.getDeserializedCacheMap().get(IntegerData.FIRST.getKey()));
+        assertEquals("Only 2 objects should be in cache",2, cache.size());
+    }
+
+    @Test
+    public void checkBufferedValueRemoval() {
+        cache.putToCache(StringData.SECOND.getKey(), "buffered");
+        assertEquals("Removed object should be buffered value", "buffered",
+                cache.removeObject(StringData.SECOND.getKey()));
+        assertEquals("Buffered value should be dropped", 0, cache.getPendingWriteCount());
+        assertFalse("Removed object shouldn't be in cache", cache.containsKey(StringData.SECOND.getKey()));
+        cache.flush();
+        assertFalse("Removed object shouldn't reach disk",
+                fileSystemCache.getDeserializedCacheMap().containsKey(StringData.SECOND.getKey()));
+    }
+
+    @Test
+    public void checkExpiredWritesFlush() {
+        CoalescingCacheLevel shortWindowCache = new CoalescingCacheLevel(fileSystemCache, 0, TimeUnit.MILLISECONDS, 16);
+        shortWindowCache.putToCache(IntegerData.FIRST.getKey(), "expired");
+        assertEquals("Expired write should be flushed by the next operation", "expired",
+                shortWindowCache.getObject(IntegerData.FIRST.getKey()));
+        assertEquals("Write buffer should be empty", 0, shortWindowCache.getPendingWriteCount());
+        assertEquals("Expired value should reach disk", "expired",
+                fileSystemCache.getDeserializedCacheMap().get(IntegerData.FIRST.getKey()));
+    }
+
+    @Test
+    public void checkTwoLevelCacheWithCoalescing() {
+        TwoLevelCache twoLevelCache = new TwoLevelCache(new MemoryCache(1, new LeastFrequentlyUsed()), cache);
+        twoLevelCache.putToCache(IntegerData.THIRD.getKey(), IntegerData.THIRD.getValue());
+        for (int i = 0; i < 5; i++) {
+            twoLevelCache.putToCache(StringData.SECOND.getKey(), "value" + i);
+        }
+        assertEquals("Repeated replacements should be coalesced", 4, cache.getSavedWriteCount());
+        assertEquals("Retrieved object is not equal to expected", "value4",
+                twoLevelCache.getObject(StringData.SECOND.getKey()));
+    }
+
+    @Test
+    public void checkDelegateEvictionDropsBufferedValue() {
+        MemoryCache<Integer, String> memoryCache = new MemoryCache<>(2, new LeastFrequentlyUsed());
+        CoalescingCacheLevel<Integer, String> coalescingCache = new CoalescingCacheLevel<>(memoryCache, 1,
+                TimeUnit.HOURS, 16);
+        coalescingCache.putToCache(1, "value1");
+        coalescingCache.putToCache(2, "value2");
+        coalescingCache.putToCache(1, "newValue1");
+        for (int i = 0; i < 3; i++) {
+            coalescingCache.getObject(2);
+        }
+        assertEquals("Only 1 value should be buffered", 1, coalescingCache.getPendingWriteCount());
+
+        coalescingCache.putToCache(3, "value3");
+        assertFalse("Victim should be evicted by decorated level", memoryCache.containsKey(1));
+        assertEquals("Buffered value of evicted object should be dropped", 0, coalescingCache.getPendingWriteCount());
+        coalescingCache.flush();
+        assertFalse("Flush shouldn't resurrect evicted object", coalescingCache.containsKey(1));
+        assertEquals("Capacity shouldn't be exceeded", 2, coalescingCache.size());
+        coalescingCache.clearCache();
+    }
+}
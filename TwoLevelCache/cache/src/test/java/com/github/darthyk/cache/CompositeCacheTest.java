@@ -0,0 +1,94 @@
+package com.github.darthyk.cache;
+
+import com.github.darthyk.cache.strategies.LeastFrequentlyUsed;
+import com.github.darthyk.cache.strategies.LeastRecentlyUsed;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static junit.framework.TestCase.*;
+
+public class CompositeCacheTest extends TestData {
+
+    CompositeCache cache;
+
+    /**
+     * Precondition:
+     * 1) Cache with three levels (2 memory, 2 memory, 3 file system) is created and initialized with 3 objects
+     * 2) Entries are promoted only after the second access on lower level
+     */
+    @Before
+    public void init() {
+        cache = new CompositeCache(
+                Arrays.asList(new MemoryCache(2, new LeastRecentlyUsed()),
+                        new MemoryCache(2, new LeastFrequentlyUsed()),
+                        new FileSystemCache(DEFAULT_CAPACITY, new LeastFrequentlyUsed())),
+                Arrays.asList(new ThresholdTransferPolicy(3), new ThresholdTransferPolicy(3)));
+        assertNotNull("Can't create cache object", cache);
+
+        cache.putToCache(IntegerData.FIRST.getKey(), IntegerData.FIRST.getValue());
+        cache.putToCache(StringData.SECOND.getKey(), StringData.SECOND.getValue());
+        cache.putToCache(IntegerData.THIRD.getKey(), IntegerData.THIRD.getValue());
+        assertEquals("Only 3 objects should be added while initializing cache",3, cache.size());
+    }
+
+    @After
+    public void terminate() {
+        cache.clearCache();
+    }
+
+    @Test
+    public void checkDemotionToLowerLevels() {
+        cache.putToCache(IntegerData.FOURTH.getKey(), IntegerData.FOURTH.getValue());
+        cache.putToCache(IntegerData.FIFTH.getKey(), IntegerData.FIFTH.getValue());
+        assertEquals("Only 5 objects should be in cache",5, cache.size());
+        assertEquals("Oldest object should be demoted to the last level",2,
+                cache.findLevel(IntegerData.FIRST.getKey()));
+        assertEquals("Retrieved object is not equal to expected", IntegerData.FIRST.getValue(),
+                cache.getObject(IntegerData.FIRST.getKey()));
+    }
+
+    @Test
+    public void checkPromotionToUpperLevel() {
+        assertEquals("Object should be demoted to the second level",1, cache.findLevel(IntegerData.FIRST.getKey()));
+        cache.getObject(IntegerData.FIRST.getKey());
+        assertEquals("Object mustn't be promoted after the first access",1,
+                cache.findLevel(IntegerData.FIRST.getKey()));
+        cache.getObject(IntegerData.FIRST.getKey());
+        assertEquals("Object should be promoted after the second access",0,
+                cache.findLevel(IntegerData.FIRST.getKey()));
+        assertEquals("Only 3 objects should be in cache",3, cache.size());
+    }
+
+    @Test
+    public void checkEvictionFromLastLevel() {
+        for (int key = 10; key < 20; key++) {
+            cache.putToCache(key, key);
+        }
+        assertEquals("Cache should be filled up to capacity of all levels",7, cache.size());
+        assertFalse("Cache has empty space", cache.hasEmptySpace());
+    }
+
+    @Test
+    public void checkObjectReplacement() {
+        cache.putToCache(IntegerData.FIRST.getKey(), IntegerData.FIFTH.getValue());
+        assertEquals("Only 3 objects should be in cache",3, cache.size());
+        assertEquals("Retrieved object is not equal to expected", IntegerData.FIFTH.getValue(),
+                cache.getObject(IntegerData.FIRST.getKey()));
+    }
+
+    @Test
+    public void checkObjectRemoval() {
+        Integer removedObject = (Integer)cache.removeObject(IntegerData.FIRST.getKey());
+        assertEquals("Removed object is not equal to expected", IntegerData.FIRST.getValue(), removedObject);
+        assertFalse("Cache contains removed object key", cache.containsKey(IntegerData.FIRST.getKey()));
+    }
+
+    @Test
+    public void checkCacheClearing() {
+        cache.clearCache();
+        assertEquals("Cache is not cleared", cache.size(), 0);
+    }
+}
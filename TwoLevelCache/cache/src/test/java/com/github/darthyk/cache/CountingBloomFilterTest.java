@@ -0,0 +1,61 @@
+package com.github.darthyk.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static junit.framework.TestCase.*;
+
+public class CountingBloomFilterTest extends TestData {
+
+    CountingBloomFilter<Integer> filter;
+
+    /**
+     * Precondition:
+     * 1) Filter for 1000 keys with 1% false positive probability is created
+     */
+    @Before
+    public void init() {
+        filter = new CountingBloomFilter<>(1000, 0.01);
+        assertNotNull("Can't create filter object", filter);
+    }
+
+    @Test
+    public void checkAddedKeysArePresent() {
+        for (int key = 0; key < 1000; key++) {
+            filter.add(key);
+        }
+        for (int key = 0; key < 1000; key++) {
+            assertTrue("Added key " + key + " must be present in filter", filter.mightContain(key));
+        }
+    }
+
+    @Test
+    public void checkFalsePositiveRate() {
+        for (int key = 0; key < 1000; key++) {
+            filter.add(key);
+        }
+        int falsePositives = 0;
+        for (int key = 1000; key < 11000; key++) {
+            if (filter.mightContain(key)) {
+                falsePositives++;
+            }
+        }
+        assertTrue("False positive rate is too high: " + falsePositives, falsePositives < 500);
+    }
+
+    @Test
+    public void checkKeyRemoval() {
+        filter.add(IntegerData.FIRST.getKey());
+        filter.add(IntegerData.SECOND.getKey());
+        filter.remove(IntegerData.FIRST.getKey());
+        assertFalse("Removed key must be absent in filter", filter.mightContain(IntegerData.FIRST.getKey()));
+        assertTrue("Key must be present in filter", filter.mightContain(IntegerData.SECOND.getKey()));
+    }
+
+    @Test
+    public void checkFilterClearing() {
+        filter.add(IntegerData.FIRST.getKey());
+        filter.clear();
+        assertFalse("Filter is not cleared", filter.mightContain(IntegerData.FIRST.getKey()));
+    }
+}
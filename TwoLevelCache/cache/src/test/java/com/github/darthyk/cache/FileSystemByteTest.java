@@ -0,0 +1,217 @@
+package com.github.darthyk.cache;
+
+import com.github.darthyk.cache.strategies.LeastFrequentlyUsed;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static junit.framework.TestCase.*;
+
+public class FileSystemByteTest extends TestData {
+
+    FileSystemByteCache cache;
+
+    private static ByteBuffer bytes(String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String string(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Precondition:
+     * 1) Cache with default capacity (3) is created and initialized with 2 payloads
+     * 2) Least Frequently Used strategy is set by default
+     */
+    @Before
+    public void init() {
+        cache = new FileSystemByteCache(DEFAULT_CAPACITY, new LeastFrequentlyUsed());
+        assertNotNull("Can't create cache object", cache);
+
+        cache.putBytes(StringData.FIRST.getKey(), bytes(StringData.FIRST.getValue()));
+        cache.putBytes(StringData.SECOND.getKey(), bytes(StringData.SECOND.getValue()));
+        assertEquals("Only 2 objects should be added while initializing cache",2, cache.size());
+    }
+
+    @After
+    public void terminate() {
+        cache.clearCache();
+    }
+
+    @Test
+    public void checkObjectSubstitution() {
+        cache.putBytes(StringData.THIRD.getKey(), bytes(StringData.THIRD.getValue()));
+        cache.putBytes(StringData.FOURTH.getKey(), bytes(StringData.FOURTH.getValue()));
+        assertEquals("Only 3 objects should be in cache",3, cache.size());
+    }
+
+    @Test
+    public void checkExistentObjectRetrieval() {
+        ByteBuffer retrievedObject = cache.getBytes(StringData.FIRST.getKey());
+        assertNotNull("Retrieved object mustn't be null", retrievedObject);
+        assertTrue("Retrieved buffer must be read-only", retrievedObject.isReadOnly());
+        assertEquals("Retrieved object is not equal to expected", StringData.FIRST.getValue(), string(retrievedObject));
+    }
+
+    @Test(expected = ReadOnlyBufferException.class)
+    public void checkRetrievedObjectIsReadOnly() {
+        cache.getBytes(StringData.FIRST.getKey()).put(0, (byte)0);
+    }
+
+    @Test
+    public void checkObjectReplacement() {
+        cache.putBytes(StringData.FIRST.getKey(), bytes(StringData.FIFTH.getValue()));
+        assertEquals("Only 2 objects should be in cache",2, cache.size());
+        assertEquals("Retrieved object is not equal to expected", StringData.FIFTH.getValue(),
+                string(cache.getBytes(StringData.FIRST.getKey())));
+    }
+
+    @Test
+    public void checkNonExistentObjectRetrieval() {
+        assertNull("Retrieved object must be null", cache.getBytes(StringData.FIFTH.getKey()));
+    }
+
+    @Test
+    public void checkTransferToChannel() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long transferred = cache.transferTo(StringData.SECOND.getKey(), Channels.newChannel(output));
+        assertEquals("All bytes should be transferred", StringData.SECOND.getValue().length(), transferred);
+        assertEquals("Transferred object is not equal to expected", StringData.SECOND.getValue(),
+                new String(output.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals("Absent object mustn't be transferred", -1, cache.transferTo(StringData.FIFTH.getKey(),
+                Channels.newChannel(output)));
+    }
+
+    @Test
+    public void checkTransferToFileChannel() throws IOException {
+        File target = File.createTempFile("transfer", ".tmp");
+        target.deleteOnExit();
+        try (FileChannel channel = FileChannel.open(target.toPath(), StandardOpenOption.WRITE)) {
+            cache.transferTo(StringData.FIRST.getKey(), channel);
+        }
+        assertEquals("Transferred object is not equal to expected", StringData.FIRST.getValue(),
+                new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void checkObjectRemoval() {
+        ByteBuffer removedObject = cache.removeObject(StringData.FIRST.getKey());
+        assertEquals("Removed object is not equal to expected", StringData.FIRST.getValue(), string(removedObject));
+        assertNull("Retrieved deleted object must be null", cache.getBytes(StringData.FIRST.getKey()));
+    }
+
+    @Test
+    public void checkCacheClearing() {
+        cache.clearCache();
+        assertEquals("Cache is not cleared", cache.size(), 0);
+    }
+
+    @Test
+    public void checkLargeObjectRetrieval() {
+        byte[] payload = new byte[FileSystemByteCache.MAPPING_THRESHOLD + 1];
+        payload[payload.length - 1] = 42;
+        cache.putBytes(StringData.THIRD.getKey(), ByteBuffer.wrap(payload));
+        ByteBuffer retrievedObject = cache.getBytes(StringData.THIRD.getKey());
+        assertTrue("Retrieved buffer must be read-only", retrievedObject.isReadOnly());
+        assertEquals("Retrieved object size is not equal to expected", payload.length, retrievedObject.remaining());
+        assertEquals("Retrieved object is not equal to expected", 42, retrievedObject.get(payload.length - 1));
+    }
+
+    @Test
+    public void checkFailedWriteIsNotCached() {
+        cache.cachePath = Paths.get(cache.cachePath.toString(), "absent");
+        cache.putBytes(StringData.THIRD.getKey(), bytes(StringData.THIRD.getValue()));
+        assertFalse("Object which can't be written mustn't be cached", cache.containsKey(StringData.THIRD.getKey()));
+        assertFalse("Object which can't be written mustn't have strategy data",
+                cache.getStrategyMap().containsKey(StringData.THIRD.getKey()));
+        assertEquals("Only 2 objects should be in cache", 2, cache.size());
+    }
+
+    @Test(expected = IOException.class)
+    public void checkTransferStopsWhenFileShrinks() throws IOException {
+        cache.putBytes(StringData.THIRD.getKey(), ByteBuffer.wrap(new byte[FileSystemByteCache.MAPPING_THRESHOLD * 4]));
+        String cacheFile = (String) cache.cacheMap.get(StringData.THIRD.getKey());
+        cache.transferTo(StringData.THIRD.getKey(), new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer source) throws IOException {
+                try (FileChannel channel = FileChannel.open(Paths.get(cacheFile), StandardOpenOption.WRITE)) {
+                    channel.truncate(0);
+                }
+                int written = source.remaining();
+                source.position(source.limit());
+                return written;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void checkTransferToNonBlockingChannelIsRejected() throws IOException {
+        Pipe pipe = Pipe.open();
+        try {
+            pipe.sink().configureBlocking(false);
+            cache.transferTo(StringData.FIRST.getKey(), pipe.sink());
+        } finally {
+            pipe.sink().close();
+            pipe.source().close();
+        }
+    }
+
+    @Test
+    public void checkConcurrentTransferAndDeletion() throws InterruptedException {
+        int threads = 8;
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch finished = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            boolean writer = i % 2 == 0;
+            new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    try {
+                        if (writer) {
+                            cache.putBytes(StringData.THIRD.getKey(), bytes(StringData.THIRD.getValue()));
+                            cache.deleteObject(StringData.THIRD.getKey());
+                        } else {
+                            cache.transferTo(StringData.THIRD.getKey(), Channels.newChannel(new ByteArrayOutputStream()));
+                            cache.getBytes(StringData.THIRD.getKey());
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+                finished.countDown();
+            }).start();
+        }
+        assertTrue("Threads didn't finish", finished.await(60, TimeUnit.SECONDS));
+        assertEquals("Concurrent transfers and deletions shouldn't fail", 0, failures.get());
+        assertEquals("Strategy data should be kept only for cached objects", cache.cacheMap.keySet(),
+                cache.getStrategyMap().keySet());
+    }
+}
@@ -5,6 +5,13 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static junit.framework.TestCase.*;
 
 public class FileSystemTest extends TestData {
@@ -37,6 +44,17 @@ public class FileSystemTest extends TestData {
         assertEquals("Only 3 objects should be in cache",3, cache.size());
     }
 
+    @Test
+    public void checkBatchDeletion() {
+        cache.putToCache(IntegerData.THIRD.getKey(), IntegerData.THIRD.getValue());
+        assertEquals("Only present objects should be deleted", 2, cache.deleteObjects(Arrays.asList(
+                IntegerData.FIRST.getKey(), IntegerData.THIRD.getKey(), IntegerData.FIFTH.getKey())));
+        assertEquals("Only 1 object should be in cache",1, cache.size());
+        assertEquals("Cache file should contain only remaining object", 1, cache.getDeserializedCacheMap().size());
+        assertEquals("Retrieved object is not equal to expected", StringData.SECOND.getValue(),
+                cache.getObject(StringData.SECOND.getKey()));
+    }
+
     @Test
     public void checkObjectSubstitution() {
         cache.putToCache(IntegerData.THIRD.getKey(), IntegerData.THIRD.getValue());
@@ -87,4 +105,75 @@ public class FileSystemTest extends TestData {
         cache.putToCache(IntegerData.THIRD.getKey(), IntegerData.THIRD.getValue());
         assertFalse("Cache has empty space", cache.hasEmptySpace());
     }
+
+    @Test
+    public void checkCorruptedRecordQuarantine() throws IOException {
+        RandomAccessFile file = new RandomAccessFile(cache.cacheFile, "rw");
+        file.seek(RecordCodec.HEADER_SIZE + 2);
+        file.write(0xFF);
+        file.close();
+        int readable = 0;
+        for (Object key : new Object[] {IntegerData.FIRST.getKey(), StringData.SECOND.getKey()}) {
+            if (cache.getObject((Integer)key) != null) {
+                readable++;
+            }
+        }
+        assertEquals("Only record with corrupted checksum should be unreadable",1, readable);
+        assertEquals("Corrupted key should be quarantined",1, cache.getQuarantinedKeys().size());
+        assertEquals("Only 1 object should be in cache",1, cache.size());
+        try {
+            cache.getQuarantinedKeys().clear();
+            fail("Quarantined keys shouldn't be modifiable");
+        } catch (UnsupportedOperationException e) {
+            assertEquals("Quarantined keys shouldn't be cleared",1, cache.getQuarantinedKeys().size());
+        }
+    }
+
+    @Test
+    public void checkDeferredWrites() {
+        long diskBytes = cache.getUsage().getDiskBytes();
+        cache.setDeferredWrites(true);
+        cache.putToCache(IntegerData.THIRD.getKey(), IntegerData.THIRD.getValue());
+        assertEquals("Deferred change shouldn't be written", diskBytes, cache.getUsage().getDiskBytes());
+        assertEquals("Deferred change should be written before cache file is read", IntegerData.THIRD.getValue(),
+                cache.getObject(IntegerData.THIRD.getKey()));
+        assertTrue("Cache file should contain new object", cache.getUsage().getDiskBytes() > diskBytes);
+
+        cache.deleteObject(IntegerData.FIRST.getKey());
+        cache.writeDeferred();
+        cache.setDeferredWrites(false);
+        assertFalse("Cache file shouldn't contain deleted object",
+                cache.getDeserializedCacheMap().containsKey(IntegerData.FIRST.getKey()));
+    }
+
+    @Test
+    public void checkConcurrentAccess() throws InterruptedException {
+        FileSystemCache<Integer, Integer> concurrentCache = new FileSystemCache<>(16, new LeastFrequentlyUsed());
+        int threads = 4;
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch finished = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            int thread = i;
+            new Thread(() -> {
+                try {
+                    for (int j = 0; j < 200; j++) {
+                        int key = thread * 1000 + j % 32;
+                        concurrentCache.putToCache(key, j);
+                        concurrentCache.getObject(key);
+                        concurrentCache.deleteObject(key - 1);
+                    }
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                } finally {
+                    finished.countDown();
+                }
+            }).start();
+        }
+        assertTrue("Threads didn't finish", finished.await(60, TimeUnit.SECONDS));
+        assertEquals("Concurrent operations shouldn't fail", 0, failures.get());
+        assertTrue("Capacity shouldn't be exceeded", concurrentCache.size() <= 16);
+        assertEquals("Cache file should match index", concurrentCache.size(),
+                concurrentCache.getDeserializedCacheMap().size());
+        concurrentCache.clearCache();
+    }
 }
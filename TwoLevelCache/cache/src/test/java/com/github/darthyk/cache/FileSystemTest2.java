@@ -5,6 +5,14 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static junit.framework.TestCase.*;
 
 public class FileSystemTest2 extends TestData {
@@ -87,4 +95,127 @@ public class FileSystemTest2 extends TestData {
         cache.putToCache(IntegerData.THIRD.getKey(), IntegerData.THIRD.getValue());
         assertFalse("Cache has empty space", cache.hasEmptySpace());
     }
+
+    @Test
+    public void checkCorruptedRecordQuarantine() throws IOException {
+        RandomAccessFile file = new RandomAccessFile((String)cache.cacheMap.get(IntegerData.FIRST.getKey()), "rw");
+        file.seek(RecordCodec.HEADER_SIZE + 2);
+        file.write(0xFF);
+        file.close();
+        assertNull("Corrupted object must be null", cache.getObject(IntegerData.FIRST.getKey()));
+        assertTrue("Corrupted key should be quarantined",
+                cache.getQuarantinedKeys().contains(IntegerData.FIRST.getKey()));
+        assertFalse("Corrupted key should be removed", cache.containsKey(IntegerData.FIRST.getKey()));
+        assertEquals("Retrieved object is not equal to expected", StringData.SECOND.getValue(),
+                cache.getObject(StringData.SECOND.getKey()));
+    }
+
+    @Test
+    public void checkUsageAccounting() {
+        CacheUsage usage = cache.getUsage();
+        assertEquals("Usage should count 2 entries", 2, usage.getEntries());
+        long diskBytes = 0;
+        for (Object path : cache.cacheMap.values()) {
+            diskBytes += new File((String)path).length();
+        }
+        assertEquals("Disk bytes should match size of entry files", diskBytes, usage.getDiskBytes());
+
+        cache.putToCache(IntegerData.FIRST.getKey(), IntegerData.FIRST.getValue());
+        assertEquals("Replacement shouldn't change disk bytes of same sized value", diskBytes, usage.getDiskBytes());
+
+        cache.deleteObject(IntegerData.FIRST.getKey());
+        cache.deleteObject(StringData.SECOND.getKey());
+        assertEquals("Empty cache shouldn't have entries", 0, usage.getEntries());
+        assertEquals("Empty cache shouldn't use heap", 0, usage.getHeapBytes());
+        assertEquals("Empty cache shouldn't use disk", 0, usage.getDiskBytes());
+    }
+
+    @Test
+    public void checkGenerationClear() throws InterruptedException {
+        File previousDirectory = cache.cachePath.toFile();
+        cache.clearCache();
+        assertEquals("Generation should be incremented by clearing", 1, cache.getGeneration());
+        assertEquals("Cache should be empty right after clearing", 0, cache.size());
+        assertFalse("New generation should use new directory", previousDirectory.equals(cache.cachePath.toFile()));
+
+        cache.putToCache(IntegerData.THIRD.getKey(), IntegerData.THIRD.getValue());
+        assertEquals("Retrieved object is not equal to expected", IntegerData.THIRD.getValue(),
+                cache.getObject(IntegerData.THIRD.getKey()));
+        assertTrue("Files of previous generation should be reclaimed",
+                FileReclaimer.shared().awaitReclaimed(10, TimeUnit.SECONDS));
+        assertFalse("Directory of previous generation should be deleted", previousDirectory.exists());
+    }
+
+    @Test
+    public void checkLazyValue() {
+        LazyValue value = cache.getLazyObject(StringData.SECOND.getKey());
+        assertFalse("Value shouldn't be deserialized eagerly", value.isDecoded());
+        assertEquals("Retrieved object is not equal to expected", StringData.SECOND.getValue(), value.get());
+        assertEquals("Access should update strategy data", Long.valueOf(2),
+                cache.getStrategyData(StringData.SECOND.getKey()));
+    }
+
+    @Test
+    public void checkConcurrentReaders() throws InterruptedException {
+        int threads = 32;
+        AtomicInteger mismatches = new AtomicInteger();
+        CountDownLatch finished = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < 200; j++) {
+                    if (!IntegerData.FIRST.getValue().equals(cache.peekObject(IntegerData.FIRST.getKey()))) {
+                        mismatches.incrementAndGet();
+                    }
+                }
+                finished.countDown();
+            }).start();
+        }
+        assertTrue("Reading threads didn't finish", finished.await(30, TimeUnit.SECONDS));
+        assertEquals("Concurrent readers should read cached object", 0, mismatches.get());
+        assertTrue("Object shouldn't be quarantined", cache.getQuarantinedKeys().isEmpty());
+    }
+
+    @Test
+    public void checkFailedOverwriteKeepsPreviousValue() {
+        cache.cachePath = Paths.get(cache.cachePath.toString(), "absent");
+        cache.putToCache(IntegerData.FIRST.getKey(), IntegerData.THIRD.getValue());
+        cache.putToCache(IntegerData.THIRD.getKey(), IntegerData.THIRD.getValue());
+        assertEquals("Previous object should be kept when new one can't be written", IntegerData.FIRST.getValue(),
+                cache.getObject(IntegerData.FIRST.getKey()));
+        assertFalse("Object which can't be written mustn't be cached", cache.containsKey(IntegerData.THIRD.getKey()));
+        assertFalse("Object which can't be written mustn't have strategy data",
+                cache.getStrategyMap().containsKey(IntegerData.THIRD.getKey()));
+        assertEquals("Only 2 objects should be in cache", 2, cache.size());
+    }
+
+    @Test
+    public void checkConcurrentAccessAndDeletion() throws InterruptedException {
+        int threads = 8;
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch finished = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            boolean writer = i % 2 == 0;
+            new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    try {
+                        if (writer) {
+                            cache.putToCache(IntegerData.THIRD.getKey(), IntegerData.THIRD.getValue());
+                            cache.deleteObject(IntegerData.THIRD.getKey());
+                        } else {
+                            cache.getObject(IntegerData.THIRD.getKey());
+                            cache.getLazyObject(IntegerData.THIRD.getKey());
+                        }
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+                finished.countDown();
+            }).start();
+        }
+        assertTrue("Threads didn't finish", finished.await(60, TimeUnit.SECONDS));
+        assertEquals("Concurrent accesses and deletions shouldn't fail", 0, failures.get());
+        assertEquals("Strategy data should be kept only for cached objects", cache.cacheMap.keySet(),
+                cache.getStrategyMap().keySet());
+        assertTrue("Object shouldn't be quarantined", cache.getQuarantinedKeys().isEmpty());
+    }
 }
@@ -0,0 +1,194 @@
+package com.github.darthyk.cache;
+
+import com.github.darthyk.cache.StressHarness.Kind;
+import com.github.darthyk.cache.StressHarness.Operation;
+
+import java.util.*;
+
+/**
+ * Checks recorded cache histories for linearizability against model map which may lose entries.
+ * <p>
+ * NOTE: history is checked per key, clearing is part of history of every key. Model state of key is its value
+ * or absence, put sets value, remove and clear make key absent, get and remove must return current value
+ * or {@code null}, as entry may be evicted at any moment. Miss makes key absent, so evicted value must not
+ * reappear without new put. Search is Wing-Gong algorithm with memoization of visited configurations.
+ */
+final class LinearizabilityChecker {
+
+    private LinearizabilityChecker() {}
+
+    private static final class Entry {
+        final Operation operation;
+        final int id;
+        final boolean call;
+        final long time;
+        Entry match;
+        Entry previous;
+        Entry next;
+
+        Entry(Operation operation, int id, boolean call, long time) {
+            this.operation = operation;
+            this.id = id;
+            this.call = call;
+            this.time = time;
+        }
+    }
+
+    private static final class Frame {
+        final Entry call;
+        final String state;
+
+        Frame(Entry call, String state) {
+            this.call = call;
+            this.state = state;
+        }
+    }
+
+    private static final class Configuration {
+        final BitSet linearized;
+        final String state;
+
+        Configuration(BitSet linearized, String state) {
+            this.linearized = linearized;
+            this.state = state;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Configuration && linearized.equals(((Configuration)other).linearized)
+                    && Objects.equals(state, ((Configuration)other).state);
+        }
+
+        @Override
+        public int hashCode() {
+            return linearized.hashCode() * 31 + Objects.hashCode(state);
+        }
+    }
+
+    /**
+     * Finds key which history isn't linearizable
+     *
+     * @param history Completed operations of all threads
+     * @return description of violating history, {@code null} if history is linearizable
+     */
+    static String findViolation(List<Operation> history) {
+        Map<Integer, List<Operation>> keyHistories = new TreeMap<>();
+        List<Operation> clears = new ArrayList<>();
+        for (Operation operation : history) {
+            if (operation.kind == Kind.CLEAR) {
+                clears.add(operation);
+            } else {
+                keyHistories.computeIfAbsent(operation.key, key -> new ArrayList<>()).add(operation);
+            }
+        }
+        for (Map.Entry<Integer, List<Operation>> keyHistory : keyHistories.entrySet()) {
+            List<Operation> operations = new ArrayList<>(keyHistory.getValue());
+            operations.addAll(clears);
+            if (!isLinearizable(operations)) {
+                operations.sort(Comparator.comparingLong(operation -> operation.invoked));
+                StringBuilder description = new StringBuilder("History of key ").append(keyHistory.getKey())
+                        .append(" isn't linearizable:");
+                operations.forEach(operation -> description.append("\n  ").append(operation));
+                return description.toString();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether history of one key is linearizable
+     *
+     * @param operations Completed operations of key and clearing operations
+     * @return {@code true} if history is linearizable, {@code false} otherwise
+     */
+    static boolean isLinearizable(List<Operation> operations) {
+        List<Entry> events = new ArrayList<>();
+        for (int id = 0; id < operations.size(); ++id) {
+            Operation operation = operations.get(id);
+            Entry call = new Entry(operation, id, true, operation.invoked);
+            call.match = new Entry(operation, id, false, operation.returned);
+            events.add(call);
+            events.add(call.match);
+        }
+        events.sort(Comparator.<Entry>comparingLong(event -> event.time).thenComparing(event -> !event.call));
+        Entry head = new Entry(null, -1, false, Long.MIN_VALUE);
+        Entry last = head;
+        for (Entry event : events) {
+            last.next = event;
+            event.previous = last;
+            last = event;
+        }
+
+        BitSet linearized = new BitSet(operations.size());
+        String state = null;
+        Set<Configuration> visited = new HashSet<>();
+        Deque<Frame> stack = new ArrayDeque<>();
+        Entry entry = head.next;
+        while (head.next != null) {
+            if (entry.call) {
+                Operation operation = entry.operation;
+                if (permits(state, operation)) {
+                    String nextState = apply(operation);
+                    BitSet nextLinearized = (BitSet)linearized.clone();
+                    nextLinearized.set(entry.id);
+                    if (visited.add(new Configuration(nextLinearized, nextState))) {
+                        stack.push(new Frame(entry, state));
+                        linearized = nextLinearized;
+                        state = nextState;
+                        lift(entry);
+                        entry = head.next;
+                        continue;
+                    }
+                }
+                entry = entry.next;
+            } else {
+                if (stack.isEmpty()) {
+                    return false;
+                }
+                Frame frame = stack.pop();
+                state = frame.state;
+                linearized = (BitSet)linearized.clone();
+                linearized.clear(frame.call.id);
+                unlift(frame.call);
+                entry = frame.call.next;
+            }
+        }
+        return true;
+    }
+
+    private static boolean permits(String state, Operation operation) {
+        return operation.kind == Kind.PUT || operation.kind == Kind.CLEAR
+                || operation.result == null || operation.result.equals(state);
+    }
+
+    private static String apply(Operation operation) {
+        switch (operation.kind) {
+            case PUT:
+                return operation.argument;
+            case GET:
+                return operation.result;
+            default:
+                return null;
+        }
+    }
+
+    private static void lift(Entry call) {
+        call.previous.next = call.next;
+        call.next.previous = call.previous;
+        Entry match = call.match;
+        match.previous.next = match.next;
+        if (match.next != null) {
+            match.next.previous = match.previous;
+        }
+    }
+
+    private static void unlift(Entry call) {
+        Entry match = call.match;
+        match.previous.next = match;
+        if (match.next != null) {
+            match.next.previous = match;
+        }
+        call.previous.next = call;
+        call.next.previous = call;
+    }
+}
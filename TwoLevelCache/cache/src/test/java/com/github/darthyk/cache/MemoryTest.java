@@ -5,6 +5,8 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.Serializable;
+
 import static junit.framework.TestCase.*;
 
 public class MemoryTest extends TestData {
@@ -87,4 +89,52 @@ public class MemoryTest extends TestData {
         cache.putToCache(IntegerData.THIRD.getKey(), IntegerData.THIRD.getValue());
         assertFalse("Cache has empty space", cache.hasEmptySpace());
     }
+
+    @Test
+    public void checkUsageAccounting() {
+        CacheUsage usage = cache.getUsage();
+        assertEquals("Usage should count 2 entries", 2, usage.getEntries());
+        long heapBytes = usage.getHeapBytes();
+        assertTrue("Heap bytes should be estimated", heapBytes > 0);
+
+        cache.putToCache(StringData.SECOND.getKey(), StringData.SECOND.getValue() + "-longer");
+        assertEquals("Replacement shouldn't change amount of entries", 2, usage.getEntries());
+        assertTrue("Longer value should increase heap bytes", usage.getHeapBytes() > heapBytes);
+
+        cache.putToCache(IntegerData.THIRD.getKey(), IntegerData.THIRD.getValue());
+        cache.putToCache(IntegerData.FOURTH.getKey(), IntegerData.FOURTH.getValue());
+        assertEquals("Substitution shouldn't change amount of entries", 3, usage.getEntries());
+
+        cache.removeObject(IntegerData.FOURTH.getKey());
+        cache.deleteObject(IntegerData.THIRD.getKey());
+        assertEquals("Usage should count entries left in cache", cache.size(), usage.getEntries());
+        cache.clearCache();
+        assertEquals("Cleared cache shouldn't have entries", 0, usage.getEntries());
+        assertEquals("Cleared cache shouldn't use heap", 0, usage.getHeapBytes());
+    }
+
+    static class Payload implements Sized, Serializable {
+        long size;
+
+        Payload(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public long estimateSize() {
+            return size;
+        }
+    }
+
+    @Test
+    public void checkRecordedSizeIsReleasedOnRemoval() {
+        CacheUsage usage = cache.getUsage();
+        long heapBytes = usage.getHeapBytes();
+        Payload payload = new Payload(1000);
+        cache.putToCache(IntegerData.THIRD.getKey(), payload);
+        assertTrue("Size of value should be estimated by value", usage.getHeapBytes() - heapBytes >= 1000);
+        payload.size = 5;
+        cache.removeObject(IntegerData.THIRD.getKey());
+        assertEquals("Size recorded at insertion should be released", heapBytes, usage.getHeapBytes());
+    }
 }
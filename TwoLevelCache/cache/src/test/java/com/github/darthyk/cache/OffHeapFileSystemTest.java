@@ -0,0 +1,103 @@
+package com.github.darthyk.cache;
+
+import com.github.darthyk.cache.strategies.LeastFrequentlyUsed;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static junit.framework.TestCase.*;
+
+public class OffHeapFileSystemTest extends TestData {
+
+    OffHeapFileSystemCache<Integer, String> cache;
+
+    /**
+     * Precondition:
+     * 1) Cache with default capacity (3) is created and initialized with 2 objects
+     * 2) Least Frequently Used strategy is set by default
+     */
+    @Before
+    public void init() {
+        cache = new OffHeapFileSystemCache<>(DEFAULT_CAPACITY, new LeastFrequentlyUsed());
+        cache.putToCache(StringData.FIRST.getKey(), StringData.FIRST.getValue());
+        cache.putToCache(StringData.SECOND.getKey(), StringData.SECOND.getValue());
+        assertEquals("Only 2 objects should be added while initializing cache", 2, cache.size());
+    }
+
+    @After
+    public void terminate() {
+        cache.clearCache();
+    }
+
+    @Test
+    public void checkObjectRetrievalAndReplacement() {
+        assertEquals("Retrieved object is not equal to expected", StringData.FIRST.getValue(),
+                cache.getObject(StringData.FIRST.getKey()));
+        assertEquals("Access should update strategy data", Long.valueOf(2),
+                cache.getStrategyData(StringData.FIRST.getKey()));
+        cache.putToCache(StringData.FIRST.getKey(), StringData.THIRD.getValue());
+        assertEquals("Replaced object is not equal to expected", StringData.THIRD.getValue(),
+                cache.getObject(StringData.FIRST.getKey()));
+        assertEquals("Replacement shouldn't add entry", 2, cache.size());
+        assertEquals("Lazy value is not equal to expected", StringData.SECOND.getValue(),
+                cache.getLazyObject(StringData.SECOND.getKey()).get());
+        assertNull("Absent key should be missed", cache.getObject(StringData.FIFTH.getKey()));
+    }
+
+    @Test
+    public void checkObjectSubstitution() {
+        cache.getObject(StringData.FIRST.getKey());
+        cache.getObject(StringData.SECOND.getKey());
+        cache.putToCache(StringData.THIRD.getKey(), StringData.THIRD.getValue());
+        cache.putToCache(StringData.FOURTH.getKey(), StringData.FOURTH.getValue());
+        assertEquals("Only 3 objects should be in cache", 3, cache.size());
+        assertFalse("Least frequently used object should be substituted", cache.containsKey(StringData.THIRD.getKey()));
+        assertEquals("Strategy map should contain all entries", 3, cache.getStrategyMap().entrySet().size());
+    }
+
+    @Test
+    public void checkDeletionAndRemoval() {
+        cache.deleteObject(StringData.FIRST.getKey());
+        assertFalse("Deleted object should be absent", cache.containsKey(StringData.FIRST.getKey()));
+        assertEquals("Removed object is not equal to expected", StringData.SECOND.getValue(),
+                cache.removeObject(StringData.SECOND.getKey()));
+        assertEquals("Cache should be empty", 0, cache.size());
+        assertNull("Empty cache shouldn't have victim", cache.getKeyForSubstitution());
+    }
+
+    @Test
+    public void checkSlotReuseAndCompaction() {
+        String value = new String(new char[16 * 1024]).replace('\0', 'v');
+        for (int i = 0; i < 200; ++i) {
+            cache.putToCache(100 + i, value + i);
+            cache.deleteObject(100 + i);
+            cache.putToCache(11, value + i);
+        }
+        assertEquals("Deleted objects shouldn't be counted", 2, cache.size());
+        assertEquals("Replaced object is not equal to expected", value + 199, cache.getObject(11));
+        assertEquals("Strategy map should contain all entries", 2, cache.getStrategyMap().entrySet().size());
+        assertTrue("Data file should be compacted", cache.getUsage().getDiskBytes() < 8L * 1024 * 1024);
+    }
+
+    @Test
+    public void checkStrategyMapRemoval() {
+        OffHeapFileSystemCache<Integer, String> largeCache = new OffHeapFileSystemCache<>(64, new LeastFrequentlyUsed());
+        for (int i = 0; i < 64; ++i) {
+            largeCache.putToCache(i, "value" + i);
+        }
+        assertEquals("Removed entry should return its strategy data", Long.valueOf(1),
+                largeCache.getStrategyMap().remove(5));
+        assertFalse("Removed object should be absent", largeCache.containsKey(5));
+        assertTrue("Only keys of even objects should be removed",
+                largeCache.getStrategyMap().keySet().removeIf(key -> key % 2 == 0));
+        assertEquals("Only odd objects should be in cache", 31, largeCache.size());
+        for (int i = 1; i < 64; i += 2) {
+            if (i != 5) {
+                assertEquals("Retrieved object is not equal to expected", "value" + i, largeCache.getObject(i));
+            }
+        }
+        assertFalse("Removed object should be absent", largeCache.containsKey(10));
+        assertNull("Absent key shouldn't have strategy data", largeCache.getStrategyMap().remove(10));
+        largeCache.clearCache();
+    }
+}
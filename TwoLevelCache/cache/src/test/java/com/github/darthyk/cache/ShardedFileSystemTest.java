@@ -0,0 +1,144 @@
+package com.github.darthyk.cache;
+
+import com.github.darthyk.cache.strategies.LeastFrequentlyUsed;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import static junit.framework.TestCase.*;
+
+public class ShardedFileSystemTest extends TestData {
+
+    ShardedFileSystemCache cache;
+
+    /**
+     * Precondition:
+     * 1) Cache with capacity 4 striped across two directories is created and initialized with 2 objects
+     * 2) Least Frequently Used strategy is set by default
+     */
+    @Before
+    public void init() throws IOException {
+        Path firstDirectory = Files.createTempDirectory("shard");
+        Path secondDirectory = Files.createTempDirectory("shard");
+        firstDirectory.toFile().deleteOnExit();
+        secondDirectory.toFile().deleteOnExit();
+        cache = new ShardedFileSystemCache(4, new LeastFrequentlyUsed(), Arrays.asList(firstDirectory, secondDirectory));
+        assertNotNull("Can't create cache object", cache);
+
+        cache.putToCache(IntegerData.FIRST.getKey(), IntegerData.FIRST.getValue());
+        cache.putToCache(StringData.SECOND.getKey(), StringData.SECOND.getValue());
+        assertEquals("Only 2 objects should be added while initializing cache",2, cache.size());
+    }
+
+    @After
+    public void terminate() {
+        cache.clearCache();
+        cache.close();
+    }
+
+    @Test
+    public void checkAdditionToCache() {
+        cache.putToCache(IntegerData.THIRD.getKey(), IntegerData.THIRD.getValue());
+        assertEquals("Only 3 objects should be in cache",3, cache.size());
+    }
+
+    @Test
+    public void checkObjectSubstitution() {
+        for (IntegerData data : IntegerData.values()) {
+            cache.putToCache(data.getKey() + 10, data.getValue());
+        }
+        assertEquals("Only 4 objects should be in cache",4, cache.size());
+    }
+
+    @Test
+    public void checkExistentObjectRetrieval() {
+        Integer retrievedObject = (Integer)cache.getObject(IntegerData.FIRST.getKey());
+        assertNotNull("Retrieved object mustn't be null", retrievedObject);
+        assertEquals("Retrieved object is not equal to expected", IntegerData.FIRST.getValue(), retrievedObject);
+    }
+
+    @Test
+    public void checkParallelRetrieval() {
+        cache.putToCache(IntegerData.THIRD.getKey(), IntegerData.THIRD.getValue());
+        Map retrievedObjects = cache.getObjects(Arrays.asList(IntegerData.FIRST.getKey(),
+                StringData.SECOND.getKey(), IntegerData.THIRD.getKey(), IntegerData.FIFTH.getKey()));
+        assertEquals("Only 3 objects should be retrieved",3, retrievedObjects.size());
+        assertEquals("Retrieved object is not equal to expected", StringData.SECOND.getValue(),
+                retrievedObjects.get(StringData.SECOND.getKey()));
+    }
+
+    @Test
+    public void checkNonExistentObjectRetrieval() {
+        assertFalse("Cache contains non existent object key", cache.containsKey(IntegerData.FIFTH.getKey()));
+        assertNull("Retrieved object must be null", cache.getObject(IntegerData.FIFTH.getKey()));
+    }
+
+    @Test
+    public void checkObjectRemoval() {
+        Integer removedObject = (Integer)cache.removeObject(IntegerData.FIRST.getKey());
+        assertEquals("Removed object is not equal to expected", IntegerData.FIRST.getValue(), removedObject);
+        assertNull("Retrieved deleted object must be null", cache.getObject(IntegerData.FIRST.getKey()));
+    }
+
+    @Test
+    public void checkCacheClearing() {
+        cache.clearCache();
+        assertEquals("Cache is not cleared", cache.size(), 0);
+        assertNull("Empty cache mustn't have key for substitution", cache.getKeyForSubstitution());
+    }
+
+    @Test
+    public void checkCapacityIsSplitExactly() throws IOException {
+        Path directory = Files.createTempDirectory("shard");
+        directory.toFile().deleteOnExit();
+        ShardedFileSystemCache<Integer, Integer> threeShards = new ShardedFileSystemCache<>(4, new LeastFrequentlyUsed(),
+                Arrays.asList(directory, directory, directory));
+        for (int key = 0; key < 40; ++key) {
+            threeShards.putToCache(key, key);
+        }
+        assertEquals("Shards should hold exactly cache capacity", 4, threeShards.size());
+        threeShards.clearCache();
+        threeShards.close();
+        try {
+            threeShards.getObjects(Arrays.asList(1, 2));
+            fail("Closed cache shouldn't read in parallel");
+        } catch (RejectedExecutionException e) {
+            // thread pool is shut down by closing
+        }
+    }
+
+    @Test
+    public void checkAsSecondLevelCache() {
+        TwoLevelCache twoLevelCache = new TwoLevelCache(new MemoryCache(1, new LeastFrequentlyUsed()), cache);
+        twoLevelCache.putToCache(IntegerData.THIRD.getKey(), IntegerData.THIRD.getValue());
+        twoLevelCache.putToCache(IntegerData.FOURTH.getKey(), IntegerData.FOURTH.getValue());
+        assertEquals("Only 4 objects should be in cache",4, twoLevelCache.size());
+        assertEquals("Retrieved object is not equal to expected", IntegerData.FIRST.getValue(),
+                twoLevelCache.getObject(IntegerData.FIRST.getKey()));
+    }
+
+    @Test
+    public void checkAccessIsRecordedByShard() {
+        Long frequency = cache.getStrategyData(IntegerData.FIRST.getKey());
+        cache.recordAccess(IntegerData.FIRST.getKey());
+        assertEquals("Access should update strategy data of shard", Long.valueOf(frequency + 1),
+                cache.getStrategyData(IntegerData.FIRST.getKey()));
+        assertEquals("Strategy view should see strategy data of shard", Long.valueOf(frequency + 1),
+                cache.getStrategyMap().get(IntegerData.FIRST.getKey()));
+        assertEquals("Strategy view should contain all entries", 2, cache.getStrategyMap().entrySet().size());
+        try {
+            cache.getStrategyMap().put(IntegerData.FIRST.getKey(), 0L);
+            fail("Strategy view should be read-only");
+        } catch (UnsupportedOperationException e) {
+            assertEquals("Strategy data shouldn't change", Long.valueOf(frequency + 1),
+                    cache.getStrategyData(IntegerData.FIRST.getKey()));
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.github.darthyk.cache;
+
+import com.github.darthyk.cache.strategies.LeastFrequentlyUsed;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.TestCase.*;
+
+public class SharedFileSystemCacheTest extends TestData {
+
+    Path directory;
+    SharedFileSystemCache<Integer, String> firstProcess;
+    SharedFileSystemCache<Integer, String> secondProcess;
+
+    /**
+     * Precondition:
+     * 1) Two caches with default capacity (3) share one directory, as caches of two processes would
+     * 2) First cache is initialized with 2 objects
+     */
+    @Before
+    public void init() throws IOException {
+        directory = Files.createTempDirectory("shared-cache");
+        firstProcess = new SharedFileSystemCache<>(directory, DEFAULT_CAPACITY, new LeastFrequentlyUsed());
+        secondProcess = new SharedFileSystemCache<>(directory, DEFAULT_CAPACITY, new LeastFrequentlyUsed());
+        firstProcess.putToCache(StringData.FIRST.getKey(), StringData.FIRST.getValue());
+        firstProcess.putToCache(StringData.SECOND.getKey(), StringData.SECOND.getValue());
+    }
+
+    @After
+    public void terminate() throws IOException, InterruptedException {
+        firstProcess.clearCache();
+        FileReclaimer.shared().awaitReclaimed(10, TimeUnit.SECONDS);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void checkWritesAreSharedBetweenProcesses() {
+        assertEquals("Objects written by first process should be visible for second", 2, secondProcess.size());
+        assertEquals("Retrieved object is not equal to expected", StringData.FIRST.getValue(),
+                secondProcess.getObject(StringData.FIRST.getKey()));
+        secondProcess.putToCache(StringData.FIRST.getKey(), StringData.THIRD.getValue());
+        assertEquals("Replaced object is not equal to expected", StringData.THIRD.getValue(),
+                firstProcess.getObject(StringData.FIRST.getKey()));
+        assertEquals("Lazy value is not equal to expected", StringData.SECOND.getValue(),
+                secondProcess.getLazyObject(StringData.SECOND.getKey()).get());
+    }
+
+    @Test
+    public void checkDeletionIsSharedBetweenProcesses() {
+        secondProcess.deleteObject(StringData.FIRST.getKey());
+        assertFalse("Object deleted by second process should be absent", firstProcess.containsKey(StringData.FIRST.getKey()));
+        assertFalse("Deleted object should be absent from strategy data",
+                firstProcess.getStrategyMap().containsKey(StringData.FIRST.getKey()));
+        assertEquals("Removed object is not equal to expected", StringData.SECOND.getValue(),
+                firstProcess.removeObject(StringData.SECOND.getKey()));
+        assertEquals("Cache should be empty for both processes", 0, secondProcess.size());
+    }
+
+    @Test
+    public void checkCapacityIsShared() {
+        firstProcess.getObject(StringData.FIRST.getKey());
+        firstProcess.getObject(StringData.SECOND.getKey());
+        secondProcess.putToCache(StringData.THIRD.getKey(), StringData.THIRD.getValue());
+        firstProcess.putToCache(StringData.FOURTH.getKey(), StringData.FOURTH.getValue());
+        assertEquals("Only 3 objects should be in shared cache", 3, secondProcess.size());
+        assertFalse("Least frequently used object should be substituted",
+                secondProcess.containsKey(StringData.THIRD.getKey()));
+    }
+
+    @Test
+    public void checkCompactionAndClearing() {
+        String value = new String(new char[16 * 1024]).replace('\0', 'v');
+        for (int i = 0; i < 200; ++i) {
+            (i % 2 == 0 ? firstProcess : secondProcess).putToCache(11, value + i);
+        }
+        assertTrue("Shared log should be compacted", secondProcess.getGeneration() > 0);
+        assertTrue("Garbage should be dropped by compaction", secondProcess.getUsage().getDiskBytes() < 4L * 1024 * 1024);
+        assertEquals("Replaced object is not equal to expected", value + 199, firstProcess.getObject(11));
+        assertEquals("Objects should survive compaction", StringData.FIRST.getValue(),
+                firstProcess.getObject(StringData.FIRST.getKey()));
+        long generation = firstProcess.getGeneration();
+        secondProcess.clearCache();
+        assertEquals("Cache cleared by second process should be empty for first", 0, firstProcess.size());
+        assertEquals("Clearing should start new generation", generation + 1, firstProcess.getGeneration());
+    }
+
+    @Test
+    public void checkWritesOfAnotherJvmAreVisible() throws IOException, InterruptedException {
+        assertEquals("Objects written by first process should be visible for second", 2, secondProcess.size());
+        Process process = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), AnotherJvm.class.getName(), directory.toString())
+                .redirectErrorStream(true).redirectOutput(new File(directory.toFile(), "jvm.out")).start();
+        assertTrue("Another JVM should finish", process.waitFor(60, TimeUnit.SECONDS));
+        Files.delete(directory.resolve("jvm.out"));
+        assertEquals("Another JVM should exit normally", 0, process.exitValue());
+
+        assertEquals("Retrieved object is not equal to expected", StringData.THIRD.getValue(),
+                secondProcess.getObject(StringData.THIRD.getKey()));
+        assertFalse("Object deleted by another JVM should be absent", secondProcess.containsKey(StringData.FIRST.getKey()));
+        assertEquals("Only 2 objects should be in shared cache", 2, firstProcess.size());
+    }
+
+    /**
+     * Writes objects to shared cache from separate JVM, so its file locks are really held by another process
+     */
+    public static class AnotherJvm {
+
+        public static void main(String[] args) {
+            SharedFileSystemCache<Integer, String> cache = new SharedFileSystemCache<>(Paths.get(args[0]),
+                    DEFAULT_CAPACITY, new LeastFrequentlyUsed());
+            cache.putToCache(StringData.THIRD.getKey(), StringData.THIRD.getValue());
+            cache.deleteObject(StringData.FIRST.getKey());
+        }
+    }
+
+    @Test
+    public void checkCorruptedRecordIsSkipped() throws IOException {
+        Path log = directory.resolve("cache-0.log");
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0x7F}), channel.size() / 4);
+        }
+        SharedFileSystemCache<Integer, String> thirdProcess = new SharedFileSystemCache<>(directory, DEFAULT_CAPACITY,
+                new LeastFrequentlyUsed());
+        assertFalse("Object of corrupted record should be absent", thirdProcess.containsKey(StringData.FIRST.getKey()));
+        assertEquals("Object after corrupted record should be read", StringData.SECOND.getValue(),
+                thirdProcess.getObject(StringData.SECOND.getKey()));
+        long size = Files.size(log);
+        thirdProcess.putToCache(StringData.THIRD.getKey(), StringData.THIRD.getValue());
+        assertTrue("Records after corrupted record shouldn't be truncated", Files.size(log) > size);
+        assertEquals("Retrieved object is not equal to expected", StringData.SECOND.getValue(),
+                secondProcess.getObject(StringData.SECOND.getKey()));
+        assertEquals("Retrieved object is not equal to expected", StringData.THIRD.getValue(),
+                secondProcess.getObject(StringData.THIRD.getKey()));
+    }
+
+    @Test
+    public void checkTornRecordIsTruncated() throws IOException {
+        Path log = directory.resolve("cache-0.log");
+        long size = Files.size(log);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(RecordCodec.HEADER_SIZE + 4);
+            header.putInt(RecordCodec.MAGIC).putInt(100).putInt(100).putInt(0).putInt(0).flip();
+            channel.write(header, size);
+        }
+        assertEquals("Objects before torn record should be read", 2, secondProcess.size());
+        secondProcess.putToCache(StringData.THIRD.getKey(), StringData.THIRD.getValue());
+        assertEquals("Retrieved object is not equal to expected", StringData.THIRD.getValue(),
+                firstProcess.getObject(StringData.THIRD.getKey()));
+        assertEquals("Retrieved object is not equal to expected", StringData.FIRST.getValue(),
+                firstProcess.getObject(StringData.FIRST.getKey()));
+    }
+}
@@ -0,0 +1,172 @@
+package com.github.darthyk.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs randomized multi-threaded histories of get, put, remove and clear operations against cache and records
+ * invocation and response time of every operation.
+ * <p>
+ * NOTE: operations of every thread are generated from seed and thread index, so the same seed gives the same
+ * operations, only scheduling of threads differs between runs. Every put writes unique value, so value returned
+ * by get or remove identifies the put it comes from.
+ */
+class StressHarness {
+    private static final int CLEAR_PERMILLE = 5;
+    private static final int REMOVE_PERMILLE = 150;
+    private static final int PUT_PERMILLE = 350;
+
+    enum Kind { GET, PUT, REMOVE, CLEAR }
+
+    static final class Operation {
+        final int thread;
+        final Kind kind;
+        final Integer key;
+        final String argument;
+        String result;
+        long invoked;
+        long returned;
+
+        Operation(int thread, Kind kind, Integer key, String argument) {
+            this.thread = thread;
+            this.kind = kind;
+            this.key = key;
+            this.argument = argument;
+        }
+
+        @Override
+        public String toString() {
+            return "thread " + thread + ": " + kind + (key == null ? "" : "(" + key
+                    + (argument == null ? "" : ", " + argument) + ")") + (kind == Kind.GET || kind == Kind.REMOVE
+                    ? " -> " + result : "") + " [" + invoked + ", " + returned + "]";
+        }
+    }
+
+    static final class History {
+        final List<Operation> operations;
+        final List<Throwable> failures;
+        final long elapsedNanos;
+
+        History(List<Operation> operations, List<Throwable> failures, long elapsedNanos) {
+            this.operations = operations;
+            this.failures = failures;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Retrieves amount of operations completed per second
+         *
+         * @return throughput of history
+         */
+        double getThroughput() {
+            return operations.size() * (double)TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsedNanos);
+        }
+    }
+
+    private final long seed;
+    private final int threads;
+    private final int operationsPerThread;
+    private final int keys;
+
+    /**
+     * Initializes harness
+     *
+     * @param seed Seed of generated operations
+     * @param threads Amount of threads
+     * @param operationsPerThread Amount of operations of every thread
+     * @param keys Amount of distinct keys
+     */
+    StressHarness(long seed, int threads, int operationsPerThread, int keys) {
+        this.seed = seed;
+        this.threads = threads;
+        this.operationsPerThread = operationsPerThread;
+        this.keys = keys;
+    }
+
+    /**
+     * Generates operations of provided thread
+     *
+     * @param thread Thread index
+     * @return operations of thread in order of execution
+     */
+    List<Operation> generate(int thread) {
+        Random random = new Random(seed * 31 + thread);
+        List<Operation> operations = new ArrayList<>(operationsPerThread);
+        for (int i = 0; i < operationsPerThread; ++i) {
+            int kind = random.nextInt(1000);
+            Integer key = random.nextInt(keys);
+            if (kind < CLEAR_PERMILLE) {
+                operations.add(new Operation(thread, Kind.CLEAR, null, null));
+            } else if (kind < CLEAR_PERMILLE + REMOVE_PERMILLE) {
+                operations.add(new Operation(thread, Kind.REMOVE, key, null));
+            } else if (kind < CLEAR_PERMILLE + REMOVE_PERMILLE + PUT_PERMILLE) {
+                operations.add(new Operation(thread, Kind.PUT, key, "t" + thread + "-" + i));
+            } else {
+                operations.add(new Operation(thread, Kind.GET, key, null));
+            }
+        }
+        return operations;
+    }
+
+    /**
+     * Runs generated operations of all threads against provided cache, threads are started together
+     *
+     * @param cache Cache under test
+     * @return recorded history
+     * @throws InterruptedException if waiting thread is interrupted
+     */
+    History run(Cache<Integer, String> cache) throws InterruptedException {
+        List<List<Operation>> operations = new ArrayList<>();
+        for (int thread = 0; thread < threads; ++thread) {
+            operations.add(generate(thread));
+        }
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (List<Operation> threadOperations : operations) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (Operation operation : threadOperations) {
+                        execute(cache, operation);
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }, "cache-stress-" + workers.size());
+            workers.add(worker);
+            worker.start();
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - started;
+        List<Operation> history = new ArrayList<>();
+        operations.forEach(history::addAll);
+        return new History(history, failures, elapsed);
+    }
+
+    private static void execute(Cache<Integer, String> cache, Operation operation) {
+        operation.invoked = System.nanoTime();
+        switch (operation.kind) {
+            case GET:
+                operation.result = cache.getObject(operation.key);
+                break;
+            case PUT:
+                cache.putToCache(operation.key, operation.argument);
+                break;
+            case REMOVE:
+                operation.result = cache.removeObject(operation.key);
+                break;
+            default:
+                cache.clearCache();
+        }
+        operation.returned = System.nanoTime();
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.darthyk.cache;
+
+import com.github.darthyk.cache.StressHarness.History;
+import com.github.darthyk.cache.StressHarness.Kind;
+import com.github.darthyk.cache.StressHarness.Operation;
+import com.github.darthyk.cache.strategies.LeastFrequentlyUsed;
+import com.github.darthyk.cache.strategies.LeastRecentlyUsed;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static junit.framework.TestCase.*;
+
+/**
+ * Seed of histories can be set by {@code cache.stress.seed} property and amount of seeds by
+ * {@code cache.stress.iterations} property, so failed run can be repeated with its seed.
+ */
+@Slf4j
+public class TwoLevelCacheStressTest {
+    private static final long SEED = Long.getLong("cache.stress.seed", 20240501L);
+    private static final int ITERATIONS = Integer.getInteger("cache.stress.iterations", 3);
+
+    private static void checkHistories(Supplier<TwoLevelCache<Integer, String>> cacheFactory, int threads,
+                                       int operationsPerThread, int keys) throws InterruptedException {
+        for (long seed = SEED; seed < SEED + ITERATIONS; ++seed) {
+            TwoLevelCache<Integer, String> cache = cacheFactory.get();
+            try {
+                History history = new StressHarness(seed, threads, operationsPerThread, keys).run(cache);
+                assertTrue("Operations failed with seed " + seed + ": " + history.failures, history.failures.isEmpty());
+                String violation = LinearizabilityChecker.findViolation(history.operations);
+                assertNull("Seed " + seed + ": " + violation, violation);
+            } finally {
+                cache.clearCache();
+            }
+        }
+    }
+
+    @Test
+    public void checkCheckerRejectsResurrectedValue() {
+        Operation put = operation(Kind.PUT, "value", null, 0, 1);
+        Operation miss = operation(Kind.GET, null, null, 2, 3);
+        Operation hit = operation(Kind.GET, null, "value", 4, 5);
+        assertTrue("Miss after put should be linearizable", LinearizabilityChecker.isLinearizable(Arrays.asList(put, miss)));
+        assertFalse("Evicted value shouldn't reappear", LinearizabilityChecker.isLinearizable(Arrays.asList(put, miss, hit)));
+        Operation concurrentMiss = operation(Kind.GET, null, null, 0, 5);
+        assertTrue("Concurrent miss can be ordered before put",
+                LinearizabilityChecker.isLinearizable(Arrays.asList(put, concurrentMiss, hit)));
+    }
+
+    private static Operation operation(Kind kind, String argument, String result, long invoked, long returned) {
+        Operation operation = new Operation(0, kind, 1, argument);
+        operation.result = result;
+        operation.invoked = invoked;
+        operation.returned = returned;
+        return operation;
+    }
+
+    @Test
+    public void checkHistoriesWithFileSystemLevel() throws InterruptedException {
+        checkHistories(() -> new TwoLevelCache<>(2, 3, new LeastFrequentlyUsed()), 4, 300, 8);
+    }
+
+    @Test
+    public void checkHistoriesWithFileSystemCache2Level() throws InterruptedException {
+        checkHistories(() -> new TwoLevelCache<>(new MemoryCache<>(2, new LeastRecentlyUsed()),
+                new FileSystemCache2<>(3, new LeastRecentlyUsed())), 4, 300, 8);
+    }
+
+    @Test
+    public void checkThroughputWithLargeCapacities() throws InterruptedException {
+        TwoLevelCache<Integer, String> cache = new TwoLevelCache<>(new MemoryCache<>(4096, new LeastFrequentlyUsed()),
+                new FileSystemCache2<>(4096, new LeastFrequentlyUsed()));
+        try {
+            History history = new StressHarness(SEED, 8, 2000, 1024).run(cache);
+            assertTrue("Operations failed: " + history.failures, history.failures.isEmpty());
+            String violation = LinearizabilityChecker.findViolation(history.operations);
+            assertNull("Seed " + SEED + ": " + violation, violation);
+            log.info("Seed {}: {} operations, {} operations per second", SEED, history.operations.size(),
+                    (long)history.getThroughput());
+        } finally {
+            cache.clearCache();
+        }
+    }
+}
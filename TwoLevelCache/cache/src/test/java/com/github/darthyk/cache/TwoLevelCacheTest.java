@@ -7,6 +7,20 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static junit.framework.TestCase.*;
 
 public class TwoLevelCacheTest extends TestData {
@@ -167,4 +181,427 @@ public class TwoLevelCacheTest extends TestData {
         cache.putToCache(IntegerData.FOURTH.getKey(), IntegerData.FOURTH.getValue());
         assertFalse("Cache has empty space", cache.hasEmptySpace());
     }
+
+    @Test
+    public void checkSecondLevelKeyFilter() {
+        cache.enableSecondLevelKeyFilter(100, 0.01);
+        cache.putToCache(IntegerData.FOURTH.getKey(), IntegerData.FOURTH.getValue());
+        cache.putToCache(IntegerData.FIFTH.getKey(), IntegerData.FIFTH.getValue());
+        assertEquals("Only 4 objects should be in cache",4, cache.size());
+        assertTrue("Cache doesn't contain object key", cache.containsKey(IntegerData.FIFTH.getKey()));
+        assertFalse("Cache contains non existent object key", cache.containsKey(100));
+        cache.removeObject(IntegerData.FOURTH.getKey());
+        assertFalse("Cache contains removed object key", cache.containsKey(IntegerData.FOURTH.getKey()));
+    }
+
+    @Test
+    public void checkKeyFilterIsIgnoredByUnsupportedLevel() {
+        TwoLevelCache<Integer, Integer> memoryOnly = new TwoLevelCache<>(new MemoryCache<>(2, new LeastFrequentlyUsed()),
+                new MemoryCache<>(2, new LeastFrequentlyUsed()));
+        assertFalse("Memory level doesn't support key filter", memoryOnly.enableSecondLevelKeyFilter(100, 0.01));
+        memoryOnly.putToCache(IntegerData.FIRST.getKey(), IntegerData.FIRST.getValue());
+        assertTrue("Cache doesn't contain object key", memoryOnly.containsKey(IntegerData.FIRST.getKey()));
+    }
+
+    @Test
+    public void checkRefreshAhead() throws InterruptedException {
+        AtomicInteger loadCounter = new AtomicInteger();
+        CountDownLatch loaded = new CountDownLatch(1);
+        cache.enableRefreshAhead(key -> {
+            loadCounter.incrementAndGet();
+            loaded.countDown();
+            return IntegerData.FIFTH.getValue();
+        }, 10, TimeUnit.MILLISECONDS, 1, 10);
+        cache.putToCache(IntegerData.FIRST.getKey(), IntegerData.FIRST.getValue());
+        assertEquals("Fresh object mustn't be reloaded", IntegerData.FIRST.getValue(),
+                cache.getObject(IntegerData.FIRST.getKey()));
+        assertEquals("Fresh object mustn't be reloaded", 0, loadCounter.get());
+
+        Thread.sleep(20);
+        assertEquals("Stale object should be returned while reloading", IntegerData.FIRST.getValue(),
+                cache.getObject(IntegerData.FIRST.getKey()));
+        assertTrue("Stale object wasn't reloaded", loaded.await(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        Object retrievedObject = cache.getObject(IntegerData.FIRST.getKey());
+        while (!IntegerData.FIFTH.getValue().equals(retrievedObject) && System.nanoTime() < deadline) {
+            Thread.yield();
+            retrievedObject = cache.getObject(IntegerData.FIRST.getKey());
+        }
+        assertEquals("Reloaded object should replace stale one", IntegerData.FIFTH.getValue(), retrievedObject);
+        assertEquals("Only 3 objects should be in cache",3, cache.size());
+        cache.close();
+    }
+
+    @Test
+    public void checkHotKeyReplication() {
+        cache.enableHotKeyReplication(16, 0.1, 1, TimeUnit.MINUTES);
+        for (int i = 0; i < 2000; ++i) {
+            assertEquals("Retrieved object is not equal to expected", IntegerData.FIRST.getValue(),
+                    cache.getObject(IntegerData.FIRST.getKey()));
+            if (i % 100 == 0) {
+                cache.getObject(StringData.SECOND.getKey());
+            }
+        }
+        assertTrue("Frequently read key should be hot", cache.isHotKey(IntegerData.FIRST.getKey()));
+        assertFalse("Rarely read key shouldn't be hot", cache.isHotKey(StringData.SECOND.getKey()));
+
+        cache.putToCache(IntegerData.FIRST.getKey(), IntegerData.FIFTH.getValue());
+        assertEquals("Replica should be invalidated by put", IntegerData.FIFTH.getValue(),
+                cache.getObject(IntegerData.FIRST.getKey()));
+        cache.removeObject(IntegerData.FIRST.getKey());
+        assertNull("Replica should be invalidated by removal", cache.getObject(IntegerData.FIRST.getKey()));
+    }
+
+    @Test
+    public void checkReplicaHitsAreRecordedAndEvictionDropsReplica() {
+        MemoryCache<Integer, String> firstLevel = new MemoryCache<>(1, new LeastFrequentlyUsed());
+        TwoLevelCache<Integer, String> replicatedCache = new TwoLevelCache<>(firstLevel,
+                new MemoryCache<>(1, new LeastFrequentlyUsed()));
+        replicatedCache.enableHotKeyReplication(16, 0.1, 1, TimeUnit.MINUTES);
+        replicatedCache.putToCache(1, "hot");
+        for (int i = 0; i < 1000; ++i) {
+            replicatedCache.getObject(1);
+        }
+        assertTrue("Frequently read key should be hot", replicatedCache.isHotKey(1));
+        assertTrue("Reads served by replica should be recorded by strategy", firstLevel.getStrategyData(1) > 1000);
+
+        replicatedCache.putToCache(2, "second");
+        replicatedCache.putToCache(3, "third");
+        replicatedCache.putToCache(4, "fourth");
+        assertNull("Replica should be dropped with evicted key", replicatedCache.getObject(1));
+        replicatedCache.close();
+    }
+
+    @Test
+    public void checkReplicaIsReadWithoutLevelLock() throws InterruptedException {
+        CountDownLatch levelLocked = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        AtomicInteger waitsFinished = new AtomicInteger();
+        MemoryCache<Integer, String> firstLevel = new MemoryCache<Integer, String>(4, new LeastFrequentlyUsed()) {
+            @Override
+            public boolean containsKey(Integer key) {
+                if (key == 99) {
+                    levelLocked.countDown();
+                    try {
+                        released.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    waitsFinished.incrementAndGet();
+                }
+                return super.containsKey(key);
+            }
+        };
+        TwoLevelCache<Integer, String> replicatedCache = new TwoLevelCache<>(firstLevel,
+                new MemoryCache<>(4, new LeastFrequentlyUsed()));
+        replicatedCache.enableHotKeyReplication(16, 0.1, 1, TimeUnit.MINUTES);
+        replicatedCache.putToCache(1, "hot");
+        for (int i = 0; i < 1000; ++i) {
+            replicatedCache.getObject(1);
+        }
+        replicatedCache.getObject(2);
+        long recordedAccesses = firstLevel.getStrategyData(1);
+
+        Thread lockHolder = new Thread(() -> replicatedCache.containsKey(99));
+        lockHolder.start();
+        try {
+            assertTrue("Level lock wasn't taken", levelLocked.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 1000; ++i) {
+                assertEquals("Replica should be read while level lock is held", "hot", replicatedCache.getObject(1));
+            }
+            assertEquals("Level lock should be held while replica is read", 0, waitsFinished.get());
+        } finally {
+            released.countDown();
+            lockHolder.join();
+        }
+        replicatedCache.getObject(2);
+        assertEquals("Replica hits should be recorded after level lock is released", recordedAccesses + 1000,
+                firstLevel.getStrategyData(1).longValue());
+        replicatedCache.close();
+    }
+
+    @Test
+    public void checkCacheEvents() throws InterruptedException {
+        List<CacheEventType> eventTypes = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(4);
+        cache.addCacheEventListener(events -> {
+            for (Object event : events) {
+                eventTypes.add(((CacheEvent)event).getType());
+                delivered.countDown();
+            }
+        });
+        cache.putToCache(IntegerData.FOURTH.getKey(), IntegerData.FOURTH.getValue());
+        cache.putToCache(IntegerData.FIFTH.getKey(), IntegerData.FIFTH.getValue());
+        cache.putToCache(IntegerData.FIFTH.getKey(), IntegerData.FIRST.getValue());
+        cache.removeObject(IntegerData.FIFTH.getKey());
+
+        assertTrue("Events weren't delivered", delivered.await(5, TimeUnit.SECONDS));
+        assertEquals("Unexpected events", Arrays.asList(CacheEventType.EVICTED, CacheEventType.DEMOTED,
+                CacheEventType.REPLACED, CacheEventType.EXPLICIT), eventTypes);
+        assertEquals("Events mustn't be dropped", 0, cache.getDroppedEventCount());
+    }
+
+    @Test
+    public void checkLevelEvictionsArePublished() throws InterruptedException {
+        MemoryCache<Integer, String> firstLevel = new MemoryCache<>(1, new LeastFrequentlyUsed());
+        TwoLevelCache<Integer, String> eventCache = new TwoLevelCache<>(firstLevel,
+                new MemoryCache<>(1, new LeastFrequentlyUsed()));
+        List<CacheEvent<Integer, String>> evictions = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        eventCache.addCacheEventListener(events -> {
+            evictions.addAll(events);
+            delivered.countDown();
+        });
+        eventCache.putToCache(1, "first");
+        firstLevel.putToCache(2, "second");
+
+        assertTrue("Events weren't delivered", delivered.await(5, TimeUnit.SECONDS));
+        assertEquals("Eviction by level should be published", CacheEventType.EVICTED, evictions.get(0).getType());
+        assertEquals("Evicted value is not equal to expected", "first", evictions.get(0).getValue());
+        eventCache.close();
+    }
+
+    @Test
+    public void checkCostAwareDemotion() {
+        CostAwareDemotionPolicy policy = cache.enableCostAwareDemotion(
+                (key, value) -> value instanceof String ? 1_000_000 : 0, 1, 0.1, 1024);
+        cache.putToCache(IntegerData.FOURTH.getKey(), IntegerData.FOURTH.getValue());
+        cache.getObject(StringData.SECOND.getKey());
+        cache.getObject(StringData.SECOND.getKey());
+
+        cache.putToCache(IntegerData.FIFTH.getKey(), IntegerData.FIFTH.getValue());
+        assertEquals("Cheap to reload object should be discarded", 1, policy.getDiscardedCount());
+        assertFalse("Discarded object shouldn't be in cache", cache.containsKey(IntegerData.FIRST.getKey()));
+        assertTrue("Second level cache shouldn't be touched", cache.containsKey(IntegerData.THIRD.getKey())
+                && cache.containsKey(IntegerData.FOURTH.getKey()));
+
+        for (int i = 0; i < 4; i++) {
+            cache.getObject(IntegerData.FIFTH.getKey());
+        }
+        cache.putToCache(6, "value6");
+        assertEquals("Expensive to reload object should be demoted", 1, policy.getDemotedCount());
+        assertTrue("Demoted object should be in cache", cache.containsKey(StringData.SECOND.getKey()));
+        assertEquals("Only 4 objects should be in cache", 4, cache.size());
+    }
+
+    @Test
+    public void checkSizeAwareAdmission() {
+        TwoLevelCache admissionCache = new TwoLevelCache(2, 4, new LeastFrequentlyUsed());
+        SizeAwareAdmission admission = admissionCache.enableSizeAwareAdmission(1024, 1.0);
+        admissionCache.putToCache(1, "value1");
+        admissionCache.putToCache(2, "value2");
+        admissionCache.putToCache(3, new String(new char[2048]));
+        assertEquals("Oversized object should bypass first level cache", 1, admission.getBypassedCount());
+        assertEquals("Only 2 objects should be in first level cache", 2,
+                admissionCache.getFirstLevelUsage().getEntries());
+        assertEquals("Only 1 object should be in second level cache", 1,
+                admissionCache.getSecondLevelUsage().getEntries());
+
+        admissionCache.getObject(1);
+        admissionCache.getObject(2);
+        admissionCache.putToCache(4, new String(new char[256]));
+        assertEquals("Object with lower hit density should bypass first level cache", 2,
+                admission.getBypassedCount());
+        assertEquals("Small objects should be admitted to first level cache", 2, admission.getAdmittedCount());
+        assertEquals("Retrieved object is not equal to expected", "value1", admissionCache.getObject(1));
+        assertEquals("Only 4 objects should be in cache", 4, admissionCache.size());
+        admissionCache.clearCache();
+    }
+
+    @Test
+    public void checkAdmissionPromotesNewHotObject() {
+        MemoryCache<Integer, String> firstLevel = new MemoryCache<>(2, new LeastFrequentlyUsed());
+        TwoLevelCache<Integer, String> admissionCache = new TwoLevelCache<>(firstLevel,
+                new MemoryCache<>(4, new LeastFrequentlyUsed()));
+        admissionCache.enableSizeAwareAdmission(1024, 1.0);
+        admissionCache.putToCache(1, "value1");
+        admissionCache.putToCache(2, "value2");
+        for (int i = 0; i < 100; i++) {
+            admissionCache.getObject(1);
+            admissionCache.getObject(2);
+        }
+        for (int key = 3; key <= 6; key++) {
+            admissionCache.putToCache(key, "value" + key);
+        }
+        assertFalse("New object shouldn't replace warm objects", firstLevel.containsKey(3));
+
+        for (int i = 0; i < 40; i++) {
+            assertEquals("Retrieved object is not equal to expected", "value3", admissionCache.getObject(3));
+        }
+        assertTrue("Recently hot object should be promoted over object which was hot long ago", firstLevel.containsKey(3));
+        admissionCache.clearCache();
+    }
+
+    @Test
+    public void checkLazyValue() throws IOException, ClassNotFoundException {
+        LazyValue secondLevelValue = cache.getLazy(IntegerData.THIRD.getKey());
+        assertFalse("Value of second level cache shouldn't be deserialized eagerly", secondLevelValue.isDecoded());
+        assertEquals("Serialized value is not equal to expected", IntegerData.THIRD.getValue(),
+                RecordCodec.deserialize(secondLevelValue.getSerializedValue()));
+        assertEquals("Retrieved object is not equal to expected", IntegerData.THIRD.getValue(), secondLevelValue.get());
+        assertTrue("Value should be deserialized on access", secondLevelValue.isDecoded());
+
+        LazyValue firstLevelValue = cache.getLazy(IntegerData.FIRST.getKey());
+        assertTrue("Value of first level cache should be decoded", firstLevelValue.isDecoded());
+        assertEquals("Retrieved object is not equal to expected", IntegerData.FIRST.getValue(), firstLevelValue.get());
+        assertNull("Absent object should have no handle", cache.getLazy(IntegerData.FIFTH.getKey()));
+    }
+
+    @Test
+    public void checkBulkInvalidation() throws Exception {
+        TwoLevelCache tenantCache = new TwoLevelCache(4, 8, new LeastFrequentlyUsed());
+        for (int i = 0; i < 5; i++) {
+            tenantCache.putToCache("tenantA:" + i, "value" + i);
+            tenantCache.putToCache("tenantB:" + i, "value" + i);
+        }
+        assertEquals("All objects of tenant should be invalidated", 5, tenantCache.invalidateByPrefix("tenantA:"));
+        assertEquals("Only 5 objects should be in cache", 5, tenantCache.size());
+        assertFalse("Invalidated object shouldn't be in cache", tenantCache.containsKey("tenantA:1"));
+        assertEquals("Retrieved object is not equal to expected", "value1", tenantCache.getObject("tenantB:1"));
+
+        CompletableFuture<Integer> invalidation = tenantCache.invalidateAllAsync(
+                key -> key.toString().startsWith("tenantB:"));
+        assertFalse("Invalidated object should be invisible immediately", tenantCache.containsKey("tenantB:2"));
+        assertNull("Invalidated object shouldn't be retrieved", tenantCache.getObject("tenantB:3"));
+        tenantCache.putToCache("tenantB:4", "newValue");
+        assertEquals("Object written after invalidation should be visible", "newValue",
+                tenantCache.getObject("tenantB:4"));
+
+        invalidation.get(10, TimeUnit.SECONDS);
+        assertEquals("Only object written after invalidation should be in cache", 1, tenantCache.size());
+        assertEquals("Retrieved object is not equal to expected", "newValue", tenantCache.getObject("tenantB:4"));
+        tenantCache.clearCache();
+    }
+
+    @Test
+    public void checkBackgroundInvalidationDoesNotBlockCache() throws Exception {
+        TwoLevelCache tenantCache = new TwoLevelCache(4, 8, new LeastFrequentlyUsed());
+        for (int i = 0; i < 5; i++) {
+            tenantCache.putToCache("tenantA:" + i, "value" + i);
+        }
+        CountDownLatch evaluating = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        CompletableFuture<Integer> invalidation = tenantCache.invalidateAllAsync(key -> {
+            if (Thread.currentThread().getName().equals("cache-invalidation")) {
+                evaluating.countDown();
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return key.toString().startsWith("tenantA:");
+        });
+        assertTrue("Predicate should be evaluated in background", evaluating.await(10, TimeUnit.SECONDS));
+        tenantCache.putToCache("tenantB:1", "value1");
+        assertEquals("Retrieved object is not equal to expected", "value1", tenantCache.getObject("tenantB:1"));
+        released.countDown();
+
+        tenantCache.close();
+        assertTrue("Close should wait for background invalidation", invalidation.isDone());
+        assertEquals("All objects of tenant should be invalidated", 5, (int) invalidation.get());
+    }
+
+    @Test
+    public void checkSnapshotExportImport() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            cache.getObject(IntegerData.THIRD.getKey());
+            cache.getObject(IntegerData.FIRST.getKey());
+        }
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        assertEquals("All objects should be exported", 3, cache.exportSnapshot(snapshot, 10));
+
+        TwoLevelCache<Integer, Serializable> warmCache = new TwoLevelCache<>(2, 2, new LeastFrequentlyUsed());
+        assertEquals("All objects should be imported", 3,
+                warmCache.importSnapshot(new ByteArrayInputStream(snapshot.toByteArray()), 2));
+        assertEquals("Retrieved object is not equal to expected", IntegerData.FIRST.getValue(),
+                warmCache.getObject(IntegerData.FIRST.getKey()));
+        assertEquals("Retrieved object is not equal to expected", StringData.SECOND.getValue(),
+                warmCache.getObject(StringData.SECOND.getKey()));
+        assertEquals("Retrieved object is not equal to expected", IntegerData.THIRD.getValue(),
+                warmCache.getObject(IntegerData.THIRD.getKey()));
+        warmCache.clearCache();
+
+        snapshot.reset();
+        assertEquals("Only 1 hottest object should be exported", 1, cache.exportSnapshot(snapshot, 1));
+        warmCache = new TwoLevelCache<>(2, 2, new LeastFrequentlyUsed());
+        warmCache.importSnapshot(new ByteArrayInputStream(snapshot.toByteArray()), 1);
+        assertTrue("Hottest object of first level should be imported",
+                warmCache.containsKey(IntegerData.FIRST.getKey()));
+        assertFalse("Cold object shouldn't be imported", warmCache.containsKey(StringData.SECOND.getKey()));
+        assertFalse("Objects of second level should be exported after objects of first level",
+                warmCache.containsKey(IntegerData.THIRD.getKey()));
+        warmCache.clearCache();
+    }
+
+    @Test
+    public void checkSnapshotReadingIsBounded() throws IOException {
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        cache.exportSnapshot(snapshot, 10);
+        byte[] corrupted = snapshot.toByteArray();
+        int header = 4 + 2 + 2 + LeastFrequentlyUsed.class.getName().length() + 8;
+        ByteBuffer.wrap(corrupted).putInt(header + 4, Integer.MAX_VALUE);
+        try {
+            new TwoLevelCache<Integer, Serializable>(2, 2, new LeastFrequentlyUsed()).importSnapshot(new ByteArrayInputStream(corrupted), 1);
+            fail("Chunk exceeding maximal size should be rejected");
+        } catch (IOException e) {
+            assertEquals("Unexpected error", "Corrupted snapshot chunk header", e.getMessage());
+        }
+
+        snapshot.reset();
+        try (CacheSnapshot.Writer writer = new CacheSnapshot.Writer(snapshot, LeastFrequentlyUsed.class.getName(), 1)) {
+            for (int i = 0; i < 5000; i++) {
+                writer.write(1, 1, i, i);
+            }
+        }
+        List<Integer> chunks = new ArrayList<>();
+        long read = CacheSnapshot.read(new ByteArrayInputStream(snapshot.toByteArray()), 1,
+                LeastFrequentlyUsed.class.getName(), 1, entries -> chunks.add(entries.size()) && chunks.size() < 2);
+        assertEquals("Reading should stop when consumer doesn't need further entries", 2, chunks.size());
+        assertEquals("Only entries of 2 chunks should be read", 2048, read);
+    }
+
+    @Test
+    public void checkAtomicOperations() throws InterruptedException {
+        assertEquals("Second level object should be computed", IntegerData.THIRD.getValue() + 1,
+                cache.computeIfPresent(IntegerData.THIRD.getKey(), (key, value) -> (Integer)value + 1));
+        assertEquals("Computed object should be cached", IntegerData.THIRD.getValue() + 1,
+                cache.getObject(IntegerData.THIRD.getKey()));
+        assertEquals("Present object shouldn't be computed", IntegerData.FIRST.getValue(),
+                cache.computeIfAbsent(IntegerData.FIRST.getKey(), key -> 0));
+        assertNull("Null result should remove object", cache.compute(IntegerData.FIRST.getKey(), (key, value) -> null));
+        assertFalse("Removed object shouldn't be in cache", cache.containsKey(IntegerData.FIRST.getKey()));
+
+        int threads = 8;
+        int increments = 1000;
+        CountDownLatch finished = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < increments; j++) {
+                    cache.merge(IntegerData.FIFTH.getKey(), 1, (oldValue, value) -> (Integer)oldValue + (Integer)value);
+                }
+                finished.countDown();
+            }).start();
+        }
+        assertTrue("Merging threads didn't finish", finished.await(30, TimeUnit.SECONDS));
+        assertEquals("Concurrent merges shouldn't be lost", threads * increments,
+                cache.getObject(IntegerData.FIFTH.getKey()));
+    }
+
+    @Test
+    public void checkAtomicOperationRepeatsAfterClearing() {
+        TwoLevelCache<Integer, Integer> computedCache = new TwoLevelCache<>(2, 2, new LeastFrequentlyUsed());
+        computedCache.putToCache(IntegerData.FIRST.getKey(), IntegerData.FIRST.getValue());
+        AtomicInteger calls = new AtomicInteger();
+        Integer computed = computedCache.compute(IntegerData.FIRST.getKey(), (key, value) -> {
+            if (calls.incrementAndGet() == 1) {
+                computedCache.clearCache();
+            }
+            return value == null ? 0 : value + 1;
+        });
+        assertEquals("Function should be repeated after clearing", 2, calls.get());
+        assertEquals("Computed object should be based on cleared cache", Integer.valueOf(0), computed);
+        assertEquals("Only computed object should be in cache", 1, computedCache.size());
+        computedCache.clearCache();
+    }
 }
@@ -0,0 +1,112 @@
+package com.github.darthyk.cache.simulator;
+
+import com.github.darthyk.cache.strategies.AdaptiveReplacement;
+import com.github.darthyk.cache.strategies.LeastFrequentlyUsed;
+import com.github.darthyk.cache.strategies.LeastRecentlyUsed;
+import com.github.darthyk.cache.strategies.MostRecentlyUsed;
+import com.github.darthyk.cache.strategies.Strategy;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static junit.framework.TestCase.*;
+
+public class SimulatorTest {
+
+    private static Simulator twoLevelSimulator(int firstCapacity, int secondCapacity,
+                                               Strategy strategy) {
+        return new Simulator(Arrays.asList(new SimulatedLevel(firstCapacity, strategy, 1, 1),
+                new SimulatedLevel(secondCapacity, strategy, 100, 100)), 10000, true);
+    }
+
+    @Test
+    public void checkTextTraceReplay() throws IOException {
+        Simulator simulator = new Simulator(Collections.singletonList(
+                new SimulatedLevel(2, new LeastRecentlyUsed(), 1, 1)), 100, true);
+        SimulationReport report = simulator.run(new TextTrace(new StringReader("# comment\n1\n2 get\n1\n\n3\n2\n")));
+        assertEquals("Only 5 events should be replayed", 5, report.getEvents());
+        assertEquals("Only one hit is expected", 1, report.getHits(0));
+        assertEquals("Only two evictions are expected", 2, report.getEvictions(0));
+    }
+
+    @Test
+    public void checkBinaryTraceReplay() throws IOException {
+        File file = File.createTempFile("trace", ".bin");
+        file.deleteOnExit();
+        BinaryTrace.write(SyntheticTrace.loop(3, 30), file);
+        Simulator simulator = twoLevelSimulator(2, 2, new LeastFrequentlyUsed());
+        try (Trace trace = new BinaryTrace(file)) {
+            SimulationReport report = simulator.run(trace);
+            assertEquals("Only 30 events should be replayed", 30, report.getEvents());
+            assertEquals("Only first accesses should miss", 3, report.getMisses());
+        }
+    }
+
+    @Test
+    public void checkDemotionsAndPromotions() throws IOException {
+        SimulationReport report = twoLevelSimulator(2, 4, new LeastRecentlyUsed()).run(SyntheticTrace.loop(4, 40));
+        assertEquals("Only first accesses should miss", 4, report.getMisses());
+        assertTrue("Entries should be demoted to the second level", report.getDemotions(0) > 0);
+        assertTrue("Entries should be promoted to the first level", report.getPromotions(1) > 0);
+        assertEquals("Every event is either hit or miss", report.getEvents(),
+                report.getHits(0) + report.getHits(1) + report.getMisses());
+        assertTrue("Second level hits should cost more", report.getEstimatedCost() > report.getHits(0));
+    }
+
+    @Test
+    public void checkLoopLargerThanCacheDefeatsLeastRecentlyUsed() throws IOException {
+        SimulationReport report = new Simulator(Collections.singletonList(
+                new SimulatedLevel(10, new LeastRecentlyUsed(), 1, 1)), 100, true).run(SyntheticTrace.loop(11, 1100));
+        assertEquals("Least Recently Used strategy mustn't hit on loop larger than cache", 0.0,
+                report.getTotalHitRatio());
+    }
+
+    @Test
+    public void checkAdaptiveReplacementResistsScan() throws IOException {
+        Trace trace = SyntheticTrace.mix(50, SyntheticTrace.zipf(50, 1.2, 20000, 1), SyntheticTrace.scan(1000, 20000));
+        SimulationReport adaptive = new Simulator(Collections.singletonList(
+                new SimulatedLevel(20, new AdaptiveReplacement(), 1, 1)), 100, true).run(trace);
+        trace = SyntheticTrace.mix(50, SyntheticTrace.zipf(50, 1.2, 20000, 1), SyntheticTrace.scan(1000, 20000));
+        SimulationReport recent = new Simulator(Collections.singletonList(
+                new SimulatedLevel(20, new LeastRecentlyUsed(), 1, 1)), 100, true).run(trace);
+        assertTrue("Adaptive Replacement strategy should outperform Least Recently Used strategy on scans",
+                adaptive.getTotalHitRatio() > recent.getTotalHitRatio());
+    }
+
+    @Test
+    public void checkMostRecentlyUsedHitsOnLoopLargerThanCache() throws IOException {
+        SimulationReport report = new Simulator(Collections.singletonList(
+                new SimulatedLevel(10, new MostRecentlyUsed(), 1, 1)), 100, true).run(SyntheticTrace.loop(11, 1100));
+        assertTrue("Most Recently Used strategy should hit on loop larger than cache",
+                report.getTotalHitRatio() > 0.8);
+    }
+
+    @Test
+    public void checkLeastFrequentlyUsedKeepsPopularKeys() throws IOException {
+        SimulationReport report = new Simulator(Collections.singletonList(
+                new SimulatedLevel(1000, new LeastFrequentlyUsed(), 1, 1)), 100, true)
+                .run(SyntheticTrace.zipf(100000, 1.0, 200000, 7));
+        assertEquals("Every event is either hit or miss", report.getEvents(), report.getHits(0) + report.getMisses());
+        assertTrue("Least Frequently Used strategy should keep popular keys", report.getTotalHitRatio() > 0.3);
+    }
+
+    @Test
+    public void checkKeyMapRemovalKeepsCollidingKeys() {
+        LongIntMap map = new LongIntMap(4);
+        for (int key = 0; key < 1000; ++key) {
+            map.put(key * 1024L, key);
+        }
+        for (int key = 0; key < 1000; key += 2) {
+            assertEquals("Removed value is not equal to expected", key, map.remove(key * 1024L));
+        }
+        assertEquals("Only 500 keys should be left", 500, map.size());
+        for (int key = 0; key < 1000; ++key) {
+            assertEquals("Retrieved value is not equal to expected", key % 2 == 0 ? LongIntMap.ABSENT : key,
+                    map.get(key * 1024L));
+        }
+    }
+}